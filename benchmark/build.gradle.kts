@@ -0,0 +1,44 @@
+/*
+ * JMH benchmarks for the simulation hot paths of the game.
+ *
+ * The game sources under src/ (and the resources under res/) are compiled
+ * as the main source set of this project, the benchmarks live in src/jmh.
+ *
+ * Run every benchmark with `./gradlew :benchmark:jmh`, or a subset with
+ * `./gradlew :benchmark:jmh -PjmhIncludes=Collision`. Results are written
+ * to benchmark/build/results/jmh.
+ */
+
+plugins {
+    java
+    alias(libs.plugins.jmh)
+}
+
+repositories {
+    mavenCentral()
+}
+
+sourceSets {
+    main {
+        java.setSrcDirs(listOf("../src"))
+        resources.setSrcDirs(listOf("../res"))
+    }
+}
+
+java {
+    toolchain {
+        languageVersion = JavaLanguageVersion.of(21)
+    }
+}
+
+tasks.withType<JavaCompile>().configureEach {
+    options.encoding = "UTF-8"
+}
+
+jmh {
+    jmhVersion = libs.versions.jmh
+    // Allocation rate and GC counts next to every score.
+    profilers = listOf("gc")
+    resultFormat = "JSON"
+    (findProperty("jmhIncludes") as String?)?.let { includes = listOf(it) }
+}
@@ -0,0 +1,61 @@
+package benchmark;
+
+import engine.Core;
+import engine.GameSettings;
+import engine.GameState;
+import engine.HeadlessSimulation;
+import engine.ScriptedInput;
+import screen.GameScreen;
+
+/**
+ * Builds headless game screens for the benchmarks.
+ *
+ */
+final class BenchmarkGame {
+
+	/** Screen width used by the game. */
+	static final int WIDTH = 630;
+	/** Screen height used by the game. */
+	static final int HEIGHT = 720;
+	/** Frames per second used by the game. */
+	static final int FPS = 60;
+	/** Seed of every benchmarked game, so each run plays the same one. */
+	static final long SEED = 1;
+
+	/**
+	 * Constructor, not called.
+	 */
+	private BenchmarkGame() {
+
+	}
+
+	/**
+	 * Creates an initialized first level screen, without window or sound.
+	 *
+	 * @param settings
+	 *            Difficulty settings of the level.
+	 * @return Screen ready to be updated.
+	 */
+	static GameScreen createScreen(final GameSettings settings) {
+		HeadlessSimulation.install(new ScriptedInput());
+		Core.getGameRandom().reseed(SEED);
+		GameState gameState = new GameState(1, 0, 3, 0, 0, 0, 0, 0, 0, 0, 0);
+		GameScreen screen = new GameScreen(gameState, settings, false, WIDTH,
+				HEIGHT, FPS);
+		screen.initialize();
+		return screen;
+	}
+
+	/**
+	 * Parses formation dimensions written as columns x rows.
+	 *
+	 * @param formation
+	 *            Dimensions, such as "8x7".
+	 * @return Settings for a formation of that size.
+	 */
+	static GameSettings settings(final String formation) {
+		String[] size = formation.split("x");
+		return new GameSettings(Integer.parseInt(size[0]),
+				Integer.parseInt(size[1]), 60, 2000, 1);
+	}
+}
@@ -0,0 +1,49 @@
+package benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import entity.BulletStore;
+
+/**
+ * Measures adding bullets to the store, moving them and removing them, as
+ * the game does when bullets are shot and then leave the screen.
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class BulletStoreBenchmark {
+
+	/** Bullets added before removing them. */
+	@Param({ "1", "16", "256" })
+	public int batch;
+
+	/** Store the bullets are added to. */
+	private final BulletStore bullets = new BulletStore();
+
+	/**
+	 * Adds a batch of bullets, moves them once and removes them.
+	 *
+	 * @return Amount of bullets removed.
+	 */
+	@Benchmark
+	public int addUpdateRemove() {
+		for (int i = 0; i < this.batch; i++)
+			this.bullets.add(i, 600, -6, 0);
+		this.bullets.update();
+		int removed = 0;
+		while (this.bullets.size() > 0) {
+			this.bullets.remove(0);
+			removed++;
+		}
+		return removed;
+	}
+}
@@ -0,0 +1,65 @@
+package benchmark;
+
+import java.awt.Color;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import entity.Bullet;
+import entity.Entity;
+import screen.GameScreen;
+
+/**
+ * Measures the narrow phase collision test between two entities.
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CollisionBenchmark {
+
+	/** Bullet checked against the ships. */
+	private Entity bullet;
+	/** Ship overlapping the bullet. */
+	private Entity hitShip;
+	/** Ship far from the bullet. */
+	private Entity missedShip;
+
+	/**
+	 * Places the entities.
+	 */
+	@Setup
+	public void setUp() {
+		this.bullet = new Bullet(100, 100, -6);
+		this.hitShip = new Entity(95, 95, 24, 16, Color.WHITE) {
+		};
+		this.missedShip = new Entity(400, 300, 24, 16, Color.WHITE) {
+		};
+	}
+
+	/**
+	 * Checks two overlapping entities.
+	 *
+	 * @return Collision result.
+	 */
+	@Benchmark
+	public boolean hit() {
+		return GameScreen.checkCollision(this.bullet, this.hitShip);
+	}
+
+	/**
+	 * Checks two distant entities.
+	 *
+	 * @return Collision result.
+	 */
+	@Benchmark
+	public boolean miss() {
+		return GameScreen.checkCollision(this.bullet, this.missedShip);
+	}
+}
@@ -0,0 +1,90 @@
+package benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import engine.DrawManager.SpriteType;
+import entity.Bullet;
+import entity.EnemyShip;
+import entity.EnemyShipFormation;
+import screen.GameScreen;
+
+/**
+ * Measures hitting a ship of the formation, for a regular ship and for an
+ * explosive one, whose explosion chains into its neighbours. Hits change
+ * the formation, so a new wave is created before every invocation; the
+ * measured times are short, so expect some noise from the setup.
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DestroyBenchmark {
+
+	/** Screen holding the formation. */
+	private GameScreen screen;
+	/** Formation of the current invocation. */
+	private EnemyShipFormation formation;
+	/** Regular ship to hit. */
+	private EnemyShip regularShip;
+	/** Explosive ship to hit. */
+	private EnemyShip explosiveShip;
+	/** Bullet hitting the ships. */
+	private Bullet bullet;
+
+	/**
+	 * Creates the screen.
+	 */
+	@Setup(Level.Trial)
+	public void setUpScreen() {
+		this.screen = BenchmarkGame.createScreen(
+				BenchmarkGame.settings("8x7"));
+		this.bullet = new Bullet(0, 0, -6);
+	}
+
+	/**
+	 * Creates a new wave and picks the ships to hit.
+	 */
+	@Setup(Level.Invocation)
+	public void setUpWave() {
+		this.screen.initialize();
+		this.formation = this.screen.getEnemyShipFormation();
+		this.regularShip = null;
+		this.explosiveShip = null;
+		for (EnemyShip enemyShip : this.formation) {
+			if (enemyShip.getSpriteType() == SpriteType.ExplosiveEnemyShip1)
+				this.explosiveShip = enemyShip;
+			else if (enemyShip.getHp() == 1)
+				this.regularShip = enemyShip;
+		}
+	}
+
+	/**
+	 * Hits a regular ship.
+	 *
+	 * @return Destroyed ships and points earned.
+	 */
+	@Benchmark
+	public int[] destroyRegular() {
+		return this.formation._destroy(this.bullet, this.regularShip, false);
+	}
+
+	/**
+	 * Hits an explosive ship, starting a chain explosion.
+	 *
+	 * @return Destroyed ships and points earned.
+	 */
+	@Benchmark
+	public int[] destroyExplosive() {
+		return this.formation._destroy(this.bullet, this.explosiveShip,
+				false);
+	}
+}
@@ -0,0 +1,62 @@
+package benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import engine.GameSettings;
+import engine.HeadlessSimulation;
+import engine.ScriptedInput;
+import entity.EnemyShipFormation;
+import screen.Screen;
+
+/**
+ * Measures the movement update of a full formation, in both of the shapes
+ * a formation can take.
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class FormationUpdateBenchmark {
+
+	/** Formation shape. */
+	@Param({ "grid", "circle" })
+	public String shape;
+	/** Formation size, columns x rows. */
+	@Param({ "5x4", "8x7" })
+	public String formation;
+
+	/** Formation being moved. */
+	private EnemyShipFormation enemyShipFormation;
+
+	/**
+	 * Creates formations until one has the requested shape.
+	 */
+	@Setup
+	public void setUp() {
+		HeadlessSimulation.install(new ScriptedInput());
+		GameSettings settings = BenchmarkGame.settings(this.formation);
+		boolean circle = "circle".equals(this.shape);
+		do {
+			this.enemyShipFormation = new EnemyShipFormation(settings);
+		} while (this.enemyShipFormation.isCircle() != circle);
+		this.enemyShipFormation.attach(new Screen(BenchmarkGame.WIDTH,
+				BenchmarkGame.HEIGHT, BenchmarkGame.FPS));
+	}
+
+	/**
+	 * Moves the formation one tick.
+	 */
+	@Benchmark
+	public void update() {
+		this.enemyShipFormation.update();
+	}
+}
@@ -0,0 +1,99 @@
+package benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import entity.BulletStore;
+import entity.EnemyShip;
+import entity.Obstacle;
+import screen.GameScreen;
+
+/**
+ * Measures a collision pass of the game screen with many bullets in flight.
+ * Bullets are placed between the formation and the ship, so the pass finds
+ * no hits and leaves the screen as it was: what is measured is the cost of
+ * looking for collisions, which is what every tick pays.
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ManageCollisionsBenchmark {
+
+	/** Upper side of the area bullets are placed in. */
+	private static final int BULLET_AREA_TOP = 500;
+	/** Height of the area bullets are placed in. */
+	private static final int BULLET_AREA_HEIGHT = 140;
+	/** Obstacles placed over the formation. */
+	private static final int OBSTACLES = 3;
+
+	/** Bullets in flight, half from the player and half from the enemies. */
+	@Param({ "10", "100", "1000" })
+	public int bullets;
+	/** Formation size, columns x rows. */
+	@Param({ "5x4", "8x7" })
+	public String formation;
+
+	/** Screen whose collisions are checked. */
+	private GameScreen screen;
+
+	/**
+	 * Creates the screen and fills it with bullets and obstacles.
+	 */
+	@Setup
+	public void setUp() {
+		this.screen = BenchmarkGame.createScreen(
+				BenchmarkGame.settings(this.formation));
+		for (int i = 0; i < this.bullets; i++) {
+			int x = (i * 37) % BenchmarkGame.WIDTH;
+			int y = BULLET_AREA_TOP + (i * 13) % BULLET_AREA_HEIGHT;
+			int speed = i % 2 == 0 ? -6 : 4;
+			this.screen.bullets.add(x, y, speed, 0);
+		}
+		for (int i = 0; i < OBSTACLES; i++)
+			this.screen.obstacles.add(new Obstacle(100 + i * 200, 20));
+	}
+
+	/**
+	 * Runs the collision pass of the game.
+	 */
+	@Benchmark
+	public void manageCollisions() {
+		this.screen.manageCollisions_add_item();
+	}
+
+	/**
+	 * Checks every player bullet against every enemy ship and obstacle,
+	 * like the collision pass did before it used a broadphase.
+	 *
+	 * @param blackhole
+	 *            Consumes the amount of collisions.
+	 */
+	@Benchmark
+	public void nestedLoopBaseline(final Blackhole blackhole) {
+		int collisions = 0;
+		BulletStore bullets = this.screen.bullets;
+		for (int i = 0; i < bullets.size(); i++) {
+			if (bullets.getOwner(i) == BulletStore.OWNER_ENEMY)
+				continue;
+			for (EnemyShip enemyShip : this.screen.getEnemyShipFormation())
+				if (!enemyShip.isDestroyed()
+						&& bullets.collides(i, enemyShip))
+					collisions++;
+			for (Obstacle obstacle : this.screen.obstacles)
+				if (!obstacle.isDestroyed()
+						&& bullets.collides(i, obstacle))
+					collisions++;
+		}
+		blackhole.consume(collisions);
+	}
+}
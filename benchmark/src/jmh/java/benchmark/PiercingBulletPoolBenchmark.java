@@ -0,0 +1,60 @@
+package benchmark;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import Enemy.PiercingBullet;
+import Enemy.PiercingBulletPool;
+
+/**
+ * Measures taking bullets from the pool and giving them back, as the game
+ * does when bullets are shot and then leave the screen.
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PiercingBulletPoolBenchmark {
+
+	/** Bullets taken before giving them back. */
+	@Param({ "1", "16", "256" })
+	public int batch;
+
+	/** Bullets taken from the pool. */
+	private final Set<PiercingBullet> taken = new HashSet<PiercingBullet>();
+
+	/**
+	 * Sizes the pool for a batch and fills it.
+	 */
+	@Setup
+	public void setUp() {
+		PiercingBulletPool.setCapacity(this.batch);
+		PiercingBulletPool.prewarm(this.batch);
+	}
+
+	/**
+	 * Takes a batch of bullets and recycles them.
+	 *
+	 * @return Amount of bullets recycled.
+	 */
+	@Benchmark
+	public int getAndRecycle() {
+		for (int i = 0; i < this.batch; i++)
+			this.taken.add(PiercingBulletPool.getPiercingBullet(i, 600, -6,
+					0));
+		int recycled = this.taken.size();
+		PiercingBulletPool.recycle(this.taken);
+		this.taken.clear();
+		return recycled;
+	}
+}
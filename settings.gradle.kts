@@ -12,3 +12,4 @@ plugins {
 
 rootProject.name = "test"
 include("app")
+include("benchmark")
@@ -0,0 +1,139 @@
+package CtrlS;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only file of the changes made to coin and gem since the last
+ * snapshot of them was saved. Each change is a fixed size entry: its
+ * sequence number, which currency it changes, the signed amount and a
+ * checksum, so an entry cut short by a crash is recognized and dropped.
+ * Each entry is forced to the disk before append() returns, so a change
+ * survives a power loss as well as a crash of the game.
+ */
+final class CurrencyJournal {
+
+    /** Currency of the entries changing coin. */
+    static final byte COIN = 0;
+    /** Currency of the entries changing gem. */
+    static final byte GEM = 1;
+
+    /** Bytes of each entry: sequence, currency, amount and checksum. */
+    private static final int ENTRY_SIZE = 8 + 1 + 4 + 4;
+
+    /** Called with every entry read back. */
+    @FunctionalInterface
+    interface EntryConsumer {
+        void accept(long sequence, byte currency, int amount);
+    }
+
+    /** Journal file. */
+    private final Path path;
+    /** Open journal, null until the first entry is written. */
+    private FileChannel channel;
+    /** Reused to lay out each entry. */
+    private final ByteBuffer entry = ByteBuffer.allocate(ENTRY_SIZE);
+    /** Reused to checksum each entry. */
+    private final CRC32 crc = new CRC32();
+
+    /**
+     * Constructor, nothing is read until replay() is called.
+     *
+     * @param path Journal file.
+     */
+    CurrencyJournal(Path path) {
+        this.path = path;
+    }
+
+    /**
+     * Reads every entry, in the order they were written, up to the first one
+     * that is damaged or cut short.
+     *
+     * @param consumer Called with each entry.
+     * @return Entries read.
+     * @throws IOException In case of loading problems.
+     */
+    int replay(EntryConsumer consumer) throws IOException {
+        ByteBuffer file;
+        try (FileChannel reader = FileChannel.open(path, StandardOpenOption.READ)) {
+            file = ByteBuffer.allocate((int) reader.size());
+            while (file.hasRemaining())
+                if (reader.read(file) < 0)
+                    break;
+        } catch (NoSuchFileException e) {
+            return 0;
+        }
+        file.flip();
+
+        int count = 0;
+        while (file.remaining() >= ENTRY_SIZE) {
+            int start = file.position();
+            long sequence = file.getLong();
+            byte currency = file.get();
+            int amount = file.getInt();
+            crc.reset();
+            crc.update(file.array(), start, ENTRY_SIZE - 4);
+            if (file.getInt() != (int) crc.getValue())
+                break;
+            consumer.accept(sequence, currency, amount);
+            count++;
+        }
+
+        // Later entries would be written after the damaged one and never read.
+        int valid = count * ENTRY_SIZE;
+        if (valid < file.limit()) {
+            open();
+            channel.truncate(valid);
+        }
+        return count;
+    }
+
+    /**
+     * Adds an entry at the end of the journal, and waits until it is on the
+     * disk.
+     *
+     * @param sequence Sequence number, higher than every earlier one.
+     * @param currency COIN or GEM.
+     * @param amount   Amount added, negative when spent.
+     * @throws IOException In case of saving problems.
+     */
+    void append(long sequence, byte currency, int amount) throws IOException {
+        open();
+        entry.clear();
+        entry.putLong(sequence).put(currency).putInt(amount);
+        crc.reset();
+        crc.update(entry.array(), 0, ENTRY_SIZE - 4);
+        entry.putInt((int) crc.getValue());
+        entry.flip();
+        while (entry.hasRemaining())
+            channel.write(entry);
+        // Only the entry matters, not when the file was last modified.
+        channel.force(false);
+    }
+
+    /**
+     * Drops every entry, once a snapshot including them is saved.
+     *
+     * @throws IOException In case of saving problems.
+     */
+    void truncate() throws IOException {
+        open();
+        channel.truncate(0);
+    }
+
+    /**
+     * Opens the journal for writing, if it isn't yet.
+     *
+     * @throws IOException In case of saving problems.
+     */
+    private void open() throws IOException {
+        if (channel == null)
+            channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+}
@@ -2,13 +2,18 @@ package CtrlS;
 
 import engine.Core;
 import engine.FileManager;
-import engine.GameState;
 
 import java.io.IOException;
 import java.util.logging.Logger;
 
 
-
+/**
+ * Keeps the coin and gem of the player in memory. They are loaded once:
+ * the last snapshot saved, plus the changes journaled after it. Reads never
+ * touch the disk, and every change is a single small entry appended to the
+ * journal. Every COMPACT_EVERY entries, a new snapshot is saved and the
+ * journal starts over.
+ */
 public final class CurrencyManager {
 
     /** Singleton instance of the class. */
@@ -17,18 +22,46 @@ public final class CurrencyManager {
     private static Logger logger;
     private static FileManager fileManager;
 
+    /** Name of the journal file, next to the save file. */
+    private static final String JOURNAL_FILE = "currency.journal";
+    /** Journal entries written before they are folded into a snapshot. */
+    private static final int COMPACT_EVERY = 64;
+
+    /** Current coin. */
+    private int coin;
+    /** Current gem. */
+    private int gem;
+    /** Sequence number of the last change. */
+    private long sequence;
+    /** Changes journaled since the last snapshot. */
+    private int journaled;
+    /** Changes since the last snapshot, null if the journal can't be used. */
+    private CurrencyJournal journal;
+
     /**
      * private constructor.
      */
     private CurrencyManager() {
         fileManager = Core.getFileManager();
         logger = Core.getLogger();
+        try {
+            coin = fileManager.loadCoin();
+            gem = fileManager.loadGem();
+            sequence = fileManager.loadCurrencySequence();
+            journal = new CurrencyJournal(fileManager.getSaveFile(JOURNAL_FILE).toPath());
+            journal.replay(this::replayed);
+            if (journaled >= COMPACT_EVERY)
+                compact();
+        } catch (IOException e) {
+            logger.warning("Couldn't load currency journal, saving snapshots only: " + e);
+            journal = null;
+        }
     }
 
     /**
-     * Returns shared instance of FileManager.
+     * Returns shared instance of CurrencyManager.
      *
-     * @return Shared instance of FileManager.
+     * @return Shared instance of CurrencyManager.
      */
     public static CurrencyManager getInstance() {
         if (instance == null)
@@ -39,20 +72,16 @@ public final class CurrencyManager {
     /**
      * Add an amount of money to the current coin.
      */
-    public void addCoin(int amount) throws IOException {
-        int current_coin = fileManager.loadCoin();
-        amount += current_coin;
-        fileManager.saveCoin(amount);
+    public synchronized void addCoin(int amount) throws IOException {
+        change(CurrencyJournal.COIN, amount);
     }
 
     /**
      * Consume as much coin as the amount you have (cannot spend more than you currently have).
      */
-    public boolean spendCoin(int amount) throws IOException {
-        int current_coin = fileManager.loadCoin();
-        if (amount <= current_coin) {
-            current_coin -= amount;
-            fileManager.saveCoin(current_coin);
+    public synchronized boolean spendCoin(int amount) throws IOException {
+        if (amount <= coin) {
+            change(CurrencyJournal.COIN, -amount);
             return true;
         }
         else {
@@ -60,29 +89,25 @@ public final class CurrencyManager {
         }
     }
 
-    public int getCoin() throws IOException {
-        return fileManager.loadCoin();
+    public synchronized int getCoin() throws IOException {
+        return coin;
     }
 
     /**
      * Add an amount of gem to the current gem.
      */
     // Team-Ctrl-S(Currency)
-    public void addGem(int amount) throws IOException {
-        int current_gem = fileManager.loadGem();
-        amount += current_gem;
-        fileManager.saveGem(amount);
+    public synchronized void addGem(int amount) throws IOException {
+        change(CurrencyJournal.GEM, amount);
     }
 
     /**
      * Consume as much gem as the amount you have (cannot spend more than you currently have).
      */
     // Team-Ctrl-S(Currency)
-    public boolean spendGem(int amount) throws IOException {
-        int current_gem = fileManager.loadGem();
-        if (amount <= current_gem) {
-            current_gem -= amount;
-            fileManager.saveGem(current_gem);
+    public synchronized boolean spendGem(int amount) throws IOException {
+        if (amount <= gem) {
+            change(CurrencyJournal.GEM, -amount);
             return true;
         }
         else {
@@ -91,8 +116,70 @@ public final class CurrencyManager {
     }
 
     // Team-Ctrl-S(Currency)
-    public int getGem() throws IOException {
-        return fileManager.loadGem();
+    public synchronized int getGem() throws IOException {
+        return gem;
+    }
+
+    /**
+     * Applies a change and journals it.
+     *
+     * @param currency CurrencyJournal.COIN or CurrencyJournal.GEM.
+     * @param amount   Amount added, negative when spent.
+     * @throws IOException In case of saving problems.
+     */
+    private void change(byte currency, int amount) throws IOException {
+        apply(currency, amount);
+        sequence++;
+        if (journal == null) {
+            fileManager.saveCurrency(coin, gem, sequence);
+            return;
+        }
+        journal.append(sequence, currency, amount);
+        if (++journaled >= COMPACT_EVERY)
+            compact();
+    }
+
+    /**
+     * Applies a change read back from the journal, unless the snapshot
+     * already includes it.
+     *
+     * @param entrySequence Sequence number of the change.
+     * @param currency      CurrencyJournal.COIN or CurrencyJournal.GEM.
+     * @param amount        Amount added, negative when spent.
+     */
+    private void replayed(long entrySequence, byte currency, int amount) {
+        if (entrySequence <= sequence)
+            return;
+        apply(currency, amount);
+        sequence = entrySequence;
+        journaled++;
+    }
+
+    /**
+     * Changes the coin or gem in memory.
+     *
+     * @param currency CurrencyJournal.COIN or CurrencyJournal.GEM.
+     * @param amount   Amount added, negative when spent.
+     */
+    private void apply(byte currency, int amount) {
+        if (currency == CurrencyJournal.COIN)
+            coin += amount;
+        else
+            gem += amount;
+    }
+
+    /**
+     * Saves a snapshot of coin and gem and empties the journal. The snapshot
+     * is on disk before the journal is emptied, and records the last change
+     * it includes, so a crash in between doesn't apply any change twice.
+     *
+     * @throws IOException In case of saving problems.
+     */
+    private void compact() throws IOException {
+        fileManager.saveCurrency(coin, gem, sequence);
+        fileManager.flushSaves();
+        journal.truncate();
+        journaled = 0;
     }
 
 }
@@ -5,6 +5,8 @@ import engine.FileManager;
 
 import java.io.IOException;
 import java.text.DecimalFormat;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Properties;
 import java.util.logging.Logger;
 import inventory_develop.ShipStatus;
@@ -31,6 +33,11 @@ public final class UpgradeManager {
     // load stat increase data
     private static ShipStatus shipStatus;
 
+    /** Upgrade statuses, loaded once and kept in memory. */
+    private Properties status;
+    /** Called when an upgrade changes. */
+    private final List<UpgradeChangedCallback> upgradeChangedCallbacks;
+
 
     /** Decimal format to ensure values have one decimal place. */
     private static final DecimalFormat decimalFormat = new DecimalFormat("#.#");
@@ -42,10 +49,12 @@ public final class UpgradeManager {
         fileManager = Core.getFileManager();
         logger = Core.getLogger();
         try{
-            Core.getFileManager().saveUpgradeStatus(Core.getFileManager().loadUpgradeStatus());
+            status = fileManager.loadUpgradeStatus();
+            fileManager.saveUpgradeStatus(status);
         } catch (IOException e){
             throw new RuntimeException(e);
         }
+        upgradeChangedCallbacks = new ArrayList<>();
         // load stat increase data
         shipStatus = new ShipStatus();
         shipStatus.loadStatus();
@@ -63,6 +72,47 @@ public final class UpgradeManager {
         return instance;
     }
 
+    /*
+        Callbacks
+     */
+    @FunctionalInterface
+    public interface UpgradeChangedCallback {
+        void onUpgradeChanged(UpgradeManager upgradeManager);
+    }
+
+    public void addUpgradeChangedCallback(UpgradeChangedCallback callback){
+        upgradeChangedCallbacks.add(callback);
+    }
+
+    public void removeUpgradeChangedCallback(UpgradeChangedCallback callback){
+        upgradeChangedCallbacks.remove(callback);
+    }
+
+    /**
+     * Changes an upgrade status in memory, saves every status in the
+     * background and notifies the callbacks.
+     *
+     * @param key Upgrade key.
+     * @param value New value.
+     */
+    private void setStatus(String key, String value) {
+        status.setProperty(key, value);
+        changed();
+    }
+
+    /**
+     * Hands the statuses to the save store and notifies the callbacks.
+     */
+    private void changed() {
+        try {
+            fileManager.saveUpgradeStatus(status);
+        } catch (IOException e) {
+            logger.warning("Couldn't save upgrade statuses: " + e);
+        }
+        for (UpgradeChangedCallback callback : new ArrayList<>(upgradeChangedCallbacks))
+            callback.onUpgradeChanged(this);
+    }
+
     // Methods for coin acquisition multiplier
 
     /**
@@ -72,8 +122,7 @@ public final class UpgradeManager {
      * @throws IOException In case of loading problems.
      */
     public double getCoinAcquisitionMultiplier() throws IOException {
-        Properties properties = fileManager.loadUpgradeStatus();
-        return Double.parseDouble(properties.getProperty(COIN_ACQUISITION_MULTIPLIER, "1.0"));
+        return Double.parseDouble(status.getProperty(COIN_ACQUISITION_MULTIPLIER, "1.0"));
     }
 
     /**
@@ -89,9 +138,7 @@ public final class UpgradeManager {
         // Format the value to one decimal place
         String formattedValue = decimalFormat.format(currentValue);
 
-        Properties properties = fileManager.loadUpgradeStatus();
-        properties.setProperty(COIN_ACQUISITION_MULTIPLIER, formattedValue);
-        fileManager.saveUpgradeStatus(properties);
+        setStatus(COIN_ACQUISITION_MULTIPLIER, formattedValue);
     }
 
     // Methods for attack speed
@@ -103,8 +150,7 @@ public final class UpgradeManager {
      * @throws IOException In case of loading problems.
      */
     public int getAttackSpeed() throws IOException {
-        Properties properties = fileManager.loadUpgradeStatus();
-        return Integer.parseInt(properties.getProperty(ATTACK_SPEED, "1"));
+        return Integer.parseInt(status.getProperty(ATTACK_SPEED, "1"));
     }
 
     /**
@@ -116,9 +162,7 @@ public final class UpgradeManager {
     public void addAttackSpeed() throws IOException {
         int currentValue = getAttackSpeed();
         currentValue += shipStatus.getSuootingInIn();
-        Properties properties = fileManager.loadUpgradeStatus();
-        properties.setProperty(ATTACK_SPEED, Integer.toString(currentValue));
-        fileManager.saveUpgradeStatus(properties);
+        setStatus(ATTACK_SPEED, Integer.toString(currentValue));
     }
 
     // Methods for movement speed
@@ -130,8 +174,7 @@ public final class UpgradeManager {
      * @throws IOException In case of loading problems.
      */
     public double getMovementSpeed() throws IOException {
-        Properties properties = fileManager.loadUpgradeStatus();
-        return Double.parseDouble(properties.getProperty(MOVEMENT_SPEED, "1"));
+        return Double.parseDouble(status.getProperty(MOVEMENT_SPEED, "1"));
     }
 
     /**
@@ -143,9 +186,7 @@ public final class UpgradeManager {
     public void addMovementSpeed() throws IOException {
         double currentValue = getMovementSpeed();
         currentValue += shipStatus.getSpeedIn();
-        Properties properties = fileManager.loadUpgradeStatus();
-        properties.setProperty(MOVEMENT_SPEED, Double.toString(currentValue));
-        fileManager.saveUpgradeStatus(properties);
+        setStatus(MOVEMENT_SPEED, Double.toString(currentValue));
     }
 
     /**
@@ -154,8 +195,33 @@ public final class UpgradeManager {
      * @throws IOException In case of saving problems.
      */
     public void resetUpgrades() throws IOException {
-        Properties properties = fileManager.loadDefaultUpgradeStatus();
-        fileManager.saveUpgradeStatus(properties);
+        status = fileManager.loadDefaultUpgradeStatus();
+        changed();
+    }
+
+    /**
+     * Returns a copy of every upgrade status, to record with a replay.
+     *
+     * @return Upgrade statuses.
+     */
+    public Properties getStatus() {
+        Properties copy = new Properties();
+        for (String key : status.stringPropertyNames())
+            copy.setProperty(key, status.getProperty(key));
+        return copy;
+    }
+
+    /**
+     * Replaces every upgrade status, such as with the ones a replay was
+     * recorded with.
+     *
+     * @param statuses Upgrade statuses.
+     */
+    public void restoreStatus(Properties statuses) {
+        status = new Properties();
+        for (String key : statuses.stringPropertyNames())
+            status.setProperty(key, statuses.getProperty(key));
+        changed();
     }
 
     // --- produce inventory team ---
@@ -163,64 +229,49 @@ public final class UpgradeManager {
     // Methods for bullet Number
 
     public int getBulletNum() throws IOException {
-        Properties properties = fileManager.loadUpgradeStatus();
-        return Integer.parseInt(properties.getProperty(BULLET_NUM, "1"));
+        return Integer.parseInt(status.getProperty(BULLET_NUM, "1"));
     }
 
     public void addBulletNum() throws IOException {
         int currentValue = getBulletNum();
         currentValue += 1;
-        Properties properties = fileManager.loadUpgradeStatus();
-        properties.setProperty(BULLET_NUM, Integer.toString(currentValue));
-        fileManager.saveUpgradeStatus(properties);
+        setStatus(BULLET_NUM, Integer.toString(currentValue));
     }
 
 
     public int getSpeedCount() throws IOException {
-        Properties properties = fileManager.loadUpgradeStatus();
-        return Integer.parseInt(properties.getProperty(Speed_Count, "1"));
+        return Integer.parseInt(status.getProperty(Speed_Count, "1"));
     }
     public int getAttackCount() throws IOException {
-        Properties properties = fileManager.loadUpgradeStatus();
-        return Integer.parseInt(properties.getProperty(Attack_Count, "1"));
+        return Integer.parseInt(status.getProperty(Attack_Count, "1"));
     }
     public int getBulletCount() throws IOException {
-        Properties properties = fileManager.loadUpgradeStatus();
-        return Integer.parseInt(properties.getProperty(Bullet_Count, "1"));
+        return Integer.parseInt(status.getProperty(Bullet_Count, "1"));
     }
     public int getCoinCount() throws IOException {
-        Properties properties = fileManager.loadUpgradeStatus();
-        return Integer.parseInt(properties.getProperty(Coin_Count, "1"));
+        return Integer.parseInt(status.getProperty(Coin_Count, "1"));
     }
 
 
     public void addSpeedCount() throws IOException {
         int currentValue = getSpeedCount();
         currentValue += 1;
-        Properties properties = fileManager.loadUpgradeStatus();
-        properties.setProperty(Speed_Count, Integer.toString(currentValue));
-        fileManager.saveUpgradeStatus(properties);
+        setStatus(Speed_Count, Integer.toString(currentValue));
     }
     public void addAttackCount() throws IOException {
         int currentValue = getAttackCount();
         currentValue += 1;
-        Properties properties = fileManager.loadUpgradeStatus();
-        properties.setProperty(Attack_Count, Integer.toString(currentValue));
-        fileManager.saveUpgradeStatus(properties);
+        setStatus(Attack_Count, Integer.toString(currentValue));
     }
     public void addBulletCount() throws IOException {
         int currentValue = getBulletCount();
         currentValue += 1;
-        Properties properties = fileManager.loadUpgradeStatus();
-        properties.setProperty(Bullet_Count, Integer.toString(currentValue));
-        fileManager.saveUpgradeStatus(properties);
+        setStatus(Bullet_Count, Integer.toString(currentValue));
     }
     public void addCoinCount() throws IOException {
         int currentValue = getCoinCount();
         currentValue += 1;
-        Properties properties = fileManager.loadUpgradeStatus();
-        properties.setProperty(Coin_Count, Integer.toString(currentValue));
-        fileManager.saveUpgradeStatus(properties);
+        setStatus(Coin_Count, Integer.toString(currentValue));
     }
 
     public int Price(int i){
@@ -1,10 +1,17 @@
 package Enemy;
 
 import java.awt.Color;
+import engine.Core;
+import engine.GameRandom;
 import entity.EnemyShip;
 
 public class HpEnemyShip {
 
+    /** Color of ships with 2 hp, yellow */
+    public static final Color HP_TWO_COLOR = new Color(0xFFEB3B);
+    /** Color of ships with 3 hp, orange */
+    public static final Color HP_THREE_COLOR = new Color(0xFFA500);
+
     private static double magentaProbability = 0.1; //set basic probability
 
     /**
@@ -43,11 +50,12 @@ public class HpEnemyShip {
                                     // set basic color WHITE
 
         if (hp == 2)
-            return new Color(0xFFEB3B);
+            return HP_TWO_COLOR;
         else if (hp == 3)
-            return new Color(0xFFA500);
+            return HP_THREE_COLOR;
         else if (hp == 1)
-            return Math.random() < magentaProbability ? Color.MAGENTA : Color.WHITE;
+            return Core.getGameRandom().chance(GameRandom.Stream.ENEMY_COLORS, magentaProbability)
+                    ? Color.MAGENTA : Color.WHITE;
         return Color.WHITE;
     }
 
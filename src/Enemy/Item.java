@@ -1,13 +1,13 @@
 package Enemy;
 
 import java.awt.Color;
+import java.nio.ByteBuffer;
 
-import engine.DrawManager.SpriteType;
+import engine.Core;
+import engine.GameRandom;
 import entity.Entity;
-import inventory_develop.ShipStatus;
 
 public class Item extends Entity {
-    private final ShipStatus shipStatus = new ShipStatus();
     private int speed;
     public Item(final int positionX, final int positionY, final int speed, final int type) {
         super(positionX, positionY, 3 * 2, 5 * 2, Color.yellow);
@@ -16,45 +16,11 @@ public class Item extends Entity {
     }
 
     public final void setSprite() {
-        double rdItem = Math.random();
-        shipStatus.loadProbability();
-        double bombP = shipStatus.getBomb_probability();
-        double PierceP = shipStatus.getPierce_probability();
-        double ShieldP = shipStatus.getShield_probability();
-        double HearthP = shipStatus.getHearth_probability();
-        double FeverP = shipStatus.getFeverTimeProbability();
-        double SpeedUpP = shipStatus.getSpeedUpProbability();
-        double SpeedSlowP = shipStatus.getSpeedSlowProbability();
-
-        // Import odds from properties file for easy balance patches
-        if (rdItem < bombP) { // 30%
-            this.spriteType = SpriteType.ItemBomb;
-            this.setColor(Color.gray);
-        } else if (rdItem < bombP + PierceP) { // 0% - Fixing error
-            this.spriteType = SpriteType.ItemPierce;
-            this.setColor(Color.white);
-        } else if (rdItem < bombP + PierceP + ShieldP) { // 20%
-            this.spriteType = SpriteType.ItemBarrier;
-            this.setColor(Color.green);
-        } else if (rdItem < bombP + PierceP + ShieldP + HearthP) { // 100%
-            this.spriteType = SpriteType.ItemHeart;
-            this.setColor(Color.red);
-        } else if (rdItem < bombP + PierceP + ShieldP + HearthP + FeverP ) {
-            this.spriteType = SpriteType.ItemFeverTime;
-            this.setColor(Color.yellow);
-        }
-        else if (rdItem < bombP + PierceP + ShieldP + HearthP + SpeedUpP) {
-            this.spriteType = SpriteType.ItemSpeedUp;
-            this.setColor(Color.CYAN);
-        }
-        else if (rdItem < bombP + PierceP + ShieldP + HearthP + SpeedUpP + SpeedSlowP) {
-            this.spriteType = SpriteType.ItemSpeedSlow;
-            this.setColor(Color.ORANGE);
-        }
-        else {
-            this.spriteType = SpriteType.ItemCoin;
-            this.setColor(Color.yellow);
-        }
+        // Odds are imported once from the properties file for easy balance patches
+        ItemDropTable dropTable = ItemDropTable.getInstance();
+        int drop = dropTable.pick(Core.getGameRandom().nextDouble(GameRandom.Stream.ITEM_TYPES));
+        this.spriteType = dropTable.getSpriteType(drop);
+        this.setColor(dropTable.getColor(drop));
     }
 
     public final void update() {
@@ -67,5 +33,25 @@ public class Item extends Entity {
         return this.speed;
     }
 
+    /**
+     * Writes the state of the item for a snapshot of the game.
+     *
+     * @param buffer Buffer to write to.
+     */
+    public final void writeState(final ByteBuffer buffer) {
+        writeEntityState(buffer);
+        buffer.putInt(this.speed);
+    }
+
+    /**
+     * Restores the state written by writeState().
+     *
+     * @param buffer Buffer to read from.
+     */
+    public final void readState(final ByteBuffer buffer) {
+        readEntityState(buffer);
+        this.speed = buffer.getInt();
+    }
+
 
 }
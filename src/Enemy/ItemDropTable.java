@@ -0,0 +1,159 @@
+package Enemy;
+
+import java.awt.Color;
+
+import engine.DrawManager.SpriteType;
+import inventory_develop.ShipStatus;
+
+/**
+ * Chooses the kind of each dropped item. The odds are read once from
+ * StatusConfig.properties and turned into an alias table, so a drop is
+ * picked from a single random number in constant time, without reading
+ * files or allocating.
+ *
+ * The odds are the ones of the chain of thresholds items used to be picked
+ * with: every kind takes the range between the highest threshold before it
+ * and its own one, and coins take whatever is left up to 1. The speed items
+ * skip the fever time probability in their thresholds, like that chain did.
+ */
+public final class ItemDropTable {
+
+    /** Kinds of item, in the order their thresholds were checked. */
+    private static final SpriteType[] SPRITES = {
+            SpriteType.ItemBomb, SpriteType.ItemPierce, SpriteType.ItemBarrier,
+            SpriteType.ItemHeart, SpriteType.ItemFeverTime, SpriteType.ItemSpeedUp,
+            SpriteType.ItemSpeedSlow, SpriteType.ItemCoin };
+    /** Color of each kind of item. */
+    private static final Color[] COLORS = {
+            Color.gray, Color.white, Color.green, Color.red, Color.yellow,
+            Color.CYAN, Color.ORANGE, Color.yellow };
+
+    /** Singleton instance of the class. */
+    private static ItemDropTable instance;
+
+    /** Chance of keeping each column instead of taking its alias. */
+    private final double[] keep;
+    /** Kind taken by each column when it is not kept. */
+    private final int[] alias;
+
+    /**
+     * Builds the table from the odds of each kind.
+     *
+     * @param weights Odds of each kind of item, in SPRITES order.
+     */
+    ItemDropTable(double[] weights) {
+        int n = weights.length;
+        this.keep = new double[n];
+        this.alias = new int[n];
+
+        double total = 0;
+        for (double weight : weights)
+            total += weight;
+
+        // Vose's method: scale the odds so the average column is 1, then let
+        // every column under 1 borrow the rest from one over 1.
+        double[] scaled = new double[n];
+        int[] small = new int[n];
+        int[] large = new int[n];
+        int smallCount = 0;
+        int largeCount = 0;
+        for (int i = 0; i < n; i++) {
+            scaled[i] = total > 0 ? weights[i] * n / total : 1;
+            if (scaled[i] < 1)
+                small[smallCount++] = i;
+            else
+                large[largeCount++] = i;
+        }
+        while (smallCount > 0 && largeCount > 0) {
+            int less = small[--smallCount];
+            int more = large[--largeCount];
+            this.keep[less] = scaled[less];
+            this.alias[less] = more;
+            scaled[more] = scaled[more] + scaled[less] - 1;
+            if (scaled[more] < 1)
+                small[smallCount++] = more;
+            else
+                large[largeCount++] = more;
+        }
+        // Whatever is left is 1 up to rounding errors.
+        while (largeCount > 0) {
+            int i = large[--largeCount];
+            this.keep[i] = 1;
+            this.alias[i] = i;
+        }
+        while (smallCount > 0) {
+            int i = small[--smallCount];
+            this.keep[i] = 1;
+            this.alias[i] = i;
+        }
+    }
+
+    /**
+     * Returns the table built from StatusConfig.properties.
+     *
+     * @return Shared item drop table.
+     */
+    public static ItemDropTable getInstance() {
+        if (instance == null) {
+            ShipStatus shipStatus = new ShipStatus();
+            shipStatus.loadProbability();
+            instance = new ItemDropTable(weights(new double[] {
+                    shipStatus.getBomb_probability(),
+                    shipStatus.getPierce_probability(),
+                    shipStatus.getShield_probability(),
+                    shipStatus.getHearth_probability(),
+                    shipStatus.getFeverTimeProbability(),
+                    shipStatus.getSpeedUpProbability(),
+                    shipStatus.getSpeedSlowProbability() }));
+        }
+        return instance;
+    }
+
+    /**
+     * Picks the kind of a drop.
+     *
+     * @param random Uniform random number in [0, 1).
+     * @return Index of the kind, for getSpriteType() and getColor().
+     */
+    public int pick(double random) {
+        double scaled = random * this.keep.length;
+        int column = Math.min((int) scaled, this.keep.length - 1);
+        return scaled - column < this.keep[column] ? column : this.alias[column];
+    }
+
+    public SpriteType getSpriteType(int drop) {
+        return SPRITES[drop];
+    }
+
+    public Color getColor(int drop) {
+        return COLORS[drop];
+    }
+
+    /**
+     * Turns the configured probabilities into the odds of each kind, as the
+     * thresholds they were checked against split them.
+     *
+     * @param p Probabilities of bomb, pierce, shield, heart, fever time,
+     *          speed up and speed slow items.
+     * @return Odds of each kind, coins last.
+     */
+    private static double[] weights(double[] p) {
+        double[] thresholds = {
+                p[0],
+                p[0] + p[1],
+                p[0] + p[1] + p[2],
+                p[0] + p[1] + p[2] + p[3],
+                p[0] + p[1] + p[2] + p[3] + p[4],
+                p[0] + p[1] + p[2] + p[3] + p[5],
+                p[0] + p[1] + p[2] + p[3] + p[5] + p[6] };
+        double[] weights = new double[SPRITES.length];
+        double covered = 0;
+        for (int i = 0; i < thresholds.length; i++) {
+            double upper = Math.min(thresholds[i], 1);
+            weights[i] = Math.max(0, upper - covered);
+            covered = Math.max(covered, upper);
+        }
+        weights[SPRITES.length - 1] = Math.max(0, 1 - covered);
+        return weights;
+    }
+}
@@ -1,6 +1,7 @@
 package Enemy;
 
 import engine.Core;
+import engine.GameRandom;
 import entity.EnemyShip;
 import entity.Ship;
 import inventory_develop.Bomb;
@@ -8,8 +9,10 @@ import inventory_develop.FeverTimeItem;
 import screen.GameScreen;
 import engine.DrawManager;
 
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
 import java.util.logging.Logger;
@@ -59,15 +62,15 @@ public class ItemManager {
     }
 
     public void cleanItems() {
-        Set<Item> recyclable = new HashSet<>();
-        for (Item item : this.items) {
+        Iterator<Item> iterator = this.items.iterator();
+        while (iterator.hasNext()) {
+            Item item = iterator.next();
             item.update();
             if (item.getPositionY() > screenHeight) {
-                recyclable.add(item);
+                iterator.remove();
+                ItemPool.recycle(item);
             }
         }
-        this.items.removeAll(recyclable);
-        ItemPool.recycle(recyclable);
     }
 
     public void initialize() {
@@ -81,12 +84,43 @@ public class ItemManager {
     }
 
     public void dropItem(EnemyShip enemyShip, double probability, int enemyship_type) {
-        if(Math.random() < probability) {
+        if(Core.getGameRandom().chance(GameRandom.Stream.ITEM_DROPS, probability)) {
             Item item = ItemPool.getItem(enemyShip.getPositionX(), enemyShip.getPositionY(), 3, enemyship_type);
             this.items.add(item);
         }
     }
 
+    /**
+     * Writes the falling items for a snapshot of the game.
+     *
+     * @param buffer Buffer to write to.
+     */
+    public void writeState(ByteBuffer buffer) {
+        buffer.putInt(this.items.size());
+        for (Item item : this.items)
+            item.writeState(buffer);
+    }
+
+    /**
+     * Replaces the falling items with the ones written by writeState(),
+     * taking them from the pool.
+     *
+     * @param buffer Buffer to read from.
+     */
+    public void readState(ByteBuffer buffer) {
+        ItemPool.recycle(this.items);
+        this.items.clear();
+        for (int i = buffer.getInt(); i > 0; i--) {
+            Item item = ItemPool.getItem(0, 0, 0, 0);
+            item.readState(buffer);
+            this.items.add(item);
+        }
+    }
+
+    public Set<EnemyShip> getEnemyShips() {
+        return this.enemyShips;
+    }
+
     public void setEnemyShips(Set<EnemyShip> enemyShips) {
         this.enemyShips = enemyShips;
     }
@@ -159,6 +193,7 @@ public class ItemManager {
     public void removeAllReItems(){
         this.items.removeAll(recyclableItems);
         ItemPool.recycle(recyclableItems);
+        recyclableItems.clear();
     }
 
 }
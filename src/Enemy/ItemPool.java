@@ -1,22 +1,80 @@
 package Enemy;
 
-import java.util.HashSet;
+import java.util.Arrays;
 import java.util.Set;
 
+/**
+ * Implements a bounded pool of recyclable items, kept in an array used as a
+ * stack. Items recycled while the pool is full are left to the garbage
+ * collector.
+ */
 public final class ItemPool {
-    private static Set<Item> pool = new HashSet<Item>();
+    /** Most items kept in the pool. */
+    private static final int CAPACITY = 32;
+
+    /** Items available for reuse, the first size of them. */
+    private static final Item[] pool = new Item[CAPACITY];
+    /** Amount of items in the pool. */
+    private static int size = 0;
+
     private ItemPool() {
     }
 
+    /**
+     * Returns an item from the pool if one is available, a new one if there
+     * isn't. Either way the kind of item is rolled again.
+     *
+     * @param positionX Requested X position of the item.
+     * @param positionY Requested Y position of the item.
+     * @param speed Falling speed of the item.
+     * @param type Type of the enemy ship that dropped it.
+     * @return Item ready to fall.
+     */
     public static Item getItem(final int positionX,
                                  final int positionY, final int speed, final int type) {
         Item item;
-        item = new Item(positionX, positionY, speed, type);
+        if (size > 0) {
+            item = pool[--size];
+            pool[size] = null;
+            item.setPositionY(positionY);
+            item.setSpeed(speed);
+            item.setSprite();
+        } else {
+            item = new Item(positionX, positionY, speed, type);
+        }
         item.setPositionX(positionX - item.getWidth() / 2);
         return item;
     }
 
-    public static void recycle(final Set<Item> item) {
-        pool.addAll(item);
+    /**
+     * Adds an item to the ones available, if there is room.
+     *
+     * @param item Item to recycle, not used anywhere else.
+     */
+    public static void recycle(final Item item) {
+        if (size < CAPACITY)
+            pool[size++] = item;
+    }
+
+    /**
+     * Adds items to the ones available, while there is room.
+     *
+     * @param items Items to recycle, not used anywhere else.
+     */
+    public static void recycle(final Set<Item> items) {
+        for (Item item : items)
+            recycle(item);
+    }
+
+    /**
+     * Drops every item available for reuse.
+     */
+    public static void clear() {
+        Arrays.fill(pool, 0, size, null);
+        size = 0;
+    }
+
+    public static int size() {
+        return size;
     }
-}
\ No newline at end of file
+}
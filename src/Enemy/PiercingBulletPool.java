@@ -1,20 +1,28 @@
 package Enemy;
 
-import entity.Bullet;
+import engine.PoolMetrics;
 
-import java.util.HashSet;
+import java.util.Arrays;
 import java.util.Set;
 
 /**
- * Implements a pool of recyclable bullets.
+ * Implements a pool of recyclable bullets, kept in an array used as a stack.
+ * Bullets recycled while the pool is full are left to the garbage collector.
  *
  * @author <a href="mailto:RobertoIA1987@gmail.com">Roberto Izquierdo Amo</a>
  *
  */
 public final class PiercingBulletPool {
 
-    /** Set of already created PiercingBullets available for reuse. */
-    private static Set<PiercingBullet> pool = new HashSet<>();
+    /** PiercingBullets the pool keeps unless told otherwise. */
+    private static final int DEFAULT_CAPACITY = 64;
+
+    /** PiercingBullets available for reuse, the first size of them. */
+    private static PiercingBullet[] pool = new PiercingBullet[DEFAULT_CAPACITY];
+    /** Amount of PiercingBullets in the pool. */
+    private static int size = 0;
+    /** How the pool is used. */
+    private static final PoolMetrics metrics = new PoolMetrics();
 
     /**
      * Constructor, not called.
@@ -36,13 +44,15 @@ public final class PiercingBulletPool {
     public static PiercingBullet getPiercingBullet(final int positionX,
                                                    final int positionY, final int speed, int piercingCount) {
         PiercingBullet bullet;
-        if (!pool.isEmpty()) {
-            bullet = pool.iterator().next();
-            pool.remove(bullet); // Remove the bullet from the pool for use
+        metrics.acquired(size == 0);
+        if (size > 0) {
+            bullet = pool[--size];
+            pool[size] = null; // Remove the bullet from the pool for use
             bullet.setPositionX(positionX - bullet.getWidth() / 2);
             bullet.setPositionY(positionY);
             bullet.setSpeed(speed);
             bullet.setPiercingCount(piercingCount);  // Reset piercing count when recycling
+            bullet.setCheckCount(true);
             bullet.setSprite(); // Prevents destroyed bullets from being reused incorrectly
         } else {
             bullet = new PiercingBullet(positionX, positionY, speed, piercingCount);
@@ -50,6 +60,18 @@ public final class PiercingBulletPool {
         }
         return bullet;
     }
+
+    /**
+     * Adds a bullet to the available ones, if there is room.
+     *
+     * @param bullet Bullet to recycle, not used anywhere else.
+     */
+    public static void recycle(final PiercingBullet bullet) {
+        metrics.recycled(1);
+        if (size < pool.length)
+            pool[size++] = bullet;
+    }
+
     /**
      * Adds one or more bullets to the list of available ones.
      *
@@ -57,6 +79,46 @@ public final class PiercingBulletPool {
      *            Bullets to recycle.
      */
     public static void recycle(final Set<PiercingBullet> bullets) {
-        pool.addAll(bullets);
+        for (PiercingBullet bullet : bullets)
+            recycle(bullet);
+    }
+
+    /**
+     * Changes the most bullets the pool keeps, dropping the ones over it.
+     *
+     * @param capacity Bullets kept at most.
+     */
+    public static void setCapacity(final int capacity) {
+        int length = Math.max(0, capacity);
+        if (size > length) {
+            Arrays.fill(pool, length, size, null);
+            size = length;
+        }
+        pool = Arrays.copyOf(pool, length);
+    }
+
+    /**
+     * Creates bullets until the pool holds some, so they are not created
+     * while playing.
+     *
+     * @param count Bullets the pool should hold, up to its capacity.
+     */
+    public static void prewarm(final int count) {
+        int target = Math.min(count, pool.length);
+        while (size < target)
+            pool[size++] = new PiercingBullet(0, 0, 0, 0);
+    }
+
+    /**
+     * Returns the amount of bullets waiting in the pool.
+     *
+     * @return Amount of pooled bullets.
+     */
+    public static int size() {
+        return size;
+    }
+
+    public static PoolMetrics getMetrics() {
+        return metrics;
     }
 }
@@ -1,7 +1,9 @@
 package Enemy;
 
+import CtrlS.UpgradeManager;
 import engine.Core;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 
 public class PlayerGrowth {
 
@@ -10,19 +12,36 @@ public class PlayerGrowth {
     private static double moveSpeed = 1.5;       //Movement speed
     private static int bulletSpeed = -4;     // Bullet speed
     private static int shootingDelay = 750;   // Shooting delay
+    // If the stats follow the upgrades bought
+    private static boolean listeningUpgrades = false;
 
     //Constructor to set initial values
     public PlayerGrowth() {//  Base shooting delay is 750ms
 
         // CtrlS: set player growth based on upgrade_status.properties
+        applyUpgrades(Core.getUpgradeManager());
+        if (!listeningUpgrades) {
+            Core.getUpgradeManager().addUpgradeChangedCallback(PlayerGrowth::applyUpgrades);
+            listeningUpgrades = true;
+        }
+    }
+
+    // Sets the stats bought in the merchant
+    private static void applyUpgrades(UpgradeManager upgradeManager) {
         try {
-            moveSpeed = Core.getUpgradeManager().getMovementSpeed();
-            shootingDelay = Core.getUpgradeManager().getAttackSpeed();
+            moveSpeed = upgradeManager.getMovementSpeed();
+            shootingDelay = upgradeManager.getAttackSpeed();
         } catch (IOException e) {
             throw new RuntimeException(e);
         }
     }
 
+    // Puts the stats shared by every ship back to the ones a new game starts with
+    public static void reset() {
+        applyUpgrades(Core.getUpgradeManager());
+        bulletSpeed = -4;
+    }
+
     // Increases health
     public void increaseHealth(int increment) {
         this.health += increment;
@@ -72,6 +91,31 @@ public class PlayerGrowth {
         return this.shootingDelay;
     }
 
+    /**
+     * Writes the stats for a snapshot of the game, including the ones
+     * shared by every ship.
+     *
+     * @param buffer Buffer to write to.
+     */
+    public void writeState(ByteBuffer buffer) {
+        buffer.putInt(this.health);
+        buffer.putDouble(moveSpeed);
+        buffer.putInt(bulletSpeed);
+        buffer.putInt(shootingDelay);
+    }
+
+    /**
+     * Restores the stats written by writeState().
+     *
+     * @param buffer Buffer to read from.
+     */
+    public void readState(ByteBuffer buffer) {
+        this.health = buffer.getInt();
+        moveSpeed = buffer.getDouble();
+        bulletSpeed = buffer.getInt();
+        shootingDelay = buffer.getInt();
+    }
+
     // Prints player stats (for debugging)
     public void printStats() {
         System.out.println("Health: " + this.health);
@@ -1,6 +1,8 @@
 package HUDTeam;
 
 import engine.DrawManager;
+import engine.FrameHistogram;
+import engine.FrameProfiler;
 import screen.GameScreen;
 import screen.Screen;
 import entity.Entity;
@@ -241,4 +243,53 @@ public class DrawManagerImpl extends DrawManager {
         backBufferGraphics.setFont(fontRegular);
         backBufferGraphics.drawString(speedString, 500, screen.getHeight() - 35);
     }
+
+    /**
+     * Draws the frame time overlay: p50, p99 and max of every phase of the
+     * tick in microseconds, followed by lines of entity and pool counts.
+     *
+     * @param screen
+     *            Screen to draw on.
+     * @param profiler
+     *            Profiler with the frame times.
+     * @param counts
+     *            Lines to show below the frame times.
+     */
+    public static void drawFrameProfiler(final Screen screen, final FrameProfiler profiler,
+                                         final String[] counts) {
+        FrameProfiler.Phase[] phases = FrameProfiler.Phase.values();
+        int lineHeight = fontRegularMetrics.getHeight();
+        int left = 10;
+        int top = 45;
+        int[] columns = { left, left + 120, left + 190, left + 260 };
+
+        int width = 330;
+        for (String count : counts)
+            width = Math.max(width, fontRegularMetrics.stringWidth(count) + 10);
+
+        backBufferGraphics.setColor(new Color(0, 0, 0, 180));
+        backBufferGraphics.fillRect(left - 5, top, width,
+                lineHeight * (phases.length + counts.length + 1) + 10);
+        backBufferGraphics.setFont(fontRegular);
+
+        int y = top + lineHeight;
+        backBufferGraphics.setColor(Color.GREEN);
+        String[] header = { "us", "p50", "p99", "max" };
+        for (int i = 0; i < header.length; i++)
+            backBufferGraphics.drawString(header[i], columns[i], y);
+
+        backBufferGraphics.setColor(Color.WHITE);
+        for (FrameProfiler.Phase phase : phases) {
+            y += lineHeight;
+            FrameHistogram histogram = profiler.getHistogram(phase);
+            backBufferGraphics.drawString(phase.name(), columns[0], y);
+            backBufferGraphics.drawString(Long.toString(histogram.percentile(0.5) / 1000), columns[1], y);
+            backBufferGraphics.drawString(Long.toString(histogram.percentile(0.99) / 1000), columns[2], y);
+            backBufferGraphics.drawString(Long.toString(histogram.getMax() / 1000), columns[3], y);
+        }
+        for (String count : counts) {
+            y += lineHeight;
+            backBufferGraphics.drawString(count, columns[0], y);
+        }
+    }
 }
@@ -1,6 +1,7 @@
 package Sound_Operator;
 
 import engine.Core;
+import engine.TickScheduler;
 
 import javax.sound.sampled.*;
 import java.io.*;
@@ -11,17 +12,33 @@ import java.util.logging.Logger;
 
 public class SoundManager {
     private static SoundManager instance;
-    static Map<String, String[]> EffectSounds;
-    static Map<String, Clip> BGMs;
+    /** Priority of effects that don't specify one in res/sound */
+    private static final int DEFAULT_PRIORITY = 1;
+    /** Voices an effect can take at once if res/sound doesn't say */
+    private static final int DEFAULT_MAX_VOICES = 4;
+    /** Priority of BGMs, never taken over by effects */
+    private static final int BGM_PRIORITY = Integer.MAX_VALUE;
+    /** Delay between the explosion and the die sound of the ship, in milliseconds */
+    private static final long SHIP_DIE_SOUND_DELAY = 1000;
+
+    static Map<String, SoundSample> EffectSounds;
+    static Map<String, SoundSample> BGMs;
     static String[][] ESFiles;
     static String[][] BGMFiles;
     private static Logger logger;
+    /** If sounds are never loaded nor played, for headless games */
+    private static boolean nullBackend = false;
+    /** Mixes every sound into the output line, null if there is no line */
+    private static SoundMixer mixer;
 /**
 * Code Description
 * Base: BGM files are stored in res/sound/BGM
-*       ES files are stored in res/sound/ES, and should be specified in res/ES file in the format: [Type];[Alias];[File Name];[Volume]
+*       ES files are stored in res/sound/ES, and should be specified in res/ES file in the format: [Type];[Alias];[File Name];[Volume](;[Priority];[Max Voices])
         *         -> Type: bgm, es
 *         -> Volume: A value between -80.0 and 6.0
+*         -> Priority: Optional for es, when all voices are busy lower priorities are taken over first
+*         -> Max Voices: Optional for es, the most times the effect plays at once
+* Playback: Every sound is decoded when loaded and mixed by a single thread into one line, see SoundMixer
         * Usage
 * Manager Call: Use getInstance() to call the manager
 * BGM Call: Use playBGM(String fileName) to play BGM. It will loop indefinitely, and you can stop it by calling stopBGM()
@@ -34,14 +51,24 @@ public class SoundManager {
 
 
     private SoundManager() {
+        logger = Core.getLogger();
+        if (nullBackend) {
+            EffectSounds = new HashMap<String, SoundSample>();
+            BGMs = new HashMap<String, SoundSample>();
+            return;
+        }
+        try {
+            mixer = new SoundMixer();
+        } catch (LineUnavailableException | IllegalArgumentException e) {
+            logger.info(String.valueOf(e));
+        }
         try {
-            logger = Core.getLogger();
             BufferedReader br = new BufferedReader(new FileReader("res/sound"));
             int ESFileCount = Objects.requireNonNull((new File("res/Sound.assets/ES")).listFiles()).length;
             int BGMFileCount = Objects.requireNonNull((new File("res/Sound.assets/BGM")).listFiles()).length;
 
-            EffectSounds = new HashMap<String, String[]>(ESFileCount);
-            BGMs = new HashMap<String, Clip>(BGMFileCount);
+            EffectSounds = new HashMap<String, SoundSample>(ESFileCount);
+            BGMs = new HashMap<String, SoundSample>(BGMFileCount);
             ESFiles = new String[ESFileCount][3];
             BGMFiles = new String[BGMFileCount][3];
 
@@ -56,7 +83,9 @@ public class SoundManager {
                     ESFiles[idx][0] = data[1];
                     ESFiles[idx][1] = data[2];
                     ESFiles[idx][2] = data[3];
-                    this.presetEffectSound(ESFiles[idx][0], "res/Sound.assets/ES/"+ESFiles[idx][1], Float.parseFloat(ESFiles[idx][2]));
+                    int priority = data.length > 4 ? Integer.parseInt(data[4].trim()) : DEFAULT_PRIORITY;
+                    int maxVoices = data.length > 5 ? Integer.parseInt(data[5].trim()) : DEFAULT_MAX_VOICES;
+                    this.presetEffectSound(ESFiles[idx][0], "res/Sound.assets/ES/"+ESFiles[idx][1], Float.parseFloat(ESFiles[idx][2]), priority, maxVoices);
                     idx += 1;
                 }else if(data[0].equals("bgm")){
                     BGMFiles[idy][0] = data[1];
@@ -69,6 +98,18 @@ public class SoundManager {
         } catch (IOException e) {
             logger.info(String.valueOf(e));
         }
+        if (mixer != null)
+            mixer.start();
+    }
+
+    /**
+     * Makes the manager ignore every sound, without touching the audio system.
+     * Must be called before the first getInstance() to skip loading as well.
+     */
+    public static void useNullBackend() {
+        nullBackend = true;
+        if (instance != null)
+            instance.stopAllBGM();
     }
 
     public static SoundManager getInstance() {
@@ -79,10 +120,8 @@ public class SoundManager {
     }
 
     public void stopAllBGM() {
-        for (Clip c : BGMs.values()) {
-            if (c != null)
-                c.stop();
-        }
+        if (mixer != null)
+            mixer.stopLooping();
     }
 
     public void preloadBGM(String name, String filePath, float volume){
@@ -90,41 +129,17 @@ public class SoundManager {
             if (!BGMs.containsKey(name)) {
                 File soundFile = new File(filePath);
                 logger.info(soundFile.getName()+" is loading");
-                AudioInputStream audioStream = AudioSystem.getAudioInputStream(soundFile);
-                AudioFormat baseFormat = audioStream.getFormat();
-                AudioFormat targetFormat = new AudioFormat(
-                        AudioFormat.Encoding.PCM_SIGNED,
-                        44100,
-                        16,
-                        baseFormat.getChannels(),
-                        baseFormat.getChannels() * 2,
-                        44100,
-                        false
-                );
-                AudioInputStream convertedStream = AudioSystem.getAudioInputStream(targetFormat, audioStream);
-
-                Clip clip = AudioSystem.getClip();
-                clip.open(convertedStream);
-
-//                볼륨 조절
-                FloatControl volumeControl = (FloatControl) clip.getControl(FloatControl.Type.MASTER_GAIN);
-                volumeControl.setValue(volume);
-
-//                해쉬멥에 추가
-                BGMs.put(name, clip); // 미리 로드하여 맵에 저장
+                BGMs.put(name, new SoundSample(soundFile, volume, BGM_PRIORITY, 1, true)); // 미리 로드하여 맵에 저장
                 logger.info(soundFile.getName()+" load complete");
             }
-        } catch (UnsupportedAudioFileException | IOException | LineUnavailableException e) {
+        } catch (UnsupportedAudioFileException | IOException | IllegalArgumentException e) {
             logger.info(String.valueOf(e));
         }
     }
 
     public int playPreloadedBGM(String name){
-        Clip clip = BGMs.get(name);
-        if(clip != null){
-            clip.setFramePosition(0);
-            clip.start();
-            clip.loop(Clip.LOOP_CONTINUOUSLY);
+        SoundSample bgm = BGMs.get(name);
+        if(bgm != null && mixer != null && mixer.play(bgm)){
             return 1;
         }else{
             return 0;
@@ -132,66 +147,37 @@ public class SoundManager {
     }
 
     public void presetEffectSound(String name, String filePath, float volume) {
+        presetEffectSound(name, filePath, volume, DEFAULT_PRIORITY, DEFAULT_MAX_VOICES);
+    }
+
+    public void presetEffectSound(String name, String filePath, float volume, int priority, int maxVoices) {
         try {
             if (!EffectSounds.containsKey(name)) {
-                String[] tmp = {filePath, String.valueOf(volume)};
-                EffectSounds.put(name, tmp);
+                EffectSounds.put(name, new SoundSample(new File(filePath), volume, priority, maxVoices, false));
                 logger.info(name+ "is set");
             }
-        } catch (Exception e) {
+        } catch (UnsupportedAudioFileException | IOException | IllegalArgumentException e) {
             logger.info(String.valueOf(e));
         }
     }
 
     public int playEffectSound(String name) {
-        try {
-            if (EffectSounds.containsKey(name)) {
-                String[] tmp = EffectSounds.get(name);
-                File soundFile = new File(tmp[0]);
-                logger.fine(soundFile.getName() + " is loading");
-                AudioInputStream audioStream = AudioSystem.getAudioInputStream(soundFile);
-                AudioFormat baseFormat = audioStream.getFormat();
-                AudioFormat targetFormat = new AudioFormat(
-                        AudioFormat.Encoding.PCM_SIGNED,
-                        44100,
-                        16,
-                        baseFormat.getChannels(),
-                        baseFormat.getChannels() * 2,
-                        44100,
-                        false
-                );
-                AudioInputStream convertedStream = AudioSystem.getAudioInputStream(targetFormat, audioStream);
-
-                Clip clip = AudioSystem.getClip();
-                clip.open(convertedStream);
-
-//                볼륨 조절
-                FloatControl volumeControl = (FloatControl) clip.getControl(FloatControl.Type.MASTER_GAIN);
-                volumeControl.setValue(Float.parseFloat(tmp[1]));
-
-                clip.start();
-                clip.addLineListener(event -> {
-                            if(event.getType() == LineEvent.Type.STOP){
-                                clip.close();
-                            }
-                        }
-                );
-                logger.info(soundFile.getName() + " load complete");
-                return 1;
-            }
+        SoundSample effectSound = EffectSounds.get(name);
+        if (effectSound == null) {
             logger.info("there is no ES : " + name);
             return 0;
-        } catch (UnsupportedAudioFileException | IOException | LineUnavailableException e) {
-            logger.info(String.valueOf(e));
-            return 0;
         }
+        if (mixer == null)
+            return 0;
+        return mixer.play(effectSound) ? 1 : 0;
     }
 
     public int playBGM(String name){
+        if (nullBackend)
+            return 0;
         try {
             stopAllBGM();
-            new Thread(() -> playPreloadedBGM(name)).start();
-            return 1;
+            return playPreloadedBGM(name);
         }catch (Exception e){
             logger.info(String.valueOf(e));
             return 0;
@@ -199,13 +185,9 @@ public class SoundManager {
     }
 
     public int playES(String name){
-        try {
-            new Thread(() -> playEffectSound(name)).start();
-            return 1;
-        }catch (Exception e){
-            logger.info(String.valueOf(e));
+        if (nullBackend)
             return 0;
-        }
+        return playEffectSound(name);
     }
 
     public int modifyBGMVolume(String name, float volume){
@@ -215,9 +197,7 @@ public class SoundManager {
             return 0;
         }
         if(BGMs.containsKey(name)){
-            Clip clip = BGMs.get(name);
-            FloatControl volumeControl = (FloatControl) clip.getControl(FloatControl.Type.MASTER_GAIN);
-            volumeControl.setValue(volume);
+            BGMs.get(name).setVolume(volume);
             return 1;
         }
         return 0;
@@ -230,7 +210,7 @@ public class SoundManager {
             return 0;
         }
         if(EffectSounds.containsKey(name)){
-            EffectSounds.get(name)[1] = String.valueOf(volume);
+            EffectSounds.get(name).setVolume(volume);
             return 1;
         }else{
             return 0;
@@ -239,14 +219,10 @@ public class SoundManager {
 
     // ksm
     public void playShipDieSounds() {
+        if (nullBackend)
+            return;
         playES("ally_airship_destroy_explosion");
-        new Thread(() -> {
-            try {
-                Thread.sleep(1000);
-            } catch (InterruptedException e) {
-                logger.info(String.valueOf(e));
-            }
-            playES("ally_airship_destroy_die");
-        }).start();
+        Core.getTickScheduler().schedule(TickScheduler.ticksFor(SHIP_DIE_SOUND_DELAY),
+                () -> playES("ally_airship_destroy_die"));
     }
 }
\ No newline at end of file
@@ -0,0 +1,199 @@
+package Sound_Operator;
+
+import javax.sound.sampled.*;
+import java.util.Arrays;
+
+/**
+ * Mixes every sound of the game into a single line. One thread fills a fixed
+ * buffer from a fixed set of voices and writes it to the line, so playing a
+ * sound only claims a voice: no lines, threads or buffers are created once
+ * the mixer runs.
+ *
+ * When a sound already plays on as many voices as it allows, its oldest
+ * voice starts over with the new play. When every voice is busy, the oldest
+ * voice with the lowest priority is taken over, as long as its priority is
+ * not higher than the one of the new sound; otherwise the new sound is
+ * dropped.
+ */
+final class SoundMixer implements Runnable {
+    /** Voices mixed at once. */
+    static final int MAX_VOICES = 16;
+    /** Frames mixed on each pass. */
+    private static final int BUFFER_FRAMES = 512;
+    /** Buffers the line holds, more adds latency but avoids gaps. */
+    private static final int LINE_BUFFERS = 4;
+    /** Bits of the fixed point gain. */
+    private static final int GAIN_BITS = 12;
+
+    /** Line the mix is written to. */
+    private final SourceDataLine line;
+    /** Sound played by each voice, null for free voices. */
+    private final SoundSample[] voiceSounds = new SoundSample[MAX_VOICES];
+    /** Next frame played by each voice. */
+    private final int[] voicePositions = new int[MAX_VOICES];
+    /** Order in which each voice started, to find the oldest. */
+    private final long[] voiceStarts = new long[MAX_VOICES];
+    /** Mixed samples, before clipping. */
+    private final int[] mix = new int[BUFFER_FRAMES * SoundSample.CHANNELS];
+    /** Mixed samples, as written to the line. */
+    private final byte[] output = new byte[BUFFER_FRAMES * SoundSample.CHANNELS * 2];
+    /** Voices started so far. */
+    private long started;
+
+    /**
+     * Opens the output line.
+     *
+     * @throws LineUnavailableException If there is no line for the mix.
+     */
+    SoundMixer() throws LineUnavailableException {
+        AudioFormat format = new AudioFormat(SoundSample.SAMPLE_RATE, 16,
+                SoundSample.CHANNELS, true, false);
+        this.line = AudioSystem.getSourceDataLine(format);
+        this.line.open(format, this.output.length * LINE_BUFFERS);
+    }
+
+    /**
+     * Starts mixing.
+     */
+    void start() {
+        this.line.start();
+        Thread thread = new Thread(this, "Sound mixer");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Plays a sound on a free voice, or on one taken over.
+     *
+     * @param sound Sound to play.
+     * @return True if the sound got a voice.
+     */
+    synchronized boolean play(SoundSample sound) {
+        int voice = -1;
+        if (sound.activeVoices >= sound.maxVoices) {
+            voice = oldestVoice(sound);
+        } else {
+            for (int i = 0; i < MAX_VOICES && voice == -1; i++)
+                if (this.voiceSounds[i] == null)
+                    voice = i;
+            if (voice == -1)
+                voice = voiceToSteal(sound.priority);
+        }
+        if (voice == -1)
+            return false;
+
+        stopVoice(voice);
+        this.voiceSounds[voice] = sound;
+        this.voicePositions[voice] = 0;
+        this.voiceStarts[voice] = this.started++;
+        sound.activeVoices++;
+        return true;
+    }
+
+    /**
+     * Stops every voice playing a looping sound.
+     */
+    synchronized void stopLooping() {
+        for (int i = 0; i < MAX_VOICES; i++)
+            if (this.voiceSounds[i] != null && this.voiceSounds[i].looping)
+                stopVoice(i);
+    }
+
+    /**
+     * Mixes and writes buffers until the thread is interrupted.
+     */
+    @Override
+    public void run() {
+        while (!Thread.currentThread().isInterrupted()) {
+            synchronized (this) {
+                mixVoices();
+            }
+            // Blocks until the line has room, which paces the loop.
+            this.line.write(this.output, 0, this.output.length);
+        }
+        this.line.close();
+    }
+
+    /**
+     * Mixes the next buffer of every voice into the output.
+     */
+    private void mixVoices() {
+        Arrays.fill(this.mix, 0);
+        for (int voice = 0; voice < MAX_VOICES; voice++) {
+            SoundSample sound = this.voiceSounds[voice];
+            if (sound == null)
+                continue;
+            int gain = (int) (sound.gain * (1 << GAIN_BITS));
+            int position = this.voicePositions[voice];
+            for (int i = 0; i < this.mix.length; i += SoundSample.CHANNELS) {
+                if (position == sound.frames) {
+                    if (!sound.looping || sound.frames == 0)
+                        break;
+                    position = 0;
+                }
+                int sample = position * SoundSample.CHANNELS;
+                this.mix[i] += (sound.samples[sample] * gain) >> GAIN_BITS;
+                this.mix[i + 1] += (sound.samples[sample + 1] * gain) >> GAIN_BITS;
+                position++;
+            }
+            this.voicePositions[voice] = position;
+            if (position == sound.frames && !sound.looping)
+                stopVoice(voice);
+        }
+        for (int i = 0; i < this.mix.length; i++) {
+            int sample = Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, this.mix[i]));
+            this.output[i * 2] = (byte) sample;
+            this.output[i * 2 + 1] = (byte) (sample >> 8);
+        }
+    }
+
+    /**
+     * Frees a voice.
+     *
+     * @param voice Voice to free.
+     */
+    private void stopVoice(int voice) {
+        SoundSample sound = this.voiceSounds[voice];
+        if (sound != null) {
+            sound.activeVoices--;
+            this.voiceSounds[voice] = null;
+        }
+    }
+
+    /**
+     * Finds the voice that started longest ago among the ones playing a sound.
+     *
+     * @param sound Sound being played.
+     * @return Voice index, -1 if the sound is not playing.
+     */
+    private int oldestVoice(SoundSample sound) {
+        int oldest = -1;
+        for (int i = 0; i < MAX_VOICES; i++)
+            if (this.voiceSounds[i] == sound
+                    && (oldest == -1 || this.voiceStarts[i] < this.voiceStarts[oldest]))
+                oldest = i;
+        return oldest;
+    }
+
+    /**
+     * Finds the voice to take over for a new sound: the oldest one among the
+     * voices with the lowest priority, if that priority is not higher than
+     * the one of the new sound.
+     *
+     * @param priority Priority of the new sound.
+     * @return Voice index, -1 if every voice should be kept.
+     */
+    private int voiceToSteal(int priority) {
+        int steal = -1;
+        for (int i = 0; i < MAX_VOICES; i++) {
+            SoundSample sound = this.voiceSounds[i];
+            if (sound.priority > priority)
+                continue;
+            if (steal == -1 || sound.priority < this.voiceSounds[steal].priority
+                    || (sound.priority == this.voiceSounds[steal].priority
+                    && this.voiceStarts[i] < this.voiceStarts[steal]))
+                steal = i;
+        }
+        return steal;
+    }
+}
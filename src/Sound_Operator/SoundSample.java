@@ -0,0 +1,100 @@
+package Sound_Operator;
+
+import javax.sound.sampled.*;
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * A sound decoded once into the format the mixer plays: 44.1 kHz, 16 bit,
+ * stereo samples. Also keeps how the mixer should play it: gain, priority,
+ * the most voices it can take at once and if it loops.
+ */
+final class SoundSample {
+    /** Samples played per second and channel. */
+    static final float SAMPLE_RATE = 44100f;
+    /** Channels of the decoded samples. */
+    static final int CHANNELS = 2;
+
+    /** Interleaved left and right samples. */
+    final short[] samples;
+    /** Amount of frames, a left and a right sample each. */
+    final int frames;
+    /** Priority when voices are taken over, higher is kept longer. */
+    final int priority;
+    /** Most voices playing this sound at once. */
+    final int maxVoices;
+    /** If the sound starts over when it ends. */
+    final boolean looping;
+
+    /** Linear gain, read by the mixer thread. */
+    volatile float gain;
+    /** Voices currently playing the sound, only touched under the mixer lock. */
+    int activeVoices;
+
+    /**
+     * Decodes a sound file.
+     *
+     * @param file Wav file of the sound.
+     * @param volume Volume in decibels.
+     * @param priority Priority when voices are taken over.
+     * @param maxVoices Most voices playing the sound at once.
+     * @param looping If the sound starts over when it ends.
+     * @throws UnsupportedAudioFileException If the file can't be decoded.
+     * @throws IOException If the file can't be read.
+     */
+    SoundSample(File file, float volume, int priority, int maxVoices, boolean looping)
+            throws UnsupportedAudioFileException, IOException {
+        try (AudioInputStream audioStream = AudioSystem.getAudioInputStream(file)) {
+            AudioFormat baseFormat = audioStream.getFormat();
+            int channels = baseFormat.getChannels();
+            AudioFormat targetFormat = new AudioFormat(
+                    AudioFormat.Encoding.PCM_SIGNED,
+                    SAMPLE_RATE,
+                    16,
+                    channels,
+                    channels * 2,
+                    SAMPLE_RATE,
+                    true
+            );
+            try (AudioInputStream convertedStream = AudioSystem.getAudioInputStream(targetFormat, audioStream)) {
+                byte[] data = convertedStream.readAllBytes();
+                int frameBytes = channels * 2;
+                this.frames = data.length / frameBytes;
+                this.samples = new short[this.frames * CHANNELS];
+                for (int i = 0; i < this.frames; i++) {
+                    int offset = i * frameBytes;
+                    short left = (short) ((data[offset] << 8) | (data[offset + 1] & 0xFF));
+                    // Mono sounds play the same on both sides, channels past the second are dropped.
+                    short right = channels > 1
+                            ? (short) ((data[offset + 2] << 8) | (data[offset + 3] & 0xFF))
+                            : left;
+                    this.samples[i * CHANNELS] = left;
+                    this.samples[i * CHANNELS + 1] = right;
+                }
+            }
+        }
+        this.gain = toLinear(volume);
+        this.priority = priority;
+        this.maxVoices = Math.max(1, maxVoices);
+        this.looping = looping;
+    }
+
+    /**
+     * Changes the volume of the sound, voices playing it change right away.
+     *
+     * @param volume Volume in decibels.
+     */
+    void setVolume(float volume) {
+        this.gain = toLinear(volume);
+    }
+
+    /**
+     * Converts a volume in decibels into a linear gain.
+     *
+     * @param volume Volume in decibels.
+     * @return Factor applied to the samples.
+     */
+    static float toLinear(float volume) {
+        return (float) Math.pow(10.0, volume / 20.0);
+    }
+}
@@ -21,6 +21,8 @@ public class Achievement {
     private int requiredLives;
     private static int requiredFastKills;
     private int requiredTrials;
+    /** Value to reach, whatever the type */
+    private int requiredValue;
     private boolean isCompleted;
     private AchievementType achievementType;
     private int gem = 0;
@@ -30,6 +32,7 @@ public class Achievement {
         this.achievementDescription = achievementDescription;
         this.isCompleted = false;
         this.achievementType = type;
+        this.requiredValue = requiredValue;
 
         // Assign values to appropriate fields based on type
         switch (type) {
@@ -71,6 +74,10 @@ public class Achievement {
         return achievementType;
     }
 
+    public int getRequiredValue() {
+        return requiredValue;
+    }
+
     public int getRequiredScore() {
         return requiredScore;
     }
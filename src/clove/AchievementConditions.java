@@ -2,34 +2,36 @@ package clove;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 import engine.Core;
-import engine.DrawManager;
-import engine.GameState;
-import clove.Statistics;
+import engine.TickScheduler;
 import HUDTeam.DrawAchievementHud;
 
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.TimeUnit;
 import java.util.logging.Logger;
 
-
+/**
+ * Unlocks the achievements of the session as game events come in: kills,
+ * score changes, lives and cleared stages. There is a single instance, and
+ * every event is reported on the game thread.
+ *
+ * The achievements of each type are sorted by the value they need, so an
+ * event only checks the first one of its type that is still locked.
+ */
 public class AchievementConditions {
 
-    private DrawManager drawManager;
-
-    private GameState gameState;
+    private static AchievementConditions instance;
     private static Logger logger;
 
-    private int highestLevel;
-    private int totalBulletsShot;
-    private int totalShipsDestroyed;
-    private int shipsDestructionStreak;
-    private int playedGameNumber;
-    private int clearAchievementNumber;
-    private long TotalPlaytime;
+    /** Reads the saved statistics */
+    private Statistics statistics;
+    /** Statistics as last loaded */
     private Statistics stats;
+    /** Ships destroyed since stats were loaded */
+    private int killsSinceLoad;
 
     private List<Achievement> killAchievements = new ArrayList<>();
     private List<Achievement> trialAchievements = new ArrayList<>();
@@ -41,54 +43,53 @@ public class AchievementConditions {
     private List<Achievement> allAchievements = new ArrayList<>();
     private List<String> unlockedAchievements = new ArrayList<>();
 
-    private static final int FAST_KILL_TIME = 5;
+    /** Achievements of each type, by the value they need */
+    private Map<Achievement.AchievementType, Achievement[]> thresholds =
+            new EnumMap<>(Achievement.AchievementType.class);
+    /** First locked achievement of each type, by ordinal */
+    private int[] nextThreshold = new int[Achievement.AchievementType.values().length];
+    /** Achievement unlocked by completing every other one */
+    private Achievement medalOfHonor;
 
-    public AchievementConditions() {
+    /** Seconds the kills of a fast kill have to fit in */
+    private static final int FAST_KILL_TIME = 5;
+    /** Ticks of the most recent kills, as many as the largest fast kill */
+    private long[] killTicks;
+    /** Next slot of killTicks to write */
+    private int killTicksHead;
+    /** Kills recorded in killTicks */
+    private int killTicksSize;
+
+    private AchievementConditions() {
+        logger = Core.getLogger();
         initializeAchievements();
 
         try{
-            this.stats = new Statistics();
+            this.statistics = new Statistics();
             setStatistics();
         } catch (IOException e){
             logger.warning("Couldn't load Statistics!");
         }
-
-        scheduler = Executors.newSingleThreadScheduledExecutor();
-        startFastKillCheck();
-    }
-
-    private void setStatistics() throws IOException {
-        this.stats = stats.loadUserData(stats);
     }
 
-    private int enemiesKilledIn3Seconds = 0;
-
-    public void startFastKillCheck() {
-        scheduler.scheduleAtFixedRate(() -> {
-            try {
-                if (enemiesKilledIn3Seconds > 0) {
-                    fastKill(enemiesKilledIn3Seconds);
-                }
-            } catch (IOException e) {
-                e.printStackTrace();
-            }
-        }, 0, 1, TimeUnit.SECONDS);
+    /**
+     * Returns shared instance of AchievementConditions.
+     *
+     * @return Shared instance of AchievementConditions.
+     */
+    public static AchievementConditions getInstance() {
+        if (instance == null)
+            instance = new AchievementConditions();
+        return instance;
     }
 
-    public void stopFastKillCheck() {
-        if (scheduler != null && !scheduler.isShutdown()) {
-            scheduler.shutdown();
-        }
-    }
-
-    public AchievementConditions(DrawManager drawManager) {
-        this.drawManager = drawManager;
-        initializeAchievements();
+    private void setStatistics() throws IOException {
+        this.stats = statistics.loadUserData(statistics);
+        this.killsSinceLoad = 0;
     }
 
     public void initializeAchievements() {
 
-        // TODO Some of the codes below are non-operational.(fastKillAchievement,trialAchievement) Will be updated if related record fuctions are added.
         noDeathAchievements.add(new Achievement("Aerobatics","Maintain Maximum Life",3, Achievement.AchievementType.LIVES));
 
         killAchievements.add(new Achievement("Rookie Pilot", "Destroy 25 enemies", 25, Achievement.AchievementType.KILLS, 1));
@@ -122,126 +123,123 @@ public class AchievementConditions {
         allAchievements.addAll(stageAchievements);
         allAchievements.addAll(scoreAchievements);
 
-        allAchievements.add(new Achievement("Medal of Honor", "Complete all achievements", 0, Achievement.AchievementType.STAGE, 10));
+        // Index every achievement but the medal, which only depends on the others
+        for (Achievement.AchievementType type : Achievement.AchievementType.values()) {
+            Achievement[] ofType = allAchievements.stream()
+                    .filter(achievement -> achievement.getType() == type)
+                    .toArray(Achievement[]::new);
+            Arrays.sort(ofType, Comparator.comparingInt(Achievement::getRequiredValue));
+            thresholds.put(type, ofType);
+        }
+        killTicks = new long[Math.max(1, fastKillAchievements.stream()
+                .mapToInt(Achievement::getRequiredValue).max().orElse(0))];
+
+        medalOfHonor = new Achievement("Medal of Honor", "Complete all achievements", 0, Achievement.AchievementType.STAGE, 10);
+        allAchievements.add(medalOfHonor);
     }
 
-    // Have to check if the code right below works
-    public void checkAllAchievements() {
-        boolean allCompleted = true;
+    /**
+     * Unlocks every achievement of a type the value reaches, starting from
+     * the first locked one.
+     *
+     * @param type  Type of the achievements.
+     * @param value Current value of what the type counts.
+     */
+    private void advance(Achievement.AchievementType type, long value) {
+        Achievement[] ofType = thresholds.get(type);
+        int next = nextThreshold[type.ordinal()];
+        while (next < ofType.length && value >= ofType[next].getRequiredValue())
+            completeAchievement(ofType[next++]);
+        nextThreshold[type.ordinal()] = next;
+    }
 
-        System.out.println("Checking all achievements...");
-        for (Achievement achievement: allAchievements) {
-            if (!achievement.isCompleted()) {
-                allCompleted = false;
-                break;
-            }
-        }
-        if (allCompleted) {
-            completeAchievement(allAchievements.get(allAchievements.size() - 1));
-        }
+    public void checkAllAchievements() {
+        // Every achievement but the medal itself
+        if (unlockedAchievements.size() == allAchievements.size() - 1)
+            completeAchievement(medalOfHonor);
     }
 
-    public void onStage() throws  IOException {
-        int highestStage = stats.getHighestLevel();
-        System.out.println("Checking stage achievements. Highest stage: " + highestStage);
-        for (Achievement achievement : stageAchievements) {
-            if (highestStage >= achievement.getRequiredStages() && !achievement.isCompleted()) {
-                completeAchievement(achievement);
-            }
-        }
+    /**
+     * Reloads the statistics saved at the end of a stage, and checks the
+     * achievements that depend on them.
+     *
+     * @throws IOException In case of loading problems.
+     */
+    public void onStage() throws IOException {
+        setStatistics();
+        advance(Achievement.AchievementType.STAGE, stats.getHighestLevel());
+        advance(Achievement.AchievementType.KILLS, stats.getTotalShipsDestroyed());
+        trials();
+        killStreak();
+        checkAllAchievements();
     }
 
-    public void onKill() throws IOException {
-        enemiesKilledIn3Seconds++;
-        lastKillTime = System.currentTimeMillis();
-
-        int currentKills = stats.getTotalShipsDestroyed();
-        System.out.println("Checking kill achievements. Current kills: " + currentKills);
-        System.out.println("Kill Achievements size: " + killAchievements.size());
-        for (Achievement achievement : killAchievements) {
-            System.out.println("Checking " + achievement.getAchievementName());
-            if (currentKills >= achievement.getRequiredKills() && !achievement.isCompleted()) {
-                completeAchievement(achievement);
-            }
+    /**
+     * Counts ships destroyed in the current tick.
+     *
+     * @param count Ships destroyed.
+     */
+    public void onKill(int count) {
+        if (count <= 0)
+            return;
+        killsSinceLoad += count;
+        int currentKills = (stats == null ? 0 : stats.getTotalShipsDestroyed()) + killsSinceLoad;
+        advance(Achievement.AchievementType.KILLS, currentKills);
+
+        long tick = Core.getTickScheduler().getTick();
+        for (int i = 0; i < count; i++) {
+            killTicks[killTicksHead] = tick;
+            killTicksHead = (killTicksHead + 1) % killTicks.length;
+            killTicksSize = Math.min(killTicksSize + 1, killTicks.length);
         }
+        fastKill(tick);
     }
 
-    private ScheduledExecutorService scheduler;
-
-    private static final long TIME_LIMIT = 3000;
-    private long lastKillTime = 0;
-
-    private void resetKillCountIfNeeded() {
-        long currentTime = System.currentTimeMillis();
-        if (currentTime - lastKillTime > TIME_LIMIT) {
-            enemiesKilledIn3Seconds = 0;
+    /**
+     * Checks the fast kill achievements against the kills of the last
+     * FAST_KILL_TIME seconds.
+     *
+     * @param tick Current tick.
+     */
+    private void fastKill(long tick) {
+        long windowStart = tick - TickScheduler.ticksFor(FAST_KILL_TIME * 1000L);
+        int recentKills = 0;
+        int slot = killTicksHead;
+        while (recentKills < killTicksSize) {
+            slot = (slot - 1 + killTicks.length) % killTicks.length;
+            if (killTicks[slot] <= windowStart)
+                break;
+            recentKills++;
         }
+        advance(Achievement.AchievementType.FASTKILL, recentKills);
     }
-    // TODO Not functioning well
-    public void fastKill(int killCount) throws IOException {
-        long currentTime = System.currentTimeMillis();
-
-        if (currentTime - lastKillTime <= TIME_LIMIT) {
-            resetKillCountIfNeeded();
-        } else {
-            enemiesKilledIn3Seconds = 0;
-        }
-        lastKillTime = currentTime;
 
-        if (enemiesKilledIn3Seconds > 0) {
-            //System.out.println("Kills in last 3 seconds: " + enemiesKilledIn3Seconds);
-        }
-        if (enemiesKilledIn3Seconds >= Achievement.getRequiredFastKills()) {
-            System.out.println("Checking fastkill achievements. Current fastkills: " + killCount);
-            for (Achievement achievement : fastKillAchievements) {
-                if (!achievement.isCompleted()) {
-                    completeAchievement(achievement);
-                }
-            }
-        }
+    /**
+     * Forgets the kills of the previous game, so they don't count towards
+     * the fast kills of a new one.
+     */
+    public void startGame() {
+        killTicksHead = 0;
+        killTicksSize = 0;
     }
 
     public void checkNoDeathAchievements(int lives) {
-        System.out.println("Checking No Death achievements. Current lives: " + lives);
-        if (lives == Core.MAX_LIVES) {
-            for (Achievement achievement : noDeathAchievements) {
-                if (highestLevel==7 && !achievement.isCompleted()) {
-                    completeAchievement(achievement);
-                }
-            }
+        if (lives == Core.MAX_LIVES && stats != null
+                && stats.getHighestLevel() == Core.NUM_LEVELS) {
+            advance(Achievement.AchievementType.LIVES, lives);
         }
     }
 
     public void score(int score) {
-        System.out.println("Checking score achievements. Current score: " + score);
-            for (Achievement achievement : scoreAchievements) {
-                if (score >= achievement.getRequiredScore() && !achievement.isCompleted()) {
-                    completeAchievement(achievement);
-                }
-            }
+        advance(Achievement.AchievementType.SCORE, score);
     }
 
-    // TODO function getShipsDestructionStreak not added yet
-    public void killStreak() throws IOException {
-        int shipsDestructionStreak = stats.getShipsDestructionStreak();
-        System.out.println("Checking killstreak achievements. Current killstreaks: " + shipsDestructionStreak);
-        System.out.println("Killstreak Achievements size: " + streakAchievements.size());
-        for (Achievement achievement : streakAchievements) {
-            System.out.println("Checking " + achievement.getAchievementName());
-            if (shipsDestructionStreak>= achievement.getRequiredKillStreaks() && !achievement.isCompleted()) {
-                completeAchievement(achievement);
-            }
-        }
+    public void killStreak() {
+        advance(Achievement.AchievementType.KILLSTREAKS, stats.getShipsDestructionStreak());
     }
 
     public void trials() {
-        int playedTrials = stats.getPlayedGameNumber();
-        for (Achievement achievement : trialAchievements) {
-            System.out.println("Checking trial achievements. Current trials: " + playedTrials);
-            if (playedTrials >= achievement.getRequiredTrials() && !achievement.isCompleted()) {
-                completeAchievement(achievement);
-            }
-        }
+        advance(Achievement.AchievementType.TRIALS, stats.getPlayedGameNumber());
     }
 
     /*
@@ -250,11 +248,9 @@ public class AchievementConditions {
 
     private void completeAchievement(Achievement achievement) {
         if (!unlockedAchievements.contains(achievement.getAchievementName())) {
-            System.out.println("Achievement Unlocked: " + achievement.getAchievementName() + " - " + achievement.getAchievementDescription());
+            logger.info("Achievement Unlocked: " + achievement.getAchievementName() + " - " + achievement.getAchievementDescription());
             unlockedAchievements.add(achievement.getAchievementName());
             achievement.completeAchievement();
-            getUnlockedAchievements();
-            System.out.println("Unlocked achievements list: " + unlockedAchievements);
             DrawAchievementHud.achieve(achievement.getAchievementName());
             if(achievement.getGem() > 0) {
                 try {
@@ -264,9 +260,6 @@ public class AchievementConditions {
                 }
             }
         }
-        else if (unlockedAchievements.contains(achievement.getAchievementName())) {
-            System.out.println(achievement.getAchievementName() + " has already been unlocked.");
-        }
     }
 
     public List<String> getUnlockedAchievements() {
@@ -276,4 +269,4 @@ public class AchievementConditions {
     public int getTotalAchievements() {
         return unlockedAchievements.size();
     }
-}
\ No newline at end of file
+}
@@ -19,7 +19,7 @@ public class AchievementManager {
     private AchievementConditions achievementConditions;
 
     public AchievementManager(DrawManager drawManager) {
-        this.achievementConditions = new AchievementConditions(drawManager);
+        this.achievementConditions = AchievementConditions.getInstance();
     }
 
     public void updateAchievements(Screen screen) {
@@ -1,5 +1,6 @@
 package clove;
 
+import java.nio.ByteBuffer;
 import java.time.Instant;
 import inventory_develop.Bomb;
 
@@ -31,6 +32,26 @@ public class ScoreManager {
         //System.out.println("Enemy destroyed. Score added: " + scoreToAdd + ", Level Score: " + this.levelScore);
     }
 
+    /**
+     * Writes the scores for a snapshot of the game.
+     *
+     * @param buffer Buffer to write to.
+     */
+    public void writeState(ByteBuffer buffer) {
+        buffer.putInt(this.levelScore);
+        buffer.putInt(this.accumulatedScore);
+    }
+
+    /**
+     * Restores the scores written by writeState().
+     *
+     * @param buffer Buffer to read from.
+     */
+    public void readState(ByteBuffer buffer) {
+        this.levelScore = buffer.getInt();
+        this.accumulatedScore = buffer.getInt();
+    }
+
     public int getAccumulatedScore() {
         return accumulatedScore;
     }
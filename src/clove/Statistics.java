@@ -1,21 +1,11 @@
 package clove;
 
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
-import java.util.logging.Logger;
-
-
-import CtrlS.CurrencyManager;
-import engine.Core;
-import engine.FileManager;
 
 public class Statistics {
 
-    private AchievementConditions achievementConditions;
     private ScheduledExecutorService scheduler;
     /** Number of Player's Highest Reached Level */
     private int highestLevel;
@@ -34,12 +24,8 @@ public class Statistics {
     /** Additional playtime */
     private long playTime;
 
-    private static FileManager fileManager;
-    private static Logger logger;
-
-    /** Using for save statistics */
-    private List<Statistics> playerStatistics;
-    private Statistics stat;
+    /** Statistics kept in memory, saved in the background */
+    private StatisticsRepository repository;
 
     /**
      *
@@ -65,7 +51,6 @@ public class Statistics {
         this.clearAchievementNumber = clearAchievementNumber;
         this.totalPlaytime = TotalPlaytime;
 
-        //this.achievementConditions = new AchievementConditions();
         //this.scheduler = Executors.newSingleThreadScheduledExecutor();
     }
 
@@ -74,9 +59,7 @@ public class Statistics {
      */
 
     public Statistics() {
-        fileManager = Core.getFileManager();
-        logger = Core.getLogger();
-        this.playerStatistics = new ArrayList<Statistics>();
+        this.repository = StatisticsRepository.getInstance();
     }
 
     /**
@@ -88,14 +71,7 @@ public class Statistics {
      */
 
     public void comHighestLevel(int Level) throws IOException {
-        this.stat = loadUserData(stat);
-        int CurrentHighestLevel = stat.getHighestLevel();
-        if(CurrentHighestLevel < Level){
-            playerStatistics.clear();
-            playerStatistics.add(new Statistics(Level, stat.totalBulletsShot, stat.totalShipsDestroyed, stat.shipsDestructionStreak,
-                    stat.playedGameNumber, stat.clearAchievementNumber, stat.totalPlaytime));
-            fileManager.saveUserData(playerStatistics);
-        }
+        repository.updateHighestLevel(Level);
     }
 
     /**
@@ -107,14 +83,7 @@ public class Statistics {
      */
 
     public void addBulletShot(int PlusBulletShot) throws IOException{
-        this.stat = loadUserData(stat);
-        int CurrentBulletShot = stat.getTotalBulletsShot();
-        CurrentBulletShot += PlusBulletShot;
-
-        playerStatistics.clear();
-        playerStatistics.add(new Statistics(stat.highestLevel, CurrentBulletShot, stat.totalShipsDestroyed, stat.shipsDestructionStreak,
-                stat.playedGameNumber, stat.clearAchievementNumber, stat.totalPlaytime));
-        fileManager.saveUserData(playerStatistics);
+        repository.addBulletsShot(PlusBulletShot);
     }
 
     /**
@@ -128,18 +97,7 @@ public class Statistics {
 
 
     public void addShipsDestroyed(int PlusShipsDestroyed) throws IOException{
-        this.stat = loadUserData(stat);
-        int CurrentShipsDestroyed = stat.getTotalShipsDestroyed();
-        CurrentShipsDestroyed += PlusShipsDestroyed;
-
-        if (achievementConditions != null) {
-            achievementConditions.onKill();
-        }
-
-        playerStatistics.clear();
-        playerStatistics.add(new Statistics(stat.highestLevel, stat.totalBulletsShot, CurrentShipsDestroyed, stat.shipsDestructionStreak,
-                stat.playedGameNumber, stat.clearAchievementNumber, stat.totalPlaytime));
-        fileManager.saveUserData(playerStatistics);
+        repository.addShipsDestroyed(PlusShipsDestroyed);
     }
 
     /**
@@ -153,14 +111,7 @@ public class Statistics {
      */
 
     public void addPlayedGameNumber(int PlusPlayedGameNumber) throws IOException {
-        this.stat = loadUserData(stat);
-        int CurrentPlayedGameNumber = stat.getPlayedGameNumber();
-        CurrentPlayedGameNumber += PlusPlayedGameNumber;
-
-        playerStatistics.clear();
-        playerStatistics.add(new Statistics(stat.highestLevel, stat.totalBulletsShot, stat.totalShipsDestroyed, stat.shipsDestructionStreak,
-                CurrentPlayedGameNumber, stat.clearAchievementNumber, stat.totalPlaytime));
-        fileManager.saveUserData(playerStatistics);
+        repository.addPlayedGameNumber(PlusPlayedGameNumber);
     }
 
     /**
@@ -174,14 +125,7 @@ public class Statistics {
      */
 
     public void comShipsDestructionStreak(int DestroyedShipNumber) throws IOException {
-        this.stat = loadUserData(stat);
-        int CurrentShipsDestructionStreak = stat.getShipsDestructionStreak();
-        if(CurrentShipsDestructionStreak < DestroyedShipNumber){
-            playerStatistics.clear();
-            playerStatistics.add(new Statistics(stat.highestLevel, stat.totalBulletsShot, stat.totalShipsDestroyed, DestroyedShipNumber,
-                    stat.playedGameNumber, stat.clearAchievementNumber, stat.totalPlaytime));
-            fileManager.saveUserData(playerStatistics);
-        }
+        repository.updateShipsDestructionStreak(DestroyedShipNumber);
     }
 
     /**
@@ -195,14 +139,7 @@ public class Statistics {
      */
 
     public void comClearAchievementNumber(int ClearedAchievement) throws IOException {
-        this.stat = loadUserData(stat);
-        int CurrentClearAchievementNumber = stat.getClearAchievementNumber();
-        if(CurrentClearAchievementNumber < ClearedAchievement){
-            playerStatistics.clear();
-            playerStatistics.add(new Statistics(stat.highestLevel, stat.totalBulletsShot, stat.totalShipsDestroyed,stat.shipsDestructionStreak,
-                    stat.playedGameNumber, ClearedAchievement, stat.totalPlaytime));
-            fileManager.saveUserData(playerStatistics);
-        }
+        repository.updateClearAchievementNumber(ClearedAchievement);
     }
 
     /**
@@ -215,37 +152,25 @@ public class Statistics {
      */
 
     public void addTotalPlayTime(long Playtime) throws IOException {
-        this.stat = loadUserData(stat);
-        long CurrentPlaytime = stat.getTotalPlaytime();
-        CurrentPlaytime += Playtime;
-
-        playerStatistics.clear();
-        playerStatistics.add(new Statistics(stat.highestLevel, stat.totalBulletsShot, stat.totalShipsDestroyed, stat.shipsDestructionStreak,
-                stat.playedGameNumber, stat.clearAchievementNumber, CurrentPlaytime));
-        fileManager.saveUserData(playerStatistics);
+        repository.addTotalPlaytime(Playtime);
     }
 
     /**
-     *  Load Statistic.property (userdata)
+     *  Returns the statistics, loaded from Statistic.property (userdata) only once
      *
      * @throws IOException
      *              In case of loading problems.
      */
     public Statistics loadUserData(Statistics stat) throws IOException {
-        stat = fileManager.loadUserData();
-        return stat;
+        return repository.snapshot();
     }
 
     public Statistics getStatisticsData() throws IOException {
-        Statistics StatisticsData = fileManager.loadUserData();
-        return StatisticsData;
+        return repository.snapshot();
     }
 
     public void resetStatistics() throws IOException {
-        this.playerStatistics = new ArrayList<Statistics>();
-        playerStatistics.add(new Statistics(0, 0, 0, 0,
-                0, 0, 0));
-        fileManager.saveUserData(playerStatistics);
+        repository.reset();
     }
 
     public void startAddingShipsDestroyed() {
@@ -0,0 +1,174 @@
+package clove;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+import engine.Core;
+import engine.FileManager;
+
+/**
+ * Keeps the player statistics in memory. They are read once, reads never
+ * touch the disk, and every change is handed to the save store, which
+ * writes the changes made together (like the counters added at the end of
+ * a level) to disk at once.
+ */
+public final class StatisticsRepository {
+
+    /** Singleton instance of the class. */
+    private static StatisticsRepository instance;
+
+    private final AtomicInteger highestLevel = new AtomicInteger();
+    private final AtomicInteger totalBulletsShot = new AtomicInteger();
+    private final AtomicInteger totalShipsDestroyed = new AtomicInteger();
+    private final AtomicInteger shipsDestructionStreak = new AtomicInteger();
+    private final AtomicInteger playedGameNumber = new AtomicInteger();
+    private final AtomicInteger clearAchievementNumber = new AtomicInteger();
+    private final AtomicLong totalPlaytime = new AtomicLong();
+
+    /** If there are changes not saved yet. */
+    private final AtomicBoolean dirty = new AtomicBoolean();
+
+    private final FileManager fileManager;
+    private final Logger logger;
+
+    /**
+     * Private constructor, loads the saved statistics.
+     */
+    private StatisticsRepository() {
+        this.fileManager = Core.getFileManager();
+        this.logger = Core.getLogger();
+        try {
+            set(this.fileManager.loadUserData());
+        } catch (IOException | RuntimeException e) {
+            logger.warning("Couldn't load statistics, starting from zero: " + e);
+        }
+    }
+
+    /**
+     * Returns shared instance of StatisticsRepository.
+     *
+     * @return Shared instance of StatisticsRepository.
+     */
+    public static synchronized StatisticsRepository getInstance() {
+        if (instance == null)
+            instance = new StatisticsRepository();
+        return instance;
+    }
+
+    public void addBulletsShot(int amount) {
+        totalBulletsShot.addAndGet(amount);
+        changed();
+    }
+
+    public void addShipsDestroyed(int amount) {
+        totalShipsDestroyed.addAndGet(amount);
+        changed();
+    }
+
+    public void addPlayedGameNumber(int amount) {
+        playedGameNumber.addAndGet(amount);
+        changed();
+    }
+
+    public void addTotalPlaytime(long playtime) {
+        totalPlaytime.addAndGet(playtime);
+        changed();
+    }
+
+    /**
+     * Keeps the highest level reached, if the new one is higher.
+     *
+     * @param level
+     *              Level reached.
+     */
+    public void updateHighestLevel(int level) {
+        if (highestLevel.getAndAccumulate(level, Math::max) < level)
+            changed();
+    }
+
+    /**
+     * Keeps the longest destruction streak, if the new one is longer.
+     *
+     * @param streak
+     *              Ships destroyed consecutively.
+     */
+    public void updateShipsDestructionStreak(int streak) {
+        if (shipsDestructionStreak.getAndAccumulate(streak, Math::max) < streak)
+            changed();
+    }
+
+    /**
+     * Keeps the highest amount of achievements cleared, if the new one is higher.
+     *
+     * @param cleared
+     *              Achievements cleared.
+     */
+    public void updateClearAchievementNumber(int cleared) {
+        if (clearAchievementNumber.getAndAccumulate(cleared, Math::max) < cleared)
+            changed();
+    }
+
+    /**
+     * Sets every statistic back to zero.
+     */
+    public void reset() {
+        set(new Statistics(0, 0, 0, 0, 0, 0, 0));
+        changed();
+    }
+
+    /**
+     * Returns the current statistics, without reading the disk.
+     *
+     * @return Copy of the statistics.
+     */
+    public Statistics snapshot() {
+        return new Statistics(highestLevel.get(), totalBulletsShot.get(), totalShipsDestroyed.get(),
+                shipsDestructionStreak.get(), playedGameNumber.get(), clearAchievementNumber.get(),
+                totalPlaytime.get());
+    }
+
+    /**
+     * Hands the statistics to the save store if there are changes not saved yet.
+     */
+    public synchronized void flush() {
+        if (!dirty.getAndSet(false))
+            return;
+        List<Statistics> playerStatistics = new ArrayList<Statistics>();
+        playerStatistics.add(snapshot());
+        try {
+            fileManager.saveUserData(playerStatistics);
+        } catch (IOException e) {
+            logger.warning("Couldn't save statistics: " + e);
+            dirty.set(true);
+        }
+    }
+
+    /**
+     * Marks the statistics as changed and saves them.
+     */
+    private void changed() {
+        dirty.set(true);
+        flush();
+    }
+
+    /**
+     * Replaces every statistic.
+     *
+     * @param stat
+     *              Statistics to copy.
+     */
+    private void set(Statistics stat) {
+        highestLevel.set(stat.getHighestLevel());
+        totalBulletsShot.set(stat.getTotalBulletsShot());
+        totalShipsDestroyed.set(stat.getTotalShipsDestroyed());
+        shipsDestructionStreak.set(stat.getShipsDestructionStreak());
+        playedGameNumber.set(stat.getPlayedGameNumber());
+        clearAchievementNumber.set(stat.getClearAchievementNumber());
+        totalPlaytime.set(stat.getTotalPlaytime());
+    }
+}
@@ -0,0 +1,356 @@
+package engine;
+
+import java.awt.event.KeyEvent;
+import java.util.logging.Logger;
+
+import entity.BulletStore;
+import entity.EnemyShip;
+import entity.EnemyShipFormation;
+import entity.Obstacle;
+import entity.Ship;
+import screen.GameScreen;
+import screen.Screen;
+
+/**
+ * Input source that plays the game on its own, for soak tests and headless
+ * benchmarks that should see the game played rather than idle. Every few
+ * ticks it looks at the screen and picks its keys: it steps away from
+ * enemy bullets and obstacles about to hit the ship, and otherwise moves
+ * under the nearest enemy able to shoot and fires while lined up with it.
+ * The ship's own cooldown decides how often the shots go out.
+ *
+ * It keeps the outcome of every level it plays and how long the ticks
+ * took, and logs them as each level ends.
+ *
+ */
+public final class Autopilot implements InputSource {
+
+	/** How well the autopilot plays. */
+	public enum Difficulty {
+		/** Slow to react, sees threats late and aims loosely. */
+		EASY(15, 10, 20),
+		/** Reacts like a casual player. */
+		NORMAL(6, 25, 10),
+		/** Reacts every tick and sees threats early. */
+		HARD(1, 45, 4);
+
+		/** Ticks between two decisions, keys are held in between. */
+		private final int reactionTicks;
+		/** Ticks ahead a threat is seen. */
+		private final int lookaheadTicks;
+		/** Pixels off the target still taken as lined up. */
+		private final int aimTolerance;
+
+		/**
+		 * Constructor.
+		 *
+		 * @param reactionTicks
+		 *            Ticks between two decisions.
+		 * @param lookaheadTicks
+		 *            Ticks ahead a threat is seen.
+		 * @param aimTolerance
+		 *            Pixels off the target still taken as lined up.
+		 */
+		Difficulty(final int reactionTicks, final int lookaheadTicks,
+				final int aimTolerance) {
+			this.reactionTicks = reactionTicks;
+			this.lookaheadTicks = lookaheadTicks;
+			this.aimTolerance = aimTolerance;
+		}
+	}
+
+	/** Pixels obstacles are taken to fall each tick, at most. */
+	private static final int OBSTACLE_SPEED = 8;
+	/** Pixels kept between the ship and a threat passing by. */
+	private static final int DODGE_MARGIN = 2;
+	/** Nanoseconds in a microsecond. */
+	private static final long NANOS_PER_MICRO = 1000;
+
+	/** Application logger. */
+	private final Logger logger;
+	/** How well the autopilot plays. */
+	private final Difficulty difficulty;
+	/** Time between the starts of two ticks of the level being played. */
+	private final FrameHistogram levelTickTimes;
+	/** Time between the starts of two ticks of every level played. */
+	private final FrameHistogram tickTimes;
+
+	/** Level being played, null between levels. */
+	private GameScreen level;
+	/** Ticks started on the level being played. */
+	private long levelTicks;
+	/** Ticks started on game screens. */
+	private long ticks;
+	/** When the last tick started, in nanoseconds. */
+	private long tickStart;
+	/** Levels ended with lives left. */
+	private int levelsCleared;
+	/** Levels ended without lives. */
+	private int levelsLost;
+
+	/** If the ship moves left. */
+	private boolean left;
+	/** If the ship moves right. */
+	private boolean right;
+	/** If the ship shoots. */
+	private boolean fire;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param difficulty
+	 *            How well the autopilot plays.
+	 */
+	public Autopilot(final Difficulty difficulty) {
+		this.logger = Core.getLogger();
+		this.difficulty = difficulty;
+		this.levelTickTimes = new FrameHistogram();
+		this.tickTimes = new FrameHistogram();
+	}
+
+	@Override
+	public boolean isKeyDown(final int keyCode) {
+		switch (keyCode) {
+		case KeyEvent.VK_LEFT:
+			return this.left;
+		case KeyEvent.VK_RIGHT:
+			return this.right;
+		case KeyEvent.VK_ENTER:
+			return this.fire;
+		default:
+			return false;
+		}
+	}
+
+	@Override
+	public void beforeTick(final Screen screen) {
+		long now = System.nanoTime();
+		if (screen != this.level) {
+			finishLevel();
+			if (!(screen instanceof GameScreen)) {
+				this.left = false;
+				this.right = false;
+				this.fire = false;
+				return;
+			}
+			this.level = (GameScreen) screen;
+		} else {
+			this.levelTickTimes.record(now - this.tickStart);
+			this.tickTimes.record(now - this.tickStart);
+		}
+		this.tickStart = now;
+
+		if (this.levelTicks % this.difficulty.reactionTicks == 0)
+			decide(this.level);
+		this.levelTicks++;
+		this.ticks++;
+	}
+
+	/**
+	 * Logs how the level being played went. Called when the next screen
+	 * starts, and by whoever runs the last level once it returns.
+	 */
+	public void finishLevel() {
+		if (this.level == null)
+			return;
+		GameState gameState = this.level.getGameState();
+		boolean cleared = gameState.getLivesRemaining() > 0;
+		if (cleared)
+			this.levelsCleared++;
+		else
+			this.levelsLost++;
+		this.logger.info("Autopilot " + (cleared ? "cleared" : "lost")
+				+ " level " + gameState.getLevel() + " with "
+				+ gameState.getScore() + " points and "
+				+ gameState.getLivesRemaining() + " lives in "
+				+ this.levelTicks + " ticks, tick time p50 "
+				+ this.levelTickTimes.percentile(0.5) / NANOS_PER_MICRO
+				+ " us, p99 "
+				+ this.levelTickTimes.percentile(0.99) / NANOS_PER_MICRO
+				+ " us, max " + this.levelTickTimes.getMax() / NANOS_PER_MICRO
+				+ " us.");
+
+		this.level = null;
+		this.levelTicks = 0;
+		this.levelTickTimes.reset();
+	}
+
+	/**
+	 * Returns the amount of ticks played.
+	 *
+	 * @return Ticks started on game screens.
+	 */
+	public long getTicks() {
+		return this.ticks;
+	}
+
+	/**
+	 * Returns the amount of levels ended with lives left.
+	 *
+	 * @return Levels cleared.
+	 */
+	public int getLevelsCleared() {
+		return this.levelsCleared;
+	}
+
+	/**
+	 * Returns the amount of levels ended without lives.
+	 *
+	 * @return Levels lost.
+	 */
+	public int getLevelsLost() {
+		return this.levelsLost;
+	}
+
+	/**
+	 * Returns how long the ticks of every level played took.
+	 *
+	 * @return Histogram of tick times.
+	 */
+	public FrameHistogram getTickTimes() {
+		return this.tickTimes;
+	}
+
+	/**
+	 * Picks the keys held until the next decision.
+	 *
+	 * @param screen
+	 *            Level being played.
+	 */
+	private void decide(final GameScreen screen) {
+		Ship ship = screen.getShip();
+		this.left = false;
+		this.right = false;
+		this.fire = false;
+		if (ship.isDestroyed())
+			return;
+
+		int center = ship.getPositionX() + ship.getWidth() / 2;
+		// Far enough to look past the ship's width, a shorter step can't
+		// get out of the way of anything.
+		int step = (int) Math.max(ship.getWidth() + BulletStore.WIDTH,
+				Math.ceil(ship.getSpeed() * this.difficulty.reactionTicks));
+		int aim = target(screen.getEnemyShipFormation(), center) - center;
+		int tolerance = this.difficulty.aimTolerance;
+
+		int stayThreat = threat(screen, ship, 0);
+		int leftThreat = ship.getPositionX() - step < 1 ? Integer.MAX_VALUE
+				: threat(screen, ship, -step);
+		int rightThreat = ship.getPositionX() + ship.getWidth() + step
+				> screen.getWidth() - 1 ? Integer.MAX_VALUE
+				: threat(screen, ship, step);
+
+		int move = aim > tolerance ? 1 : aim < -tolerance ? -1 : 0;
+		int moveThreat = move > 0 ? rightThreat
+				: move < 0 ? leftThreat : stayThreat;
+		if (moveThreat > stayThreat)
+			move = 0;
+		if (stayThreat > 0 && Math.min(leftThreat, rightThreat) < stayThreat)
+			move = leftThreat < rightThreat
+					|| leftThreat == rightThreat && aim < 0 ? -1 : 1;
+
+		this.left = move < 0;
+		this.right = move > 0;
+		this.fire = Math.abs(aim) <= tolerance
+				|| obstacleAbove(screen, center, ship.getWidth());
+	}
+
+	/**
+	 * Finds where the ship should line up: under the nearest enemy able to
+	 * shoot.
+	 *
+	 * @param formation
+	 *            Formation of the level.
+	 * @param center
+	 *            Center of the ship.
+	 * @return Center of the nearest shooter, the ship's own center if there
+	 *         is none.
+	 */
+	private static int target(final EnemyShipFormation formation,
+			final int center) {
+		int target = center;
+		int distance = Integer.MAX_VALUE;
+		for (int column = 0; column < formation.getColumns(); column++) {
+			EnemyShip shooter = formation.getShooter(column);
+			if (shooter == null || shooter.isDestroyed())
+				continue;
+			int x = shooter.getPositionX() + shooter.getWidth() / 2;
+			if (Math.abs(x - center) < distance) {
+				distance = Math.abs(x - center);
+				target = x;
+			}
+		}
+		return target;
+	}
+
+	/**
+	 * Weighs the threats to the ship if it were moved sideways: enemy
+	 * bullets and obstacles that would hit it within the lookahead, the
+	 * sooner the heavier.
+	 *
+	 * @param screen
+	 *            Level being played.
+	 * @param ship
+	 *            Ship of the player.
+	 * @param offset
+	 *            Pixels the ship would be moved, to the right.
+	 * @return Weight of the threats, 0 if there are none.
+	 */
+	private int threat(final GameScreen screen, final Ship ship,
+			final int offset) {
+		int lookahead = this.difficulty.lookaheadTicks;
+		int left = ship.getPositionX() + offset - DODGE_MARGIN;
+		int right = ship.getPositionX() + offset + ship.getWidth()
+				+ DODGE_MARGIN;
+		int top = ship.getPositionY();
+		int bottom = top + ship.getHeight();
+		int threat = 0;
+
+		BulletStore bullets = screen.bullets;
+		for (int i = 0; i < bullets.size(); i++) {
+			int speed = bullets.getSpeed(i);
+			int x = bullets.getPositionX(i);
+			int y = bullets.getPositionY(i);
+			if (bullets.getOwner(i) != BulletStore.OWNER_ENEMY || speed <= 0
+					|| y > bottom || x + BulletStore.WIDTH <= left
+					|| x >= right)
+				continue;
+			int ticks = Math.max(0, top - y - BulletStore.HEIGHT) / speed;
+			if (ticks <= lookahead)
+				threat += lookahead + 1 - ticks;
+		}
+		for (Obstacle obstacle : screen.obstacles) {
+			int x = obstacle.getPositionX();
+			int y = obstacle.getPositionY();
+			if (obstacle.isDestroyed() || y > bottom
+					|| x + obstacle.getWidth() <= left || x >= right)
+				continue;
+			int ticks = Math.max(0, top - y - obstacle.getHeight())
+					/ OBSTACLE_SPEED;
+			if (ticks <= lookahead)
+				threat += lookahead + 1 - ticks;
+		}
+		return threat;
+	}
+
+	/**
+	 * Checks if an obstacle is right above the ship, to shoot it down.
+	 *
+	 * @param screen
+	 *            Level being played.
+	 * @param center
+	 *            Center of the ship.
+	 * @param width
+	 *            Width of the ship.
+	 * @return True if a shot would hit an obstacle.
+	 */
+	private static boolean obstacleAbove(final GameScreen screen,
+			final int center, final int width) {
+		for (Obstacle obstacle : screen.obstacles)
+			if (!obstacle.isDestroyed() && Math.abs(obstacle.getPositionX()
+					+ obstacle.getWidth() / 2 - center)
+					< obstacle.getWidth() / 2 + width / 2)
+				return true;
+		return false;
+	}
+}
@@ -0,0 +1,633 @@
+package engine;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Properties;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Plays many headless games with the autopilot to see how changes to the
+ * level settings and to StatusConfig.properties play out: how often each
+ * level is cleared, how long it takes and how many coins it earns.
+ *
+ * Usage:
+ * <pre>
+ * BalancingSimulator games seed report [variant.properties ...]
+ * </pre>
+ * Each variant is a properties file overriding keys of
+ * StatusConfig.properties, the settings of some levels as
+ * level.N = width,height,speed,shooting frequency,waves[,bullet pool] and
+ * the difficulty of the autopilot as autopilot = easy, normal or hard.
+ * Without variants the game is played as it ships. Every variant plays the
+ * same seeds, drawn from the given one, so they can be compared game by
+ * game. One row per level played is streamed to the report, CSV if its
+ * name ends in .csv and JSON lines otherwise, and a summary of each
+ * variant is printed at the end.
+ *
+ * The game keeps its state in singletons, so variants can't share a
+ * process. Each core runs a worker process instead, playing the games it is
+ * handed one after another, with a scratch save folder of its own. Every
+ * game starts from the state of a new game, so its rows don't depend on
+ * what the worker played before it. To make sure, the last seed of each
+ * variant, played after others, is played again alone and has to give
+ * the same rows. The amount of workers can be set with -Dbalancing.workers.
+ *
+ */
+public final class BalancingSimulator {
+
+	/** Resource holding the item and upgrade settings. */
+	private static final String STATUS_CONFIG = "StatusConfig.properties";
+	/** Prefix of the keys overriding the settings of a level. */
+	private static final String LEVEL_KEY = "level.";
+	/** Key of the difficulty of the autopilot. */
+	private static final String AUTOPILOT_KEY = "autopilot";
+	/** Games handed to a worker before it reports the first one. */
+	private static final int GAMES_IN_FLIGHT = 2;
+	/** Worker output line of a level played. */
+	private static final String LEVEL_RECORD = "L";
+	/** Worker output line of a game finished. */
+	private static final String GAME_RECORD = "G";
+	/** Argument that starts a worker. */
+	private static final String WORKER = "worker";
+	/** Argument of a worker playing the game as it ships. */
+	private static final String NO_VARIANT = "-";
+	/** Columns of the CSV report. */
+	private static final String CSV_HEADER =
+			"variant,seed,level,cleared,ticks,score,coins";
+
+	/**
+	 * Constructor, not called.
+	 */
+	private BalancingSimulator() {
+
+	}
+
+	/**
+	 * Plays the games of every variant and prints their summaries.
+	 *
+	 * @param args
+	 *            Amount of games, seed and report file, then the variant
+	 *            files.
+	 * @throws IOException
+	 *             In case of problems with the files or the workers.
+	 * @throws InterruptedException
+	 *             If interrupted while waiting for the workers.
+	 */
+	public static void main(final String[] args)
+			throws IOException, InterruptedException {
+		if (args.length > 1 && args[0].equals(WORKER)) {
+			work(args[1]);
+			System.exit(0);
+		}
+		if (args.length < 3) {
+			System.err.println("Usage: BalancingSimulator games seed report "
+					+ "[variant.properties ...]");
+			System.exit(2);
+		}
+
+		int games = Integer.parseInt(args[0]);
+		long[] seeds = new long[games];
+		SplittableRandom random = new SplittableRandom(Long.parseLong(args[1]));
+		for (int i = 0; i < games; i++)
+			seeds[i] = random.nextLong();
+		int workers = Integer.getInteger("balancing.workers",
+				Runtime.getRuntime().availableProcessors());
+		List<Path> variants = new ArrayList<Path>();
+		for (int i = 3; i < args.length; i++)
+			variants.add(Paths.get(args[i]));
+		if (variants.isEmpty())
+			variants.add(null);
+
+		try (Report report = new Report(Paths.get(args[2]))) {
+			for (Path variant : variants) {
+				long start = System.nanoTime();
+				Summary summary = simulate(variant, seeds, workers, report);
+				double seconds = (System.nanoTime() - start) / 1e9;
+				summary.print(System.out);
+				System.out.printf("%d games in %.1f s on %d workers "
+						+ "(%.1f games/s)%n", games, seconds, workers,
+						games / seconds);
+			}
+		}
+		System.exit(0);
+	}
+
+	/**
+	 * Plays every seed with a variant, spread over worker processes.
+	 *
+	 * @param variant
+	 *            Variant file, null to play the game as it ships.
+	 * @param seeds
+	 *            Seed of each game.
+	 * @param workers
+	 *            Amount of worker processes.
+	 * @param report
+	 *            Report the levels played are written to.
+	 * @return Summary of the games.
+	 * @throws IOException
+	 *             In case of problems with the files or the workers.
+	 * @throws InterruptedException
+	 *             If interrupted while waiting for the workers.
+	 */
+	private static Summary simulate(final Path variant, final long[] seeds,
+			final int workers, final Report report)
+			throws IOException, InterruptedException {
+		Properties overrides = load(variant);
+		String name = variant == null ? "default"
+				: variant.getFileName().toString().replaceFirst("\\.[^.]*$", "");
+		Summary summary = new Summary(name, Core.getLevelSettings().size());
+
+		// Workers find this folder first on their class path, so the game
+		// loads the variant's StatusConfig.properties instead of its own.
+		Path folder = Files.createTempDirectory("balancing");
+		Properties statusConfig = new Properties();
+		try (InputStream input = BalancingSimulator.class.getClassLoader()
+				.getResourceAsStream(STATUS_CONFIG)) {
+			if (input != null)
+				statusConfig.load(input);
+		}
+		for (String key : overrides.stringPropertyNames())
+			if (!key.startsWith(LEVEL_KEY) && !key.equals(AUTOPILOT_KEY))
+				statusConfig.setProperty(key, overrides.getProperty(key));
+		try (Writer writer = Files.newBufferedWriter(
+				folder.resolve(STATUS_CONFIG), StandardCharsets.ISO_8859_1)) {
+			statusConfig.store(writer, "Balancing variant " + name);
+		}
+
+		AtomicInteger next = new AtomicInteger();
+		long checkSeed = seeds.length > 0 ? seeds[seeds.length - 1] : 0;
+		List<String> checkRows = Collections.synchronizedList(
+				new ArrayList<String>());
+		ExecutorService pool = Executors.newFixedThreadPool(workers);
+		try {
+			List<Future<Void>> results = new ArrayList<Future<Void>>();
+			for (int i = 0; i < workers; i++)
+				results.add(pool.submit(() -> {
+					runWorker(folder, variant, seeds, next, fields -> {
+						record(summary, report, fields);
+						if (Long.parseLong(fields[1]) == checkSeed)
+							checkRows.add(String.join(" ", fields));
+					}, summary::addGame);
+					return null;
+				}));
+			for (Future<Void> result : results)
+				result.get();
+
+			if (seeds.length > 0) {
+				List<String> aloneRows = new ArrayList<String>();
+				runWorker(folder, variant, new long[] { checkSeed },
+						new AtomicInteger(),
+						fields -> aloneRows.add(String.join(" ", fields)),
+						() -> {
+						});
+				if (!aloneRows.equals(checkRows))
+					throw new IOException("Seed " + checkSeed + " played "
+							+ checkRows + " after other games but "
+							+ aloneRows + " alone");
+			}
+		} catch (ExecutionException e) {
+			throw new IOException("Worker failed", e.getCause());
+		} finally {
+			pool.shutdownNow();
+			try (Stream<Path> files = Files.walk(folder)) {
+				files.sorted(Comparator.reverseOrder()).map(Path::toFile)
+						.forEach(File::delete);
+			}
+		}
+		return summary;
+	}
+
+	/**
+	 * Adds a level reported by a worker to the summary and the report.
+	 *
+	 * @param summary
+	 *            Summary the level is added to.
+	 * @param report
+	 *            Report the level is written to.
+	 * @param fields
+	 *            Fields of the worker's line of the level.
+	 * @throws UncheckedIOException
+	 *             In case of problems writing the report.
+	 */
+	private static void record(final Summary summary, final Report report,
+			final String[] fields) {
+		long seed = Long.parseLong(fields[1]);
+		int level = Integer.parseInt(fields[2]);
+		boolean cleared = fields[3].equals("1");
+		long ticks = Long.parseLong(fields[4]);
+		int score = Integer.parseInt(fields[5]);
+		int coins = Integer.parseInt(fields[6]);
+		summary.addLevel(level, cleared, ticks, coins);
+		try {
+			report.write(summary.getName(), seed, level, cleared, ticks,
+					score, coins);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Starts a worker process and hands it games until every seed is
+	 * taken, passing on what it reports.
+	 *
+	 * @param folder
+	 *            Folder of the variant.
+	 * @param variant
+	 *            Variant file, null to play the game as it ships.
+	 * @param seeds
+	 *            Seed of each game.
+	 * @param next
+	 *            Index of the next seed to hand out, shared by the workers.
+	 * @param onLevel
+	 *            Given the fields of each level played: seed, level,
+	 *            cleared, ticks, score and coins after the record type.
+	 * @param onGame
+	 *            Run for each game finished.
+	 * @throws IOException
+	 *             In case of problems with the worker.
+	 * @throws InterruptedException
+	 *             If interrupted while waiting for the worker.
+	 */
+	private static void runWorker(final Path folder, final Path variant,
+			final long[] seeds, final AtomicInteger next,
+			final Consumer<String[]> onLevel, final Runnable onGame)
+			throws IOException, InterruptedException {
+		Path saveFolder = Files.createTempDirectory(folder, WORKER);
+		String java = Paths.get(System.getProperty("java.home"), "bin", "java")
+				.toString();
+		// The worker runs in its save folder, so relative entries of the
+		// class path would no longer be found.
+		StringBuilder classPath = new StringBuilder(folder.toString());
+		for (String entry : System.getProperty("java.class.path")
+				.split(File.pathSeparator))
+			classPath.append(File.pathSeparator)
+					.append(Paths.get(entry).toAbsolutePath());
+		ProcessBuilder builder = new ProcessBuilder(java, "-cp",
+				classPath.toString(),
+				BalancingSimulator.class.getName(), WORKER,
+				variant == null ? NO_VARIANT : variant.toAbsolutePath().toString());
+		builder.directory(saveFolder.toFile());
+		builder.redirectError(ProcessBuilder.Redirect.INHERIT);
+		Process process = builder.start();
+
+		// The input is closed as soon as the last seed is handed out, so the
+		// worker sees its end and exits, not along with the output.
+		Writer input = new BufferedWriter(new OutputStreamWriter(
+				process.getOutputStream(), StandardCharsets.US_ASCII));
+		try (BufferedReader output = new BufferedReader(new InputStreamReader(
+				process.getInputStream(), StandardCharsets.US_ASCII))) {
+			int inFlight = handOut(input, seeds, next, GAMES_IN_FLIGHT);
+			if (inFlight == 0)
+				input.close();
+			String line;
+			while ((line = output.readLine()) != null) {
+				String[] fields = line.split(" ");
+				if (fields[0].equals(LEVEL_RECORD)) {
+					onLevel.accept(fields);
+				} else if (fields[0].equals(GAME_RECORD)) {
+					onGame.run();
+					inFlight += handOut(input, seeds, next, 1) - 1;
+					if (inFlight == 0)
+						input.close();
+				}
+			}
+		} finally {
+			input.close();
+		}
+		if (process.waitFor() != 0)
+			throw new IOException("Worker exited with " + process.exitValue());
+	}
+
+	/**
+	 * Hands seeds not taken yet to a worker.
+	 *
+	 * @param input
+	 *            Input of the worker.
+	 * @param seeds
+	 *            Seed of each game.
+	 * @param next
+	 *            Index of the next seed to hand out.
+	 * @param amount
+	 *            Most seeds to hand out.
+	 * @return Seeds handed out.
+	 * @throws IOException
+	 *             In case of problems writing to the worker.
+	 */
+	private static int handOut(final Writer input, final long[] seeds,
+			final AtomicInteger next, final int amount) throws IOException {
+		int handed = 0;
+		while (handed < amount) {
+			int i = next.getAndIncrement();
+			if (i >= seeds.length)
+				break;
+			input.write(seeds[i] + "\n");
+			handed++;
+		}
+		input.flush();
+		return handed;
+	}
+
+	/**
+	 * Plays the games handed to this worker, one seed per line of the
+	 * standard input, writing a line for each level played and one for
+	 * each game finished to the standard output.
+	 *
+	 * @param variant
+	 *            Variant file, or NO_VARIANT.
+	 * @throws IOException
+	 *             In case of problems reading the variant or the input.
+	 */
+	private static void work(final String variant) throws IOException {
+		// Anything the game prints would be taken for results.
+		PrintStream results = System.out;
+		System.setOut(System.err);
+
+		Properties overrides = load(variant.equals(NO_VARIANT) ? null
+				: Paths.get(variant));
+		List<GameSettings> levelSettings = levelSettings(overrides);
+		Autopilot autopilot = new Autopilot(Autopilot.Difficulty.valueOf(
+				overrides.getProperty(AUTOPILOT_KEY, "normal").trim()
+						.toUpperCase()));
+		HeadlessSimulation.install(autopilot);
+		Core.getFileManager().setSaveDirectory(
+				Paths.get("").toAbsolutePath().toFile());
+
+		BufferedReader input = new BufferedReader(new InputStreamReader(
+				System.in, StandardCharsets.US_ASCII));
+		long[] levelStart = new long[1];
+		String line;
+		while ((line = input.readLine()) != null) {
+			long seed = Long.parseLong(line.trim());
+			levelStart[0] = autopilot.getTicks();
+			HeadlessSimulation.playGame(levelSettings,
+					HeadlessSimulation.newGame(), seed, (gameState, round) -> {
+						long ticks = autopilot.getTicks();
+						results.println(LEVEL_RECORD + " " + seed + " "
+								+ gameState.getLevel() + " "
+								+ (gameState.getLivesRemaining() > 0 ? 1 : 0)
+								+ " " + (ticks - levelStart[0]) + " "
+								+ round.getRoundScore() + " "
+								+ round.getRoundCoin());
+						levelStart[0] = ticks;
+					});
+			autopilot.finishLevel();
+			results.println(GAME_RECORD + " " + seed);
+			results.flush();
+		}
+	}
+
+	/**
+	 * Returns the level settings of a variant, the game's own ones for the
+	 * levels it doesn't override.
+	 *
+	 * @param overrides
+	 *            Keys of the variant.
+	 * @return Settings of each level.
+	 */
+	private static List<GameSettings> levelSettings(final Properties overrides) {
+		List<GameSettings> levelSettings = Core.getLevelSettings();
+		for (int level = 1; level <= levelSettings.size(); level++) {
+			String value = overrides.getProperty(LEVEL_KEY + level);
+			if (value == null)
+				continue;
+			String[] fields = value.split(",");
+			int[] numbers = new int[fields.length];
+			for (int i = 0; i < fields.length; i++)
+				numbers[i] = Integer.parseInt(fields[i].trim());
+			if (numbers.length < 5 || numbers.length > 6)
+				throw new IllegalArgumentException(LEVEL_KEY + level
+						+ " needs width, height, speed, frequency and waves");
+			levelSettings.set(level - 1, new GameSettings(numbers[0],
+					numbers[1], numbers[2], numbers[3], numbers[4],
+					numbers.length > 5 ? numbers[5]
+							: levelSettings.get(level - 1).getBulletPoolSize()));
+		}
+		return levelSettings;
+	}
+
+	/**
+	 * Loads a variant file.
+	 *
+	 * @param variant
+	 *            Variant file, null for none.
+	 * @return Keys of the variant, empty if there is none.
+	 * @throws IOException
+	 *             In case of problems reading the file.
+	 */
+	private static Properties load(final Path variant) throws IOException {
+		Properties properties = new Properties();
+		if (variant != null)
+			try (Reader reader = Files.newBufferedReader(variant,
+					StandardCharsets.ISO_8859_1)) {
+				properties.load(reader);
+			}
+		return properties;
+	}
+
+	/**
+	 * Totals of the games of a variant, by level. Every worker adds to it
+	 * at once, so each total is a LongAdder, which takes concurrent
+	 * additions without locking and only sums them up when read.
+	 *
+	 */
+	private static final class Summary {
+
+		/** Name of the variant. */
+		private final String name;
+		/** Games finished. */
+		private final LongAdder games;
+		/** Times each level was played. */
+		private final LongAdder[] played;
+		/** Times each level was cleared. */
+		private final LongAdder[] cleared;
+		/** Ticks spent on each level. */
+		private final LongAdder[] ticks;
+		/** Coins earned on each level. */
+		private final LongAdder[] coins;
+
+		/**
+		 * Constructor.
+		 *
+		 * @param name
+		 *            Name of the variant.
+		 * @param levels
+		 *            Amount of levels.
+		 */
+		Summary(final String name, final int levels) {
+			this.name = name;
+			this.games = new LongAdder();
+			this.played = adders(levels);
+			this.cleared = adders(levels);
+			this.ticks = adders(levels);
+			this.coins = adders(levels);
+		}
+
+		/**
+		 * Creates a total for each level.
+		 *
+		 * @param levels
+		 *            Amount of levels.
+		 * @return Totals, starting at 0.
+		 */
+		private static LongAdder[] adders(final int levels) {
+			LongAdder[] adders = new LongAdder[levels];
+			for (int i = 0; i < levels; i++)
+				adders[i] = new LongAdder();
+			return adders;
+		}
+
+		/**
+		 * Returns the name of the variant.
+		 *
+		 * @return Name of the variant.
+		 */
+		String getName() {
+			return this.name;
+		}
+
+		/**
+		 * Adds a level played.
+		 *
+		 * @param level
+		 *            Level number, from 1.
+		 * @param isCleared
+		 *            If the level ended with lives left.
+		 * @param levelTicks
+		 *            Ticks the level took.
+		 * @param levelCoins
+		 *            Coins earned on the level.
+		 */
+		void addLevel(final int level, final boolean isCleared,
+				final long levelTicks, final int levelCoins) {
+			int i = level - 1;
+			this.played[i].increment();
+			if (isCleared)
+				this.cleared[i].increment();
+			this.ticks[i].add(levelTicks);
+			this.coins[i].add(levelCoins);
+		}
+
+		/**
+		 * Adds a game finished.
+		 */
+		void addGame() {
+			this.games.increment();
+		}
+
+		/**
+		 * Prints the totals of each level played.
+		 *
+		 * @param out
+		 *            Stream to print to.
+		 */
+		void print(final PrintStream out) {
+			out.printf("Variant %s, %d games:%n", this.name,
+					this.games.sum());
+			for (int i = 0; i < this.played.length; i++) {
+				long levelPlayed = this.played[i].sum();
+				if (levelPlayed == 0)
+					continue;
+				out.printf("  level %d: cleared %d of %d (%.1f%%), "
+						+ "%.1f s and %.1f coins on average%n", i + 1,
+						this.cleared[i].sum(), levelPlayed,
+						100.0 * this.cleared[i].sum() / levelPlayed,
+						(double) this.ticks[i].sum() / levelPlayed / Core.FPS,
+						(double) this.coins[i].sum() / levelPlayed);
+			}
+		}
+	}
+
+	/**
+	 * Report file the levels played are streamed to, one row each.
+	 *
+	 */
+	private static final class Report implements Closeable {
+
+		/** Writer of the report. */
+		private final Writer writer;
+		/** If the rows are CSV, or else JSON lines. */
+		private final boolean csv;
+
+		/**
+		 * Constructor, creates the report.
+		 *
+		 * @param path
+		 *            File of the report, CSV if its name ends in .csv.
+		 * @throws IOException
+		 *             In case the file can't be created.
+		 */
+		Report(final Path path) throws IOException {
+			this.writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8);
+			this.csv = path.getFileName().toString().endsWith(".csv");
+			if (this.csv)
+				this.writer.write(CSV_HEADER + "\n");
+		}
+
+		/**
+		 * Writes a level played. Rows of every worker go through here, one
+		 * at a time.
+		 *
+		 * @param variant
+		 *            Name of the variant.
+		 * @param seed
+		 *            Seed of the game.
+		 * @param level
+		 *            Level number.
+		 * @param cleared
+		 *            If the level ended with lives left.
+		 * @param ticks
+		 *            Ticks the level took.
+		 * @param score
+		 *            Points scored on the level.
+		 * @param coins
+		 *            Coins earned on the level.
+		 * @throws IOException
+		 *             In case of problems writing the file.
+		 */
+		synchronized void write(final String variant, final long seed,
+				final int level, final boolean cleared, final long ticks,
+				final int score, final int coins) throws IOException {
+			if (this.csv)
+				this.writer.write(variant + "," + seed + "," + level + ","
+						+ cleared + "," + ticks + "," + score + "," + coins
+						+ "\n");
+			else
+				this.writer.write("{\"variant\":\"" + variant.replace("\\",
+						"\\\\").replace("\"", "\\\"") + "\",\"seed\":" + seed
+						+ ",\"level\":" + level + ",\"cleared\":" + cleared
+						+ ",\"ticks\":" + ticks + ",\"score\":" + score
+						+ ",\"coins\":" + coins + "}\n");
+		}
+
+		@Override
+		public void close() throws IOException {
+			this.writer.close();
+		}
+	}
+}
@@ -1,5 +1,7 @@
 package engine;
 
+import java.nio.ByteBuffer;
+
 /**
  * Imposes a cooldown period between two actions.
  * 
@@ -53,7 +55,7 @@ public class Cooldown {
 	 */
 	public final boolean checkFinished() {
 		if ((this.time == 0)
-				|| this.time + this.duration < System.currentTimeMillis())
+				|| this.time + this.duration < GameClock.currentTimeMillis())
 			return true;
 		return false;
 	}
@@ -62,10 +64,75 @@ public class Cooldown {
 	 * Restarts the cooldown.
 	 */
 	public final void reset() {
-		this.time = System.currentTimeMillis();
+		this.time = GameClock.currentTimeMillis();
 		if (this.variance != 0)
 			this.duration = (this.milliseconds - this.variance)
-					+ (int) (Math.random()
+					+ (int) (Core.getGameRandom().nextDouble(
+							GameRandom.Stream.COOLDOWNS)
 							* (this.milliseconds + this.variance));
 	}
+
+	/**
+	 * Writes the state of the cooldown, with its start relative to now so it
+	 * can be restored later.
+	 *
+	 * @param buffer
+	 *            Buffer to write to.
+	 */
+	public final void writeState(final ByteBuffer buffer) {
+		buffer.putInt(this.milliseconds);
+		buffer.putInt(this.variance);
+		buffer.putInt(this.duration);
+		buffer.putLong(this.time == 0 ? Long.MIN_VALUE
+				: GameClock.currentTimeMillis() - this.time);
+	}
+
+	/**
+	 * Writes the state of a cooldown that may not exist.
+	 *
+	 * @param buffer
+	 *            Buffer to write to.
+	 * @param cooldown
+	 *            Cooldown to write, or null.
+	 */
+	public static void writeOptional(final ByteBuffer buffer,
+			final Cooldown cooldown) {
+		buffer.put((byte) (cooldown == null ? 0 : 1));
+		if (cooldown != null)
+			cooldown.writeState(buffer);
+	}
+
+	/**
+	 * Restores a state written by writeOptional().
+	 *
+	 * @param buffer
+	 *            Buffer to read from.
+	 * @param cooldown
+	 *            Cooldown to restore into, or null to create one if needed.
+	 * @return Restored cooldown, null if there was none.
+	 */
+	public static Cooldown readOptional(final ByteBuffer buffer,
+			final Cooldown cooldown) {
+		if (buffer.get() == 0)
+			return null;
+		Cooldown restored = cooldown == null ? new Cooldown(0) : cooldown;
+		restored.readState(buffer);
+		return restored;
+	}
+
+	/**
+	 * Restores a state written by writeState(), as much of it left as when
+	 * it was written.
+	 *
+	 * @param buffer
+	 *            Buffer to read from.
+	 */
+	public final void readState(final ByteBuffer buffer) {
+		this.milliseconds = buffer.getInt();
+		this.variance = buffer.getInt();
+		this.duration = buffer.getInt();
+		long elapsed = buffer.getLong();
+		this.time = elapsed == Long.MIN_VALUE ? 0
+				: GameClock.currentTimeMillis() - elapsed;
+	}
 }
@@ -13,13 +13,18 @@ import CtrlS.CurrencyManager;
 import CtrlS.RoundState;
 import CtrlS.ReceiptScreen;
 import CtrlS.UpgradeManager;
+import Enemy.ItemPool;
+import Enemy.PlayerGrowth;
 import Sound_Operator.SoundManager;
 import clove.Statistics;
 import level_design.Background;
 import CtrlS.RoundState;
 import CtrlS.ReceiptScreen;
 import Sound_Operator.SoundManager;
+import clove.AchievementConditions;
 import clove.AchievementManager;
+import inventory_develop.Bomb;
+import inventory_develop.NumberOfBullet;
 import screen.*;
 import twoplayermode.TwoPlayerMode;
 
@@ -33,40 +38,40 @@ import twoplayermode.TwoPlayerMode;
 public final class Core {
 
 	/** Width of current screen. */
-	private static final int WIDTH = 630;
+	static final int WIDTH = 630;
 	/** Height of current screen. */
-	private static final int HEIGHT = 720;
+	static final int HEIGHT = 720;
 	/** Max fps of current screen. */
-	private static final int FPS = 60;
+	static final int FPS = 60;
 
 	/** Max lives. */
 	public static final int MAX_LIVES = 3; // TEAM CLOVER: Fixed MAX_LIVES from private to public for usage in achievement
 	/** Levels between extra life. */
-	private static final int EXTRA_LIFE_FRECUENCY = 3;
+	static final int EXTRA_LIFE_FRECUENCY = 3;
 	/** Total number of levels. */
 	public static final int NUM_LEVELS = 7; // TEAM CLOVER : Fixed NUM_LEVELS from privated to public for usage in achievement
 	
 	/** Difficulty settings for level 1. */
 	private static final GameSettings SETTINGS_LEVEL_1 =
-			new GameSettings(5, 4, 60, 2000, 1);
+			new GameSettings(5, 4, 60, 2000, 1, 32);
 	/** Difficulty settings for level 2. */
 	private static final GameSettings SETTINGS_LEVEL_2 =
-			new GameSettings(5, 5, 50, 2500, 1);
+			new GameSettings(5, 5, 50, 2500, 1, 32);
 	/** Difficulty settings for level 3. */
 	private static final GameSettings SETTINGS_LEVEL_3 =
-			new GameSettings(1, 1, -8, 500, 1);
+			new GameSettings(1, 1, -8, 500, 1, 32);
 	/** Difficulty settings for level 4. */
 	private static final GameSettings SETTINGS_LEVEL_4 =
-			new GameSettings(6, 6, 30, 1500, 2);
+			new GameSettings(6, 6, 30, 1500, 2, 48);
 	/** Difficulty settings for level 5. */
 	private static final GameSettings SETTINGS_LEVEL_5 =
-			new GameSettings(7, 6, 20, 1000, 2);
+			new GameSettings(7, 6, 20, 1000, 2, 64);
 	/** Difficulty settings for level 6. */
 	private static final GameSettings SETTINGS_LEVEL_6 =
-			new GameSettings(7, 7, 10, 1000, 3);
+			new GameSettings(7, 7, 10, 1000, 3, 64);
 	/** Difficulty settings for level 7. */
 	private static final GameSettings SETTINGS_LEVEL_7 =
-			new GameSettings(8, 7, 2, 500, 1);
+			new GameSettings(8, 7, 2, 500, 1, 96);
 	
 	/** Frame to draw the screen on. */
 	private static Frame frame;
@@ -84,6 +89,10 @@ public final class Core {
 	// Sound Operator
 	private static SoundManager sm;
     private static AchievementManager achievementManager; // Team CLOVER
+	/** Input read by the screens, null to use the keyboard. */
+	private static InputSource inputSource;
+	/** If the game runs without a window, sound or frame pacing. */
+	private static boolean headless;
 
 	/**
 	 * Test implementation.
@@ -134,14 +143,7 @@ public final class Core {
 		/** Initialize singleton instance of a background*/
 		Background.getInstance().initialize(frame);
 
-		gameSettings = new ArrayList<GameSettings>();
-		gameSettings.add(SETTINGS_LEVEL_1);
-		gameSettings.add(SETTINGS_LEVEL_2);
-		gameSettings.add(SETTINGS_LEVEL_3);
-		gameSettings.add(SETTINGS_LEVEL_4);
-		gameSettings.add(SETTINGS_LEVEL_5);
-		gameSettings.add(SETTINGS_LEVEL_6);
-		gameSettings.add(SETTINGS_LEVEL_7);
+		gameSettings = getLevelSettings();
 		
 		GameState gameState;
 		RoundState roundState;
@@ -168,6 +170,7 @@ public final class Core {
 				// Sound Operator
 				sm.playES("start_button_ES");
 				sm.playBGM("inGame_bgm");
+				startGameRandom();
 
 				do {
 					// One extra live every few levels.
@@ -263,17 +266,11 @@ public final class Core {
 				// Sound Operator
 				sm.playES("start_button_ES");
 				sm.playBGM("inGame_bgm");
+				startGameRandom();
 
 				do {
 					if (gameSettings == null || gameSettings.isEmpty()) {
-						gameSettings = new ArrayList<>();
-						gameSettings.add(SETTINGS_LEVEL_1);
-						gameSettings.add(SETTINGS_LEVEL_2);
-						gameSettings.add(SETTINGS_LEVEL_3);
-						gameSettings.add(SETTINGS_LEVEL_4);
-						gameSettings.add(SETTINGS_LEVEL_5);
-						gameSettings.add(SETTINGS_LEVEL_6);
-						gameSettings.add(SETTINGS_LEVEL_7);
+						gameSettings = getLevelSettings();
 					}
 
 					GameSettings currentGameSettings = gameSettings.get(gameState.getLevel() - 1);
@@ -396,9 +393,12 @@ public final class Core {
 	/**
 	 * Controls access to the drawing manager.
 	 * 
-	 * @return Application draw manager.
+	 * @return Application draw manager, one that draws nothing if the game
+	 *         is headless.
 	 */
 	public static DrawManager getDrawManager() {
+		if (headless)
+			return NullDrawManager.getInstance();
 		return DrawManager.getInstance();
 	}
 
@@ -411,6 +411,69 @@ public final class Core {
 		return InputManager.getInstance();
 	}
 
+	/**
+	 * Controls access to the input read by the screens.
+	 *
+	 * @return Installed input source, or the input manager if there is none.
+	 */
+	public static InputSource getInputSource() {
+		if (inputSource == null)
+			return getInputManager();
+		return inputSource;
+	}
+
+	/**
+	 * Replaces the keyboard as the input read by new screens.
+	 *
+	 * @param source
+	 *            Input source to use, null to go back to the keyboard.
+	 */
+	public static void setInputSource(final InputSource source) {
+		inputSource = source;
+	}
+
+	/**
+	 * Checks if the game runs headless.
+	 *
+	 * @return True if screens are neither drawn nor paced.
+	 */
+	public static boolean isHeadless() {
+		return headless;
+	}
+
+	/**
+	 * Makes the game run headless: screens are not drawn, sound is muted
+	 * and ticks run as fast as possible on a simulated clock.
+	 *
+	 * @param isHeadless
+	 *            If the game runs headless.
+	 */
+	public static void setHeadless(final boolean isHeadless) {
+		headless = isHeadless;
+		if (isHeadless) {
+			SoundManager.useNullBackend();
+			if (!GameClock.isSimulated())
+				GameClock.startSimulation(System.currentTimeMillis());
+		}
+	}
+
+	/**
+	 * Returns the difficulty settings of every level.
+	 *
+	 * @return New list with the settings of each level, in order.
+	 */
+	public static List<GameSettings> getLevelSettings() {
+		List<GameSettings> settings = new ArrayList<GameSettings>();
+		settings.add(SETTINGS_LEVEL_1);
+		settings.add(SETTINGS_LEVEL_2);
+		settings.add(SETTINGS_LEVEL_3);
+		settings.add(SETTINGS_LEVEL_4);
+		settings.add(SETTINGS_LEVEL_5);
+		settings.add(SETTINGS_LEVEL_6);
+		settings.add(SETTINGS_LEVEL_7);
+		return settings;
+	}
+
 	/**
 	 * Controls access to the file manager.
 	 * 
@@ -420,6 +483,65 @@ public final class Core {
 		return FileManager.getInstance();
 	}
 
+	/**
+	 * Controls access to the frame profiler.
+	 *
+	 * @return Application frame profiler.
+	 */
+	public static FrameProfiler getFrameProfiler() {
+		return FrameProfiler.getInstance();
+	}
+
+	/**
+	 * Controls access to the tick scheduler.
+	 *
+	 * @return Application tick scheduler.
+	 */
+	public static TickScheduler getTickScheduler() {
+		return TickScheduler.getInstance();
+	}
+
+	/**
+	 * Starts a new game from a random seed, and logs the seed so the game
+	 * can be reproduced.
+	 */
+	private static void startGameRandom() {
+		startGame(GameRandom.newSeed());
+		LOGGER.info("Game seed: " + getGameRandom().getSeed());
+	}
+
+	/**
+	 * Seeds the random numbers of a new game and puts back the state the
+	 * previous game left in classes shared by every game: bullet levels,
+	 * ship stats, the bomb, recycled items and the kills counted for fast
+	 * kills. A simulated clock starts the game on a whole millisecond, as
+	 * the first game does, so its timings round the same way. Given the
+	 * same seed and input, the game then plays the same whatever was
+	 * played before it.
+	 *
+	 * @param seed
+	 *            Seed of the random numbers of the game.
+	 */
+	public static void startGame(final long seed) {
+		getGameRandom().reseed(seed);
+		if (GameClock.isSimulated())
+			GameClock.startSimulation(GameClock.currentTimeMillis());
+		NumberOfBullet.reset();
+		PlayerGrowth.reset();
+		Bomb.reset();
+		ItemPool.clear();
+		AchievementConditions.getInstance().startGame();
+	}
+
+	/**
+	 * Controls access to the random numbers of the game logic.
+	 *
+	 * @return Application game random.
+	 */
+	public static GameRandom getGameRandom() {
+		return GameRandom.getInstance();
+	}
+
 	/**
 	 * Controls creation of new cooldowns.
 	 * 
@@ -5,6 +5,7 @@ import java.awt.Font;
 import java.awt.FontFormatException;
 import java.awt.FontMetrics;
 import java.awt.Graphics;
+import java.awt.Transparency;
 import java.awt.image.BufferedImage;
 import java.io.IOException;
 import java.io.InputStream;
@@ -14,6 +15,7 @@ import java.util.Map;
 import java.util.logging.Logger;
 
 import CtrlS.RoundState;
+import Enemy.HpEnemyShip;
 import CtrlS.Gem;
 import entity.AddSign;
 import entity.Coin;
@@ -41,8 +43,6 @@ public class DrawManager {
 	private static FileManager fileManager;
 	/** Application logger. */
 	private static Logger logger;
-	/** Graphics context. */
-	private static Graphics graphics;
 	/** Buffer Graphics. */
 	public static Graphics backBufferGraphics;	// Modifying Access Restrictor to public - Lee Hyun Woo
 	/** Buffer image. */
@@ -62,6 +62,8 @@ public class DrawManager {
 
 	/** Sprite types mapped to their images. */
 	private static Map<SpriteType, boolean[][]> spriteMap;
+	/** Sprites rasterized per color. */
+	private static SpriteAtlas spriteAtlas;
 
 	/** Sprite types. */
 	public static enum SpriteType {
@@ -135,8 +137,20 @@ public class DrawManager {
 	* - HUDTeam - LeeHyunWoo
 	*/
 	public DrawManager() {
+		this(true);
+	}
+
+	/**
+	 * Constructor for subclasses that may skip loading sprites and fonts.
+	 *
+	 * @param loadResources
+	 *            If sprites and fonts are loaded.
+	 */
+	protected DrawManager(final boolean loadResources) {
 		fileManager = Core.getFileManager();
 		logger = Core.getLogger();
+		if (!loadResources)
+			return;
 		logger.info("Started loading resources.");
 
 		try {
@@ -180,6 +194,9 @@ public class DrawManager {
 			spriteMap.put(SpriteType.BossARight2, new boolean[12][24]);
 
 			fileManager.loadSprite(spriteMap);
+			spriteAtlas = new SpriteAtlas(spriteMap);
+			spriteAtlas.prewarm(Color.WHITE, HpEnemyShip.HP_TWO_COLOR,
+					HpEnemyShip.HP_THREE_COLOR);
 			logger.info("Finished loading the sprites.");
 
 			// Font loading.
@@ -216,30 +233,51 @@ public class DrawManager {
 	}
 
 	/**
-	 * First part of the drawing process. Initialices buffers, draws the
-	 * background and prepares the images.
+	 * First part of the drawing process. Clears the back buffer, creating it
+	 * the first time or when the screen size changes.
 	 *
 	 * @param screen
 	 *            Screen to draw in.
 	 */
 	public void initDrawing(final Screen screen) {
-		backBuffer = new BufferedImage(screen.getWidth(), screen.getHeight(),
-				BufferedImage.TYPE_INT_RGB);
-
-		graphics = frame.getGraphics();
-		backBufferGraphics = backBuffer.getGraphics();
+		if (backBuffer == null || backBuffer.getWidth() != screen.getWidth()
+				|| backBuffer.getHeight() != screen.getHeight()) {
+			if (backBufferGraphics != null)
+				backBufferGraphics.dispose();
+			backBuffer = createBackBuffer(screen.getWidth(),
+					screen.getHeight());
+			backBufferGraphics = backBuffer.getGraphics();
+
+			fontRegularMetrics = backBufferGraphics.getFontMetrics(fontRegular);
+			fontBigMetrics = backBufferGraphics.getFontMetrics(fontBig);
+		}
 
 		backBufferGraphics.setColor(Color.BLACK);
 		backBufferGraphics
 				.fillRect(0, 0, screen.getWidth(), screen.getHeight());
 
-		fontRegularMetrics = backBufferGraphics.getFontMetrics(fontRegular);
-		fontBigMetrics = backBufferGraphics.getFontMetrics(fontBig);
-
 		// drawBorders(screen);
 		// drawGrid(screen);
 	}
 
+	/**
+	 * Creates the back buffer, compatible with the frame's display when
+	 * there is one so blitting it needs no conversion.
+	 *
+	 * @param width
+	 *            Buffer width.
+	 * @param height
+	 *            Buffer height.
+	 * @return Opaque image to draw the screen on.
+	 */
+	private static BufferedImage createBackBuffer(final int width,
+			final int height) {
+		if (frame != null && frame.getGraphicsConfiguration() != null)
+			return frame.getGraphicsConfiguration().createCompatibleImage(
+					width, height, Transparency.OPAQUE);
+		return new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+	}
+
 	/**
 	 * Draws the completed drawing on screen.
 	 *
@@ -247,8 +285,7 @@ public class DrawManager {
 	 *            Screen to draw on.
 	 */
 	public void completeDrawing(final Screen screen) {
-		graphics.drawImage(backBuffer, frame.getInsets().left,
-				frame.getInsets().top, frame);
+		frame.present(backBuffer);
 	}
 
 	/**
@@ -265,14 +302,9 @@ public class DrawManager {
 						   final int positionY) {
 
 		try {
-			boolean[][] image = spriteMap.get(entity.getSpriteType());
-
-			backBufferGraphics.setColor(entity.getColor());
-			for (int i = 0; i < image.length; i++)
-				for (int j = 0; j < image[i].length; j++)
-					if (image[i][j])
-						backBufferGraphics.drawRect(positionX + i * 2, positionY
-								+ j * 2, 1, 1);
+			backBufferGraphics.drawImage(spriteAtlas.getImage(
+					entity.getSpriteType(), entity.getColor()),
+					positionX, positionY, null);
 
 		} catch(Exception e) {
 
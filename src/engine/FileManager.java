@@ -3,16 +3,15 @@ package engine;
 import java.awt.Font;
 import java.awt.FontFormatException;
 import java.io.BufferedReader;
-import java.io.BufferedWriter;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
-import java.io.FileNotFoundException;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
-import java.io.OutputStream;
-import java.io.OutputStreamWriter;
 import java.net.URLDecoder;
 import java.nio.charset.Charset;
 import java.util.*;
@@ -23,7 +22,8 @@ import engine.DrawManager.SpriteType;
 import clove.Statistics; //Team Clove
 
 /**
- * Manages files used in the application.
+ * Manages files used in the application. Everything the player saves is
+ * kept in a single save store next to the jar.
  * 
  * @author <a href="mailto:RobertoIA1987@gmail.com">Roberto Izquierdo Amo</a>
  * 
@@ -38,6 +38,13 @@ public final class FileManager {
 	private static final int MAX_SCORES = 7;
 	/** Max number of recent recorded scores / Team Clove */
 	private static final int MAX_RECORD = 10;
+	/** Name of the save file. */
+	private static final String SAVE_FILE = "save";
+
+	/** Player data, null until first used. */
+	private SaveStore saveStore;
+	/** Folder the game saves to, null until first used. */
+	private File saveDirectory;
 
 	/**
 	 * private constructor.
@@ -133,94 +140,198 @@ public final class FileManager {
 		return font;
 	}
 
+	/**
+	 * Returns the save store, reading the save file the first time. If there
+	 * is no save file yet, the files older versions saved are moved into it.
+	 *
+	 * @return Save store of the player.
+	 * @throws IOException
+	 *             In case of loading problems.
+	 */
+	private synchronized SaveStore store() throws IOException {
+		if (this.saveStore == null) {
+			File directory = saveDirectory();
+			SaveStore store = new SaveStore(
+					new File(directory, SAVE_FILE).toPath());
+			if (!store.load())
+				migrate(store, directory);
+			this.saveStore = store;
+		}
+		return this.saveStore;
+	}
+
+	/**
+	 * Returns the folder the game saves to, the one holding the jar.
+	 *
+	 * @return Save folder.
+	 * @throws IOException
+	 *             In case the path can't be decoded.
+	 */
+	private File saveDirectory() throws IOException {
+		if (this.saveDirectory == null) {
+			String jarPath = FileManager.class.getProtectionDomain()
+					.getCodeSource().getLocation().getPath();
+			jarPath = URLDecoder.decode(jarPath, "UTF-8");
+			this.saveDirectory = new File(jarPath).getParentFile();
+		}
+		return this.saveDirectory;
+	}
+
+	/**
+	 * Makes the game save to another folder from now on, such as a scratch
+	 * one for simulated games that shouldn't touch the player's data.
+	 *
+	 * @param directory
+	 *            Save folder.
+	 */
+	public synchronized void setSaveDirectory(final File directory) {
+		this.saveDirectory = directory;
+		this.saveStore = null;
+	}
+
+	/**
+	 * Moves the text files older versions saved into the save store. The
+	 * old files are left as they are, and never read again once the save
+	 * file exists.
+	 *
+	 * @param store
+	 *            Empty save store.
+	 * @param directory
+	 *            Folder of the old files.
+	 */
+	private void migrate(final SaveStore store, final File directory) {
+		File scoresFile = new File(directory, "scores");
+		if (scoresFile.exists()) {
+			try (InputStream inputStream = new FileInputStream(scoresFile)) {
+				store.put(SaveStore.Section.HIGH_SCORES,
+						encodeHighScores(readHighScores(inputStream)));
+			} catch (IOException | RuntimeException e) {
+				logger.warning("Couldn't migrate high scores: " + e);
+			}
+		}
+
+		File recentFile = new File(directory, "recent");
+		if (recentFile.exists()) {
+			try (InputStream inputStream = new FileInputStream(recentFile)) {
+				store.put(SaveStore.Section.RECENT_SCORES,
+						encodeRecentScores(readRecentScores(inputStream)));
+			} catch (IOException | RuntimeException e) {
+				logger.warning("Couldn't migrate recent scores: " + e);
+			}
+		}
+
+		File staticsFile = new File(directory, "Statistic.properties");
+		if (staticsFile.exists()) {
+			try (InputStream inputStream = new FileInputStream(staticsFile)) {
+				store.put(SaveStore.Section.STATISTICS,
+						encodeStatistics(readStatistics(inputStream)));
+			} catch (IOException | RuntimeException e) {
+				logger.warning("Couldn't migrate statistics: " + e);
+			}
+		}
+
+		File currencyFile = new File(directory, "currency");
+		if (currencyFile.length() > 0) {
+			try (BufferedReader bufferedReader = new BufferedReader(
+					new InputStreamReader(new FileInputStream(currencyFile),
+							Charset.forName("UTF-8")))) {
+				int coin = Integer.parseInt(
+						EncryptionSupport.decrypt(bufferedReader.readLine()));
+				int gem = Integer.parseInt(
+						EncryptionSupport.decrypt(bufferedReader.readLine()));
+				store.put(SaveStore.Section.CURRENCY,
+						encodeCurrency(coin, gem, 0));
+			} catch (IOException | RuntimeException e) {
+				logger.warning("Couldn't migrate currency: " + e);
+			}
+		}
+
+		File upgradeFile = new File(directory, "upgrade_status.properties");
+		if (upgradeFile.exists()) {
+			try (InputStream inputStream = new FileInputStream(upgradeFile)) {
+				Properties properties = new Properties();
+				properties.load(new InputStreamReader(inputStream,
+						Charset.forName("UTF-8")));
+				store.put(SaveStore.Section.UPGRADES,
+						encodeUpgradeStatus(properties));
+			} catch (IOException | RuntimeException e) {
+				logger.warning("Couldn't migrate upgrade statuses: " + e);
+			}
+		}
+
+		logger.info("Moved the saved files into " + SAVE_FILE + ".");
+		store.flush();
+	}
+
 	/**
 	 * Returns the application default scores if there is no user high scores
-	 * file.
+	 * saved.
 	 * 
 	 * @return Default high scores.
 	 * @throws IOException
 	 *             In case of loading problems.
 	 */
 	private List<Score> loadDefaultHighScores() throws IOException {
-		List<Score> highScores = new ArrayList<Score>();
-		InputStream inputStream = null;
-		BufferedReader reader = null;
-
-		try {
-			inputStream = FileManager.class.getClassLoader()
-					.getResourceAsStream("scores");
-			reader = new BufferedReader(new InputStreamReader(inputStream));
-
-			Score highScore = null;
-			String name = reader.readLine();
-			String score = reader.readLine();
-			String time = reader.readLine();
-
-			while ((name != null) && (score != null)) {
-				highScore = new Score(name, Integer.parseInt(score), Integer.parseInt(time));
-				highScores.add(highScore);
-				name = reader.readLine();
-				score = reader.readLine();
-				time = reader.readLine();
-			}
-		} finally {
-			if (inputStream != null)
-				inputStream.close();
+		try (InputStream inputStream = FileManager.class.getClassLoader()
+				.getResourceAsStream("scores")) {
+			return readHighScores(inputStream);
 		}
+	}
 
+	/**
+	 * Reads high scores written as text, three lines each: name, score and
+	 * play time.
+	 *
+	 * @param inputStream
+	 *            Text to read.
+	 * @return High scores.
+	 * @throws IOException
+	 *             In case of loading problems.
+	 */
+	private static List<Score> readHighScores(final InputStream inputStream)
+			throws IOException {
+		List<Score> highScores = new ArrayList<Score>();
+		BufferedReader reader = new BufferedReader(new InputStreamReader(
+				inputStream, Charset.forName("UTF-8")));
+
+		String name = reader.readLine();
+		String score = reader.readLine();
+		String time = reader.readLine();
+
+		while ((name != null) && (score != null) && (time != null)) {
+			highScores.add(new Score(name, Integer.parseInt(score),
+					Long.parseLong(time)));
+			name = reader.readLine();
+			score = reader.readLine();
+			time = reader.readLine();
+		}
 		return highScores;
 	}
 
 	/**
-	 * Loads high scores from file, and returns a sorted list of pairs score -
-	 * value.
+	 * Loads high scores, and returns a sorted list of pairs score - value.
 	 * 
 	 * @return Sorted list of scores - players.
 	 * @throws IOException
 	 *             In case of loading problems.
 	 */
 	public List<Score> loadHighScores() throws IOException {
+		List<Score> highScores;
+		byte[] saved = store().get(SaveStore.Section.HIGH_SCORES);
 
-		List<Score> highScores = new ArrayList<Score>();
-		InputStream inputStream = null;
-		BufferedReader bufferedReader = null;
-
-		try {
-			String jarPath = FileManager.class.getProtectionDomain()
-					.getCodeSource().getLocation().getPath();
-			jarPath = URLDecoder.decode(jarPath, "UTF-8");
-
-			String scoresPath = new File(jarPath).getParent();
-			scoresPath += File.separator;
-			scoresPath += "scores";
-
-			File scoresFile = new File(scoresPath);
-			inputStream = new FileInputStream(scoresFile);
-			bufferedReader = new BufferedReader(new InputStreamReader(
-					inputStream, Charset.forName("UTF-8")));
-
-			logger.info("Loading user high scores.");
-
-			Score highScore = null;
-			String name = bufferedReader.readLine();
-			String score = bufferedReader.readLine();
-			String time = bufferedReader.readLine();
-
-			while ((name != null) && (score != null) && (time != null)) {
-				highScore = new Score(name, Integer.parseInt(score), Long.parseLong(time));
-				highScores.add(highScore);
-				name = bufferedReader.readLine();
-				score = bufferedReader.readLine();
-				time = bufferedReader.readLine();
-			}
-
-		} catch (FileNotFoundException e) {
+		if (saved == null) {
 			// loads default if there's no user scores.
 			logger.info("Loading default high scores.");
 			highScores = loadDefaultHighScores();
-		} finally {
-			if (bufferedReader != null)
-				bufferedReader.close();
+		} else {
+			logger.info("Loading user high scores.");
+			highScores = new ArrayList<Score>();
+			DataInputStream input = new DataInputStream(
+					new ByteArrayInputStream(saved));
+			int count = input.readInt();
+			for (int i = 0; i < count; i++)
+				highScores.add(new Score(input.readUTF(), input.readInt(),
+						input.readLong()));
 		}
 
 		Collections.sort(highScores);
@@ -228,61 +339,46 @@ public final class FileManager {
 	}
 
 	/**
-	 * Saves user high scores to disk.
+	 * Saves user high scores.
 	 * 
 	 * @param highScores
 	 *            High scores to save.
 	 * @throws IOException
-	 *             In case of loading problems.
+	 *             In case of saving problems.
 	 */
 	public void saveHighScores(final List<Score> highScores)
 			throws IOException {
-		OutputStream outputStream = null;
-		BufferedWriter bufferedWriter = null;
-
-		try {
-			String jarPath = FileManager.class.getProtectionDomain()
-					.getCodeSource().getLocation().getPath();
-			jarPath = URLDecoder.decode(jarPath, "UTF-8");
-
-			String scoresPath = new File(jarPath).getParent();
-			scoresPath += File.separator;
-			scoresPath += "scores";
-
-			File scoresFile = new File(scoresPath);
-
-			if (!scoresFile.exists())
-				scoresFile.createNewFile();
-
-			outputStream = new FileOutputStream(scoresFile);
-			bufferedWriter = new BufferedWriter(new OutputStreamWriter(
-					outputStream, Charset.forName("UTF-8")));
-
-			logger.info("Saving user high scores.");
-
-			// Saves 7 or less scores.
-			int savedCount = 0;
-			for (Score score : highScores) {
-				if (savedCount >= MAX_SCORES)
-					break;
-				bufferedWriter.write(score.getName());
-				bufferedWriter.newLine();
-				bufferedWriter.write(Integer.toString(score.getScore()));
-				bufferedWriter.newLine();
-				bufferedWriter.write(Long.toString(score.getPlayTime()));
-				bufferedWriter.newLine();
-				savedCount++;
-			}
+		logger.info("Saving user high scores.");
+		store().put(SaveStore.Section.HIGH_SCORES, encodeHighScores(highScores));
+	}
 
-		} finally {
-			if (bufferedWriter != null)
-				bufferedWriter.close();
+	/**
+	 * Lays out high scores for the save store.
+	 *
+	 * @param highScores
+	 *            High scores to save, 7 or less of them are.
+	 * @return Contents of the section.
+	 * @throws IOException
+	 *             In case of writing problems.
+	 */
+	private static byte[] encodeHighScores(final List<Score> highScores)
+			throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream output = new DataOutputStream(bytes);
+		int count = Math.min(highScores.size(), MAX_SCORES);
+		output.writeInt(count);
+		for (int i = 0; i < count; i++) {
+			Score score = highScores.get(i);
+			output.writeUTF(score.getName() == null ? "" : score.getName());
+			output.writeInt(score.getScore());
+			output.writeLong(score.getPlayTime());
 		}
+		return bytes.toByteArray();
 	}
 
 	/**
 	 * Returns the application default scores if there is no user recent scores
-	 * file.
+	 * saved.
 	 *
 	 * @return Default recent scores.
 	 * @throws IOException
@@ -291,46 +387,53 @@ public final class FileManager {
 	 * Team Clover
 	 */
 	private List<Score> loadDefaultRecentScores() throws IOException {
-		List<Score> recentScores = new ArrayList<Score>();
-		InputStream inputStream = null;
-		BufferedReader reader = null;
-
-		try {
-			inputStream = FileManager.class.getClassLoader()
-					.getResourceAsStream("recent");
-			reader = new BufferedReader(new InputStreamReader(inputStream));
-
-			Score recentScore;
-			String date = reader.readLine();
-			String score = reader.readLine();
-			String highestLevel = reader.readLine();
-			String totalShipDestroyed = reader.readLine();
-			String clearAchievementNumber = reader.readLine();
-			String name = null;
-
-			while ((date != null) && (score != null)) {
-				recentScore = new Score(name, Integer.parseInt(score), date, Integer.parseInt(highestLevel),
-						Integer.parseInt(totalShipDestroyed), Integer.parseInt(clearAchievementNumber));
-				recentScores.add(recentScore);
-				date = reader.readLine();
-				score = reader.readLine();
-				highestLevel = reader.readLine();
-				totalShipDestroyed = reader.readLine();
-				clearAchievementNumber = reader.readLine();
-			}
-
-		} finally {
-			if (inputStream != null)
-				inputStream.close();
+		try (InputStream inputStream = FileManager.class.getClassLoader()
+				.getResourceAsStream("recent")) {
+			return readRecentScores(inputStream);
 		}
+	}
 
+	/**
+	 * Reads recent scores written as text, five lines each: date, score,
+	 * highest level, ships destroyed and achievements cleared.
+	 *
+	 * @param inputStream
+	 *            Text to read.
+	 * @return Recent scores.
+	 * @throws IOException
+	 *             In case of loading problems.
+	 */
+	private static List<Score> readRecentScores(final InputStream inputStream)
+			throws IOException {
+		List<Score> recentScores = new ArrayList<Score>();
+		BufferedReader reader = new BufferedReader(new InputStreamReader(
+				inputStream, Charset.forName("UTF-8")));
+
+		String date = reader.readLine();
+		String score = reader.readLine();
+		String highestLevel = reader.readLine();
+		String totalShipDestroyed = reader.readLine();
+		String clearAchievementNumber = reader.readLine();
+		String name = null;
+
+		while ((date != null) && (score != null)) {
+			recentScores.add(new Score(name, Integer.parseInt(score), date,
+					Integer.parseInt(highestLevel),
+					Integer.parseInt(totalShipDestroyed),
+					Integer.parseInt(clearAchievementNumber)));
+			date = reader.readLine();
+			score = reader.readLine();
+			highestLevel = reader.readLine();
+			totalShipDestroyed = reader.readLine();
+			clearAchievementNumber = reader.readLine();
+		}
 		return recentScores;
 	}
+
 	/**
-	 * Loads recent scores from file, and returns a sorted list of pairs score -
-	 * value.
+	 * Loads recent scores, in the order they were saved.
 	 *
-	 * @return Sorted list of Recent scores - players.
+	 * @return List of Recent scores - players.
 	 * @throws IOException
 	 *             In case of loading problems.
 	 *
@@ -338,128 +441,77 @@ public final class FileManager {
 	 * Team Clove
 	 */
 	public List<Score> loadRecentScores() throws IOException {
+		byte[] saved = store().get(SaveStore.Section.RECENT_SCORES);
 
-		List<Score> recentScores = new ArrayList<Score>();
-		InputStream inputStream = null;
-		BufferedReader bufferedReader = null;
-
-		try {
-			String jarPath = FileManager.class.getProtectionDomain()
-					.getCodeSource().getLocation().getPath();
-			jarPath = URLDecoder.decode(jarPath, "UTF-8");
-
-			String scoresPath = new File(jarPath).getParent();
-			scoresPath += File.separator;
-			scoresPath += "recent";
-
-			System.out.print(scoresPath);
-
-			File scoresFile = new File(scoresPath);
-			inputStream = new FileInputStream(scoresFile);
-			bufferedReader = new BufferedReader(new InputStreamReader(
-					inputStream, Charset.forName("UTF-8")));
-
-			logger.info("Loading user recent scores.");
-
-			Score recentScore;
-			String date = bufferedReader.readLine();
-			String score = bufferedReader.readLine();
-			String highestLevel = bufferedReader.readLine();
-			String totalShipDestroyed = bufferedReader.readLine();
-			String clearAchievementNumber = bufferedReader.readLine();
-			String name = null;
-
-			while ((date != null) && (score != null)) {
-				recentScore = new Score(name, Integer.parseInt(score), date, Integer.parseInt(highestLevel),
-						Integer.parseInt(totalShipDestroyed), Integer.parseInt(clearAchievementNumber));
-				recentScores.add(recentScore);
-				date = bufferedReader.readLine();
-				score = bufferedReader.readLine();
-				highestLevel = bufferedReader.readLine();
-				totalShipDestroyed = bufferedReader.readLine();
-				clearAchievementNumber = bufferedReader.readLine();
-
-			}
-
-		} catch (FileNotFoundException e) {
+		if (saved == null) {
 			// loads default if there's no user scores.
-			logger.info("Loading default high scores.");
-			recentScores = loadDefaultRecentScores();
-		} finally {
-			if (bufferedReader != null)
-				bufferedReader.close();
+			logger.info("Loading default recent scores.");
+			return loadDefaultRecentScores();
 		}
 
-		//Collections.sort(recentScores);
+		logger.info("Loading user recent scores.");
+		List<Score> recentScores = new ArrayList<Score>();
+		DataInputStream input = new DataInputStream(
+				new ByteArrayInputStream(saved));
+		int count = input.readInt();
+		for (int i = 0; i < count; i++) {
+			String date = input.readUTF();
+			int score = input.readInt();
+			recentScores.add(new Score(null, score, date, input.readInt(),
+					input.readInt(), input.readInt()));
+		}
 		return recentScores;
 	}
 
 	/**
-	 * Saves user recent scores to disk.
+	 * Saves user recent scores.
 	 *
 	 * @param recentScores
 	 *            High scores to save.
 	 * @throws IOException
-	 *             In case of loading problems.
+	 *             In case of saving problems.
 	 * Method for implement Recent score
 	 * Team Clove
 	 */
 
 	public void saveRecentScores(final List<Score> recentScores)
 			throws IOException {
-		OutputStream outputStream = null;
-		BufferedWriter bufferedWriter = null;
+		Statistics stat = new Statistics();
 
-		try {
-			String jarPath = FileManager.class.getProtectionDomain()
-					.getCodeSource().getLocation().getPath();
-			jarPath = URLDecoder.decode(jarPath, "UTF-8");
-
-			String scoresPath = new File(jarPath).getParent();
-			scoresPath += File.separator;
-			scoresPath += "recent";
-
-			File scoresFile = new File(scoresPath);
-
-			if (!scoresFile.exists())
-				scoresFile.createNewFile();
-
-			outputStream = new FileOutputStream(scoresFile);
-			bufferedWriter = new BufferedWriter(new OutputStreamWriter(
-					outputStream, Charset.forName("UTF-8")));
-
-			Statistics stat = new Statistics();
-			stat = stat.loadUserData(stat);
-
-			logger.info("Saving user recent scores.");
-
-			// Saves 10 or less scores.
-			int savedCount = 0;
-			for (Score score : recentScores) {
-				if (savedCount >= MAX_RECORD)
-					break;
-				bufferedWriter.write(score.getDate());
-				bufferedWriter.newLine();
-				bufferedWriter.write(Integer.toString(score.getScore()));
-				bufferedWriter.newLine();
-				bufferedWriter.write(Integer.toString(score.getHighestLevel()));
-				bufferedWriter.newLine();
-				bufferedWriter.write(Integer.toString(score.getShipDestroyed()));
-				bufferedWriter.newLine();
-				bufferedWriter.write(Integer.toString(score.getClearAchievementNumber()));
-				bufferedWriter.newLine();
-				savedCount++;
-			}
-			stat.resetStatistics();
+		logger.info("Saving user recent scores.");
+		store().put(SaveStore.Section.RECENT_SCORES,
+				encodeRecentScores(recentScores));
+		stat.resetStatistics();
+	}
 
-		} finally {
-			if (bufferedWriter != null)
-				bufferedWriter.close();
+	/**
+	 * Lays out recent scores for the save store.
+	 *
+	 * @param recentScores
+	 *            Recent scores to save, 10 or less of them are.
+	 * @return Contents of the section.
+	 * @throws IOException
+	 *             In case of writing problems.
+	 */
+	private static byte[] encodeRecentScores(final List<Score> recentScores)
+			throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream output = new DataOutputStream(bytes);
+		int count = Math.min(recentScores.size(), MAX_RECORD);
+		output.writeInt(count);
+		for (int i = 0; i < count; i++) {
+			Score score = recentScores.get(i);
+			output.writeUTF(score.getDate() == null ? "" : score.getDate());
+			output.writeInt(score.getScore());
+			output.writeInt(score.getHighestLevel());
+			output.writeInt(score.getShipDestroyed());
+			output.writeInt(score.getClearAchievementNumber());
 		}
+		return bytes.toByteArray();
 	}
 
 	/**
-	 *  save userData(Statistics) to disk
+	 *  save userData(Statistics)
 	 *
 	 * @param playerStatistics
 	 * 				Player's Statistics list to save.
@@ -468,50 +520,17 @@ public final class FileManager {
 	 *
 	 */
 	// Team Clove
-    public void saveUserData(final List<Statistics> playerStatistics) throws IOException {
-		Properties properties = new Properties();
-		OutputStream outputStream = null;
-
-        try {
-            String jarPath = FileManager.class.getProtectionDomain()
-                    .getCodeSource().getLocation().getPath();
-            jarPath = URLDecoder.decode(jarPath, "UTF-8");
-
-            String staticsPath = new File(jarPath).getParent();
-            staticsPath += File.separator;
-			staticsPath += "Statistic.properties";
-
-            File staticsFile = new File(staticsPath);
-
-			logger.info("Saving Player Statistic.");
-
-            if (!staticsFile.exists())
-				staticsFile.createNewFile();
-
-			if(!playerStatistics.isEmpty()){
-				Statistics stat = playerStatistics.get(0);
-				properties.setProperty("highestLevel", String.valueOf(stat.getHighestLevel()));
-				properties.setProperty("totalBulletsShot", String.valueOf(stat.getTotalBulletsShot()));
-				properties.setProperty("totalShipsDestroyed", String.valueOf(stat.getTotalShipsDestroyed()));
-				properties.setProperty("shipsDestructionStreak", String.valueOf(stat.getShipsDestructionStreak()));
-				properties.setProperty("playedGameNumber", String.valueOf(stat.getPlayedGameNumber()));
-				properties.setProperty("clearAchievementNumber", String.valueOf(stat.getClearAchievementNumber()));
-				properties.setProperty("totalPlaytime", String.valueOf(stat.getTotalPlaytime()));
-			}
-			outputStream = new FileOutputStream(staticsFile);
-			properties.store(new OutputStreamWriter(outputStream, Charset.forName("UTF-8")),
-					"PlayerGameStatistics");
-
-
-        } finally {
-            if (outputStream != null)
-                outputStream.close();
-        }
-    }
+	public void saveUserData(final List<Statistics> playerStatistics) throws IOException {
+		if (playerStatistics.isEmpty())
+			return;
+		logger.info("Saving Player Statistic.");
+		store().put(SaveStore.Section.STATISTICS,
+				encodeStatistics(playerStatistics.get(0)));
+	}
 
 	/**
 	 *
-	 * load userData(Statistics) from file, and return userData(Statistics)
+	 * load userData(Statistics), and return userData(Statistics)
 	 *
 	 * @return Player's Statistics
 	 * @throws IOException
@@ -519,54 +538,24 @@ public final class FileManager {
 	 */
 	// Team Clove
 	public Statistics loadUserData() throws IOException {
-		Properties properties = new Properties();
-		InputStream inputStream = null;
-
-		Statistics stat;
-
-		try{
-			String jarPath = FileManager.class.getProtectionDomain()
-					.getCodeSource().getLocation().getPath();
-			jarPath = URLDecoder.decode(jarPath, "UTF-8");
-
-			String staticsPath = new File(jarPath).getParent();
-			staticsPath += File.separator;
-			staticsPath += "Statistic.properties";
-
-			File staticsFile = new File(staticsPath);
-
-			inputStream = new FileInputStream(staticsFile);
-			properties.load(new InputStreamReader(inputStream, Charset.forName("UTF-8")));
-
-			logger.info("Loading Player Statistic.");
-
-			int highestLevel = Integer.parseInt(properties.getProperty("highestLevel"));
-			int totalBulletsShot = Integer.parseInt(properties.getProperty("totalBulletsShot"));
-			int totalShipsDestroyed = Integer.parseInt(properties.getProperty("totalShipsDestroyed"));
-			int shipsDestructionStreak = Integer.parseInt(properties.getProperty("shipsDestructionStreak"));
-			int playedGameNumber = Integer.parseInt(properties.getProperty("playedGameNumber"));
-			int clearAchievementNumber = Integer.parseInt(properties.getProperty("clearAchievementNumber"));
-			long totalPlaytime = Integer.parseInt(properties.getProperty("totalPlaytime"));
-
-			stat = new Statistics(highestLevel, totalBulletsShot, totalShipsDestroyed, shipsDestructionStreak,
-					playedGameNumber, clearAchievementNumber, totalPlaytime);
+		byte[] saved = store().get(SaveStore.Section.STATISTICS);
 
-		} catch (FileNotFoundException e){
+		if (saved == null) {
 			logger.info("Loading default user statistics.");
-			stat = loadDefaultUserData();
-		} finally {
-			if(inputStream != null){
-				inputStream.close();
-			}
-
+			return loadDefaultUserData();
 		}
 
-		return stat;
+		logger.info("Loading Player Statistic.");
+		DataInputStream input = new DataInputStream(
+				new ByteArrayInputStream(saved));
+		return new Statistics(input.readInt(), input.readInt(),
+				input.readInt(), input.readInt(), input.readInt(),
+				input.readInt(), input.readLong());
 	}
 
 	/**
 	 * Returns the application default userData(Statistics)
-	 * if there is no Statistic.properties file.
+	 * if there are no statistics saved.
 	 *
 	 *
 	 * @return Default Player's Statistics
@@ -575,303 +564,239 @@ public final class FileManager {
 	 */
 	// Team Clove
 	public Statistics loadDefaultUserData() throws IOException {
-		Properties properties = new Properties();
-		InputStream inputStream = null;
-
-		Statistics stat;
-
-		try{
-			inputStream = FileManager.class.getClassLoader()
-					.getResourceAsStream("Statistic.properties");
-
-			properties.load(new InputStreamReader(inputStream, Charset.forName("UTF-8")));
-
-			int highestLevel = Integer.parseInt(properties.getProperty("highestLevel"));
-			int totalBulletsShot = Integer.parseInt(properties.getProperty("totalBulletsShot"));
-			int totalShipsDestroyed = Integer.parseInt(properties.getProperty("totalShipsDestroyed"));
-			int shipsDestructionStreak = Integer.parseInt(properties.getProperty("shipsDestructionStreak"));
-			int playedGameNumber = Integer.parseInt(properties.getProperty("playedGameNumber"));
-			int clearAchievementNumber = Integer.parseInt(properties.getProperty("clearAchievementNumber"));
-			long totalPlaytime = Integer.parseInt(properties.getProperty("totalPlaytime"));
+		try (InputStream inputStream = FileManager.class.getClassLoader()
+				.getResourceAsStream("Statistic.properties")) {
+			return readStatistics(inputStream);
+		}
+	}
 
-			stat = new Statistics(highestLevel, totalBulletsShot, totalShipsDestroyed, shipsDestructionStreak,
-					playedGameNumber, clearAchievementNumber, totalPlaytime);
+	/**
+	 * Reads statistics written as properties.
+	 *
+	 * @param inputStream
+	 *            Properties to read.
+	 * @return Player's Statistics
+	 * @throws IOException
+	 *             In case of loading problems.
+	 */
+	private static Statistics readStatistics(final InputStream inputStream)
+			throws IOException {
+		Properties properties = new Properties();
+		properties.load(new InputStreamReader(inputStream, Charset.forName("UTF-8")));
+
+		int highestLevel = Integer.parseInt(properties.getProperty("highestLevel"));
+		int totalBulletsShot = Integer.parseInt(properties.getProperty("totalBulletsShot"));
+		int totalShipsDestroyed = Integer.parseInt(properties.getProperty("totalShipsDestroyed"));
+		int shipsDestructionStreak = Integer.parseInt(properties.getProperty("shipsDestructionStreak"));
+		int playedGameNumber = Integer.parseInt(properties.getProperty("playedGameNumber"));
+		int clearAchievementNumber = Integer.parseInt(properties.getProperty("clearAchievementNumber"));
+		long totalPlaytime = Long.parseLong(properties.getProperty("totalPlaytime"));
+
+		return new Statistics(highestLevel, totalBulletsShot, totalShipsDestroyed, shipsDestructionStreak,
+				playedGameNumber, clearAchievementNumber, totalPlaytime);
+	}
 
-		} finally {
-			if(inputStream != null){
-				inputStream.close();
-			}
-		}
-		return stat;
+	/**
+	 * Lays out statistics for the save store.
+	 *
+	 * @param stat
+	 *            Statistics to save.
+	 * @return Contents of the section.
+	 * @throws IOException
+	 *             In case of writing problems.
+	 */
+	private static byte[] encodeStatistics(final Statistics stat)
+			throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream output = new DataOutputStream(bytes);
+		output.writeInt(stat.getHighestLevel());
+		output.writeInt(stat.getTotalBulletsShot());
+		output.writeInt(stat.getTotalShipsDestroyed());
+		output.writeInt(stat.getShipsDestructionStreak());
+		output.writeInt(stat.getPlayedGameNumber());
+		output.writeInt(stat.getClearAchievementNumber());
+		output.writeLong(stat.getTotalPlaytime());
+		return bytes.toByteArray();
 	}
 
 	/**
-	 * Saves user coin to disk.
+	 * Saves a snapshot of user coin and gem.
 	 *
 	 * @param coin
 	 *            amount of user coin to save.
+	 * @param gem
+	 *            amount of user gem to save.
+	 * @param sequence
+	 *            Last currency journal entry the amounts include.
 	 * @throws IOException
 	 *             In case of saving problems.
 	 */
-
-	public void saveCoin(final int coin) throws IOException {
-		String jarPath = FileManager.class.getProtectionDomain().getCodeSource().getLocation().getPath();
-		jarPath = URLDecoder.decode(jarPath, "UTF-8");
-
-		//Choose File root
-		String currencyPath = new File(jarPath).getParent();
-		currencyPath += File.separator;
-		currencyPath += "currency";
-
-		File currencyFile = new File(currencyPath);
-
-		// create File If there is no currencyFile
-		if (!currencyFile.exists())
-			currencyFile.createNewFile();
-
-		List<String> lines = new ArrayList<>();
-		String line;
-
-		try (BufferedReader bufferedReader = new BufferedReader(new InputStreamReader(
-				new FileInputStream(currencyFile), Charset.forName("UTF-8")))) {
-			// Read the file's current content
-			while ((line = bufferedReader.readLine()) != null) {
-				lines.add(line);
-			}
-		}
-
-		// Modify the first line (coin)
-		if (!lines.isEmpty()) {
-			lines.set(0, EncryptionSupport.encrypt(Integer.toString(coin)));
-		} else {
-			// If the file was empty, add the new coin as the first line and the new gem as the second line
-			lines.add(EncryptionSupport.encrypt(Integer.toString(coin)));
-			lines.add(EncryptionSupport.encrypt("0"));
-		}
-
-		try (BufferedWriter bufferedWriter = new BufferedWriter(new OutputStreamWriter(
-				new FileOutputStream(currencyFile), Charset.forName("UTF-8")))) {
-			// Write back the modified content
-			for (String l : lines) {
-				bufferedWriter.write(l);
-				bufferedWriter.newLine();
-			}
-			logger.info("Saving user's coin.");
-		}
+	// Team-Ctrl-S(Currency)
+	public void saveCurrency(final int coin, final int gem, final long sequence)
+			throws IOException {
+		store().put(SaveStore.Section.CURRENCY,
+				encodeCurrency(coin, gem, sequence));
+		logger.info("Saving user's coin and gem.");
 	}
 
 	/**
-	 * Loads user coin from file, and returns current coin.
+	 * Loads user coin, and returns the coin of the last snapshot.
 	 *
-	 * @return amount of current coin.
+	 * @return amount of coin saved.
 	 * @throws IOException
 	 *             In case of loading problems.
 	 */
 	public int loadCoin() throws IOException {
-		int coin;
-		String jarPath = FileManager.class.getProtectionDomain().getCodeSource().getLocation().getPath();
-		jarPath = URLDecoder.decode(jarPath, "UTF-8");
-
-		String currencyPath = new File(jarPath).getParent();
-		currencyPath += File.separator;
-		currencyPath += "currency";
-
-		File currencyFile = new File(currencyPath);
-
-		// create File If there is no currencyFile
-		if (!currencyFile.exists())
-			currencyFile.createNewFile();
-
-		// If the file was empty, add the new coin as the first line and the new gem as the second line
-		if (currencyFile.length() == 0) {
-			try (BufferedWriter bufferedWriter = new BufferedWriter(new OutputStreamWriter(
-					new FileOutputStream(currencyFile), Charset.forName("UTF-8")))) {
-				bufferedWriter.write(EncryptionSupport.encrypt("0"));
-				bufferedWriter.newLine();
-				bufferedWriter.write(EncryptionSupport.encrypt("0"));
-				bufferedWriter.newLine();
-			}
-		}
-
-		try (BufferedReader bufferedReader = new BufferedReader(new InputStreamReader(
-				new FileInputStream(currencyFile), Charset.forName("UTF-8")))) {
-			logger.info("Loading user's coin.");
-			String amount = bufferedReader.readLine();
-			coin = Integer.parseInt(EncryptionSupport.decrypt(amount));
-		}
-
-		return coin;
+		return (int) loadCurrency()[0];
 	}
 
 	/**
-	 * Saves user gem to disk.
+	 * Loads user gem, and returns the gem of the last snapshot.
 	 *
-	 * @param gem
-	 *            amount of user gem to save.
+	 * @return amount of gem saved.
 	 * @throws IOException
-	 * 			   In case of saving problems.
+	 * 			   In case of loading problems.
 	 */
 	// Team-Ctrl-S(Currency)
-	public void saveGem(final int gem) throws IOException {
-		String jarPath = FileManager.class.getProtectionDomain().getCodeSource().getLocation().getPath();
-		jarPath = URLDecoder.decode(jarPath, "UTF-8");
-
-		// Choose File root
-		String currencyPath = new File(jarPath).getParent();
-		currencyPath += File.separator;
-		currencyPath += "currency";
-
-		File currencyFile = new File(currencyPath);
-
-		// create File If there is no currencyFile
-		if (!currencyFile.exists())
-			currencyFile.createNewFile();
-
-		List<String> lines = new ArrayList<>();
-		String line;
-
-		try (BufferedReader bufferedReader = new BufferedReader(new InputStreamReader(
-				new FileInputStream(currencyFile), Charset.forName("UTF-8")))) {
-			// Read the file's current content
-			while ((line = bufferedReader.readLine()) != null) {
-				lines.add(line);
-			}
-		}
-
-		// Modify the second line (gem)
-		if (!lines.isEmpty()) {
-			lines.set(1, EncryptionSupport.encrypt(Integer.toString(gem)));
-		} else {
-			// If the file was empty, add the new coin as the first line and the new gem as the second line
-			lines.add(EncryptionSupport.encrypt("0"));
-			lines.add(EncryptionSupport.encrypt(Integer.toString(gem)));
-		}
-
-		try (BufferedWriter bufferedWriter = new BufferedWriter(new OutputStreamWriter(
-				new FileOutputStream(currencyFile), Charset.forName("UTF-8")))) {
-			// Write back the modified content
-			for (String l : lines) {
-				bufferedWriter.write(l);
-				bufferedWriter.newLine();
-			}
-			logger.info("Saving user's gem.");
-		}
+	public int loadGem() throws IOException {
+		return (int) loadCurrency()[1];
 	}
 
 	/**
-	 * Loads user gem from file, and returns current gem.
+	 * Loads the last currency journal entry the saved coin and gem include.
 	 *
-	 * @return amount of current gem.
+	 * @return Sequence number of the entry, 0 if there is none.
 	 * @throws IOException
-	 * 			   In case of loading problems.
+	 *             In case of loading problems.
 	 */
 	// Team-Ctrl-S(Currency)
-	public int loadGem() throws IOException {
-		int gem;
-		String jarPath = FileManager.class.getProtectionDomain().getCodeSource().getLocation().getPath();
-		jarPath = URLDecoder.decode(jarPath, "UTF-8");
-
-		String currencyPath = new File(jarPath).getParent();
-		currencyPath += File.separator;
-		currencyPath += "currency";
-
-		File currencyFile = new File(currencyPath);
-
-		// create File If there is no currencyFile
-		if (!currencyFile.exists())
-			currencyFile.createNewFile();
-
-		// If the file was empty, add the new coin as the first line and the new gem as the second line
-		if (currencyFile.length() == 0) {
-			try (BufferedWriter bufferedWriter = new BufferedWriter(new OutputStreamWriter(
-					new FileOutputStream(currencyFile), Charset.forName("UTF-8")))) {
-				bufferedWriter.write(EncryptionSupport.encrypt("0"));
-				bufferedWriter.newLine();
-				bufferedWriter.write(EncryptionSupport.encrypt("0"));
-				bufferedWriter.newLine();
-			}
-		}
+	public long loadCurrencySequence() throws IOException {
+		return loadCurrency()[2];
+	}
 
-		try (BufferedReader bufferedReader = new BufferedReader(new InputStreamReader(
-				new FileInputStream(currencyFile), Charset.forName("UTF-8")))) {
-			logger.info("Loading user's gem.");
+	/**
+	 * Loads user coin, gem and the journal entry they include, all 0 if
+	 * none were saved.
+	 *
+	 * @return Coin, gem and sequence number.
+	 * @throws IOException
+	 *             In case of loading problems.
+	 */
+	private long[] loadCurrency() throws IOException {
+		byte[] saved = store().get(SaveStore.Section.CURRENCY);
+		if (saved == null)
+			return new long[] { 0, 0, 0 };
+		DataInputStream input = new DataInputStream(
+				new ByteArrayInputStream(saved));
+		long coin = input.readInt();
+		long gem = input.readInt();
+		// Snapshots migrated from the currency file have no sequence.
+		long sequence = input.available() >= 8 ? input.readLong() : 0;
+		return new long[] { coin, gem, sequence };
+	}
 
-			bufferedReader.readLine(); // Ignore first(coin) line
-			String amount = bufferedReader.readLine();
-			gem = Integer.parseInt(EncryptionSupport.decrypt(amount));
-		}
+	/**
+	 * Lays out coin and gem for the save store.
+	 *
+	 * @param coin
+	 *            Amount of coin.
+	 * @param gem
+	 *            Amount of gem.
+	 * @param sequence
+	 *            Last currency journal entry the amounts include.
+	 * @return Contents of the section.
+	 * @throws IOException
+	 *             In case of writing problems.
+	 */
+	private static byte[] encodeCurrency(final int coin, final int gem,
+			final long sequence) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream output = new DataOutputStream(bytes);
+		output.writeInt(coin);
+		output.writeInt(gem);
+		output.writeLong(sequence);
+		return bytes.toByteArray();
+	}
+
+	/**
+	 * Returns a file in the folder the game saves to.
+	 *
+	 * @param name
+	 *            Name of the file.
+	 * @return File next to the save file.
+	 * @throws IOException
+	 *             In case the folder can't be found.
+	 */
+	public File getSaveFile(final String name) throws IOException {
+		return new File(saveDirectory(), name);
+	}
 
-		return gem;
+	/**
+	 * Writes the changes not saved yet to disk now, instead of waiting for
+	 * the background save.
+	 *
+	 * @throws IOException
+	 *             In case the changes couldn't be saved.
+	 */
+	public void flushSaves() throws IOException {
+		if (!store().flush())
+			throw new IOException("Couldn't write " + SAVE_FILE);
 	}
 
 	/**
-	 * Loads upgrade statuses from upgrade_status.properties file.
+	 * Loads upgrade statuses.
 	 *
 	 * @return Properties object containing the upgrade statuses.
 	 * @throws IOException In case of loading problems.
 	 */
 	public Properties loadUpgradeStatus() throws IOException {
-		Properties properties = new Properties();
-		InputStream inputStream = null;
+		byte[] saved = store().get(SaveStore.Section.UPGRADES);
 
-		try {
-			String jarPath = FileManager.class.getProtectionDomain().getCodeSource().getLocation().getPath();
-			jarPath = URLDecoder.decode(jarPath, "UTF-8");
-
-			String propertiesPath = new File(jarPath).getParent();
-			propertiesPath += File.separator + "upgrade_status.properties";
-
-			File upgradeFile = new File(propertiesPath);
-
-			if (upgradeFile.exists()) {
-				inputStream = new FileInputStream(upgradeFile);
-				properties.load(new InputStreamReader(inputStream, Charset.forName("UTF-8")));
-			} else {
-				logger.info("upgrade_status.properties not found. Loading default upgrade statuses.");
-				properties = loadDefaultUpgradeStatus();
-			}
-
-		} finally {
-			if (inputStream != null) {
-				inputStream.close();
-			}
+		if (saved == null) {
+			logger.info("No upgrade statuses saved. Loading default upgrade statuses.");
+			return loadDefaultUpgradeStatus();
 		}
 
+		Properties properties = new Properties();
+		DataInputStream input = new DataInputStream(
+				new ByteArrayInputStream(saved));
+		int count = input.readInt();
+		for (int i = 0; i < count; i++)
+			properties.setProperty(input.readUTF(), input.readUTF());
 		return properties;
 	}
 
 	/**
-	 * Saves upgrade statuses to upgrade_status.properties file.
+	 * Saves upgrade statuses.
 	 *
 	 * @param properties The Properties object containing the upgrade statuses to save.
 	 * @throws IOException In case of saving problems.
 	 */
 	public void saveUpgradeStatus(Properties properties) throws IOException {
-		OutputStream outputStream = null;
-
-		try {
-			String jarPath = FileManager.class.getProtectionDomain().getCodeSource().getLocation().getPath();
-			jarPath = URLDecoder.decode(jarPath, "UTF-8");
-
-			String propertiesPath = new File(jarPath).getParent();
-			propertiesPath += File.separator + "upgrade_status.properties";
-
-			File upgradeFile = new File(propertiesPath);
-
-			if (!upgradeFile.exists()) {
-				upgradeFile.createNewFile();
-			}
-
-			outputStream = new FileOutputStream(upgradeFile);
-			properties.store(new OutputStreamWriter(outputStream, Charset.forName("UTF-8")), "Upgrade Statuses");
-
-			logger.info("Saving upgrade statuses.");
+		store().put(SaveStore.Section.UPGRADES, encodeUpgradeStatus(properties));
+		logger.info("Saving upgrade statuses.");
+	}
 
-		} finally {
-			if (outputStream != null) {
-				outputStream.close();
-			}
+	/**
+	 * Lays out upgrade statuses for the save store.
+	 *
+	 * @param properties
+	 *            Upgrade statuses to save.
+	 * @return Contents of the section.
+	 * @throws IOException
+	 *             In case of writing problems.
+	 */
+	private static byte[] encodeUpgradeStatus(final Properties properties)
+			throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream output = new DataOutputStream(bytes);
+		Set<String> keys = new TreeSet<String>(properties.stringPropertyNames());
+		output.writeInt(keys.size());
+		for (String key : keys) {
+			output.writeUTF(key);
+			output.writeUTF(properties.getProperty(key));
 		}
+		return bytes.toByteArray();
 	}
 
 	/**
@@ -1,6 +1,12 @@
 package engine;
 
+import java.awt.Canvas;
+import java.awt.Color;
+import java.awt.Graphics;
+import java.awt.Image;
 import java.awt.Insets;
+import java.awt.Toolkit;
+import java.awt.image.BufferStrategy;
 
 import javax.swing.JFrame;
 
@@ -15,12 +21,19 @@ import screen.Screen;
 @SuppressWarnings("serial")
 public class Frame extends JFrame {
 
+	/** Pages in the buffer strategy, front buffer included. */
+	private static final int BUFFER_PAGES = 2;
+
 	/** Frame width. */
 	private int width;
 	/** Frame height. */
 	private int height;
 	/** Screen currently shown. */
 	private Screen currentScreen;
+	/** Canvas covering the content area, screens are presented on it. */
+	private Canvas canvas;
+	/** Accelerated page flipping of the canvas, null if not available. */
+	private BufferStrategy bufferStrategy;
 
 	/**
 	 * Initializes the new frame.
@@ -44,6 +57,64 @@ public class Frame extends JFrame {
 		setTitle("Invaders");
 
 		addKeyListener(Core.getInputManager());
+
+		this.canvas = new Canvas();
+		this.canvas.setBackground(Color.BLACK);
+		this.canvas.setIgnoreRepaint(true);
+		this.canvas.setFocusable(false);
+		getContentPane().add(this.canvas);
+		validate();
+		this.bufferStrategy = createBufferStrategy();
+	}
+
+	/**
+	 * Creates the buffer strategy of the canvas. Returns null when its back
+	 * buffer is not accelerated, in which case screens are painted directly
+	 * through the canvas graphics.
+	 *
+	 * @return Accelerated buffer strategy, or null.
+	 */
+	private BufferStrategy createBufferStrategy() {
+		try {
+			this.canvas.createBufferStrategy(BUFFER_PAGES);
+			BufferStrategy strategy = this.canvas.getBufferStrategy();
+			if (strategy.getCapabilities().getBackBufferCapabilities()
+					.isAccelerated())
+				return strategy;
+			Core.getLogger().info("Buffer strategy is not accelerated, "
+					+ "drawing directly.");
+		} catch (RuntimeException e) {
+			Core.getLogger().warning("Could not create a buffer strategy: "
+					+ e.getMessage());
+		}
+		return null;
+	}
+
+	/**
+	 * Shows a finished image on the frame, flipping pages when a buffer
+	 * strategy is available and restoring them if their contents are lost.
+	 *
+	 * @param image
+	 *            Image to show, drawn on the upper left corner.
+	 */
+	public final void present(final Image image) {
+		if (this.bufferStrategy == null) {
+			Graphics graphics = this.canvas.getGraphics();
+			if (graphics != null) {
+				graphics.drawImage(image, 0, 0, null);
+				graphics.dispose();
+			}
+		} else {
+			do {
+				do {
+					Graphics graphics = this.bufferStrategy.getDrawGraphics();
+					graphics.drawImage(image, 0, 0, null);
+					graphics.dispose();
+				} while (this.bufferStrategy.contentsRestored());
+				this.bufferStrategy.show();
+			} while (this.bufferStrategy.contentsLost());
+		}
+		Toolkit.getDefaultToolkit().sync();
 	}
 
 	/**
@@ -0,0 +1,126 @@
+package engine;
+
+import java.util.Arrays;
+
+/**
+ * Fixed size histogram of durations in nanoseconds. Buckets are log-linear:
+ * every power of two is split into SUB_BUCKETS linear buckets, so the
+ * relative error of a percentile is at most 1/SUB_BUCKETS whatever the
+ * magnitude. Recording is a couple of shifts and an array increment, and
+ * never allocates.
+ *
+ */
+public final class FrameHistogram {
+
+	/** Bits of the linear part of each bucket. */
+	private static final int SUB_BUCKET_BITS = 3;
+	/** Linear buckets per power of two. */
+	private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+	/** Highest power of two tracked, larger samples go to the last bucket. */
+	private static final int MAX_EXPONENT = 40;
+	/** Amount of buckets. */
+	private static final int BUCKETS =
+			(MAX_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKETS;
+
+	/** Samples in each bucket. */
+	private final long[] counts = new long[BUCKETS];
+	/** Amount of samples recorded. */
+	private long total;
+	/** Largest sample recorded. */
+	private long max;
+
+	/**
+	 * Records a duration.
+	 *
+	 * @param nanos
+	 *            Duration in nanoseconds, negative values count as 0.
+	 */
+	public void record(final long nanos) {
+		long value = Math.max(nanos, 0);
+		this.counts[bucketOf(value)]++;
+		this.total++;
+		if (value > this.max)
+			this.max = value;
+	}
+
+	/**
+	 * Returns the duration below which the given fraction of the samples
+	 * fall, rounded up to the end of its bucket.
+	 *
+	 * @param fraction
+	 *            Fraction of the samples, between 0 and 1.
+	 * @return Duration in nanoseconds, 0 if nothing was recorded.
+	 */
+	public long percentile(final double fraction) {
+		if (this.total == 0)
+			return 0;
+		long rank = Math.max(1, (long) Math.ceil(fraction * this.total));
+		long seen = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			seen += this.counts[i];
+			if (seen >= rank)
+				return Math.min(upperBound(i), this.max);
+		}
+		return this.max;
+	}
+
+	/**
+	 * Returns the largest sample recorded.
+	 *
+	 * @return Duration in nanoseconds.
+	 */
+	public long getMax() {
+		return this.max;
+	}
+
+	/**
+	 * Returns the amount of samples recorded.
+	 *
+	 * @return Amount of samples.
+	 */
+	public long getCount() {
+		return this.total;
+	}
+
+	/**
+	 * Removes every sample.
+	 */
+	public void reset() {
+		Arrays.fill(this.counts, 0);
+		this.total = 0;
+		this.max = 0;
+	}
+
+	/**
+	 * Returns the bucket a duration falls in.
+	 *
+	 * @param value
+	 *            Duration in nanoseconds, not negative.
+	 * @return Bucket index.
+	 */
+	private static int bucketOf(final long value) {
+		if (value < SUB_BUCKETS)
+			return (int) value;
+		int exponent = 63 - Long.numberOfLeadingZeros(value);
+		if (exponent > MAX_EXPONENT)
+			return BUCKETS - 1;
+		int shift = exponent - SUB_BUCKET_BITS;
+		int subBucket = (int) (value >>> shift) & (SUB_BUCKETS - 1);
+		return (shift + 1) * SUB_BUCKETS + subBucket;
+	}
+
+	/**
+	 * Returns the largest duration a bucket holds.
+	 *
+	 * @param bucket
+	 *            Bucket index.
+	 * @return Duration in nanoseconds.
+	 */
+	private static long upperBound(final int bucket) {
+		if (bucket < SUB_BUCKETS)
+			return bucket;
+		int shift = bucket / SUB_BUCKETS - 1;
+		long subBucket = bucket % SUB_BUCKETS;
+		return ((SUB_BUCKETS + subBucket + 1) << shift) - 1;
+	}
+}
@@ -0,0 +1,146 @@
+package engine;
+
+/**
+ * Times the phases of a game tick. Each phase records its duration into a
+ * histogram; histograms are collected over a window of ticks, and the last
+ * complete window is the one reported, so the numbers shown stay steady
+ * while still following what the game is doing.
+ *
+ * Usage: take a start with start(), and call record() when each phase ends,
+ * which also returns the start of the next phase.
+ *
+ */
+public final class FrameProfiler {
+
+	/** Ticks covered by each window of samples. */
+	private static final int WINDOW_TICKS = 120;
+
+	/**
+	 * Phases of a tick.
+	 */
+	public static enum Phase {
+		/** Reading the input and moving the ships. */
+		INPUT,
+		/** Spawning and moving obstacles. */
+		OBSTACLES,
+		/** Updating the formation, the special ship and the items. */
+		FORMATION,
+		/** Checking collisions. */
+		COLLISIONS,
+		/** Removing bullets, obstacles and items that are gone. */
+		CLEANUP,
+		/** Drawing into the back buffer. */
+		DRAW,
+		/** Showing the back buffer on the screen. */
+		PRESENT
+	};
+
+	/** Singleton instance of the class. */
+	private static FrameProfiler instance;
+
+	/** Histograms of the window being recorded, one per phase. */
+	private FrameHistogram[] current;
+	/** Histograms of the last complete window, one per phase. */
+	private FrameHistogram[] reported;
+	/** Ticks recorded in the current window. */
+	private int windowTicks;
+	/** If the overlay with the results is shown. */
+	private boolean overlayVisible;
+
+	/**
+	 * Private constructor.
+	 */
+	private FrameProfiler() {
+		this.current = createHistograms();
+		this.reported = createHistograms();
+	}
+
+	/**
+	 * Returns shared instance of FrameProfiler.
+	 *
+	 * @return Shared instance of FrameProfiler.
+	 */
+	protected static FrameProfiler getInstance() {
+		if (instance == null)
+			instance = new FrameProfiler();
+		return instance;
+	}
+
+	/**
+	 * Returns the start of the first phase timed.
+	 *
+	 * @return Current System.nanoTime().
+	 */
+	public long start() {
+		return System.nanoTime();
+	}
+
+	/**
+	 * Records the end of a phase.
+	 *
+	 * @param phase
+	 *            Phase that ended.
+	 * @param startNanos
+	 *            System.nanoTime() when the phase started.
+	 * @return Current System.nanoTime(), start of the next phase.
+	 */
+	public long record(final Phase phase, final long startNanos) {
+		long now = System.nanoTime();
+		this.current[phase.ordinal()].record(now - startNanos);
+		return now;
+	}
+
+	/**
+	 * Ends a tick, publishing the window of samples when it is complete.
+	 */
+	public void endTick() {
+		if (++this.windowTicks < WINDOW_TICKS)
+			return;
+		FrameHistogram[] finished = this.current;
+		this.current = this.reported;
+		this.reported = finished;
+		for (FrameHistogram histogram : this.current)
+			histogram.reset();
+		this.windowTicks = 0;
+	}
+
+	/**
+	 * Returns the histogram of a phase over the last complete window.
+	 *
+	 * @param phase
+	 *            Phase to check.
+	 * @return Histogram of the phase, not to be modified.
+	 */
+	public FrameHistogram getHistogram(final Phase phase) {
+		return this.reported[phase.ordinal()];
+	}
+
+	/**
+	 * Checks if the overlay with the results is shown.
+	 *
+	 * @return True if the overlay is shown.
+	 */
+	public boolean isOverlayVisible() {
+		return this.overlayVisible;
+	}
+
+	/**
+	 * Shows or hides the overlay with the results.
+	 */
+	public void toggleOverlay() {
+		this.overlayVisible = !this.overlayVisible;
+	}
+
+	/**
+	 * Creates an empty histogram for each phase.
+	 *
+	 * @return Histograms, indexed by phase ordinal.
+	 */
+	private static FrameHistogram[] createHistograms() {
+		FrameHistogram[] histograms =
+				new FrameHistogram[Phase.values().length];
+		for (int i = 0; i < histograms.length; i++)
+			histograms[i] = new FrameHistogram();
+		return histograms;
+	}
+}
@@ -0,0 +1,78 @@
+package engine;
+
+/**
+ * Source of the time used by the game logic. It follows the system clock
+ * unless a simulation is running, in which case it only moves forward when
+ * the screen loop advances a tick, so the game can run faster than real
+ * time and always see the same timings.
+ *
+ */
+public final class GameClock {
+
+	/** Nanoseconds in a millisecond. */
+	private static final long NANOS_PER_MILLI = 1000000L;
+
+	/** If time only advances with the simulation ticks. */
+	private static boolean simulated;
+	/** Simulated time, in nanoseconds. */
+	private static long simulatedNanos;
+
+	/**
+	 * Constructor, not called.
+	 */
+	private GameClock() {
+
+	}
+
+	/**
+	 * Returns the current game time.
+	 *
+	 * @return Time in milliseconds, comparable to System.currentTimeMillis().
+	 */
+	public static long currentTimeMillis() {
+		if (simulated)
+			return simulatedNanos / NANOS_PER_MILLI;
+		return System.currentTimeMillis();
+	}
+
+	/**
+	 * Makes time advance only through advance(), starting at the given
+	 * instant.
+	 *
+	 * @param startMillis
+	 *            Initial time, in milliseconds. Must not be 0, cooldowns use
+	 *            it as their never started value.
+	 */
+	public static void startSimulation(final long startMillis) {
+		simulated = true;
+		simulatedNanos = startMillis * NANOS_PER_MILLI;
+	}
+
+	/**
+	 * Makes time follow the system clock again.
+	 */
+	public static void stopSimulation() {
+		simulated = false;
+	}
+
+	/**
+	 * Checks if time only advances with the simulation.
+	 *
+	 * @return True if the clock is simulated.
+	 */
+	public static boolean isSimulated() {
+		return simulated;
+	}
+
+	/**
+	 * Advances the simulated time. Does nothing if the clock follows the
+	 * system clock.
+	 *
+	 * @param nanos
+	 *            Time to advance, in nanoseconds.
+	 */
+	public static void advance(final long nanos) {
+		if (simulated)
+			simulatedNanos += nanos;
+	}
+}
@@ -0,0 +1,190 @@
+package engine;
+
+import java.nio.ByteBuffer;
+import java.util.SplittableRandom;
+
+/**
+ * Random numbers of the game logic. Every game is played from a seed, and
+ * each part of the game draws from its own stream split from that seed, so
+ * the same seed and input always play the same game, and drawing more
+ * numbers in one part doesn't change what the others get.
+ *
+ * Each stream runs the generator SplittableRandom uses, SplitMix64, over a
+ * state of its own that a snapshot of the game can save and restore. The
+ * streams are not synchronized, unlike Math.random(), which shares a single
+ * generator with every thread. Like the rest of the game logic, they are
+ * only used from the game thread.
+ *
+ */
+public final class GameRandom {
+
+	/** Parts of the game drawing random numbers. */
+	public enum Stream {
+		/** Layout of each enemy formation. */
+		FORMATION,
+		/** Which enemy shoots. */
+		ENEMY_FIRE,
+		/** Variance of the cooldowns. */
+		COOLDOWNS,
+		/** If enemies drop items. */
+		ITEM_DROPS,
+		/** Which item is dropped. */
+		ITEM_TYPES,
+		/** Colors of the enemies. */
+		ENEMY_COLORS,
+		/** Where obstacles appear. */
+		OBSTACLES
+	}
+
+	/** Singleton instance of the class. */
+	private static GameRandom instance;
+
+	/** Seed of the current game. */
+	private long seed;
+	/** State of each stream, by ordinal. */
+	private final long[] states;
+	/** Odd increment of the state of each stream, by ordinal. */
+	private final long[] gammas;
+
+	/**
+	 * Private constructor, seeded from the system until the first game.
+	 */
+	private GameRandom() {
+		this.states = new long[Stream.values().length];
+		this.gammas = new long[Stream.values().length];
+		reseed(newSeed());
+	}
+
+	/**
+	 * Returns shared instance of GameRandom.
+	 *
+	 * @return Shared instance of GameRandom.
+	 */
+	protected static GameRandom getInstance() {
+		if (instance == null)
+			instance = new GameRandom();
+		return instance;
+	}
+
+	/**
+	 * Returns a seed for a new game, different each time.
+	 *
+	 * @return Unpredictable seed.
+	 */
+	public static long newSeed() {
+		return new SplittableRandom().nextLong();
+	}
+
+	/**
+	 * Restarts every stream from a seed, at the start of a game.
+	 *
+	 * @param seed
+	 *            Seed of the game.
+	 */
+	public void reseed(final long seed) {
+		this.seed = seed;
+		SplittableRandom root = new SplittableRandom(seed);
+		// Seeded in declaration order, so new streams go at the end of the enum.
+		for (int i = 0; i < this.states.length; i++) {
+			this.states[i] = root.nextLong();
+			long gamma = root.nextLong() | 1L;
+			// Like SplittableRandom, avoids gammas with too few bit changes.
+			if (Long.bitCount(gamma ^ (gamma >>> 1)) < 24)
+				gamma ^= 0xAAAAAAAAAAAAAAAAL;
+			this.gammas[i] = gamma;
+		}
+	}
+
+	/**
+	 * Writes the state of every stream.
+	 *
+	 * @param buffer
+	 *            Buffer to write to.
+	 */
+	public void writeState(final ByteBuffer buffer) {
+		buffer.putLong(this.seed);
+		for (int i = 0; i < this.states.length; i++) {
+			buffer.putLong(this.states[i]);
+			buffer.putLong(this.gammas[i]);
+		}
+	}
+
+	/**
+	 * Restores the state written by writeState(), so the streams go on
+	 * with the same numbers they would have drawn then.
+	 *
+	 * @param buffer
+	 *            Buffer to read from.
+	 */
+	public void readState(final ByteBuffer buffer) {
+		this.seed = buffer.getLong();
+		for (int i = 0; i < this.states.length; i++) {
+			this.states[i] = buffer.getLong();
+			this.gammas[i] = buffer.getLong();
+		}
+	}
+
+	/**
+	 * Returns the seed of the current game.
+	 *
+	 * @return Seed last given to reseed().
+	 */
+	public long getSeed() {
+		return this.seed;
+	}
+
+	/**
+	 * Returns a number in [0, 1).
+	 *
+	 * @param stream
+	 *            Stream to draw from.
+	 * @return Uniform random number.
+	 */
+	public double nextDouble(final Stream stream) {
+		return (nextLong(stream) >>> 11) * 0x1.0p-53;
+	}
+
+	/**
+	 * Returns a number in [0, bound).
+	 *
+	 * @param stream
+	 *            Stream to draw from.
+	 * @param bound
+	 *            Upper bound, exclusive, positive.
+	 * @return Uniform random number.
+	 */
+	public int nextInt(final Stream stream, final int bound) {
+		if (bound <= 0)
+			throw new IllegalArgumentException("Bound must be positive");
+		// Scales the top 32 bits, the bias is below bound / 2^32.
+		return (int) (((nextLong(stream) >>> 32) * bound) >>> 32);
+	}
+
+	/**
+	 * Returns true with some probability.
+	 *
+	 * @param stream
+	 *            Stream to draw from.
+	 * @param probability
+	 *            Chance of returning true, in [0, 1].
+	 * @return If the event happens.
+	 */
+	public boolean chance(final Stream stream, final double probability) {
+		return nextDouble(stream) < probability;
+	}
+
+	/**
+	 * Advances a stream and returns its next 64 random bits.
+	 *
+	 * @param stream
+	 *            Stream to draw from.
+	 * @return Uniform random bits.
+	 */
+	private long nextLong(final Stream stream) {
+		int i = stream.ordinal();
+		long z = (this.states[i] += this.gammas[i]);
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}
+}
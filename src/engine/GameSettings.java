@@ -8,6 +8,9 @@ package engine;
  */
 public class GameSettings {
 
+	/** Bullets on screen at once levels are ready for if they don't say. */
+	private static final int DEFAULT_BULLET_POOL_SIZE = 64;
+
 	/** Width of the level's enemy formation. */
 	private int formationWidth;
 	/** Height of the level's enemy formation. */
@@ -19,6 +22,8 @@ public class GameSettings {
 	/** Level Design team modification
 	 * Number of enemy ships waves during the level **/
 	private int wavesNumber;
+	/** Bullets on screen at once the level is ready for, see BulletStore. */
+	private int bulletPoolSize;
 
 	/**
 	 * Constructor.
@@ -36,6 +41,30 @@ public class GameSettings {
 	 */
 	public GameSettings(final int formationWidth, final int formationHeight,
 			final int baseSpeed, final int shootingFrecuency, final int wavesNumber) {
+		this(formationWidth, formationHeight, baseSpeed, shootingFrecuency,
+				wavesNumber, DEFAULT_BULLET_POOL_SIZE);
+	}
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param formationWidth
+	 *            Width of the level's enemy formation.
+	 * @param formationHeight
+	 *            Height of the level's enemy formation.
+	 * @param baseSpeed
+	 *            Speed of the enemies.
+	 * @param shootingFrecuency
+	 *            Frecuency of enemy shootings, +/- 30%.
+	 * @param wavesNumber
+	 *            Number of waves in the level.
+	 * @param bulletPoolSize
+	 *            Bullets on screen at once the level is ready for.
+	 */
+	public GameSettings(final int formationWidth, final int formationHeight,
+			final int baseSpeed, final int shootingFrecuency, final int wavesNumber,
+			final int bulletPoolSize) {
+		this.bulletPoolSize = bulletPoolSize;
 		this.formationWidth = formationWidth;
 		this.formationHeight = formationHeight;
 		this.baseSpeed = baseSpeed;
@@ -81,4 +110,11 @@ public class GameSettings {
 		return wavesNumber;
 	}
 
+	/**
+	 * @return the bulletPoolSize
+	 */
+	public final int getBulletPoolSize() {
+		return bulletPoolSize;
+	}
+
 }
@@ -0,0 +1,305 @@
+package engine;
+
+import java.awt.event.KeyEvent;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.BiConsumer;
+import java.util.function.LongSupplier;
+import java.util.logging.Level;
+import java.util.stream.Stream;
+
+import CtrlS.RoundState;
+import screen.GameScreen;
+
+/**
+ * Runs games without a window, sound or frame pacing, to soak test the
+ * game logic and measure how many ticks per second it simulates.
+ *
+ * Usage:
+ * <pre>
+ * HeadlessSimulation [games] [seed]
+ * HeadlessSimulation record file [seed]
+ * HeadlessSimulation replay file
+ * HeadlessSimulation autopilot [difficulty] [games] [seed]
+ * </pre>
+ * The seed of each game is printed with it. Given a seed, the same games are
+ * played on every run. A recorded game is saved to a replay file, which
+ * replay plays back and checks against the recording. The autopilot plays
+ * instead of the script at the given difficulty, NORMAL by default.
+ *
+ */
+public final class HeadlessSimulation {
+
+	/** Ticks the default script spends moving to each side. */
+	private static final int SWEEP_TICKS = 90;
+	/** Nanoseconds in a second. */
+	private static final double NANOS_PER_SECOND = 1e9;
+	/** Nanoseconds in a microsecond. */
+	private static final double NANOS_PER_MICRO = 1e3;
+
+	/** Scratch folder headless games save to, null until installed. */
+	private static Path saveFolder;
+
+	/**
+	 * Constructor, not called.
+	 */
+	private HeadlessSimulation() {
+
+	}
+
+	/**
+	 * Makes the game headless and feeds the screens from the given input.
+	 * Games save to a scratch folder, deleted on exit, so they start from
+	 * default upgrades and never touch the player's statistics,
+	 * achievements or currency.
+	 *
+	 * @param input
+	 *            Input read by the screens.
+	 */
+	public static void install(final InputSource input) {
+		System.setProperty("java.awt.headless", "true");
+		Core.getLogger().setLevel(Level.WARNING);
+		Core.setHeadless(true);
+		Core.setInputSource(input);
+		if (saveFolder == null) {
+			try {
+				saveFolder = Files.createTempDirectory("headless");
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+			Core.getFileManager().setSaveDirectory(saveFolder.toFile());
+			Runtime.getRuntime().addShutdownHook(new Thread(
+					HeadlessSimulation::deleteSaveFolder));
+		}
+	}
+
+	/**
+	 * Deletes the scratch save folder and everything in it.
+	 */
+	private static void deleteSaveFolder() {
+		try (Stream<Path> files = Files.walk(saveFolder)) {
+			files.sorted(Comparator.reverseOrder()).map(Path::toFile)
+					.forEach(File::delete);
+		} catch (IOException e) {
+			Core.getLogger().warning("Couldn't delete " + saveFolder + ": " + e);
+		}
+	}
+
+	/**
+	 * Creates a script that keeps shooting while sweeping the ship from one
+	 * side of the screen to the other.
+	 *
+	 * @return Repeating script.
+	 */
+	public static ScriptedInput sweepingScript() {
+		return new ScriptedInput()
+				.press(0, KeyEvent.VK_ENTER)
+				.press(0, KeyEvent.VK_LEFT)
+				.release(SWEEP_TICKS, KeyEvent.VK_LEFT)
+				.press(SWEEP_TICKS, KeyEvent.VK_RIGHT)
+				.release(SWEEP_TICKS * 2, KeyEvent.VK_RIGHT)
+				.loop(SWEEP_TICKS * 2);
+	}
+
+	/**
+	 * Plays a single player game from the first level until the ship runs
+	 * out of lives or every level is cleared, like the game menu does but
+	 * without the receipt screens in between. The game starts over from
+	 * the state of a new game, whatever was played before it, so the same
+	 * seed and input play the same game.
+	 *
+	 * Stops early if the input runs out.
+	 *
+	 * @param levelSettings
+	 *            Difficulty settings of each level.
+	 * @param start
+	 *            State the game starts from.
+	 * @param seed
+	 *            Seed of the random numbers of the game.
+	 * @return State of the game when it ended.
+	 */
+	public static GameState playGame(final List<GameSettings> levelSettings,
+			final GameState start, final long seed) {
+		return playGame(levelSettings, start, seed, (gameState, round) -> {
+		});
+	}
+
+	/**
+	 * Plays a single player game like playGame(), reporting how each level
+	 * went as it ends.
+	 *
+	 * @param levelSettings
+	 *            Difficulty settings of each level.
+	 * @param start
+	 *            State the game starts from.
+	 * @param seed
+	 *            Seed of the random numbers of the game.
+	 * @param onLevel
+	 *            Given the state at the end of each level and the round
+	 *            of that level.
+	 * @return State of the game when it ended.
+	 */
+	public static GameState playGame(final List<GameSettings> levelSettings,
+			final GameState start, final long seed,
+			final BiConsumer<GameState, RoundState> onLevel) {
+		Core.startGame(seed);
+		GameState gameState = start;
+		do {
+			boolean bonusLife = gameState.getLevel()
+					% Core.EXTRA_LIFE_FRECUENCY == 0
+					&& gameState.getLivesRemaining() < Core.MAX_LIVES;
+
+			GameState prevState = gameState;
+			GameScreen screen = new GameScreen(gameState,
+					levelSettings.get(gameState.getLevel() - 1), bonusLife,
+					Core.WIDTH, Core.HEIGHT, Core.FPS);
+			screen.initialize();
+			screen.run();
+
+			gameState = screen.getGameState();
+			RoundState roundState = new RoundState(prevState, gameState);
+			onLevel.accept(gameState, roundState);
+			gameState = new GameState(gameState.getLevel() + 1,
+					gameState.getScore(),
+					gameState.getLivesRemaining(),
+					gameState.getLivesTwoRemaining(),
+					gameState.getBulletsShot(),
+					gameState.getShipsDestroyed(),
+					gameState.getTime(),
+					gameState.getCoin() + roundState.getRoundCoin(),
+					gameState.getGem(),
+					gameState.getHitCount(),
+					gameState.getCoinItemsCollected());
+		} while (gameState.getLivesRemaining() > 0
+				&& gameState.getLevel() <= levelSettings.size()
+				&& !Core.getInputSource().isFinished());
+
+		return gameState;
+	}
+
+	/**
+	 * Returns the state a new game starts from.
+	 *
+	 * @return State at the start of the first level.
+	 */
+	public static GameState newGame() {
+		return new GameState(1, 0, Core.MAX_LIVES, 0, 0, 0, 0, 0, 0, 0, 0);
+	}
+
+	/**
+	 * Plays games with the sweeping script or the autopilot, records or
+	 * replays one, and prints the simulation speed of each game.
+	 *
+	 * @param args
+	 *            Amount of games to play, 1 by default, and the seed the
+	 *            seeds of the games are drawn from, random by default. Or
+	 *            record, a replay file and a seed, or replay and a replay
+	 *            file. Or autopilot, its difficulty, the amount of games
+	 *            and the seed, to play with the autopilot instead.
+	 * @throws IOException
+	 *             In case of problems with the replay file.
+	 */
+	public static void main(final String[] args) throws IOException {
+		if (args.length > 1 && args[0].equals("record")) {
+			long seed = args.length > 2 ? Long.parseLong(args[2])
+					: GameRandom.newSeed();
+			GameState start = newGame();
+			ScriptedInput script = sweepingScript();
+			install(script);
+			InputRecorder recorder = new InputRecorder(script, seed, start,
+					Core.getUpgradeManager().getStatus());
+			Core.setInputSource(recorder);
+			timeGame(1, start, seed, recorder::getTicks);
+			recorder.toReplay().save(Paths.get(args[1]));
+			System.exit(0);
+		}
+
+		if (args.length > 1 && args[0].equals("replay")) {
+			Replay replay = Replay.load(Paths.get(args[1]));
+			ReplayInput input = new ReplayInput(replay);
+			install(input);
+			if (!replay.getUpgrades().isEmpty())
+				Core.getUpgradeManager().restoreStatus(replay.getUpgrades());
+			timeGame(1, replay.getStart(), replay.getSeed(), input::getTicks);
+			if (input.getDivergedTick() >= 0) {
+				System.out.println("Replay diverged on tick "
+						+ input.getDivergedTick() + " of " + replay.getTicks()
+						+ ".");
+				System.exit(1);
+			}
+			System.out.println("Replay matched all " + replay.getTicks()
+					+ " ticks.");
+			System.exit(0);
+		}
+
+		if (args.length > 0 && args[0].equals("autopilot")) {
+			Autopilot.Difficulty difficulty = args.length > 1
+					? Autopilot.Difficulty.valueOf(args[1].toUpperCase())
+					: Autopilot.Difficulty.NORMAL;
+			int games = args.length > 2 ? Integer.parseInt(args[2]) : 1;
+			SplittableRandom seeds = new SplittableRandom(args.length > 3
+					? Long.parseLong(args[3]) : GameRandom.newSeed());
+			Autopilot autopilot = new Autopilot(difficulty);
+			install(autopilot);
+			for (int i = 1; i <= games; i++) {
+				timeGame(i, newGame(), seeds.nextLong(), autopilot::getTicks);
+				autopilot.finishLevel();
+			}
+			FrameHistogram tickTimes = autopilot.getTickTimes();
+			System.out.printf("Autopilot cleared %d levels and lost %d, "
+					+ "tick time p50 %.1f us, p99 %.1f us, max %.1f us%n",
+					autopilot.getLevelsCleared(), autopilot.getLevelsLost(),
+					tickTimes.percentile(0.5) / NANOS_PER_MICRO,
+					tickTimes.percentile(0.99) / NANOS_PER_MICRO,
+					tickTimes.getMax() / NANOS_PER_MICRO);
+			System.exit(0);
+		}
+
+		int games = args.length > 0 ? Integer.parseInt(args[0]) : 1;
+		SplittableRandom seeds = new SplittableRandom(args.length > 1
+				? Long.parseLong(args[1]) : GameRandom.newSeed());
+		install(sweepingScript());
+		for (int i = 1; i <= games; i++) {
+			// Each game sweeps from the start, as it does when replayed alone.
+			ScriptedInput script = sweepingScript();
+			Core.setInputSource(script);
+			timeGame(i, newGame(), seeds.nextLong(), script::getTicks);
+		}
+		System.exit(0);
+	}
+
+	/**
+	 * Plays a game and prints how it went and how fast it was simulated.
+	 *
+	 * @param number
+	 *            Number of the game, to print.
+	 * @param start
+	 *            State the game starts from.
+	 * @param seed
+	 *            Seed of the random numbers of the game.
+	 * @param tickCounter
+	 *            Ticks run by the installed input.
+	 * @return State of the game when it ended.
+	 */
+	private static GameState timeGame(final int number, final GameState start,
+			final long seed, final LongSupplier tickCounter) {
+		long ticks = tickCounter.getAsLong();
+		long startTime = System.nanoTime();
+		GameState gameState = playGame(Core.getLevelSettings(), start, seed);
+		double seconds = (System.nanoTime() - startTime) / NANOS_PER_SECOND;
+		ticks = tickCounter.getAsLong() - ticks;
+
+		System.out.printf("Game %d: reached level %d with %d points, "
+				+ "%d ticks in %.2f s (%.0f ticks/s), seed %d%n", number,
+				gameState.getLevel() - 1, gameState.getScore(), ticks,
+				seconds, ticks / seconds, seed);
+		return gameState;
+	}
+}
@@ -0,0 +1,128 @@
+package engine;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Properties;
+
+import screen.Screen;
+
+/**
+ * Input source that records another one. The keys are read from it once
+ * at the start of each tick and stay the same until the next one, so the
+ * screens see exactly what is recorded even if keys change mid tick.
+ *
+ */
+public final class InputRecorder implements InputSource {
+
+	/** Number of recognised keys. */
+	private static final int NUM_KEYS = 256;
+
+	/** Input recorded. */
+	private final InputSource source;
+	/** Seed of the random numbers of the game. */
+	private final long seed;
+	/** State the game started from. */
+	private final GameState start;
+	/** Upgrade statuses the game is played with. */
+	private final Properties upgrades;
+	/** Keys pressed on the current tick. */
+	private final boolean[] keys;
+	/** Keys changed on the current tick. */
+	private final int[] changed;
+	/** Input records so far. */
+	private final ByteArrayOutputStream inputs;
+
+	/** Ticks started since recording started. */
+	private long ticks;
+	/** Tick of the last record. */
+	private long lastRecordTick;
+
+	/**
+	 * Constructor, starts recording.
+	 *
+	 * @param source
+	 *            Input to record.
+	 * @param seed
+	 *            Seed the game is played with.
+	 * @param start
+	 *            State the game starts from.
+	 * @param upgrades
+	 *            Upgrade statuses the game is played with.
+	 */
+	public InputRecorder(final InputSource source, final long seed,
+			final GameState start, final Properties upgrades) {
+		this.source = source;
+		this.seed = seed;
+		this.start = start;
+		this.upgrades = upgrades;
+		this.keys = new boolean[NUM_KEYS];
+		this.changed = new int[NUM_KEYS];
+		this.inputs = new ByteArrayOutputStream();
+	}
+
+	/**
+	 * Returns what has been recorded so far.
+	 *
+	 * @return Replay of the recorded ticks.
+	 */
+	public Replay toReplay() {
+		return new Replay(this.seed, this.start, this.upgrades, this.ticks,
+				this.inputs.toByteArray());
+	}
+
+	/**
+	 * Returns the amount of ticks recorded.
+	 *
+	 * @return Ticks recorded.
+	 */
+	public long getTicks() {
+		return this.ticks;
+	}
+
+	@Override
+	public boolean isKeyDown(final int keyCode) {
+		return this.keys[keyCode];
+	}
+
+	@Override
+	public void beforeTick(final Screen screen) {
+		this.source.beforeTick(screen);
+		if (this.source.isFinished())
+			return;
+
+		int changedCount = 0;
+		for (int key = 0; key < NUM_KEYS; key++) {
+			boolean down = this.source.isKeyDown(key);
+			if (down != this.keys[key]) {
+				this.keys[key] = down;
+				this.changed[changedCount++] = key;
+			}
+		}
+		boolean checksum = this.ticks > 0
+				&& this.ticks % Replay.CHECKSUM_INTERVAL == 0;
+
+		if (changedCount > 0 || checksum) {
+			Replay.writeVarint(this.inputs, this.ticks - this.lastRecordTick);
+			Replay.writeVarint(this.inputs,
+					(long) changedCount << 1 | (checksum ? 1 : 0));
+			int previous = 0;
+			for (int i = 0; i < changedCount; i++) {
+				Replay.writeVarint(this.inputs, this.changed[i] - previous);
+				previous = this.changed[i];
+			}
+			if (checksum) {
+				int state = screen.stateChecksum();
+				this.inputs.write(state >>> 24);
+				this.inputs.write(state >>> 16);
+				this.inputs.write(state >>> 8);
+				this.inputs.write(state);
+			}
+			this.lastRecordTick = this.ticks;
+		}
+		this.ticks++;
+	}
+
+	@Override
+	public boolean isFinished() {
+		return this.source.isFinished();
+	}
+}
@@ -0,0 +1,39 @@
+package engine;
+
+import screen.Screen;
+
+/**
+ * Provides the state of the keys read by the screens. The keyboard is the
+ * usual source, but scripted or recorded input can take its place.
+ *
+ */
+public interface InputSource {
+
+	/**
+	 * Returns true if the provided key is currently pressed.
+	 *
+	 * @param keyCode
+	 *            Key number to check.
+	 * @return Key state.
+	 */
+	boolean isKeyDown(int keyCode);
+
+	/**
+	 * Called by the screen loop before every simulation tick.
+	 *
+	 * @param screen
+	 *            Screen about to be updated.
+	 */
+	default void beforeTick(final Screen screen) {
+	}
+
+	/**
+	 * Checks if the input has run out, in which case the screen stops
+	 * instead of running the tick.
+	 *
+	 * @return True once there is no more input.
+	 */
+	default boolean isFinished() {
+		return false;
+	}
+}
@@ -0,0 +1,49 @@
+package engine;
+
+import screen.Screen;
+
+/**
+ * Draw manager for headless games. It loads no resources and ignores the
+ * drawing passes, so screens can be created without a frame.
+ *
+ */
+public final class NullDrawManager extends DrawManager {
+
+	/** Singleton instance of the class. */
+	private static NullDrawManager nullInstance;
+
+	/**
+	 * Private constructor.
+	 */
+	private NullDrawManager() {
+		super(false);
+	}
+
+	/**
+	 * Returns shared instance of NullDrawManager.
+	 *
+	 * @return Shared instance of NullDrawManager.
+	 */
+	public static NullDrawManager getInstance() {
+		if (nullInstance == null)
+			nullInstance = new NullDrawManager();
+		return nullInstance;
+	}
+
+	@Override
+	public void initDrawing(final Screen screen) {
+	}
+
+	@Override
+	public void completeDrawing(final Screen screen) {
+	}
+
+	@Override
+	public void loadBackground(final int levelNumber) {
+	}
+
+	@Override
+	public void drawBackground(final boolean backgroundMoveRight,
+			final boolean backgroundMoveLeft) {
+	}
+}
@@ -0,0 +1,79 @@
+package engine;
+
+/**
+ * Counts how a pool of reusable objects is used, to size it: how many
+ * objects were taken and how many of those had to be created, how many
+ * were given back, and the most objects taken at once.
+ *
+ */
+public final class PoolMetrics {
+
+	/** Objects taken from the pool. */
+	private long acquisitions;
+	/** Objects taken that the pool had to create. */
+	private long misses;
+	/** Objects given back to the pool. */
+	private long recycles;
+	/** Objects taken and not given back yet. */
+	private int inUse;
+	/** Most objects taken at once. */
+	private int highWater;
+
+	/**
+	 * Counts an object taken from the pool.
+	 *
+	 * @param miss
+	 *            If the pool had no object ready and created one.
+	 */
+	public void acquired(final boolean miss) {
+		this.acquisitions++;
+		if (miss)
+			this.misses++;
+		if (++this.inUse > this.highWater)
+			this.highWater = this.inUse;
+	}
+
+	/**
+	 * Counts objects given back to the pool.
+	 *
+	 * @param amount
+	 *            Objects given back.
+	 */
+	public void recycled(final int amount) {
+		this.recycles += amount;
+		this.inUse = Math.max(0, this.inUse - amount);
+	}
+
+	/**
+	 * Sets every counter back to zero.
+	 */
+	public void reset() {
+		this.acquisitions = 0;
+		this.misses = 0;
+		this.recycles = 0;
+		this.inUse = 0;
+		this.highWater = 0;
+	}
+
+	public long getAcquisitions() {
+		return this.acquisitions;
+	}
+
+	public long getMisses() {
+		return this.misses;
+	}
+
+	public long getRecycles() {
+		return this.recycles;
+	}
+
+	public int getHighWater() {
+		return this.highWater;
+	}
+
+	@Override
+	public String toString() {
+		return this.acquisitions + " taken, " + this.misses + " new, "
+				+ this.recycles + " back, peak " + this.highWater;
+	}
+}
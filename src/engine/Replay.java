@@ -0,0 +1,274 @@
+package engine;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Recorded game: the seed of its random numbers, the state it started
+ * from, the upgrades the player had and the keys pressed on each tick.
+ * Playing it back with the same level settings and those upgrades plays
+ * the same game, which the checksums of the state taken every
+ * CHECKSUM_INTERVAL ticks confirm.
+ *
+ * Layout, big endian:
+ * <pre>
+ * int   MAGIC
+ * short VERSION
+ * long  seed
+ * int   x 11, starting game state
+ * int   upgrade statuses, since version 2
+ * short + UTF-8 per status, key then value, sorted by key
+ * long  ticks recorded
+ * input records, until the end of the file
+ * </pre>
+ * Only ticks where a key changes or a checksum is taken have a record:
+ * <pre>
+ * varint ticks since the previous record
+ * varint changed keys &lt;&lt; 1 | 1 if there is a checksum
+ * varint per changed key, difference from the previous one, ascending
+ * int    checksum, if there is one
+ * </pre>
+ * A changed key is pressed if it was released, and released otherwise.
+ */
+public final class Replay {
+
+	/** Ticks between two checksums of the game state. */
+	static final int CHECKSUM_INTERVAL = 60;
+
+	/** First bytes of every replay, "INVR". */
+	private static final int MAGIC = 0x494E5652;
+	/** Version of the layout written. */
+	private static final short VERSION = 2;
+
+	/** Seed of the random numbers of the game. */
+	private final long seed;
+	/** State the game started from. */
+	private final GameState start;
+	/** Upgrade statuses, empty if not recorded. */
+	private final Properties upgrades;
+	/** Ticks recorded. */
+	private final long ticks;
+	/** Input records. */
+	private final byte[] inputs;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param seed
+	 *            Seed of the random numbers of the game.
+	 * @param start
+	 *            State the game started from.
+	 * @param upgrades
+	 *            Upgrade statuses, not to be changed afterwards.
+	 * @param ticks
+	 *            Ticks recorded.
+	 * @param inputs
+	 *            Input records, not to be changed afterwards.
+	 */
+	Replay(final long seed, final GameState start, final Properties upgrades,
+			final long ticks, final byte[] inputs) {
+		this.seed = seed;
+		this.start = start;
+		this.upgrades = upgrades;
+		this.ticks = ticks;
+		this.inputs = inputs;
+	}
+
+	/**
+	 * Reads a replay file.
+	 *
+	 * @param path
+	 *            Replay file.
+	 * @return Replay read.
+	 * @throws IOException
+	 *             In case of loading problems, or if it isn't a replay.
+	 */
+	public static Replay load(final Path path) throws IOException {
+		ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(path));
+		try {
+			if (buffer.getInt() != MAGIC)
+				throw new IOException(path + " is not a replay");
+			short version = buffer.getShort();
+			if (version > VERSION)
+				throw new IOException(path + " was saved by a newer version");
+			long seed = buffer.getLong();
+			GameState start = new GameState(buffer.getInt(), buffer.getInt(),
+					buffer.getInt(), buffer.getInt(), buffer.getInt(),
+					buffer.getInt(), buffer.getInt(), buffer.getInt(),
+					buffer.getInt(), buffer.getInt(), buffer.getInt());
+			Properties upgrades = new Properties();
+			if (version >= 2)
+				for (int i = buffer.getInt(); i > 0; i--)
+					upgrades.setProperty(readString(buffer), readString(buffer));
+			long ticks = buffer.getLong();
+			return new Replay(seed, start, upgrades, ticks, Arrays.copyOfRange(
+					buffer.array(), buffer.position(), buffer.limit()));
+		} catch (BufferUnderflowException e) {
+			throw new IOException(path + " is cut short");
+		}
+	}
+
+	/**
+	 * Writes the replay to a file.
+	 *
+	 * @param path
+	 *            Replay file.
+	 * @throws IOException
+	 *             In case of saving problems.
+	 */
+	public void save(final Path path) throws IOException {
+		ByteArrayOutputStream file = new ByteArrayOutputStream(
+				64 + this.inputs.length);
+		DataOutputStream output = new DataOutputStream(file);
+		output.writeInt(MAGIC);
+		output.writeShort(VERSION);
+		output.writeLong(this.seed);
+		output.writeInt(this.start.getLevel());
+		output.writeInt(this.start.getScore());
+		output.writeInt(this.start.getLivesRemaining());
+		output.writeInt(this.start.getLivesTwoRemaining());
+		output.writeInt(this.start.getBulletsShot());
+		output.writeInt(this.start.getShipsDestroyed());
+		output.writeInt(this.start.getTime());
+		output.writeInt(this.start.getCoin());
+		output.writeInt(this.start.getGem());
+		output.writeInt(this.start.getHitCount());
+		output.writeInt(this.start.getCoinItemsCollected());
+		Set<String> keys = new TreeSet<String>(
+				this.upgrades.stringPropertyNames());
+		output.writeInt(keys.size());
+		for (String key : keys) {
+			writeString(output, key);
+			writeString(output, this.upgrades.getProperty(key));
+		}
+		output.writeLong(this.ticks);
+		output.write(this.inputs);
+		output.flush();
+		Files.write(path, file.toByteArray());
+	}
+
+	/**
+	 * Returns the seed of the random numbers of the game.
+	 *
+	 * @return Game seed.
+	 */
+	public long getSeed() {
+		return this.seed;
+	}
+
+	/**
+	 * Returns the state the game started from.
+	 *
+	 * @return Starting game state.
+	 */
+	public GameState getStart() {
+		return this.start;
+	}
+
+	/**
+	 * Returns the upgrade statuses the game was played with. Replays saved
+	 * before they were recorded have none, and play back with whatever
+	 * upgrades are loaded.
+	 *
+	 * @return Copy of the upgrade statuses, empty if not recorded.
+	 */
+	public Properties getUpgrades() {
+		Properties copy = new Properties();
+		copy.putAll(this.upgrades);
+		return copy;
+	}
+
+	/**
+	 * Returns the amount of ticks recorded.
+	 *
+	 * @return Ticks recorded.
+	 */
+	public long getTicks() {
+		return this.ticks;
+	}
+
+	/**
+	 * Returns the input records, to be read but not changed.
+	 *
+	 * @return Input records.
+	 */
+	ByteBuffer getInputs() {
+		return ByteBuffer.wrap(this.inputs).asReadOnlyBuffer();
+	}
+
+	/**
+	 * Writes a string as its UTF-8 length and bytes.
+	 *
+	 * @param output
+	 *            Stream to write to.
+	 * @param value
+	 *            String to write, up to 32767 bytes long.
+	 * @throws IOException
+	 *             In case of writing problems.
+	 */
+	private static void writeString(final DataOutputStream output,
+			final String value) throws IOException {
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		output.writeShort(bytes.length);
+		output.write(bytes);
+	}
+
+	/**
+	 * Reads a string written by writeString().
+	 *
+	 * @param input
+	 *            Buffer to read from.
+	 * @return String read.
+	 */
+	private static String readString(final ByteBuffer input) {
+		byte[] bytes = new byte[input.getShort()];
+		input.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Writes a non negative number in 7 bit groups, lowest first, with the
+	 * high bit set on every group but the last.
+	 *
+	 * @param output
+	 *            Stream to write to.
+	 * @param value
+	 *            Number to write, not negative.
+	 */
+	static void writeVarint(final ByteArrayOutputStream output, long value) {
+		while ((value & ~0x7FL) != 0) {
+			output.write((int) (value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		output.write((int) value);
+	}
+
+	/**
+	 * Reads a number written by writeVarint().
+	 *
+	 * @param input
+	 *            Buffer to read from.
+	 * @return Number read.
+	 */
+	static long readVarint(final ByteBuffer input) {
+		long value = 0;
+		int shift = 0;
+		byte group;
+		do {
+			group = input.get();
+			value |= (long) (group & 0x7F) << shift;
+			shift += 7;
+		} while (group < 0);
+		return value;
+	}
+}
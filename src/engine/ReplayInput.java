@@ -0,0 +1,109 @@
+package engine;
+
+import java.nio.ByteBuffer;
+import java.util.logging.Logger;
+
+import screen.Screen;
+
+/**
+ * Input source that plays back a replay. Each recorded checksum is checked
+ * against the game being played, and the replay stops at the first one
+ * that doesn't match, since the game has diverged from the recording.
+ *
+ */
+public final class ReplayInput implements InputSource {
+
+	/** Number of recognised keys. */
+	private static final int NUM_KEYS = 256;
+
+	/** Application logger. */
+	private final Logger logger;
+	/** Replay played back. */
+	private final Replay replay;
+	/** Input records not read yet. */
+	private final ByteBuffer inputs;
+	/** Keys pressed on the current tick. */
+	private final boolean[] keys;
+
+	/** Ticks started since the replay started. */
+	private long ticks;
+	/** Tick of the next record, Long.MAX_VALUE if there are no more. */
+	private long nextRecordTick;
+	/** First tick whose checksum didn't match, -1 if none. */
+	private long divergedTick;
+	/** If the replay has run out or diverged. */
+	private boolean finished;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param replay
+	 *            Replay to play back.
+	 */
+	public ReplayInput(final Replay replay) {
+		this.logger = Core.getLogger();
+		this.replay = replay;
+		this.inputs = replay.getInputs();
+		this.keys = new boolean[NUM_KEYS];
+		this.divergedTick = -1;
+		this.nextRecordTick = this.inputs.hasRemaining()
+				? Replay.readVarint(this.inputs) : Long.MAX_VALUE;
+	}
+
+	/**
+	 * Returns the first tick whose state didn't match the recording.
+	 *
+	 * @return Tick since the replay started, -1 if the game hasn't diverged.
+	 */
+	public long getDivergedTick() {
+		return this.divergedTick;
+	}
+
+	/**
+	 * Returns the amount of ticks played back.
+	 *
+	 * @return Ticks started.
+	 */
+	public long getTicks() {
+		return this.ticks;
+	}
+
+	@Override
+	public boolean isKeyDown(final int keyCode) {
+		return this.keys[keyCode];
+	}
+
+	@Override
+	public void beforeTick(final Screen screen) {
+		if (this.finished || this.ticks >= this.replay.getTicks()) {
+			this.finished = true;
+			return;
+		}
+
+		if (this.ticks == this.nextRecordTick) {
+			long header = Replay.readVarint(this.inputs);
+			int key = 0;
+			for (long i = header >>> 1; i > 0; i--) {
+				key += (int) Replay.readVarint(this.inputs);
+				this.keys[key] = !this.keys[key];
+			}
+			if ((header & 1) != 0 && this.inputs.getInt() != screen
+					.stateChecksum()) {
+				this.logger.warning("Replay diverged from the recording on tick "
+						+ this.ticks + ".");
+				this.divergedTick = this.ticks;
+				this.finished = true;
+				return;
+			}
+			this.nextRecordTick = this.inputs.hasRemaining()
+					? this.ticks + Replay.readVarint(this.inputs)
+					: Long.MAX_VALUE;
+		}
+		this.ticks++;
+	}
+
+	@Override
+	public boolean isFinished() {
+		return this.finished;
+	}
+}
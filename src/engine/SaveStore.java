@@ -0,0 +1,312 @@
+package engine;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+
+/**
+ * Keeps every piece of player data in a single binary file. The file is
+ * read once, through a memory map, and every section is then kept in
+ * memory, so reading saved data never touches the disk.
+ *
+ * Changes are written back in the background: the first change after a
+ * save schedules the next one FLUSH_DELAY milliseconds later, so every
+ * change made meanwhile (like everything saved at the end of a round) is
+ * written at once. The whole file is written to a temporary file that then
+ * replaces it, so a crash never leaves half a save behind. Pending changes
+ * are also saved when the game closes.
+ *
+ * Layout, big endian:
+ * <pre>
+ * int   MAGIC
+ * short VERSION
+ * short amount of sections
+ * int   CRC32 of everything after the header
+ * per section: int id, int offset from the start of the file, int length
+ * section contents
+ * </pre>
+ * What each section holds is up to FileManager.
+ */
+public final class SaveStore {
+
+	/** Sections of the file. */
+	public enum Section {
+		/** Best scores. */
+		HIGH_SCORES(1),
+		/** Scores of the last games. */
+		RECENT_SCORES(2),
+		/** Player statistics. */
+		STATISTICS(3),
+		/** Coins and gems. */
+		CURRENCY(4),
+		/** Upgrade statuses. */
+		UPGRADES(5);
+
+		/** Identifier of the section in the file, never reused. */
+		private final int id;
+
+		Section(final int id) {
+			this.id = id;
+		}
+
+		/**
+		 * Returns the section with an identifier.
+		 *
+		 * @param id
+		 *            Identifier in the file.
+		 * @return Section, null for sections of a newer version.
+		 */
+		private static Section byId(final int id) {
+			for (Section section : values())
+				if (section.id == id)
+					return section;
+			return null;
+		}
+	}
+
+	/** First bytes of every save, "INVS". */
+	private static final int MAGIC = 0x494E5653;
+	/** Version of the layout written. */
+	private static final short VERSION = 1;
+	/** Bytes of the header. */
+	private static final int HEADER_SIZE = 12;
+	/** Bytes of each entry of the section table. */
+	private static final int ENTRY_SIZE = 12;
+	/** Milliseconds changes are collected before they are saved. */
+	private static final long FLUSH_DELAY = 500;
+
+	/** Application logger. */
+	private final Logger logger;
+	/** Save file. */
+	private final Path path;
+	/** File written before it replaces the save file. */
+	private final Path tempPath;
+	/** Contents of each section, never changed once stored. */
+	private final Map<Section, byte[]> sections = new EnumMap<Section, byte[]>(
+			Section.class);
+
+	/** If there are changes not saved yet. */
+	private boolean dirty;
+	/** If a save is already scheduled. */
+	private boolean flushScheduled;
+	/** Runs the scheduled saves. */
+	private final ScheduledExecutorService writer;
+
+	/**
+	 * Constructor, nothing is read until load() is called.
+	 *
+	 * @param path
+	 *            Save file.
+	 */
+	SaveStore(final Path path) {
+		this.logger = Core.getLogger();
+		this.path = path;
+		this.tempPath = path.resolveSibling(path.getFileName() + ".tmp");
+		this.writer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "Save writer");
+			thread.setDaemon(true);
+			return thread;
+		});
+		Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+			flush();
+		}, "Save shutdown"));
+	}
+
+	/**
+	 * Reads the save file.
+	 *
+	 * @return False if there is no save file, or it can't be read.
+	 */
+	synchronized boolean load() {
+		byte[] file;
+		try (FileChannel channel = FileChannel.open(this.path,
+				StandardOpenOption.READ)) {
+			MappedByteBuffer mapped = channel.map(
+					FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			// Copied out so the mapping doesn't keep the file from being replaced.
+			file = new byte[mapped.remaining()];
+			mapped.get(file);
+		} catch (NoSuchFileException e) {
+			return false;
+		} catch (IOException e) {
+			this.logger.warning("Couldn't read " + this.path + ": " + e);
+			return false;
+		}
+
+		try {
+			decode(file);
+			this.logger.info("Loaded " + this.sections.size()
+					+ " sections from " + this.path + ".");
+			return true;
+		} catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+			this.logger.warning("Ignoring damaged save " + this.path + ": "
+					+ e.getMessage());
+			this.sections.clear();
+			// Kept aside instead of being overwritten by the next save.
+			try {
+				Files.move(this.path, this.path.resolveSibling(
+						this.path.getFileName() + ".bad"),
+						StandardCopyOption.REPLACE_EXISTING);
+			} catch (IOException moveError) {
+				this.logger.warning("Couldn't move the damaged save: "
+						+ moveError);
+			}
+			return false;
+		}
+	}
+
+	/**
+	 * Returns the contents of a section.
+	 *
+	 * @param section
+	 *            Section to read.
+	 * @return Contents, not to be changed, or null if it was never saved.
+	 */
+	public synchronized byte[] get(final Section section) {
+		return this.sections.get(section);
+	}
+
+	/**
+	 * Replaces the contents of a section, and schedules a save.
+	 *
+	 * @param section
+	 *            Section to write.
+	 * @param contents
+	 *            New contents, not to be changed afterwards.
+	 */
+	public synchronized void put(final Section section, final byte[] contents) {
+		this.sections.put(section, contents);
+		this.dirty = true;
+		if (!this.flushScheduled) {
+			this.flushScheduled = true;
+			this.writer.schedule(() -> {
+				flush();
+			}, FLUSH_DELAY, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	/**
+	 * Saves the file now if there are changes not saved yet. A save already
+	 * being written is waited for.
+	 *
+	 * @return False if the changes couldn't be saved.
+	 */
+	public boolean flush() {
+		synchronized (this.writer) {
+			byte[] file;
+			synchronized (this) {
+				this.flushScheduled = false;
+				if (!this.dirty)
+					return true;
+				this.dirty = false;
+				file = encode();
+			}
+
+			try {
+				try (FileChannel channel = FileChannel.open(this.tempPath,
+						StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+						StandardOpenOption.TRUNCATE_EXISTING)) {
+					ByteBuffer buffer = ByteBuffer.wrap(file);
+					while (buffer.hasRemaining())
+						channel.write(buffer);
+					channel.force(true);
+				}
+				try {
+					Files.move(this.tempPath, this.path,
+							StandardCopyOption.REPLACE_EXISTING,
+							StandardCopyOption.ATOMIC_MOVE);
+				} catch (AtomicMoveNotSupportedException e) {
+					Files.move(this.tempPath, this.path,
+							StandardCopyOption.REPLACE_EXISTING);
+				}
+				return true;
+			} catch (IOException e) {
+				this.logger.warning("Couldn't save " + this.path + ": " + e);
+				synchronized (this) {
+					this.dirty = true;
+				}
+				return false;
+			}
+		}
+	}
+
+	/**
+	 * Lays out every section as a save file.
+	 *
+	 * @return Contents of the file.
+	 */
+	private byte[] encode() {
+		int tableSize = this.sections.size() * ENTRY_SIZE;
+		int size = HEADER_SIZE + tableSize;
+		for (byte[] contents : this.sections.values())
+			size += contents.length;
+
+		ByteBuffer buffer = ByteBuffer.allocate(size);
+		buffer.position(HEADER_SIZE);
+		int offset = HEADER_SIZE + tableSize;
+		for (Map.Entry<Section, byte[]> entry : this.sections.entrySet()) {
+			buffer.putInt(entry.getKey().id);
+			buffer.putInt(offset);
+			buffer.putInt(entry.getValue().length);
+			offset += entry.getValue().length;
+		}
+		for (byte[] contents : this.sections.values())
+			buffer.put(contents);
+
+		CRC32 crc = new CRC32();
+		crc.update(buffer.array(), HEADER_SIZE, size - HEADER_SIZE);
+		buffer.putInt(0, MAGIC);
+		buffer.putShort(4, VERSION);
+		buffer.putShort(6, (short) this.sections.size());
+		buffer.putInt(8, (int) crc.getValue());
+		return buffer.array();
+	}
+
+	/**
+	 * Reads every section of a save file.
+	 *
+	 * @param file
+	 *            Contents of the file.
+	 */
+	private void decode(final byte[] file) {
+		ByteBuffer buffer = ByteBuffer.wrap(file);
+		if (file.length < HEADER_SIZE || buffer.getInt(0) != MAGIC)
+			throw new IllegalArgumentException("not a save file");
+		if (buffer.getShort(4) > VERSION)
+			throw new IllegalArgumentException("saved by a newer version");
+		int count = buffer.getShort(6);
+		CRC32 crc = new CRC32();
+		crc.update(file, HEADER_SIZE, file.length - HEADER_SIZE);
+		if (buffer.getInt(8) != (int) crc.getValue())
+			throw new IllegalArgumentException("checksum mismatch");
+
+		buffer.position(HEADER_SIZE);
+		for (int i = 0; i < count; i++) {
+			Section section = Section.byId(buffer.getInt());
+			int offset = buffer.getInt();
+			int length = buffer.getInt();
+			if (offset < HEADER_SIZE || length < 0
+					|| offset > file.length - length)
+				throw new IllegalArgumentException("bad section bounds");
+			if (section != null) {
+				byte[] contents = new byte[length];
+				System.arraycopy(file, offset, contents, 0, length);
+				this.sections.put(section, contents);
+			}
+		}
+	}
+}
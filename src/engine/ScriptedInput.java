@@ -0,0 +1,151 @@
+package engine;
+
+import java.util.Arrays;
+
+import screen.Screen;
+
+/**
+ * Input source that presses and releases keys on given ticks instead of
+ * reading the keyboard. The script can repeat itself, which is enough to
+ * keep a headless game playing for as long as needed.
+ *
+ */
+public final class ScriptedInput implements InputSource {
+
+	/** Number of recognised keys. */
+	private static final int NUM_KEYS = 256;
+	/** Initial amount of events stored. */
+	private static final int INITIAL_CAPACITY = 16;
+
+	/** Keys currently pressed. */
+	private final boolean[] keys;
+	/** Tick of each event, relative to the start of the script. */
+	private long[] eventTicks;
+	/** Key changed by each event. */
+	private int[] eventKeys;
+	/** If each event presses its key, or else releases it. */
+	private boolean[] eventPresses;
+	/** Amount of events in the script. */
+	private int eventCount;
+	/** Length of the script in ticks, 0 if it does not repeat. */
+	private long loopLength;
+
+	/** Next event to apply. */
+	private int nextEvent;
+	/** Ticks started since the script was created. */
+	private long ticks;
+
+	/**
+	 * Constructor, creates an empty script.
+	 */
+	public ScriptedInput() {
+		this.keys = new boolean[NUM_KEYS];
+		this.eventTicks = new long[INITIAL_CAPACITY];
+		this.eventKeys = new int[INITIAL_CAPACITY];
+		this.eventPresses = new boolean[INITIAL_CAPACITY];
+	}
+
+	/**
+	 * Presses a key on the given tick.
+	 *
+	 * @param tick
+	 *            Tick of the script, not earlier than the last event.
+	 * @param keyCode
+	 *            Key to press.
+	 * @return This script.
+	 */
+	public ScriptedInput press(final long tick, final int keyCode) {
+		addEvent(tick, keyCode, true);
+		return this;
+	}
+
+	/**
+	 * Releases a key on the given tick.
+	 *
+	 * @param tick
+	 *            Tick of the script, not earlier than the last event.
+	 * @param keyCode
+	 *            Key to release.
+	 * @return This script.
+	 */
+	public ScriptedInput release(final long tick, final int keyCode) {
+		addEvent(tick, keyCode, false);
+		return this;
+	}
+
+	/**
+	 * Makes the script start over every given amount of ticks. Keys still
+	 * pressed at the end stay pressed.
+	 *
+	 * @param length
+	 *            Length of the script in ticks, 0 to play it only once.
+	 * @return This script.
+	 */
+	public ScriptedInput loop(final long length) {
+		if (length < 0)
+			throw new IllegalArgumentException("Negative loop length");
+		this.loopLength = length;
+		return this;
+	}
+
+	/**
+	 * Returns the amount of ticks run with this script.
+	 *
+	 * @return Ticks started.
+	 */
+	public long getTicks() {
+		return this.ticks;
+	}
+
+	@Override
+	public boolean isKeyDown(final int keyCode) {
+		return this.keys[keyCode];
+	}
+
+	@Override
+	public void beforeTick(final Screen screen) {
+		long tick = this.ticks;
+		if (this.loopLength > 0) {
+			tick %= this.loopLength;
+			if (tick == 0)
+				this.nextEvent = 0;
+		}
+		while (this.nextEvent < this.eventCount
+				&& this.eventTicks[this.nextEvent] <= tick) {
+			this.keys[this.eventKeys[this.nextEvent]] =
+					this.eventPresses[this.nextEvent];
+			this.nextEvent++;
+		}
+		this.ticks++;
+	}
+
+	/**
+	 * Appends an event to the script.
+	 *
+	 * @param tick
+	 *            Tick of the event.
+	 * @param keyCode
+	 *            Key changed.
+	 * @param press
+	 *            If the key is pressed.
+	 */
+	private void addEvent(final long tick, final int keyCode,
+			final boolean press) {
+		if (keyCode < 0 || keyCode >= NUM_KEYS)
+			throw new IllegalArgumentException("Unknown key " + keyCode);
+		if (tick < 0 || (this.eventCount > 0
+				&& tick < this.eventTicks[this.eventCount - 1]))
+			throw new IllegalArgumentException(
+					"Events must be added in tick order");
+		if (this.eventCount == this.eventTicks.length) {
+			int capacity = this.eventTicks.length * 2;
+			this.eventTicks = Arrays.copyOf(this.eventTicks, capacity);
+			this.eventKeys = Arrays.copyOf(this.eventKeys, capacity);
+			this.eventPresses = Arrays.copyOf(this.eventPresses, capacity);
+		}
+		this.eventTicks[this.eventCount] = tick;
+		this.eventKeys[this.eventCount] = keyCode;
+		this.eventPresses[this.eventCount] = press;
+		this.eventCount++;
+	}
+}
@@ -0,0 +1,123 @@
+package engine;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+
+import screen.Screen;
+
+/**
+ * Keeps the last snapshots of a screen, the keyframes a game can be brought
+ * back to. Each keyframe is written into a buffer of its own that is reused
+ * by the keyframe that later takes its place, so taking them only allocates
+ * while the buffers grow to fit the busiest moment of the game.
+ *
+ */
+public final class SnapshotRing {
+
+	/** Bytes of each buffer before it first grows. */
+	private static final int INITIAL_CAPACITY = 16 * 1024;
+
+	/** Buffer of each keyframe, null until first used. */
+	private final ByteBuffer[] keyframes;
+	/** Tick each keyframe was taken on. */
+	private final long[] ticks;
+	/** Slot the next keyframe is written to. */
+	private int next;
+	/** Amount of keyframes kept. */
+	private int size;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param capacity
+	 *            Most keyframes kept, older ones are replaced.
+	 */
+	public SnapshotRing(final int capacity) {
+		this.keyframes = new ByteBuffer[Math.max(1, capacity)];
+		this.ticks = new long[this.keyframes.length];
+	}
+
+	/**
+	 * Takes a keyframe of a screen, replacing the oldest one if the ring is
+	 * full.
+	 *
+	 * @param screen
+	 *            Screen to take.
+	 * @param tick
+	 *            Current tick, returned when the keyframe is restored.
+	 */
+	public void capture(final Screen screen, final long tick) {
+		ByteBuffer buffer = this.keyframes[this.next];
+		if (buffer == null)
+			buffer = ByteBuffer.allocate(INITIAL_CAPACITY);
+		while (true) {
+			buffer.clear();
+			try {
+				screen.writeState(buffer);
+				break;
+			} catch (BufferOverflowException e) {
+				buffer = ByteBuffer.allocate(buffer.capacity() * 2);
+			}
+		}
+		buffer.flip();
+		this.keyframes[this.next] = buffer;
+		this.ticks[this.next] = tick;
+		this.next = (this.next + 1) % this.keyframes.length;
+		this.size = Math.min(this.size + 1, this.keyframes.length);
+	}
+
+	/**
+	 * Brings a screen back to a keyframe. The keyframes taken after it are
+	 * dropped, since the game goes on differently from there.
+	 *
+	 * @param screen
+	 *            Screen to restore, the one the keyframe was taken of or a
+	 *            new one of the same level.
+	 * @param back
+	 *            Keyframe to restore, 0 for the last one taken.
+	 * @return Tick the keyframe was taken on, -1 if there is no such
+	 *         keyframe.
+	 */
+	public long restore(final Screen screen, final int back) {
+		if (back < 0 || back >= this.size)
+			return -1;
+		int slot = Math.floorMod(this.next - 1 - back, this.keyframes.length);
+		ByteBuffer buffer = this.keyframes[slot];
+		buffer.rewind();
+		screen.readState(buffer);
+		this.next = (slot + 1) % this.keyframes.length;
+		this.size -= back;
+		return this.ticks[slot];
+	}
+
+	/**
+	 * Returns the size of a keyframe.
+	 *
+	 * @param back
+	 *            Keyframe to measure, 0 for the last one taken.
+	 * @return Bytes of the keyframe, 0 if there is no such keyframe.
+	 */
+	public int bytes(final int back) {
+		if (back < 0 || back >= this.size)
+			return 0;
+		return this.keyframes[Math.floorMod(this.next - 1 - back,
+				this.keyframes.length)].limit();
+	}
+
+	/**
+	 * Returns the amount of keyframes kept.
+	 *
+	 * @return Keyframes that can be restored.
+	 */
+	public int size() {
+		return this.size;
+	}
+
+	/**
+	 * Drops every keyframe, keeping the buffers.
+	 */
+	public void clear() {
+		this.next = 0;
+		this.size = 0;
+	}
+}
@@ -0,0 +1,245 @@
+package engine;
+
+import java.util.Arrays;
+
+import entity.Entity;
+
+/**
+ * Uniform grid broadphase for collision checks. Entities are inserted once
+ * per tick into every cell their bounds touch, and queries return the
+ * entities sharing a cell with an area, each one once. Candidates still
+ * need a narrow phase check.
+ *
+ * Storage is kept in arrays that only grow, so clearing, inserting and
+ * querying do not allocate once the grid has seen its busiest tick.
+ * Entities outside the grid are kept in the border cells.
+ *
+ * @param <T>
+ *            Type of the entities stored.
+ */
+public final class SpatialGrid<T extends Entity> {
+
+	/** Initial amount of entities and cell entries stored. */
+	private static final int INITIAL_CAPACITY = 64;
+
+	/** Side of each cell, in pixels. */
+	private final int cellSize;
+	/** Amount of cell columns. */
+	private final int columns;
+	/** Amount of cell rows. */
+	private final int rows;
+	/** First entry of each cell, -1 if the cell is empty. */
+	private final int[] cellHeads;
+
+	/** Next entry in the same cell, -1 for the last one. */
+	private int[] entryNext;
+	/** Entity referenced by each entry. */
+	private int[] entryEntity;
+	/** Amount of entries in use. */
+	private int entryCount;
+
+	/** Entities inserted since the last clear. */
+	private Object[] entities;
+	/** Last query each entity was returned by. */
+	private int[] entityMarks;
+	/** Amount of entities inserted. */
+	private int entityCount;
+
+	/** Entities returned by the last query. */
+	private Object[] results;
+	/** Amount of entities returned by the last query. */
+	private int resultCount;
+	/** Identifier of the last query. */
+	private int queryMark;
+
+	/**
+	 * Constructor, establishes the area covered by the grid.
+	 *
+	 * @param width
+	 *            Width of the area, in pixels.
+	 * @param height
+	 *            Height of the area, in pixels.
+	 * @param cellSize
+	 *            Side of each cell, in pixels.
+	 */
+	public SpatialGrid(final int width, final int height, final int cellSize) {
+		this.cellSize = cellSize;
+		this.columns = Math.max(1, (width + cellSize - 1) / cellSize);
+		this.rows = Math.max(1, (height + cellSize - 1) / cellSize);
+		this.cellHeads = new int[this.columns * this.rows];
+		Arrays.fill(this.cellHeads, -1);
+
+		this.entryNext = new int[INITIAL_CAPACITY];
+		this.entryEntity = new int[INITIAL_CAPACITY];
+		this.entities = new Object[INITIAL_CAPACITY];
+		this.entityMarks = new int[INITIAL_CAPACITY];
+		this.results = new Object[INITIAL_CAPACITY];
+	}
+
+	/**
+	 * Removes every entity from the grid.
+	 */
+	public void clear() {
+		Arrays.fill(this.cellHeads, -1);
+		Arrays.fill(this.entities, 0, this.entityCount, null);
+		Arrays.fill(this.results, 0, this.resultCount, null);
+		this.entryCount = 0;
+		this.entityCount = 0;
+		this.resultCount = 0;
+	}
+
+	/**
+	 * Inserts an entity at its current position.
+	 *
+	 * @param entity
+	 *            Entity to insert.
+	 */
+	public void insert(final T entity) {
+		if (this.entityCount == this.entities.length) {
+			this.entities = Arrays.copyOf(this.entities,
+					this.entities.length * 2);
+			this.entityMarks = Arrays.copyOf(this.entityMarks,
+					this.entityMarks.length * 2);
+		}
+		int index = this.entityCount++;
+		this.entities[index] = entity;
+		this.entityMarks[index] = this.queryMark;
+
+		int x = entity.getPositionX();
+		int y = entity.getPositionY();
+		int minColumn = column(x);
+		int maxColumn = column(x + entity.getWidth());
+		int minRow = row(y);
+		int maxRow = row(y + entity.getHeight());
+		for (int i = minColumn; i <= maxColumn; i++)
+			for (int j = minRow; j <= maxRow; j++)
+				addEntry(j * this.columns + i, index);
+	}
+
+	/**
+	 * Finds the entities sharing a cell with the bounds of an entity.
+	 *
+	 * @param area
+	 *            Entity whose bounds are queried.
+	 * @return Amount of candidates found, read them with get().
+	 */
+	public int query(final Entity area) {
+		return query(area.getPositionX(), area.getPositionY(),
+				area.getWidth(), area.getHeight());
+	}
+
+	/**
+	 * Finds the entities sharing a cell with an area.
+	 *
+	 * @param x
+	 *            Left side of the area.
+	 * @param y
+	 *            Upper side of the area.
+	 * @param width
+	 *            Width of the area.
+	 * @param height
+	 *            Height of the area.
+	 * @return Amount of candidates found, read them with get().
+	 */
+	public int query(final int x, final int y, final int width,
+			final int height) {
+		Arrays.fill(this.results, 0, this.resultCount, null);
+		this.resultCount = 0;
+		this.queryMark++;
+
+		int minColumn = column(x);
+		int maxColumn = column(x + width);
+		int minRow = row(y);
+		int maxRow = row(y + height);
+		for (int i = minColumn; i <= maxColumn; i++)
+			for (int j = minRow; j <= maxRow; j++)
+				for (int entry = this.cellHeads[j * this.columns + i];
+						entry != -1; entry = this.entryNext[entry]) {
+					int index = this.entryEntity[entry];
+					if (this.entityMarks[index] != this.queryMark) {
+						this.entityMarks[index] = this.queryMark;
+						addResult(this.entities[index]);
+					}
+				}
+		return this.resultCount;
+	}
+
+	/**
+	 * Returns a candidate found by the last query.
+	 *
+	 * @param index
+	 *            Index of the candidate, lower than the amount returned.
+	 * @return Candidate entity.
+	 */
+	@SuppressWarnings("unchecked")
+	public T get(final int index) {
+		return (T) this.results[index];
+	}
+
+	/**
+	 * Returns the amount of entities inserted since the last clear.
+	 *
+	 * @return Amount of entities.
+	 */
+	public int size() {
+		return this.entityCount;
+	}
+
+	/**
+	 * Links an entity into a cell.
+	 *
+	 * @param cell
+	 *            Index of the cell.
+	 * @param index
+	 *            Index of the entity.
+	 */
+	private void addEntry(final int cell, final int index) {
+		if (this.entryCount == this.entryNext.length) {
+			this.entryNext = Arrays.copyOf(this.entryNext,
+					this.entryNext.length * 2);
+			this.entryEntity = Arrays.copyOf(this.entryEntity,
+					this.entryEntity.length * 2);
+		}
+		int entry = this.entryCount++;
+		this.entryEntity[entry] = index;
+		this.entryNext[entry] = this.cellHeads[cell];
+		this.cellHeads[cell] = entry;
+	}
+
+	/**
+	 * Adds an entity to the results of the current query.
+	 *
+	 * @param entity
+	 *            Entity found.
+	 */
+	private void addResult(final Object entity) {
+		if (this.resultCount == this.results.length)
+			this.results = Arrays.copyOf(this.results, this.results.length * 2);
+		this.results[this.resultCount++] = entity;
+	}
+
+	/**
+	 * Returns the column containing a horizontal coordinate, clamped to the
+	 * grid.
+	 *
+	 * @param x
+	 *            Horizontal coordinate.
+	 * @return Column index.
+	 */
+	private int column(final int x) {
+		return Math.min(Math.max(Math.floorDiv(x, this.cellSize), 0),
+				this.columns - 1);
+	}
+
+	/**
+	 * Returns the row containing a vertical coordinate, clamped to the grid.
+	 *
+	 * @param y
+	 *            Vertical coordinate.
+	 * @return Row index.
+	 */
+	private int row(final int y) {
+		return Math.min(Math.max(Math.floorDiv(y, this.cellSize), 0),
+				this.rows - 1);
+	}
+}
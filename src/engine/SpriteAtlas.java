@@ -0,0 +1,172 @@
+package engine;
+
+import java.awt.Color;
+import java.awt.GraphicsEnvironment;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import engine.DrawManager.SpriteType;
+
+/**
+ * Caches the sprites rasterized into images, one per sprite type and color.
+ * Each image is built once from the boolean sprite masks, with every lit
+ * pixel scaled to a 2x2 square, so drawing an entity is a single drawImage.
+ * Tinted variants are kept in a bounded least recently used cache, which
+ * covers the colors entities pick at runtime.
+ *
+ */
+public final class SpriteAtlas {
+
+	/** Default maximum amount of rasterized sprites kept. */
+	private static final int DEFAULT_CAPACITY = 256;
+	/** Size in screen pixels of each sprite pixel. */
+	private static final int PIXEL_SCALE = 2;
+
+	/** Sprite masks, as loaded from the graphics file. */
+	private final Map<SpriteType, boolean[][]> spriteMap;
+	/** Rasterized sprites, keyed by sprite type and color. */
+	private final Map<Long, BufferedImage> images;
+	/** Last color requested for each sprite type. */
+	private final int[] lastColors;
+	/** Last image returned for each sprite type. */
+	private final BufferedImage[] lastImages;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param spriteMap
+	 *            Sprite masks to rasterize.
+	 */
+	public SpriteAtlas(final Map<SpriteType, boolean[][]> spriteMap) {
+		this(spriteMap, DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Constructor, with a custom cache size.
+	 *
+	 * @param spriteMap
+	 *            Sprite masks to rasterize.
+	 * @param capacity
+	 *            Maximum amount of rasterized sprites kept.
+	 */
+	public SpriteAtlas(final Map<SpriteType, boolean[][]> spriteMap,
+			final int capacity) {
+		this.spriteMap = spriteMap;
+		this.lastColors = new int[SpriteType.values().length];
+		this.lastImages = new BufferedImage[SpriteType.values().length];
+		this.images = new LinkedHashMap<Long, BufferedImage>(capacity, 0.75f,
+				true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(
+					final Map.Entry<Long, BufferedImage> eldest) {
+				return size() > capacity;
+			}
+		};
+	}
+
+	/**
+	 * Returns the image of a sprite in the given color, rasterizing it the
+	 * first time it is requested.
+	 *
+	 * @param spriteType
+	 *            Sprite to draw.
+	 * @param color
+	 *            Color of the lit pixels.
+	 * @return Image of the sprite.
+	 */
+	public BufferedImage getImage(final SpriteType spriteType,
+			final Color color) {
+		int index = spriteType.ordinal();
+		int rgb = color.getRGB();
+		// Most sprites are drawn in a single color, skip the key lookup.
+		if (this.lastImages[index] != null && this.lastColors[index] == rgb)
+			return this.lastImages[index];
+
+		Long key = ((long) index << 32) | (rgb & 0xFFFFFFFFL);
+		BufferedImage image = this.images.get(key);
+		if (image == null) {
+			image = rasterize(this.spriteMap.get(spriteType), color);
+			this.images.put(key, image);
+		}
+		this.lastColors[index] = rgb;
+		this.lastImages[index] = image;
+		return image;
+	}
+
+	/**
+	 * Rasterizes every sprite in the given colors ahead of time.
+	 *
+	 * @param colors
+	 *            Colors to rasterize the sprites in.
+	 */
+	public void prewarm(final Color... colors) {
+		for (SpriteType spriteType : this.spriteMap.keySet())
+			for (Color color : colors)
+				getImage(spriteType, color);
+	}
+
+	/**
+	 * Returns the amount of rasterized sprites currently cached.
+	 *
+	 * @return Amount of cached images.
+	 */
+	public int size() {
+		return this.images.size();
+	}
+
+	/**
+	 * Builds the image of a sprite mask.
+	 *
+	 * @param mask
+	 *            Sprite mask, indexed by column and then row.
+	 * @param color
+	 *            Color of the lit pixels.
+	 * @return Image with transparent unlit pixels.
+	 */
+	private static BufferedImage rasterize(final boolean[][] mask,
+			final Color color) {
+		int width = mask.length * PIXEL_SCALE;
+		int height = (mask.length == 0 ? 0 : mask[0].length) * PIXEL_SCALE;
+		BufferedImage image = createImage(Math.max(width, 1),
+				Math.max(height, 1));
+
+		int rgb = color.getRGB();
+		for (int i = 0; i < mask.length; i++)
+			for (int j = 0; j < mask[i].length; j++)
+				if (mask[i][j])
+					for (int dx = 0; dx < PIXEL_SCALE; dx++)
+						for (int dy = 0; dy < PIXEL_SCALE; dy++)
+							image.setRGB(i * PIXEL_SCALE + dx,
+									j * PIXEL_SCALE + dy, rgb);
+		return image;
+	}
+
+	/**
+	 * Creates an image the display can draw without conversion, falling back
+	 * to a plain ARGB image when there is no display.
+	 *
+	 * @param width
+	 *            Image width.
+	 * @param height
+	 *            Image height.
+	 * @return Blank, fully transparent image.
+	 */
+	private static BufferedImage createImage(final int width,
+			final int height) {
+		if (!GraphicsEnvironment.isHeadless()) {
+			try {
+				return GraphicsEnvironment.getLocalGraphicsEnvironment()
+						.getDefaultScreenDevice().getDefaultConfiguration()
+						.createCompatibleImage(width, height,
+								Transparency.BITMASK);
+			} catch (RuntimeException e) {
+				// No usable screen device, use a plain image below.
+			}
+		}
+		return new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+	}
+}
@@ -0,0 +1,343 @@
+package engine;
+
+import java.util.Arrays;
+
+/**
+ * Runs actions on the game thread a number of ticks from now, once or
+ * repeatedly. The game screen advances it once per tick, so actions see the
+ * game between two updates, never while one is running, and follow the
+ * simulated clock when the game runs headless.
+ *
+ * Pending actions are kept in a binary heap stored in parallel arrays,
+ * ordered by the tick they are due and then by the order they were
+ * scheduled in, so scheduling and running them only allocates when the
+ * arrays grow.
+ *
+ */
+public final class TickScheduler {
+
+	/** Actions the arrays hold before they first grow. */
+	private static final int INITIAL_CAPACITY = 16;
+	/** Identifier never given to an action. */
+	public static final int NONE = 0;
+
+	/** Singleton instance of the class. */
+	private static TickScheduler instance;
+
+	/** Tick each pending action is due. */
+	private long[] dueTicks;
+	/** Order each pending action was scheduled in. */
+	private long[] sequences;
+	/** Identifier of each pending action. */
+	private int[] ids;
+	/** Ticks between runs of each pending action, 0 if it runs once. */
+	private int[] periods;
+	/** Each pending action. */
+	private Runnable[] actions;
+	/** Amount of pending actions. */
+	private int size;
+
+	/** Ticks advanced so far. */
+	private long tick;
+	/** Actions scheduled so far. */
+	private long scheduled;
+	/** Last identifier given to an action. */
+	private int lastId;
+	/** Identifier of the action running, NONE between actions. */
+	private int runningId;
+	/** If the action running was cancelled while it ran. */
+	private boolean runningCancelled;
+
+	/**
+	 * Private constructor.
+	 */
+	private TickScheduler() {
+		this.dueTicks = new long[INITIAL_CAPACITY];
+		this.sequences = new long[INITIAL_CAPACITY];
+		this.ids = new int[INITIAL_CAPACITY];
+		this.periods = new int[INITIAL_CAPACITY];
+		this.actions = new Runnable[INITIAL_CAPACITY];
+	}
+
+	/**
+	 * Returns shared instance of TickScheduler.
+	 *
+	 * @return Shared instance of TickScheduler.
+	 */
+	protected static TickScheduler getInstance() {
+		if (instance == null)
+			instance = new TickScheduler();
+		return instance;
+	}
+
+	/**
+	 * Returns the ticks the game takes to run for some time.
+	 *
+	 * @param milliseconds
+	 *            Time to convert.
+	 * @return Ticks covering that time, at least 1.
+	 */
+	public static int ticksFor(final long milliseconds) {
+		return (int) Math.max(1, (milliseconds * Core.FPS + 999) / 1000);
+	}
+
+	/**
+	 * Runs an action once.
+	 *
+	 * @param delay
+	 *            Ticks until the action runs, at least 1.
+	 * @param action
+	 *            Action to run.
+	 * @return Identifier of the action, to cancel it.
+	 */
+	public int schedule(final int delay, final Runnable action) {
+		return add(this.tick + Math.max(1, delay), 0, action);
+	}
+
+	/**
+	 * Runs an action repeatedly, until it is cancelled.
+	 *
+	 * @param delay
+	 *            Ticks until the action first runs, at least 1.
+	 * @param period
+	 *            Ticks between runs, at least 1.
+	 * @param action
+	 *            Action to run.
+	 * @return Identifier of the action, to cancel it.
+	 */
+	public int scheduleRepeating(final int delay, final int period,
+			final Runnable action) {
+		return add(this.tick + Math.max(1, delay), Math.max(1, period), action);
+	}
+
+	/**
+	 * Stops an action from running again.
+	 *
+	 * @param id
+	 *            Identifier of the action.
+	 * @return True if the action was pending.
+	 */
+	public boolean cancel(final int id) {
+		if (id == NONE)
+			return false;
+		if (id == this.runningId) {
+			this.runningCancelled = true;
+			return true;
+		}
+		for (int i = 0; i < this.size; i++) {
+			if (this.ids[i] == id) {
+				removeAt(i);
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Advances one tick, running every action due.
+	 */
+	public void tick() {
+		this.tick++;
+		while (this.size > 0 && this.dueTicks[0] <= this.tick) {
+			Runnable action = this.actions[0];
+			int period = this.periods[0];
+			this.runningId = this.ids[0];
+			this.runningCancelled = false;
+			removeAt(0);
+
+			action.run();
+
+			if (period > 0 && !this.runningCancelled)
+				insert(this.tick + period, period, action, this.runningId);
+			this.runningId = NONE;
+		}
+	}
+
+	/**
+	 * Drops every pending action.
+	 */
+	public void clear() {
+		Arrays.fill(this.actions, 0, this.size, null);
+		this.size = 0;
+		if (this.runningId != NONE)
+			this.runningCancelled = true;
+	}
+
+	/**
+	 * Returns the ticks advanced so far.
+	 *
+	 * @return Current tick.
+	 */
+	public long getTick() {
+		return this.tick;
+	}
+
+	/**
+	 * Returns the ticks left until an action runs next.
+	 *
+	 * @param id
+	 *            Identifier of the action.
+	 * @return Ticks left, at least 1, or 0 if the action isn't pending.
+	 */
+	public int ticksUntil(final int id) {
+		if (id == NONE)
+			return 0;
+		for (int i = 0; i < this.size; i++)
+			if (this.ids[i] == id)
+				return (int) Math.max(1, this.dueTicks[i] - this.tick);
+		return 0;
+	}
+
+	/**
+	 * Returns the amount of actions waiting to run.
+	 *
+	 * @return Pending actions.
+	 */
+	public int size() {
+		return this.size;
+	}
+
+	/**
+	 * Adds an action with a new identifier.
+	 *
+	 * @param due
+	 *            Tick the action is due.
+	 * @param period
+	 *            Ticks between runs, 0 if it runs once.
+	 * @param action
+	 *            Action to run.
+	 * @return Identifier of the action.
+	 */
+	private int add(final long due, final int period, final Runnable action) {
+		if (++this.lastId == NONE)
+			this.lastId++;
+		insert(due, period, action, this.lastId);
+		return this.lastId;
+	}
+
+	/**
+	 * Adds an action to the heap.
+	 *
+	 * @param due
+	 *            Tick the action is due.
+	 * @param period
+	 *            Ticks between runs, 0 if it runs once.
+	 * @param action
+	 *            Action to run.
+	 * @param id
+	 *            Identifier of the action.
+	 */
+	private void insert(final long due, final int period,
+			final Runnable action, final int id) {
+		if (this.size == this.dueTicks.length)
+			grow();
+		int i = this.size++;
+		set(i, due, this.scheduled++, id, period, action);
+		siftUp(i);
+	}
+
+	/**
+	 * Removes the action at a position of the heap.
+	 *
+	 * @param i
+	 *            Position of the action.
+	 */
+	private void removeAt(final int i) {
+		int last = --this.size;
+		if (i != last) {
+			move(last, i);
+			siftDown(i);
+			siftUp(i);
+		}
+		this.actions[last] = null;
+	}
+
+	/**
+	 * Moves an action up the heap until its parent is due before it.
+	 *
+	 * @param i
+	 *            Position of the action.
+	 */
+	private void siftUp(int i) {
+		while (i > 0) {
+			int parent = (i - 1) / 2;
+			if (!before(i, parent))
+				return;
+			swap(i, parent);
+			i = parent;
+		}
+	}
+
+	/**
+	 * Moves an action down the heap until its children are due after it.
+	 *
+	 * @param i
+	 *            Position of the action.
+	 */
+	private void siftDown(int i) {
+		while (true) {
+			int first = i;
+			int left = 2 * i + 1;
+			int right = left + 1;
+			if (left < this.size && before(left, first))
+				first = left;
+			if (right < this.size && before(right, first))
+				first = right;
+			if (first == i)
+				return;
+			swap(i, first);
+			i = first;
+		}
+	}
+
+	/**
+	 * Checks if an action runs before another one.
+	 *
+	 * @param a
+	 *            Position of the first action.
+	 * @param b
+	 *            Position of the second action.
+	 * @return True if the first action runs first.
+	 */
+	private boolean before(final int a, final int b) {
+		if (this.dueTicks[a] != this.dueTicks[b])
+			return this.dueTicks[a] < this.dueTicks[b];
+		return this.sequences[a] < this.sequences[b];
+	}
+
+	private void swap(final int a, final int b) {
+		long due = this.dueTicks[a];
+		long sequence = this.sequences[a];
+		int id = this.ids[a];
+		int period = this.periods[a];
+		Runnable action = this.actions[a];
+		move(b, a);
+		set(b, due, sequence, id, period, action);
+	}
+
+	private void move(final int from, final int to) {
+		set(to, this.dueTicks[from], this.sequences[from], this.ids[from],
+				this.periods[from], this.actions[from]);
+	}
+
+	private void set(final int i, final long due, final long sequence,
+			final int id, final int period, final Runnable action) {
+		this.dueTicks[i] = due;
+		this.sequences[i] = sequence;
+		this.ids[i] = id;
+		this.periods[i] = period;
+		this.actions[i] = action;
+	}
+
+	/**
+	 * Doubles the length of the arrays.
+	 */
+	private void grow() {
+		int length = this.dueTicks.length * 2;
+		this.dueTicks = Arrays.copyOf(this.dueTicks, length);
+		this.sequences = Arrays.copyOf(this.sequences, length);
+		this.ids = Arrays.copyOf(this.ids, length);
+		this.periods = Arrays.copyOf(this.periods, length);
+		this.actions = Arrays.copyOf(this.actions, length);
+	}
+}
@@ -1,18 +1,29 @@
 package entity;
 
-import java.util.HashSet;
+import java.util.Arrays;
 import java.util.Set;
 
+import engine.PoolMetrics;
+
 /**
- * Implements a pool of recyclable bullets.
+ * Implements a pool of recyclable bullets, kept in an array used as a
+ * stack. Bullets recycled while the pool is full are left to the garbage
+ * collector.
  * 
  * @author <a href="mailto:RobertoIA1987@gmail.com">Roberto Izquierdo Amo</a>
  * 
  */
 public final class BulletPool {
 
-	/** Set of already created bullets. */
-	private static Set<Bullet> pool = new HashSet<Bullet>();
+	/** Bullets the pool keeps unless told otherwise. */
+	private static final int DEFAULT_CAPACITY = 64;
+
+	/** Bullets available for reuse, the first size of them. */
+	private static Bullet[] pool = new Bullet[DEFAULT_CAPACITY];
+	/** Amount of bullets in the pool. */
+	private static int size = 0;
+	/** How the pool is used. */
+	private static final PoolMetrics metrics = new PoolMetrics();
 
 	/**
 	 * Constructor, not called.
@@ -37,12 +48,14 @@ public final class BulletPool {
 	public static Bullet getBullet(final int positionX,
 			final int positionY, final int speed) {
 		Bullet bullet;
-		if (!pool.isEmpty()) {
-			bullet = pool.iterator().next();
-			pool.remove(bullet);
+		metrics.acquired(size == 0);
+		if (size > 0) {
+			bullet = pool[--size];
+			pool[size] = null;
 			bullet.setPositionX(positionX - bullet.getWidth() / 2);
 			bullet.setPositionY(positionY);
 			bullet.setSpeed(speed);
+			bullet.setCheckCount(true);
 			bullet.setSprite();
 		} else {
 			bullet = new Bullet(positionX, positionY, speed);
@@ -51,6 +64,18 @@ public final class BulletPool {
 		return bullet;
 	}
 
+	/**
+	 * Adds a bullet to the available ones, if there is room.
+	 * 
+	 * @param bullet
+	 *            Bullet to recycle, not used anywhere else.
+	 */
+	public static void recycle(final Bullet bullet) {
+		metrics.recycled(1);
+		if (size < pool.length)
+			pool[size++] = bullet;
+	}
+
 	/**
 	 * Adds one or more bullets to the list of available ones.
 	 * 
@@ -58,6 +83,48 @@ public final class BulletPool {
 	 *            Bullets to recycle.
 	 */
 	public static void recycle(final Set<Bullet> bullet) {
-		pool.addAll(bullet);
+		for (Bullet recycled : bullet)
+			recycle(recycled);
+	}
+
+	/**
+	 * Changes the most bullets the pool keeps, dropping the ones over it.
+	 * 
+	 * @param capacity
+	 *            Bullets kept at most.
+	 */
+	public static void setCapacity(final int capacity) {
+		int length = Math.max(0, capacity);
+		if (size > length) {
+			Arrays.fill(pool, length, size, null);
+			size = length;
+		}
+		pool = Arrays.copyOf(pool, length);
+	}
+
+	/**
+	 * Creates bullets until the pool holds some, so they are not created
+	 * while playing.
+	 * 
+	 * @param count
+	 *            Bullets the pool should hold, up to its capacity.
+	 */
+	public static void prewarm(final int count) {
+		int target = Math.min(count, pool.length);
+		while (size < target)
+			pool[size++] = new Bullet(0, 0, 0);
+	}
+
+	/**
+	 * Returns the amount of bullets waiting in the pool.
+	 * 
+	 * @return Amount of pooled bullets.
+	 */
+	public static int size() {
+		return size;
+	}
+
+	public static PoolMetrics getMetrics() {
+		return metrics;
 	}
 }
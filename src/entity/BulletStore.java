@@ -0,0 +1,332 @@
+package entity;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import Enemy.PiercingBullet;
+import engine.DrawManager.SpriteType;
+import engine.PoolMetrics;
+import inventory_develop.Bomb;
+
+/**
+ * Keeps every bullet on screen as a row of parallel primitive arrays
+ * instead of one object per bullet. Bullets are packed at the start of the
+ * arrays, a removed bullet is replaced by the last one, so updating and
+ * checking them is a linear walk and no bullet allocates anything once the
+ * arrays are as long as the busiest tick needed.
+ *
+ * Code written against entities can read a bullet through get(), which
+ * copies it into a single shared PiercingBullet.
+ *
+ * The store counts its use like a pool does: adding a bullet takes a row,
+ * and adding one when every row is taken is a miss that grows the arrays.
+ */
+public final class BulletStore {
+
+	/** Width of every bullet. */
+	public static final int WIDTH = 3 * 2;
+	/** Height of every bullet. */
+	public static final int HEIGHT = 5 * 2;
+	/** Owner of the bullets shot by players. */
+	public static final byte OWNER_PLAYER = 0;
+	/** Owner of the bullets shot by enemies. */
+	public static final byte OWNER_ENEMY = 1;
+	/** Bullets the arrays hold before they first grow. */
+	private static final int INITIAL_CAPACITY = 64;
+
+	/** Position in the X axis of each bullet. */
+	private int[] x;
+	/** Position in the Y axis of each bullet. */
+	private int[] y;
+	/** Speed of each bullet, positive is down. */
+	private int[] speed;
+	/** Enemies each bullet can still pierce. */
+	private int[] piercing;
+	/** Shot each bullet belongs to, see GameScreen. */
+	private int[] fireId;
+	/** If each bullet can still count as a hit. */
+	private boolean[] checkCount;
+	/** Who shot each bullet. */
+	private byte[] owner;
+	/** Sprite of each bullet. */
+	private SpriteType[] sprite;
+	/** Amount of bullets on screen, the first ones of the arrays. */
+	private int size;
+
+	/** How the rows of the store are used. */
+	private final PoolMetrics metrics = new PoolMetrics();
+	/** Bullet returned by get(). */
+	private final PiercingBullet view = new PiercingBullet(0, 0, 0, 0);
+
+	/**
+	 * Constructor, creates an empty store.
+	 */
+	public BulletStore() {
+		this(INITIAL_CAPACITY);
+	}
+
+	/**
+	 * Constructor, creates an empty store with room for some bullets.
+	 *
+	 * @param capacity
+	 *            Bullets held before the arrays grow, all of them allocated
+	 *            now.
+	 */
+	public BulletStore(final int capacity) {
+		int length = Math.max(1, capacity);
+		this.x = new int[length];
+		this.y = new int[length];
+		this.speed = new int[length];
+		this.piercing = new int[length];
+		this.fireId = new int[length];
+		this.checkCount = new boolean[length];
+		this.owner = new byte[length];
+		this.sprite = new SpriteType[length];
+	}
+
+	/**
+	 * Adds a bullet.
+	 *
+	 * @param positionX
+	 *            Center of the bullet in the X axis.
+	 * @param positionY
+	 *            Position of the bullet in the Y axis.
+	 * @param speed
+	 *            Speed of the bullet, positive is down.
+	 * @param piercingCount
+	 *            Enemies the bullet can pierce.
+	 * @return Index of the new bullet.
+	 */
+	public int add(final int positionX, final int positionY, final int speed,
+			final int piercingCount) {
+		this.metrics.acquired(this.size == this.x.length);
+		if (this.size == this.x.length)
+			grow();
+		int i = this.size++;
+		this.x[i] = positionX - WIDTH / 2;
+		this.y[i] = positionY;
+		this.speed[i] = speed;
+		this.piercing[i] = piercingCount;
+		this.fireId[i] = 0;
+		this.checkCount[i] = true;
+		this.owner[i] = speed > 0 ? OWNER_ENEMY : OWNER_PLAYER;
+		// Same sprites Bullet.setSprite() picks.
+		if (speed > 0)
+			this.sprite[i] = SpriteType.EnemyBullet;
+		else if (Bomb.getIsBomb() && Bomb.getCanShoot())
+			this.sprite[i] = SpriteType.ItemBomb;
+		else
+			this.sprite[i] = SpriteType.Bullet;
+		return i;
+	}
+
+	/**
+	 * Removes a bullet, moving the last bullet to its index. When removing
+	 * while walking the bullets, the same index has to be checked again.
+	 *
+	 * @param i
+	 *            Index of the bullet.
+	 */
+	public void remove(final int i) {
+		this.metrics.recycled(1);
+		int last = --this.size;
+		this.x[i] = this.x[last];
+		this.y[i] = this.y[last];
+		this.speed[i] = this.speed[last];
+		this.piercing[i] = this.piercing[last];
+		this.fireId[i] = this.fireId[last];
+		this.checkCount[i] = this.checkCount[last];
+		this.owner[i] = this.owner[last];
+		this.sprite[i] = this.sprite[last];
+		this.sprite[last] = null;
+	}
+
+	/**
+	 * Removes every bullet.
+	 */
+	public void clear() {
+		this.metrics.recycled(this.size);
+		Arrays.fill(this.sprite, 0, this.size, null);
+		this.size = 0;
+	}
+
+	/**
+	 * Moves every bullet by its speed.
+	 */
+	public void update() {
+		for (int i = 0; i < this.size; i++)
+			this.y[i] += this.speed[i];
+	}
+
+	/**
+	 * Uses up one piercing of a bullet that hit something. A bullet that
+	 * can't pierce anymore shows an explosion.
+	 *
+	 * @param i
+	 *            Index of the bullet.
+	 * @return Enemies the bullet can still pierce.
+	 */
+	public int pierce(final int i) {
+		if (--this.piercing[i] <= 0)
+			this.sprite[i] = SpriteType.Explosion;
+		return this.piercing[i];
+	}
+
+	/**
+	 * Checks if a bullet collides with an entity, like
+	 * GameScreen.checkCollision() does.
+	 *
+	 * @param i
+	 *            Index of the bullet.
+	 * @param entity
+	 *            Entity to check.
+	 * @return True if they collide.
+	 */
+	public boolean collides(final int i, final Entity entity) {
+		int distanceX = Math.abs(this.x[i] + WIDTH / 2
+				- (entity.getPositionX() + entity.getWidth() / 2));
+		int distanceY = Math.abs(this.y[i] + HEIGHT / 2
+				- (entity.getPositionY() + entity.getHeight() / 2));
+		return distanceX < WIDTH / 2 + entity.getWidth() / 2
+				&& distanceY < HEIGHT / 2 + entity.getHeight() / 2;
+	}
+
+	/**
+	 * Copies a bullet into the shared bullet, for code written against
+	 * entities. The shared bullet is overwritten by the next call, and
+	 * changing it doesn't change the store.
+	 *
+	 * @param i
+	 *            Index of the bullet.
+	 * @return Shared bullet holding the bullet.
+	 */
+	public PiercingBullet get(final int i) {
+		this.view.setPositionX(this.x[i]);
+		this.view.setPositionY(this.y[i]);
+		this.view.setSpeed(this.speed[i]);
+		this.view.setPiercingCount(this.piercing[i]);
+		this.view.setFire_id(this.fireId[i]);
+		this.view.setCheckCount(this.checkCount[i]);
+		this.view.setSpriteType(this.sprite[i]);
+		return this.view;
+	}
+
+	/**
+	 * Writes every bullet for a snapshot of the game.
+	 *
+	 * @param buffer
+	 *            Buffer to write to.
+	 */
+	public void writeState(final ByteBuffer buffer) {
+		buffer.putInt(this.size);
+		for (int i = 0; i < this.size; i++) {
+			buffer.putInt(this.x[i]);
+			buffer.putInt(this.y[i]);
+			buffer.putInt(this.speed[i]);
+			buffer.putInt(this.piercing[i]);
+			buffer.putInt(this.fireId[i]);
+			buffer.put((byte) (this.checkCount[i] ? 1 : 0));
+			buffer.put(this.owner[i]);
+			Entity.writeSprite(buffer, this.sprite[i]);
+		}
+	}
+
+	/**
+	 * Replaces every bullet with the ones written by writeState(). Rows are
+	 * reused, so restoring only allocates if there are more bullets than the
+	 * arrays hold.
+	 *
+	 * @param buffer
+	 *            Buffer to read from.
+	 */
+	public void readState(final ByteBuffer buffer) {
+		Arrays.fill(this.sprite, 0, this.size, null);
+		this.size = 0;
+		int count = buffer.getInt();
+		while (this.x.length < count)
+			grow();
+		for (int i = 0; i < count; i++) {
+			this.x[i] = buffer.getInt();
+			this.y[i] = buffer.getInt();
+			this.speed[i] = buffer.getInt();
+			this.piercing[i] = buffer.getInt();
+			this.fireId[i] = buffer.getInt();
+			this.checkCount[i] = buffer.get() != 0;
+			this.owner[i] = buffer.get();
+			this.sprite[i] = Entity.readSprite(buffer);
+		}
+		this.size = count;
+	}
+
+	/**
+	 * Doubles the length of the arrays.
+	 */
+	private void grow() {
+		int length = this.x.length * 2;
+		this.x = Arrays.copyOf(this.x, length);
+		this.y = Arrays.copyOf(this.y, length);
+		this.speed = Arrays.copyOf(this.speed, length);
+		this.piercing = Arrays.copyOf(this.piercing, length);
+		this.fireId = Arrays.copyOf(this.fireId, length);
+		this.checkCount = Arrays.copyOf(this.checkCount, length);
+		this.owner = Arrays.copyOf(this.owner, length);
+		this.sprite = Arrays.copyOf(this.sprite, length);
+	}
+
+	public int size() {
+		return this.size;
+	}
+
+	/**
+	 * Returns the bullets the store holds before its arrays grow again.
+	 *
+	 * @return Length of the arrays.
+	 */
+	public int capacity() {
+		return this.x.length;
+	}
+
+	public PoolMetrics getMetrics() {
+		return this.metrics;
+	}
+
+	public int getPositionX(final int i) {
+		return this.x[i];
+	}
+
+	public int getPositionY(final int i) {
+		return this.y[i];
+	}
+
+	public int getSpeed(final int i) {
+		return this.speed[i];
+	}
+
+	public int getPiercingCount(final int i) {
+		return this.piercing[i];
+	}
+
+	public int getFireId(final int i) {
+		return this.fireId[i];
+	}
+
+	public void setFireId(final int i, final int id) {
+		this.fireId[i] = id;
+	}
+
+	public boolean isCheckCount(final int i) {
+		return this.checkCount[i];
+	}
+
+	public void setCheckCount(final int i, final boolean checkCount) {
+		this.checkCount[i] = checkCount;
+	}
+
+	public byte getOwner(final int i) {
+		return this.owner[i];
+	}
+
+	public SpriteType getSpriteType(final int i) {
+		return this.sprite[i];
+	}
+}
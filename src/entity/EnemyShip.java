@@ -1,6 +1,7 @@
 package entity;
 
 import java.awt.Color;
+import java.nio.ByteBuffer;
 
 import Enemy.HpEnemyShip;
 import engine.Cooldown;
@@ -278,4 +279,36 @@ public class EnemyShip extends Entity {
 	public double getSpeedMultiplier() {
 		return this.speedMultiplier;
 	}
+
+	/**
+	 * Writes the state of the ship for a snapshot of the game.
+	 *
+	 * @param buffer
+	 *            Buffer to write to.
+	 */
+	public final void writeState(final ByteBuffer buffer) {
+		writeEntityState(buffer);
+		buffer.putInt(this.hp);
+		buffer.put((byte) ((this.isDestroyed ? 1 : 0)
+				| (this.isChainExploded ? 2 : 0)));
+		buffer.putDouble(this.speedMultiplier);
+		Cooldown.writeOptional(buffer, this.animationCooldown);
+	}
+
+	/**
+	 * Restores the state written by writeState().
+	 *
+	 * @param buffer
+	 *            Buffer to read from.
+	 */
+	public final void readState(final ByteBuffer buffer) {
+		readEntityState(buffer);
+		this.hp = buffer.getInt();
+		byte flags = buffer.get();
+		this.isDestroyed = (flags & 1) != 0;
+		this.isChainExploded = (flags & 2) != 0;
+		this.speedMultiplier = buffer.getDouble();
+		this.animationCooldown = Cooldown.readOptional(buffer,
+				this.animationCooldown);
+	}
 }
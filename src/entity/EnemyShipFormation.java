@@ -2,13 +2,11 @@ package entity;
 
 
 import java.awt.*;
-import java.awt.event.ActionEvent;
-import java.awt.event.ActionListener;
+import java.nio.ByteBuffer;
 import java.util.*;
 import java.util.List;
 import java.util.concurrent.ExecutionException;
 import java.util.logging.Logger;
-import javax.swing.Timer;
 
 import Enemy.*;
 import Sound_Operator.SoundManager;
@@ -20,9 +18,10 @@ import engine.Cooldown;
 import engine.Core;
 import engine.DrawManager;
 import engine.DrawManager.SpriteType;
+import engine.GameRandom;
 import engine.GameSettings;
+import engine.TickScheduler;
 import static java.lang.Math.*;
-import Enemy.PiercingBulletPool;
 //Sound_Operator
 import Sound_Operator.SoundManager;
 
@@ -62,6 +61,8 @@ public class EnemyShipFormation implements Iterable<EnemyShip> {
 	private static final int BULLET_SPEED = 4;
 	/** Proportion of differences between shooting times. */
 	private static final double SHOOTING_VARIANCE = .2;
+	/** Milliseconds between the rings of a chain explosion. */
+	private static final int CHAIN_EXPLOSION_DELAY = 500;
 	/** Margin on the sides of the screen. */
 	private static final int SIDE_MARGIN = 20;
 	/** Margin on the bottom of the screen. */
@@ -70,6 +71,16 @@ public class EnemyShipFormation implements Iterable<EnemyShip> {
 	private static final int DESCENT_DISTANCE = 20;
 	/** Minimum speed allowed. */
 	private static final int MINIMUM_SPEED = 10;
+	/** Index of type A ships in the counts by type. */
+	private static final int TYPE_A = 0;
+	/** Index of type B ships in the counts by type. */
+	private static final int TYPE_B = 1;
+	/** Index of type C ships in the counts by type. */
+	private static final int TYPE_C = 2;
+	/** Index of explosive ships in the counts by type. */
+	private static final int TYPE_EXPLOSIVE = 3;
+	/** Number of types of ships. */
+	private static final int TYPE_COUNT = 4;
 
 	/** DrawManager instance. */
 	private DrawManager drawManager;
@@ -78,8 +89,15 @@ public class EnemyShipFormation implements Iterable<EnemyShip> {
 	/** Screen to draw ships on. */
 	private Screen screen;
 
-	/** List of enemy ships forming the formation. */
-	private List<List<EnemyShip>> enemyShips;
+	/**
+	 * Enemy ships forming the formation, by their position in the grid they
+	 * start in, see index().
+	 */
+	private EnemyShip[] enemyShips;
+	/** Ships still in the formation, destroyed ones until they are cleaned. */
+	private BitSet present;
+	/** Ships not destroyed yet. */
+	private BitSet alive;
 	/** Minimum time between shots. */
 	private List<SpeedItem> activeSpeedItems;
 	private Cooldown shootingCooldown;
@@ -113,10 +131,29 @@ public class EnemyShipFormation implements Iterable<EnemyShip> {
 	private int shipWidth;
 	/** Height of one ship. */
 	private int shipHeight;
-	/** List of ships that are able to shoot. */
-	private List<EnemyShip> shooters;
+	/** Row of the lowest ship alive in each column, -1 for empty columns. */
+	private int[] shooterRows;
+	/** Columns with a ship able to shoot, the first shooterCount of them. */
+	private int[] shooterColumns;
+	/** Position of each column in shooterColumns, -1 if it has no shooter. */
+	private int[] shooterSlots;
+	/** Number of columns with a ship able to shoot. */
+	private int shooterCount;
 	/** Number of not destroyed ships. */
 	private int shipCount;
+	/** Number of not destroyed ships of each type, see typeOf(). */
+	private int[] aliveByType;
+	/** Number of not destroyed ships with each amount of HP. */
+	private int[] aliveByHp;
+	/** HP each ship had when last counted. */
+	private int[] countedHp;
+	/** Type of each ship, kept since destroyed ships change their sprite. */
+	private int[] types;
+	/**
+	 * Rings of chain explosions still to go off: column and row of the
+	 * explosive ship, ring and identifier of the scheduled action.
+	 */
+	private List<int[]> pendingRings;
 
 	private ScoreManager scoreManager; //add by team Enemy
 	private ItemManager itemManager; //add by team Enemy
@@ -130,6 +167,8 @@ public class EnemyShipFormation implements Iterable<EnemyShip> {
 		/** Movement to the bottom of the screen. */
 		DOWN
 	};
+	/** Every direction, by ordinal. */
+	private static final Direction[] DIRECTIONS = Direction.values();
 
 	//add by team Enemy
 	//Setting Up Score Manager and ItemManager
@@ -149,12 +188,15 @@ public class EnemyShipFormation implements Iterable<EnemyShip> {
 	public EnemyShipFormation(final GameSettings gameSettings) {
 		this.drawManager = Core.getDrawManager();
 		this.logger = Core.getLogger();
-		this.enemyShips = new ArrayList<List<EnemyShip>>();
 		this.activeSpeedItems = new ArrayList<>();
+		this.pendingRings = new ArrayList<>();
 		this.currentDirection = Direction.RIGHT;
 		this.movementInterval = 0;
 		this.nShipsWide = gameSettings.getFormationWidth();
 		this.nShipsHigh = gameSettings.getFormationHeight();
+		this.enemyShips = new EnemyShip[this.nShipsWide * this.nShipsHigh];
+		this.present = new BitSet(this.enemyShips.length);
+		this.alive = new BitSet(this.enemyShips.length);
 		this.shootingInterval = gameSettings.getShootingFrecuency();
 		this.shootingVariance = (int) (gameSettings.getShootingFrecuency()
 				* SHOOTING_VARIANCE);
@@ -162,12 +204,10 @@ public class EnemyShipFormation implements Iterable<EnemyShip> {
 		this.movementSpeed = this.baseSpeed;
 		this.positionX = INIT_POS_X;
 		this.positionY = INIT_POS_Y;
-		this.shooters = new ArrayList<EnemyShip>();
 		this.shipCount = 0;
 		SpriteType spriteType = null;
 		int hp=1;// Edited by Enemy
-		Random rand= new Random();
-		int n = rand.nextInt(2);
+		int n = Core.getGameRandom().nextInt(GameRandom.Stream.FORMATION, 2);
 		if(n%2==1){ isCircle=true;
 			this.logger.info("cercle"+ 2);
 		}
@@ -180,11 +220,8 @@ public class EnemyShipFormation implements Iterable<EnemyShip> {
 		this.logger.info("Initializing " + nShipsWide + "x" + nShipsHigh
 				+ " ship formation in (" + positionX + "," + positionY + ")");
 
-		// Each sub-list is a column on the formation.
-		for (int i = 0; i < this.nShipsWide; i++)
-			this.enemyShips.add(new ArrayList<EnemyShip>());
-
-		for (List<EnemyShip> column : this.enemyShips) {
+		// Ships are added column by column.
+		for (int column = 0; column < this.nShipsWide; column++) {
 			int x=0;
 			int y=0;
 			for (int i = 0; i < this.nShipsHigh; i++) {
@@ -200,33 +237,57 @@ public class EnemyShipFormation implements Iterable<EnemyShip> {
 					else
 						spriteType = SpriteType.EnemyShipA1;
 				if(isCircle){
-					x = (int) round(RADIUS * cos(angle) + positionX + ( SEPARATION_DISTANCE_CIRCLE* this.enemyShips.indexOf(column)));
+					x = (int) round(RADIUS * cos(angle) + positionX + ( SEPARATION_DISTANCE_CIRCLE* column));
 					y = (int) (RADIUS * sin(angle)) + positionY;}
 				else{
-					x = positionX + (SEPARATION_DISTANCE * this.enemyShips.indexOf(column));
+					x = positionX + (SEPARATION_DISTANCE * column);
 					y = positionY+ i*SEPARATION_DISTANCE;
 				}
 
 				if(shipCount == nShipsHigh*(nShipsWide/2))
 					hp = 2; // Edited by Enemy, It just an example to insert EnemyShip that hp is 2.
 
-				column.add(new EnemyShip(x, y, spriteType,hp,this.enemyShips.indexOf(column),i));// Edited by Enemy
+				int index = index(column, i);
+				this.enemyShips[index] = new EnemyShip(x, y, spriteType,hp,column,i);// Edited by Enemy
+				this.present.set(index);
+				this.alive.set(index);
 				this.shipCount++;
 				hp = 1;// Edited by Enemy
 			}
 		}
 
 
-		this.shipWidth = this.enemyShips.get(0).get(0).getWidth();
-		this.shipHeight = this.enemyShips.get(0).get(0).getHeight();
+		this.shipWidth = this.enemyShips[0].getWidth();
+		this.shipHeight = this.enemyShips[0].getHeight();
 
 		this.width = (this.nShipsWide - 1) * SEPARATION_DISTANCE
 				+ this.shipWidth;
 		this.height = (this.nShipsHigh - 1) * SEPARATION_DISTANCE
 				+ this.shipHeight;
 
-		for (List<EnemyShip> column : this.enemyShips)
-			this.shooters.add(column.get(column.size() - 1));
+		this.shooterRows = new int[this.nShipsWide];
+		this.shooterColumns = new int[this.nShipsWide];
+		this.shooterSlots = new int[this.nShipsWide];
+		for (int column = 0; column < this.nShipsWide; column++) {
+			this.shooterRows[column] = this.nShipsHigh - 1;
+			this.shooterColumns[column] = column;
+			this.shooterSlots[column] = column;
+		}
+		this.shooterCount = this.nShipsWide;
+
+		int maxHp = 0;
+		for (EnemyShip enemyShip : this.enemyShips)
+			maxHp = max(maxHp, enemyShip.getHp());
+		this.aliveByType = new int[TYPE_COUNT];
+		this.aliveByHp = new int[maxHp + 1];
+		this.countedHp = new int[this.enemyShips.length];
+		this.types = new int[this.enemyShips.length];
+		for (int i = 0; i < this.enemyShips.length; i++) {
+			this.countedHp[i] = this.enemyShips[i].getHp();
+			this.types[i] = typeOf(this.enemyShips[i].getSpriteType());
+			this.aliveByType[this.types[i]]++;
+			this.aliveByHp[this.countedHp[i]]++;
+		}
 
 	}
 
@@ -244,10 +305,9 @@ public class EnemyShipFormation implements Iterable<EnemyShip> {
 	 * Draws every individual component of the formation.
 	 */
 	public final void draw() {
-		for (List<EnemyShip> column : this.enemyShips)
-			for (EnemyShip enemyShip : column)
-				drawManager.drawEntity(enemyShip, enemyShip.getPositionX(),
-						enemyShip.getPositionY());
+		for (int i = this.present.nextSetBit(0); i >= 0; i = this.present.nextSetBit(i + 1))
+			drawManager.drawEntity(this.enemyShips[i], this.enemyShips[i].getPositionX(),
+					this.enemyShips[i].getPositionY());
 	}
 
 	/**
@@ -330,25 +390,23 @@ public class EnemyShipFormation implements Iterable<EnemyShip> {
 			positionY += movementY;
 
 			// Cleans explosions.
-			List<EnemyShip> destroyed;
-			for (List<EnemyShip> column : this.enemyShips) {
-				destroyed = new ArrayList<EnemyShip>();
-				for (EnemyShip ship : column) {
-					if (ship != null && ship.isDestroyed()) {
-						destroyed.add(ship);
-						this.logger.info("Removed enemy "
-								+ column.indexOf(ship) + " from column "
-								+ this.enemyShips.indexOf(column));
-					}
+			for (int i = this.present.nextSetBit(0); i >= 0; i = this.present.nextSetBit(i + 1)) {
+				if (this.enemyShips[i].isDestroyed()) {
+					this.present.clear(i);
+					this.logger.info("Removed enemy "
+							+ this.enemyShips[i].getY() + " from column "
+							+ this.enemyShips[i].getX());
 				}
-				column.removeAll(destroyed);
 			}
 			double angle = (PI/this.nShipsHigh);
 			int temp=0;
 			iteration++;
-			for (List<EnemyShip> column : this.enemyShips){
+			for (int column = 0; column < this.nShipsWide; column++){
 				temp=0;
-				for (EnemyShip enemyShip : column) {
+				int end = index(column + 1, 0);
+				for (int i = this.present.nextSetBit(index(column, 0)); i >= 0 && i < end;
+						i = this.present.nextSetBit(i + 1)) {
+					EnemyShip enemyShip = this.enemyShips[i];
 					double currentAngle = angle * (temp+iteration);
 					int distanceX = movementX + (int) (MINIRADIUS * cos(currentAngle));
 					int distanceY = movementY + (int) (MINIRADIUS * sin(currentAngle));
@@ -372,39 +430,27 @@ public class EnemyShipFormation implements Iterable<EnemyShip> {
 	}
 
 	/**
-	 * Cleans empty columns, adjusts the width and height of the formation.
+	 * Adjusts the width and height of the formation to the columns that still
+	 * have ships.
 	 */
 	private void cleanUp() {
-		Set<Integer> emptyColumns = new HashSet<Integer>();
 		int maxColumn = 0;
 		int minPositionY = Integer.MAX_VALUE;
-		for (List<EnemyShip> column : this.enemyShips) {
-			if (!column.isEmpty()) {
-				// Height of this column
-				int columnSize = column.get(column.size() - 1).positionY
-						- this.positionY + this.shipHeight;
-				maxColumn = max(maxColumn, columnSize);
-				minPositionY = min(minPositionY, column.get(0)
-						.getPositionY());
-			} else {
-				// Empty column, we remove it.
-				emptyColumns.add(this.enemyShips.indexOf(column));
-			}
-		}
-		for (int index : emptyColumns) {
-			this.enemyShips.remove(index);
-			logger.info("Removed column " + index);
-		}
-
 		int leftMostPoint = 0;
 		int rightMostPoint = 0;
-		
-		for (List<EnemyShip> column : this.enemyShips) {
-			if (!column.isEmpty()) {
-				if (leftMostPoint == 0)
-					leftMostPoint = column.get(0).getPositionX();
-				rightMostPoint = column.get(0).getPositionX();
-			}
+		for (int column = 0; column < this.nShipsWide; column++) {
+			int first = firstInColumn(column);
+			if (first == -1)
+				continue;
+			// Height of this column
+			int columnSize = this.enemyShips[lastInColumn(column)].positionY
+					- this.positionY + this.shipHeight;
+			maxColumn = max(maxColumn, columnSize);
+			minPositionY = min(minPositionY, this.enemyShips[first]
+					.getPositionY());
+			if (leftMostPoint == 0)
+				leftMostPoint = this.enemyShips[first].getPositionX();
+			rightMostPoint = this.enemyShips[first].getPositionX();
 		}
 
 		this.width = rightMostPoint - leftMostPoint + this.shipWidth;
@@ -418,22 +464,23 @@ public class EnemyShipFormation implements Iterable<EnemyShip> {
 	 * Shoots a bullet downwards.
 	 * 
 	 * @param bullets
-	 *            Bullets set to add the bullet being shot.
+	 *            Bullets on screen, to add the bullet being shot.
 	 */
-	public final void shoot(final Set<PiercingBullet> bullets) { // Edited by Enemy
+	public final void shoot(final BulletStore bullets) { // Edited by Enemy
 		// For now, only ships in the bottom row are able to shoot.
-		if (!shooters.isEmpty()) { // Added by team Enemy
-			int index = (int) (random() * this.shooters.size());
-			EnemyShip shooter = this.shooters.get(index);
+		if (this.shooterCount > 0) { // Added by team Enemy
+			int column = this.shooterColumns[Core.getGameRandom().nextInt(
+					GameRandom.Stream.ENEMY_FIRE, this.shooterCount)];
+			EnemyShip shooter = this.enemyShips[index(column, this.shooterRows[column])];
 			if (this.shootingCooldown.checkFinished()) {
 				this.shootingCooldown.reset();
 				sm = SoundManager.getInstance();
 				sm.playES("Enemy_Gun_Shot_1_ES");
-				bullets.add(PiercingBulletPool.getPiercingBullet( // Edited by Enemy
+				bullets.add( // Edited by Enemy
 						shooter.getPositionX() + shooter.width / 2,
 						shooter.getPositionY(),
 						BULLET_SPEED,
-						0)); // Edited by Enemy
+						0); // Edited by Enemy
 			}
 		}
 	}
@@ -446,59 +493,152 @@ public class EnemyShipFormation implements Iterable<EnemyShip> {
 	 */
 	public final void destroy(final EnemyShip destroyedShip) {
 			if (Bomb.getIsBomb()) {		// team Inventory
-				Bomb.destroyByBomb(enemyShips, destroyedShip, this.itemManager , this.logger);
-			} else {
-				for (List<EnemyShip> column : this.enemyShips)
-					for (int i = 0; i < column.size(); i++)
-						if (column.get(i).equals(destroyedShip)) {
-							column.get(i).destroy();
-							this.logger.info("Destroyed ship in ("
-									+ this.enemyShips.indexOf(column) + "," + i + ")");
-						}
+				Bomb.destroyByBomb(this, destroyedShip, this.itemManager , this.logger);
+			} else if (contains(destroyedShip)) {
+				destroyedShip.destroy();
+				markDestroyed(destroyedShip);
+				this.logger.info("Destroyed ship in ("
+						+ destroyedShip.getX() + "," + destroyedShip.getY() + ")");
 			}
+	}
 
-		// Updates the list of ships that can shoot the player.
-		if (this.shooters.contains(destroyedShip)) {
-			int destroyedShipIndex = this.shooters.indexOf(destroyedShip);
-			int destroyedShipColumnIndex = -1;
+	/**
+	 * Gets the ship on a given column that will be in charge of shooting.
+	 * 
+	 * @param column
+	 *            Column to search.
+	 * @return New shooter ship, null if every ship of the column is destroyed.
+	 */
+	public final EnemyShip getNextShooter(final int column) {
+		int last = this.alive.previousSetBit(index(column + 1, 0) - 1);
+		return last >= index(column, 0) ? this.enemyShips[last] : null;
+	}
 
-			for (List<EnemyShip> column : this.enemyShips)
-				if (column.contains(destroyedShip)) {
-					destroyedShipColumnIndex = this.enemyShips.indexOf(column);
-					break;
-				}
+	/**
+	 * Returns the ship at a position of the grid the formation starts in, the
+	 * one EnemyShip.getX() and getY() return.
+	 *
+	 * @param x
+	 *            Column of the ship.
+	 * @param y
+	 *            Row of the ship.
+	 * @return Ship still in the formation there, null if there is none.
+	 */
+	public final EnemyShip getShip(final int x, final int y) {
+		if (x < 0 || x >= this.nShipsWide || y < 0 || y >= this.nShipsHigh)
+			return null;
+		int index = index(x, y);
+		return this.present.get(index) ? this.enemyShips[index] : null;
+	}
+
+	/**
+	 * Checks if a ship is part of the formation and not destroyed.
+	 *
+	 * @param ship
+	 *            Ship to check.
+	 * @return True if the ship is alive in the formation.
+	 */
+	public final boolean isAlive(final EnemyShip ship) {
+		return contains(ship) && this.alive.get(index(ship.getX(), ship.getY()));
+	}
 
-			EnemyShip nextShooter = getNextShooter(this.enemyShips
-					.get(destroyedShipColumnIndex));
+	/**
+	 * Takes note of a ship of the formation that has been destroyed, so it
+	 * no longer counts as alive, and of the HP it lost. Must be called by
+	 * whatever hits or destroys ships.
+	 *
+	 * @param ship
+	 *            Ship that may have been hit or destroyed.
+	 */
+	public final void markDestroyed(final EnemyShip ship) {
+		if (!contains(ship))
+			return;
+		int index = index(ship.getX(), ship.getY());
+		if (!this.alive.get(index))
+			return;
+		if (!ship.isDestroyed()) {
+			// Still alive, only its HP may have changed.
+			int hp = min(max(ship.getHp(), 0), this.aliveByHp.length - 1);
+			this.aliveByHp[this.countedHp[index]]--;
+			this.aliveByHp[hp]++;
+			this.countedHp[index] = hp;
+			return;
+		}
 
-			if (nextShooter != null)
-				this.shooters.set(destroyedShipIndex, nextShooter);
-			else {
-				this.shooters.remove(destroyedShipIndex);
+		this.alive.clear(index);
+		this.shipCount--;
+		this.aliveByType[this.types[index]]--;
+		this.aliveByHp[this.countedHp[index]]--;
+
+		// Updates the ships that can shoot the player.
+		int column = ship.getX();
+		if (this.shooterRows[column] == ship.getY()) {
+			EnemyShip nextShooter = getNextShooter(column);
+			if (nextShooter != null) {
+				this.shooterRows[column] = nextShooter.getY();
+			} else {
+				this.shooterRows[column] = -1;
+				int slot = this.shooterSlots[column];
+				int lastColumn = this.shooterColumns[--this.shooterCount];
+				this.shooterColumns[slot] = lastColumn;
+				this.shooterSlots[lastColumn] = slot;
+				this.shooterSlots[column] = -1;
 				this.logger.info("Shooters list reduced to "
-						+ this.shooters.size() + " members.");
+						+ this.shooterCount + " members.");
 			}
 		}
+	}
 
-		this.shipCount--;
+	/**
+	 * Returns the number of ships not destroyed.
+	 *
+	 * @return Ships alive.
+	 */
+	public final int getShipCount() {
+		return this.shipCount;
 	}
+
 	/**
-	 * Gets the ship on a given column that will be in charge of shooting.
-	 * 
+	 * Returns the number of ships of a type not destroyed.
+	 *
+	 * @param spriteType
+	 *            Either sprite of the type.
+	 * @return Ships of that type alive.
+	 */
+	public final int getShipCount(final SpriteType spriteType) {
+		return this.aliveByType[typeOf(spriteType)];
+	}
+
+	/**
+	 * Returns the number of ships not destroyed with some HP left.
+	 *
+	 * @param hp
+	 *            HP of the ships.
+	 * @return Ships alive with that HP.
+	 */
+	public final int getShipCountWithHp(final int hp) {
+		return hp >= 0 && hp < this.aliveByHp.length ? this.aliveByHp[hp] : 0;
+	}
+
+	/**
+	 * Returns the lowest ship alive of a column, the one that shoots.
+	 *
 	 * @param column
-	 *            Column to search.
-	 * @return New shooter ship.
-	 */
-	public final EnemyShip getNextShooter(final List<EnemyShip> column) {
-		Iterator<EnemyShip> iterator = column.iterator();
-		EnemyShip nextShooter = null;
-		while (iterator.hasNext()) {
-			EnemyShip checkShip = iterator.next();
-			if (checkShip != null && !checkShip.isDestroyed())
-				nextShooter = checkShip;
-		}
+	 *            Column of the ship.
+	 * @return Ship able to shoot, null if every ship of the column is destroyed.
+	 */
+	public final EnemyShip getShooter(final int column) {
+		int row = this.shooterRows[column];
+		return row == -1 ? null : this.enemyShips[index(column, row)];
+	}
 
-		return nextShooter;
+	/**
+	 * Returns the number of columns with a ship able to shoot.
+	 *
+	 * @return Ships able to shoot.
+	 */
+	public final int getShooterCount() {
+		return this.shooterCount;
 	}
 
 	/**
@@ -508,13 +648,103 @@ public class EnemyShipFormation implements Iterable<EnemyShip> {
 	 */
 	@Override
 	public final Iterator<EnemyShip> iterator() {
-		Set<EnemyShip> enemyShipsList = new HashSet<>();
-		for (List<EnemyShip> column : this.enemyShips) {
-			for (EnemyShip enemyShip : column) {
-				enemyShipsList.add(enemyShip);
+		return new Iterator<EnemyShip>() {
+			/** Index of the next ship returned. */
+			private int next = present.nextSetBit(0);
+
+			@Override
+			public boolean hasNext() {
+				return this.next >= 0;
+			}
+
+			@Override
+			public EnemyShip next() {
+				if (this.next < 0)
+					throw new NoSuchElementException();
+				EnemyShip enemyShip = enemyShips[this.next];
+				this.next = present.nextSetBit(this.next + 1);
+				return enemyShip;
 			}
+		};
+	}
+
+	public final int getColumns() {
+		return this.nShipsWide;
+	}
+
+	public final int getRows() {
+		return this.nShipsHigh;
+	}
+
+	/**
+	 * Checks if a ship is still in the formation, destroyed or not.
+	 *
+	 * @param ship
+	 *            Ship to check.
+	 * @return True if the ship is in the formation.
+	 */
+	private boolean contains(final EnemyShip ship) {
+		return getShip(ship.getX(), ship.getY()) == ship;
+	}
+
+	/**
+	 * Returns the type of a ship, the same for both of its sprites.
+	 *
+	 * @param spriteType
+	 *            Sprite of the ship.
+	 * @return Index of the type in aliveByType.
+	 */
+	private static int typeOf(final SpriteType spriteType) {
+		switch (spriteType) {
+			case EnemyShipB1:
+			case EnemyShipB2:
+				return TYPE_B;
+			case EnemyShipC1:
+			case EnemyShipC2:
+				return TYPE_C;
+			case ExplosiveEnemyShip1:
+			case ExplosiveEnemyShip2:
+				return TYPE_EXPLOSIVE;
+			default:
+				return TYPE_A;
 		}
-		return enemyShipsList.iterator();
+	}
+
+	/**
+	 * Returns the position of a ship in the arrays of the formation.
+	 *
+	 * @param x
+	 *            Column of the ship.
+	 * @param y
+	 *            Row of the ship.
+	 * @return Index of the ship.
+	 */
+	private int index(final int x, final int y) {
+		return x * this.nShipsHigh + y;
+	}
+
+	/**
+	 * Finds the highest ship of a column still in the formation.
+	 *
+	 * @param column
+	 *            Column to search.
+	 * @return Index of the ship, -1 if the column is empty.
+	 */
+	private int firstInColumn(final int column) {
+		int first = this.present.nextSetBit(index(column, 0));
+		return first >= 0 && first < index(column + 1, 0) ? first : -1;
+	}
+
+	/**
+	 * Finds the lowest ship of a column still in the formation.
+	 *
+	 * @param column
+	 *            Column to search.
+	 * @return Index of the ship, -1 if the column is empty.
+	 */
+	private int lastInColumn(final int column) {
+		int last = this.present.previousSetBit(index(column + 1, 0) - 1);
+		return last >= index(column, 0) ? last : -1;
 	}
 
 	/**
@@ -540,6 +770,10 @@ public class EnemyShipFormation implements Iterable<EnemyShip> {
 		int count = 0;	// number of destroyed enemy
 		int point = 0;  // point of destroyed enemy
 
+		// A ship destroyed since its chain explosion was set off is not counted again.
+		if (isChainExploded && !isAlive(destroyedShip))
+			return new int[] {0, 0};
+
 		// Checks if this ship is 'chainExploded' due to recursive call
 		if (isChainExploded
 				&& !destroyedShip.spriteType.equals(SpriteType.ExplosiveEnemyShip1)
@@ -548,93 +782,59 @@ public class EnemyShipFormation implements Iterable<EnemyShip> {
 		}
 
 		if (bullet.getSpriteType() == SpriteType.ItemBomb && isCircle) {	// Bomb Item type1
-			int[] score = Bomb.destroyByBomb_isCircle(enemyShips, destroyedShip, this.itemManager, this.logger);
+			int[] score = Bomb.destroyByBomb_isCircle(this, destroyedShip, this.itemManager, this.logger);
 			count = score[0];
 			point = score[1];
 		} else if (bullet.getSpriteType() == SpriteType.ItemBomb) {		// Bomb Item type2
-			int[] score = Bomb.destroyByBomb(enemyShips, destroyedShip, this.itemManager, this.logger);
+			int[] score = Bomb.destroyByBomb(this, destroyedShip, this.itemManager, this.logger);
 			count = score[0];
 			point = score[1];
-		} else {
-			for (List<EnemyShip> column : this.enemyShips) // Add by team Enemy
-				for (int i = 0; i < column.size(); i++) {
-					if (column.get(i).equals(destroyedShip)) {
-						switch (destroyedShip.spriteType){
-							case ExplosiveEnemyShip1:
-							case ExplosiveEnemyShip2:
-								HpEnemyShip.hit(destroyedShip);
-
-								//Sound_Operator
-								if (destroyedShip.isDestroyed()) {
-
-									sm = SoundManager.getInstance();
-									sm.playES("enemy_explosion");
-								}
-								point += destroyedShip.getPointValue();
-								int point_mob[]  =  explosive(destroyedShip.getX(), destroyedShip.getY(),
-										this.enemyShips.indexOf(column),i,this.enemyShips); // Edited by team Enemy
-								point += point_mob[0];
-								count += point_mob[1]+1;
-								if(isChainExploded){
-									this.scoreManager.addScore(point-destroyedShip.getPointValue());
-								}
-								this.logger.info("Destroyed ExplosiveEnemyship in ("
-										+ this.enemyShips.indexOf(column) + "," + i + ")");
-
-								break;
-							default:
-								HpEnemyShip.hit(destroyedShip);
-
-								if(destroyedShip.getHp() > 0 ){
-									this.logger.info("Enemy ship lost 1 HP in ("
-											+ this.enemyShips.indexOf(column) + "," + i + ")");
-								}else{
-									this.logger.info("Destroyed ship in ("
-											+ this.enemyShips.indexOf(column) + "," + i + ")");
-									point = column.get(i).getPointValue();
-									count += 1;
-								}
-								break;
-						}
-						if (column.get(i).getColor().equals(Color.MAGENTA)) { //add by team enemy
-							this.itemManager.dropItem(destroyedShip, 1, 1);
-						}
-
-
-
+		} else if (contains(destroyedShip)) { // Add by team Enemy
+			int column = destroyedShip.getX();
+			int row = destroyedShip.getY();
+			switch (destroyedShip.spriteType){
+				case ExplosiveEnemyShip1:
+				case ExplosiveEnemyShip2:
+					HpEnemyShip.hit(destroyedShip);
+					markDestroyed(destroyedShip);
+
+					//Sound_Operator
+					if (destroyedShip.isDestroyed()) {
+
+						sm = SoundManager.getInstance();
+						sm.playES("enemy_explosion");
 					}
-				}
-		}
-
-		// Updates the list of ships that can shoot the player.
-		if (bullet.getSpriteType() == SpriteType.ItemBomb) {	// team Inventory
-			Bomb.nextShooterByBomb(enemyShips, shooters, this, logger);
-
-		} else if (destroyedShip.isDestroyed()) {
-			if (this.shooters.contains(destroyedShip)) {
-				int destroyedShipIndex = this.shooters.indexOf(destroyedShip);
-				int destroyedShipColumnIndex = -1;
-
-				for (List<EnemyShip> column : this.enemyShips)
-					if (column.contains(destroyedShip)) {
-						destroyedShipColumnIndex = this.enemyShips.indexOf(column);
-						break;
+					point += destroyedShip.getPointValue();
+					int point_mob[]  =  explosive(column, row); // Edited by team Enemy
+					point += point_mob[0];
+					count += point_mob[1]+1;
+					if(isChainExploded){
+						this.scoreManager.addScore(point-destroyedShip.getPointValue());
 					}
+					this.logger.info("Destroyed ExplosiveEnemyship in ("
+							+ column + "," + row + ")");
 
-				EnemyShip nextShooter = getNextShooter(this.enemyShips
-						.get(destroyedShipColumnIndex));
-
-				if (nextShooter != null)
-					this.shooters.set(destroyedShipIndex, nextShooter);
-				else {
-					this.shooters.remove(destroyedShipIndex);
-					this.logger.info("Shooters list reduced to "
-							+ this.shooters.size() + " members.");
-				}
+					break;
+				default:
+					HpEnemyShip.hit(destroyedShip);
+					markDestroyed(destroyedShip);
 
+					if(destroyedShip.getHp() > 0 ){
+						this.logger.info("Enemy ship lost 1 HP in ("
+								+ column + "," + row + ")");
+					}else{
+						this.logger.info("Destroyed ship in ("
+								+ column + "," + row + ")");
+						point = destroyedShip.getPointValue();
+						count += 1;
+					}
+					break;
+			}
+			if (destroyedShip.getColor().equals(Color.MAGENTA)) { //add by team enemy
+				this.itemManager.dropItem(destroyedShip, 1, 1);
 			}
 		}
-		this.shipCount -= count;
+
 
 		int[] returnValue = {count, point};
 		return returnValue;
@@ -644,116 +844,199 @@ public class EnemyShipFormation implements Iterable<EnemyShip> {
 	 * A function that explosive up, down, left, and right when an explosive EnemyShip dies
 	 *
 	 * @param x
-	 *            explosive EnemyShip's Initial x-coordinates
+	 *            explosive EnemyShip's column in the formation
 	 * @param y
-	 *            explosive EnemyShip's Initial y-coordinates
-	 * @param index_x
-	 * 			  explosive EnemyShip's x-coordinates in EnemyShips
-	 * @param index_y
-	 * 			  explosive EnemyShip's y-coordinates in EnemyShips
-	 * @param enemyShips
-	 * 			  the current arrangement of the enemy
+	 *            explosive EnemyShip's row in the formation
 	 */
-	public int[] explosive(final int x, final int y, final int index_x, final int index_y, List<List<EnemyShip>> enemyShips){
-
-
-		Queue<EnemyShip> targetShipQ = new LinkedList<>();
-		Timer timer = new Timer(500, null);
+	public int[] explosive(final int x, final int y){
 		int range = 2;
-		int i = 1;
 		int point = 0;
 		int mob = 0;
 
-		Bullet bullet = new Bullet(0,0,-1);
-
-		do{
-
-			if(index_x+i >= 0 && enemyShips.size() > index_x+i && enemyShips.get(index_x+i).size() > y){ // right
-				EnemyShip targetShip = enemyShips.get(index_x+i).get(y);
-				if (!targetShip.isDestroyed()) {
-					if (targetShip.getX() == x + i && targetShip.getY() == y) {
-						targetShipQ.add(targetShip);
-						point += targetShip.getPointValue();
-						mob += 1;
-
-					}
-				}
-			}
-
-			if( index_x-i >= 0 && enemyShips.size() > index_x-i && enemyShips.get(index_x-i).size() > y) { // left
-				EnemyShip targetShip = enemyShips.get(index_x - i).get(y);
-				if(!targetShip.isDestroyed()) {
-					if (targetShip.getX() == x - i && targetShip.getY() == y) {
-						targetShipQ.add(targetShip);
-						point += targetShip.getPointValue();
-						mob += 1;
-
-					}
-				}
-			}
-
-			if(index_y-i >= 0){//up
-				EnemyShip targetShip = enemyShips.get(index_x).get(index_y-i);
-				if (!targetShip.isDestroyed()) {
-					if (targetShip.getX() == x && targetShip.getY() == y - i) {
-						targetShipQ.add(targetShip);
-						point += targetShip.getPointValue();
-						mob += 1;
-					}
-				}
-			}
-
-			if(enemyShips.get(index_x).size() > index_y+i){//down
-				EnemyShip targetShip = enemyShips.get(index_x).get(index_y+i);
-				if(!targetShip.isDestroyed()) {
-					if (targetShip.getX() == x && targetShip.getY() == y + i) {
-						targetShipQ.add(targetShip);
-						point += targetShip.getPointValue();
-						mob += 1;
-
-
-					}
+		for (int i = 1; i <= range; i++) {
+			for (EnemyShip targetShip : ringShips(x, y, i)) {
+				if (targetShip != null && !targetShip.isDestroyed()) {
+					point += targetShip.getPointValue();
+					mob += 1;
 				}
 			}
-
-			targetShipQ.add(new EnemyShip());
-
-			i++;
+			// Each ring goes off CHAIN_EXPLOSION_DELAY after the one inside it.
+			scheduleRing(x, y, i, i * TickScheduler.ticksFor(CHAIN_EXPLOSION_DELAY));
 		}
-		while(i <= range);
-
-		ActionListener listener = new ActionListener() {
-			@Override
-			public void actionPerformed(ActionEvent e) {
-
-
 
-				while(true){
-					if(!targetShipQ.isEmpty()) {
-						EnemyShip targetShip = targetShipQ.poll();
-						if(targetShip.getX() != -2){
-							_destroy(bullet,targetShip,true);
-						}else{
-							break;
-						}
+		return new int[]{point, mob};
+	}
 
-					}else{
-						break;
-					}
-				}
+	/**
+	 * Returns the ships a ring of a chain explosion reaches.
+	 *
+	 * @param x
+	 *            explosive EnemyShip's column in the formation
+	 * @param y
+	 *            explosive EnemyShip's row in the formation
+	 * @param ring
+	 *            Distance of the ring from the explosive EnemyShip.
+	 * @return Ships to the right, left, up and down, null where there is
+	 *         none.
+	 */
+	private EnemyShip[] ringShips(final int x, final int y, final int ring) {
+		return new EnemyShip[] { getShip(x + ring, y), getShip(x - ring, y),
+				getShip(x, y - ring), getShip(x, y + ring) };
+	}
 
-				if (targetShipQ.isEmpty())
-					((Timer) e.getSource()).stop();
+	/**
+	 * Schedules a ring of a chain explosion to go off, and keeps it pending
+	 * until it does.
+	 *
+	 * @param x
+	 *            explosive EnemyShip's column in the formation
+	 * @param y
+	 *            explosive EnemyShip's row in the formation
+	 * @param ring
+	 *            Distance of the ring from the explosive EnemyShip.
+	 * @param delay
+	 *            Ticks until the ring goes off.
+	 */
+	private void scheduleRing(final int x, final int y, final int ring,
+			final int delay) {
+		EnemyShip[] targetShips = ringShips(x, y, ring);
+		int[] pending = { x, y, ring, TickScheduler.NONE };
+		pending[3] = Core.getTickScheduler().schedule(delay, () -> {
+			this.pendingRings.remove(pending);
+			Bullet bullet = new Bullet(0, 0, -1);
+			for (EnemyShip targetShip : targetShips)
+				if (targetShip != null && !targetShip.isDestroyed())
+					_destroy(bullet, targetShip, true);
+		});
+		this.pendingRings.add(pending);
+	}
+	/**
+	 * Writes the state of the formation and its ships for a snapshot of the
+	 * game, including the rings of chain explosions still to go off.
+	 *
+	 * @param buffer
+	 *            Buffer to write to.
+	 */
+	public final void writeState(final ByteBuffer buffer) {
+		buffer.putInt(this.nShipsWide);
+		buffer.putInt(this.nShipsHigh);
+		buffer.put((byte) (this.isCircle ? 1 : 0));
+		buffer.putInt(this.RADIUS);
+		buffer.putInt(this.MINIRADIUS);
+		buffer.putInt(this.iteration);
+		buffer.putInt(this.movementSpeed);
+		buffer.putInt(this.movementInterval);
+		buffer.put((byte) this.currentDirection.ordinal());
+		buffer.put((byte) (this.previousDirection == null ? -1
+				: this.previousDirection.ordinal()));
+		buffer.putInt(this.width);
+		buffer.putInt(this.height);
+		buffer.putInt(this.positionX);
+		buffer.putInt(this.positionY);
+		Cooldown.writeOptional(buffer, this.shootingCooldown);
+
+		for (int i = 0; i < this.enemyShips.length; i++) {
+			buffer.put((byte) ((this.present.get(i) ? 1 : 0)
+					| (this.alive.get(i) ? 2 : 0)));
+			buffer.putInt(this.countedHp[i]);
+			this.enemyShips[i].writeState(buffer);
+		}
+		buffer.putInt(this.shipCount);
+		for (int count : this.aliveByType)
+			buffer.putInt(count);
+		buffer.putInt(this.aliveByHp.length);
+		for (int count : this.aliveByHp)
+			buffer.putInt(count);
+		buffer.putInt(this.shooterCount);
+		for (int column = 0; column < this.nShipsWide; column++) {
+			buffer.putInt(this.shooterRows[column]);
+			buffer.putInt(this.shooterColumns[column]);
+			buffer.putInt(this.shooterSlots[column]);
+		}
 
-			}
-		};
+		TickScheduler scheduler = Core.getTickScheduler();
+		buffer.putInt(this.pendingRings.size());
+		for (int[] pending : this.pendingRings) {
+			buffer.putInt(pending[0]);
+			buffer.putInt(pending[1]);
+			buffer.putInt(pending[2]);
+			buffer.putInt(scheduler.ticksUntil(pending[3]));
+		}
+	}
 
-		timer.addActionListener(listener);
-		timer.start();
+	/**
+	 * Restores the state written by writeState() into the same ships, which
+	 * the snapshot must have been taken from a formation of the same size.
+	 *
+	 * @param buffer
+	 *            Buffer to read from.
+	 */
+	public final void readState(final ByteBuffer buffer) {
+		if (buffer.getInt() != this.nShipsWide
+				|| buffer.getInt() != this.nShipsHigh)
+			throw new IllegalArgumentException(
+					"Snapshot of a formation of another size");
+		this.isCircle = buffer.get() != 0;
+		this.RADIUS = buffer.getInt();
+		this.MINIRADIUS = buffer.getInt();
+		this.iteration = buffer.getInt();
+		this.movementSpeed = buffer.getInt();
+		this.movementInterval = buffer.getInt();
+		this.currentDirection = DIRECTIONS[buffer.get()];
+		byte previous = buffer.get();
+		this.previousDirection = previous < 0 ? null : DIRECTIONS[previous];
+		this.width = buffer.getInt();
+		this.height = buffer.getInt();
+		this.positionX = buffer.getInt();
+		this.positionY = buffer.getInt();
+		this.shootingCooldown = Cooldown.readOptional(buffer,
+				this.shootingCooldown);
+
+		for (int i = 0; i < this.enemyShips.length; i++) {
+			byte flags = buffer.get();
+			this.present.set(i, (flags & 1) != 0);
+			this.alive.set(i, (flags & 2) != 0);
+			this.countedHp[i] = buffer.getInt();
+			this.enemyShips[i].readState(buffer);
+		}
+		this.shipCount = buffer.getInt();
+		for (int i = 0; i < this.aliveByType.length; i++)
+			this.aliveByType[i] = buffer.getInt();
+		int hpLevels = buffer.getInt();
+		if (hpLevels != this.aliveByHp.length)
+			this.aliveByHp = new int[hpLevels];
+		for (int i = 0; i < hpLevels; i++)
+			this.aliveByHp[i] = buffer.getInt();
+		this.shooterCount = buffer.getInt();
+		for (int column = 0; column < this.nShipsWide; column++) {
+			this.shooterRows[column] = buffer.getInt();
+			this.shooterColumns[column] = buffer.getInt();
+			this.shooterSlots[column] = buffer.getInt();
+		}
 
-		return new int[]{point, mob};
+		TickScheduler scheduler = Core.getTickScheduler();
+		for (int[] pending : this.pendingRings)
+			scheduler.cancel(pending[3]);
+		this.pendingRings.clear();
+		int rings = buffer.getInt();
+		for (int i = 0; i < rings; i++) {
+			int x = buffer.getInt();
+			int y = buffer.getInt();
+			int ring = buffer.getInt();
+			scheduleRing(x, y, ring, buffer.getInt());
+		}
 	}
+
 	public final void BecomeCircle(boolean iscircle){
 		this.isCircle=iscircle;
 	}
+
+	/**
+	 * Checks if the ships are arranged in circles instead of a grid.
+	 *
+	 * @return True for a circle formation.
+	 */
+	public final boolean isCircle() {
+		return this.isCircle;
+	}
 }
\ No newline at end of file
@@ -1,6 +1,7 @@
 package entity;
 
 import java.awt.Color;
+import java.nio.ByteBuffer;
 
 import engine.DrawManager.SpriteType;
 
@@ -12,6 +13,9 @@ import engine.DrawManager.SpriteType;
  */
 public abstract class Entity {
 
+	/** Every sprite, by ordinal. */
+	private static final SpriteType[] SPRITE_TYPES = SpriteType.values();
+
 	/** Position in the x-axis of the upper left corner of the entity. */
 	protected int positionX;
 	/** Position in the y-axis of the upper left corner of the entity. */
@@ -137,5 +141,60 @@ public abstract class Entity {
 		return this.height;
 	}
 
+	/**
+	 * Writes the position, sprite and color of the entity.
+	 *
+	 * @param buffer
+	 *            Buffer to write to.
+	 */
+	protected final void writeEntityState(final ByteBuffer buffer) {
+		buffer.putInt(this.positionX);
+		buffer.putInt(this.positionY);
+		writeSprite(buffer, this.spriteType);
+		buffer.putInt(this.color == null ? 0 : this.color.getRGB());
+	}
+
+	/**
+	 * Restores the state written by writeEntityState().
+	 *
+	 * @param buffer
+	 *            Buffer to read from.
+	 */
+	protected final void readEntityState(final ByteBuffer buffer) {
+		this.positionX = buffer.getInt();
+		this.positionY = buffer.getInt();
+		this.spriteType = readSprite(buffer);
+		int rgb = buffer.getInt();
+		// Kept when unchanged, some colors are compared by identity.
+		if (this.color == null || this.color.getRGB() != rgb)
+			this.color = rgb == Color.MAGENTA.getRGB() ? Color.MAGENTA
+					: new Color(rgb, true);
+	}
+
+	/**
+	 * Writes a sprite.
+	 *
+	 * @param buffer
+	 *            Buffer to write to.
+	 * @param spriteType
+	 *            Sprite to write, or null.
+	 */
+	protected static void writeSprite(final ByteBuffer buffer,
+			final SpriteType spriteType) {
+		buffer.put((byte) (spriteType == null ? -1 : spriteType.ordinal()));
+	}
+
+	/**
+	 * Reads a sprite written by writeSprite().
+	 *
+	 * @param buffer
+	 *            Buffer to read from.
+	 * @return Sprite read, or null.
+	 */
+	protected static SpriteType readSprite(final ByteBuffer buffer) {
+		byte ordinal = buffer.get();
+		return ordinal < 0 ? null : SPRITE_TYPES[ordinal];
+	}
+
 
 }
@@ -1,6 +1,7 @@
 package entity;
 
 import java.awt.Color;
+import java.nio.ByteBuffer;
 
 import engine.Cooldown;
 import engine.Core;
@@ -87,4 +88,28 @@ public class Obstacle extends Entity {
     public final boolean shouldBeRemoved() {
         return this.spriteType == null;  // Remove when spriteType is null after explosion
     }
+
+    /**
+    * Writes the state of the obstacle for a snapshot of the game.
+    *
+    * @param buffer Buffer to write to.
+    */
+    public final void writeState(final ByteBuffer buffer) {
+        writeEntityState(buffer);
+        buffer.put((byte) (this.isDestroyed ? 1 : 0));
+        this.movementCooldown.writeState(buffer);
+        Cooldown.writeOptional(buffer, this.explosionCooldown);
+    }
+
+    /**
+    * Restores the state written by writeState().
+    *
+    * @param buffer Buffer to read from.
+    */
+    public final void readState(final ByteBuffer buffer) {
+        readEntityState(buffer);
+        this.isDestroyed = buffer.get() != 0;
+        this.movementCooldown.readState(buffer);
+        this.explosionCooldown = Cooldown.readOptional(buffer, this.explosionCooldown);
+    }
 }
@@ -2,14 +2,12 @@ package entity;
 
 import java.awt.Color;
 import java.io.File;
-import java.util.Set;
+import java.nio.ByteBuffer;
 
-import Enemy.PiercingBullet;
 import engine.Cooldown;
 import engine.Core;
 import engine.DrawManager.SpriteType;
 import inventory_develop.Bomb;
-import Enemy.PiercingBulletPool;
 // Sound Operator
 import Sound_Operator.SoundManager;
 // Import PlayerGrowth class
@@ -96,7 +94,7 @@ public class Ship extends Entity {
 	 * You can set Number of enemies the bullet can pierce at here.
 	 */
 	//Edit by Enemy and Inventory
-	public final boolean shoot(final Set<PiercingBullet> bullets) {
+	public final boolean shoot(final BulletStore bullets) {
 
 		if (this.shootingCooldown.checkFinished()) {
 
@@ -106,8 +104,8 @@ public class Ship extends Entity {
 			sm = SoundManager.getInstance();
 			sm.playES("My_Gun_Shot");
 
-			// Use NumberOfBullet to generate bullets
-			Set<PiercingBullet> newBullets = numberOfBullet.addBullet(
+			// Use NumberOfBullet to add the bullets
+			numberOfBullet.addBullet(bullets,
 					positionX + this.width / 2,
 					positionY,
 					growth.getBulletSpeed(), // Use PlayerGrowth for bullet speed
@@ -117,9 +115,6 @@ public class Ship extends Entity {
 			// now can't shoot bomb
 			Bomb.setCanShoot(false);
 
-			// Add new bullets to the set
-			bullets.addAll(newBullets);
-
 			return true;
 		}
 		return false;
@@ -211,5 +206,31 @@ public class Ship extends Entity {
 		return growth;
 	}	// Team Inventory(Item)
 
+	/**
+	 * Writes the state of the ship and its growth for a snapshot of the game.
+	 *
+	 * @param buffer
+	 *            Buffer to write to.
+	 */
+	public final void writeState(final ByteBuffer buffer) {
+		writeEntityState(buffer);
+		this.shootingCooldown.writeState(buffer);
+		this.destructionCooldown.writeState(buffer);
+		this.growth.writeState(buffer);
+	}
+
+	/**
+	 * Restores the state written by writeState().
+	 *
+	 * @param buffer
+	 *            Buffer to read from.
+	 */
+	public final void readState(final ByteBuffer buffer) {
+		readEntityState(buffer);
+		this.shootingCooldown.readState(buffer);
+		this.destructionCooldown.readState(buffer);
+		this.growth.readState(buffer);
+	}
+
 
 }
\ No newline at end of file
@@ -7,9 +7,7 @@ import entity.EnemyShip;
 import entity.EnemyShipFormation;
 import entity.Entity;
 import java.awt.Color;
-import java.util.HashSet;
-import java.util.List;
-import java.util.Set;
+import java.nio.ByteBuffer;
 import java.util.logging.Logger;
 import clove.ScoreManager; //CLOVE
 
@@ -28,60 +26,52 @@ public class Bomb{
 
     private static int totalPoint = 0; //CLOVE
 
-    private static Set<EnemyShip> DestroyedshipByBomb = new HashSet<>();    // for dicide next shooter
-
     public Bomb() {
     }
 
     // if EnemyShipFormation is not Circle
-    public static int[] destroyByBomb(List<List<EnemyShip>> enemyShips, EnemyShip destroyedShip, ItemManager itemManager, Logger logger) {
+    public static int[] destroyByBomb(EnemyShipFormation enemyShipFormation, EnemyShip destroyedShip, ItemManager itemManager, Logger logger) {
         int count = 0;   // number of destroyed enemy by Bomb
         int point = 0;  // point of destroyed enemy by Bomb
 
-        for (List<EnemyShip> column : enemyShips)
-            for (int i = 0; i < column.size(); i++) {
-                if (column.get(i).equals(destroyedShip)) {
-
-                    // middle
-                    DestroyedshipByBomb.add(column.get(i));
-                    if (column.get(i).getColor().equals(Color.MAGENTA)) { //add by team enemy
-                        itemManager.dropItem(column.get(i), 1, 1);
-                    }
-                    //point += column.get(i).getPointValue(); //CLOVE-duplicate calculation
-                    column.get(i).destroy();
-                    count++;
+        if (enemyShipFormation.getShip(destroyedShip.getX(), destroyedShip.getY()) == destroyedShip) {
 
-                    int columnIndex = enemyShips.indexOf(column);
-                    //Sound_Operator
-                    sm = SoundManager.getInstance();
-                    sm.playES("enemy_explosion");
-
-                    // Operate according to IndexRange
-                    for (int dx = -IndexRange; dx <= IndexRange; dx++) {
-                        for (int dy = -IndexRange; dy <= IndexRange; dy++) {
-                            if (dx == 0 && dy == 0) continue;
-
-                            int newColumnIndex = columnIndex + dx;
-                            int newRowIndex = i + dy;
-
-                            if (newColumnIndex >= 0 && newColumnIndex < enemyShips.size()) {
-                                List<EnemyShip> targetColumn = enemyShips.get(newColumnIndex);
-                                if (newRowIndex >= 0 && newRowIndex < targetColumn.size() && inposition(column, targetColumn, i, newRowIndex, PositionRange)) {
-                                    EnemyShip targetShip = targetColumn.get(newRowIndex);
-                                    DestroyedshipByBomb.add(targetShip);
-                                    if (targetShip.getColor().equals(Color.MAGENTA)) { //add by team enemy
-                                        itemManager.dropItem(targetShip, 1, 1);
-                                    }
-//                                    point += targetShip.getPointValue();
-                                    targetShip.destroy();
-                                    count++;
-                                    logger.info("Destroyed ship at (" + newColumnIndex + "," + newRowIndex + ")");
-                                }
-                            }
+            // middle
+            if (destroyedShip.getColor().equals(Color.MAGENTA)) { //add by team enemy
+                itemManager.dropItem(destroyedShip, 1, 1);
+            }
+            //point += destroyedShip.getPointValue(); //CLOVE-duplicate calculation
+            destroyedShip.destroy();
+            enemyShipFormation.markDestroyed(destroyedShip);
+            count++;
+
+            //Sound_Operator
+            sm = SoundManager.getInstance();
+            sm.playES("enemy_explosion");
+
+            // Operate according to IndexRange
+            for (int dx = -IndexRange; dx <= IndexRange; dx++) {
+                for (int dy = -IndexRange; dy <= IndexRange; dy++) {
+                    if (dx == 0 && dy == 0) continue;
+
+                    int newColumnIndex = destroyedShip.getX() + dx;
+                    int newRowIndex = destroyedShip.getY() + dy;
+                    EnemyShip targetShip = enemyShipFormation.getShip(newColumnIndex, newRowIndex);
+
+                    if (targetShip != null && !targetShip.isDestroyed()
+                            && inposition(destroyedShip, targetShip, PositionRange)) {
+                        if (targetShip.getColor().equals(Color.MAGENTA)) { //add by team enemy
+                            itemManager.dropItem(targetShip, 1, 1);
                         }
+//                        point += targetShip.getPointValue();
+                        targetShip.destroy();
+                        enemyShipFormation.markDestroyed(targetShip);
+                        count++;
+                        logger.info("Destroyed ship at (" + newColumnIndex + "," + newRowIndex + ")");
                     }
                 }
             }
+        }
 
         isBombExploded = true; //CLOVE
         totalPoint += point; //CLOVE
@@ -93,42 +83,29 @@ public class Bomb{
     }
 
     // if EnemyShipFormation is Circle
-    public static int[] destroyByBomb_isCircle(List<List<EnemyShip>> enemyShips, EnemyShip destroyedShip, ItemManager itemManager, Logger logger) {
+    public static int[] destroyByBomb_isCircle(EnemyShipFormation enemyShipFormation, EnemyShip destroyedShip, ItemManager itemManager, Logger logger) {
         int count = 0;   // number of destroyed enemy by Bomb
         int point = 0;   // point of destroyed enemy by Bomb
 
-        for (List<EnemyShip> column : enemyShips)
-            for (int i = 0; i < column.size(); i++) {
-                if (column.get(i).equals(destroyedShip)) {
-
-                    DestroyedshipByBomb.add(column.get(i));
-                    //point += column.get(i).getPointValue(); //CLOVE-duplicate calculation
-                    column.get(i).destroy();
-                    count++;
+        if (enemyShipFormation.getShip(destroyedShip.getX(), destroyedShip.getY()) == destroyedShip) {
 
-                    int columnIndex = enemyShips.indexOf(column);
-
-                    for (List<EnemyShip> column2 : enemyShips)
-                        for (int j = 0; j < column.size(); j++) {
-
-                            int column2Index = enemyShips.indexOf(column2);
-                            double distance = Math.sqrt(Math.pow(columnIndex - column2Index, 2) + Math.pow(i - j, 2));
-                            System.out.println(distance);
-                            if (j >= 0 && j < column2.size() && inposition(column, column2, i, j, PositionRange_isCircle)) {
-                                int newColumnIndex = enemyShips.indexOf(column2);
-                                EnemyShip targetShip = column2.get(j);
-                                DestroyedshipByBomb.add(targetShip);
-                                if (targetShip.getColor().equals(Color.MAGENTA)) {
-                                    itemManager.dropItem(targetShip, 1, 1);
-                                }
-                                targetShip.destroy();
-                                count++;
-                                logger.info("Destroyed ship at (" + newColumnIndex + "," + j + ")");
-                            }
-                        }
+            //point += destroyedShip.getPointValue(); //CLOVE-duplicate calculation
+            destroyedShip.destroy();
+            enemyShipFormation.markDestroyed(destroyedShip);
+            count++;
 
+            for (EnemyShip targetShip : enemyShipFormation) {
+                if (!targetShip.isDestroyed() && inposition(destroyedShip, targetShip, PositionRange_isCircle)) {
+                    if (targetShip.getColor().equals(Color.MAGENTA)) {
+                        itemManager.dropItem(targetShip, 1, 1);
+                    }
+                    targetShip.destroy();
+                    enemyShipFormation.markDestroyed(targetShip);
+                    count++;
+                    logger.info("Destroyed ship at (" + targetShip.getX() + "," + targetShip.getY() + ")");
                 }
             }
+        }
 
         isBombExploded = true; //CLOVE
         totalPoint += point; //CLOVE
@@ -138,42 +115,22 @@ public class Bomb{
         return returnValue;
     }
 
-    public static void nextShooterByBomb(List<List<EnemyShip>> enemyShips, List<EnemyShip> shooters,
-                                          EnemyShipFormation enemyShipFormation, Logger logger) {
-
-        for (EnemyShip destroyedByBomb : DestroyedshipByBomb)
-
-            if (destroyedByBomb.isDestroyed()) {
-                if (shooters.contains(destroyedByBomb)) {
-                    int destroyedShipIndex = shooters.indexOf(destroyedByBomb);
-                    int destroyedShipColumnIndex = -1;
-
-                    for (List<EnemyShip> column : enemyShips)
-                        if (column.contains(destroyedByBomb)) {
-                            destroyedShipColumnIndex = enemyShips.indexOf(column);
-                            break;
-                        }
-
-                    EnemyShip nextShooter = enemyShipFormation.getNextShooter(enemyShips
-                            .get(destroyedShipColumnIndex));
-
-                    if (nextShooter != null)
-                        shooters.set(destroyedShipIndex, nextShooter);
-                    else {
-                        shooters.remove(destroyedShipIndex);
-                        logger.info("Shooters list reduced to "
-                                + shooters.size() + " members.");
-                    }
-                }
-            }
-    }
-
     public static int getTotalPoint() { return totalPoint; }
 
     public static boolean isBombExploded() { return isBombExploded; }
 
     public static void resetBombExploded() { isBombExploded = false;}
 
+    /**
+     * Puts the bomb back to how a new game starts, with no bomb held.
+     */
+    public static void reset() {
+        IsBomb = false;
+        CanShoot = false;
+        isBombExploded = false;
+        totalPoint = 0;
+    }
+
     public static boolean getIsBomb() {
         return IsBomb;
     }
@@ -190,13 +147,37 @@ public class Bomb{
         CanShoot = canshoot;
     }
 
+    /**
+     * Writes the state of the bomb, shared by the whole game, for a snapshot
+     * of the game.
+     *
+     * @param buffer Buffer to write to.
+     */
+    public static void writeState(ByteBuffer buffer) {
+        buffer.put((byte) ((IsBomb ? 1 : 0) | (CanShoot ? 2 : 0) | (isBombExploded ? 4 : 0)));
+        buffer.putInt(totalPoint);
+    }
+
+    /**
+     * Restores the state written by writeState().
+     *
+     * @param buffer Buffer to read from.
+     */
+    public static void readState(ByteBuffer buffer) {
+        byte flags = buffer.get();
+        IsBomb = (flags & 1) != 0;
+        CanShoot = (flags & 2) != 0;
+        isBombExploded = (flags & 4) != 0;
+        totalPoint = buffer.getInt();
+    }
+
     public final void setSpeed(final int BoobSpeed) {this.BombSpeed = BoobSpeed;}
 
     public final int getSpeed() {return this.BombSpeed;}
 
-    public static boolean inposition(List<EnemyShip> column, List<EnemyShip> nextcolumn, int pos, int nextpos, int range){
-        int distanceY = column.get(pos).getPositionY() - nextcolumn.get(nextpos).getPositionY();
-        int distanceX = column.get(pos).getPositionX() - nextcolumn.get(nextpos).getPositionX();
+    public static boolean inposition(Entity ship, Entity nextship, int range){
+        int distanceY = ship.getPositionY() - nextship.getPositionY();
+        int distanceX = ship.getPositionX() - nextship.getPositionX();
 
         boolean result = Math.pow(distanceX, 2) + Math.pow(distanceY, 2) <= Math.pow(range, 2);
         
@@ -2,14 +2,17 @@ package inventory_develop;
 
 import Sound_Operator.SoundManager;
 import engine.Core;
+import engine.TickScheduler;
 
+import java.nio.ByteBuffer;
 import java.util.logging.Logger;
 
 
 public class FeverTimeItem {
 
     private static final long FEVER_DURATION = 5000; // 5 second
-    private long startTime;
+    /** Scheduled end of the fever time, TickScheduler.NONE when inactive */
+    private int expiry = TickScheduler.NONE;
     private boolean isActive;
     protected Logger logger = Core.getLogger();
     //Sound Operator
@@ -23,7 +26,10 @@ public class FeverTimeItem {
     // Activate fever time item
     public void activate() {
         this.isActive = true;
-        this.startTime = System.currentTimeMillis();
+        // Another item restarts the fever time instead of adding to it
+        TickScheduler scheduler = Core.getTickScheduler();
+        scheduler.cancel(this.expiry);
+        this.expiry = scheduler.schedule(TickScheduler.ticksFor(FEVER_DURATION), this::deactivate);
         //Sound Operator
         sm = SoundManager.getInstance();
         sm.playES("fever_time");
@@ -32,22 +38,36 @@ public class FeverTimeItem {
 
     }
 
-    // Check whether fever time has ended every frame
-    public void update() {
-        if (isActive) {
-            long currentTime = System.currentTimeMillis();
-            if (currentTime - startTime > FEVER_DURATION) {
-                deactivate(); // 5초 지나면 비활성화
-            }
-        }
-    }
-
     // Fever time ends
     private void deactivate() {
         this.isActive = false;
+        this.expiry = TickScheduler.NONE;
         logger.info("Fever Time effect ends");
     }
 
+    /**
+     * Writes the fever time and the ticks it has left for a snapshot of the game.
+     *
+     * @param buffer Buffer to write to.
+     */
+    public void writeState(ByteBuffer buffer) {
+        buffer.put((byte) (this.isActive ? 1 : 0));
+        buffer.putInt(Core.getTickScheduler().ticksUntil(this.expiry));
+    }
+
+    /**
+     * Restores the fever time written by writeState().
+     *
+     * @param buffer Buffer to read from.
+     */
+    public void readState(ByteBuffer buffer) {
+        this.isActive = buffer.get() != 0;
+        int remaining = buffer.getInt();
+        TickScheduler scheduler = Core.getTickScheduler();
+        scheduler.cancel(this.expiry);
+        this.expiry = this.isActive ? scheduler.schedule(remaining, this::deactivate) : TickScheduler.NONE;
+    }
+
     // Check if Fevertime is currently enabled
     public boolean isActive() {
         return isActive;
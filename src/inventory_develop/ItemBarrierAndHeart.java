@@ -1,10 +1,12 @@
 package inventory_develop;
 import engine.Core;
+import engine.TickScheduler;
 import engine.DrawManager;
 import screen.GameScreen;
 import entity.Ship;
 import Enemy.PlayerGrowth;
 
+import java.nio.ByteBuffer;
 import java.util.logging.Logger;
 
 public class ItemBarrierAndHeart {
@@ -13,7 +15,8 @@ public class ItemBarrierAndHeart {
     private static final int MAX_LIVES = 3;
 
     private boolean barrierActive = false;
-    private long barrierActivationTime;
+    /** Scheduled end of the barrier, TickScheduler.NONE when inactive */
+    private int barrierExpiry = TickScheduler.NONE;
     protected Logger logger = Core.getLogger();
 
     public ItemBarrierAndHeart() {
@@ -23,13 +26,8 @@ public class ItemBarrierAndHeart {
     public void updateBarrierAndShip(Ship ship) {
         if (this.barrierActive) {
             ship.setSpriteType(DrawManager.SpriteType.ShipBarrierStatus);
-
-            long currentTime = System.currentTimeMillis();
-
-            if (currentTime - this.barrierActivationTime >= barrier_DURATION) {
-                ship.setSpriteType(DrawManager.SpriteType.Ship);
-                deactivatebarrier();    // deactive barrier
-            }
+        } else if (ship.getSpriteType() == DrawManager.SpriteType.ShipBarrierStatus) {
+            ship.setSpriteType(DrawManager.SpriteType.Ship);    // barrier just ended
         } else {    // When barrier is not active, call the ship's update()
             ship.update();
         }
@@ -37,14 +35,41 @@ public class ItemBarrierAndHeart {
 
     public void activatebarrier() {
         this.barrierActive = true;
-        this.barrierActivationTime = System.currentTimeMillis();
+        TickScheduler scheduler = Core.getTickScheduler();
+        scheduler.cancel(this.barrierExpiry);
+        this.barrierExpiry = scheduler.schedule(TickScheduler.ticksFor(barrier_DURATION), this::deactivatebarrier);
     }
 
     public void deactivatebarrier() {
         this.barrierActive = false;
+        Core.getTickScheduler().cancel(this.barrierExpiry);
+        this.barrierExpiry = TickScheduler.NONE;
         this.logger.info("barrier effect ends");
     }
 
+    /**
+     * Writes the barrier and the ticks it has left for a snapshot of the game.
+     *
+     * @param buffer Buffer to write to.
+     */
+    public void writeState(ByteBuffer buffer) {
+        buffer.put((byte) (this.barrierActive ? 1 : 0));
+        buffer.putInt(Core.getTickScheduler().ticksUntil(this.barrierExpiry));
+    }
+
+    /**
+     * Restores the barrier written by writeState().
+     *
+     * @param buffer Buffer to read from.
+     */
+    public void readState(ByteBuffer buffer) {
+        this.barrierActive = buffer.get() != 0;
+        int remaining = buffer.getInt();
+        TickScheduler scheduler = Core.getTickScheduler();
+        scheduler.cancel(this.barrierExpiry);
+        this.barrierExpiry = this.barrierActive ? scheduler.schedule(remaining, this::deactivatebarrier) : TickScheduler.NONE;
+    }
+
     public boolean isbarrierActive() {
         return barrierActive;
     }
@@ -1,12 +1,11 @@
 package inventory_develop;
 
-import Enemy.PiercingBullet;
-import Enemy.PiercingBulletPool;
+import CtrlS.UpgradeManager;
 import engine.Core;
+import entity.BulletStore;
 
 import java.io.IOException;
-import java.util.HashSet;
-import java.util.Set;
+import java.nio.ByteBuffer;
 
 /**
  * TwoBulletPool extends BulletPool to manage firing two bullets at once.
@@ -21,14 +20,29 @@ public class NumberOfBullet{
     private static int bulletLevel = 1;
     /** PiercingBullet levles */
     private static int piercingbulletLevel = 1;
+    /** If the bullet level follows the upgrades bought */
+    private static boolean listeningUpgrades = false;
     private final int PierceMax = 3;
 
     /**
      * Constructor
      */
     public NumberOfBullet() {
+        applyUpgrades(Core.getUpgradeManager());
+        if (!listeningUpgrades) {
+            Core.getUpgradeManager().addUpgradeChangedCallback(NumberOfBullet::applyUpgrades);
+            listeningUpgrades = true;
+        }
+    }
+
+    /**
+     * Sets the bullet level bought in the merchant.
+     *
+     * @param upgradeManager Upgrades of the player.
+     */
+    private static void applyUpgrades(UpgradeManager upgradeManager) {
         try {
-            bulletLevel = Core.getUpgradeManager().getBulletNum();
+            bulletLevel = upgradeManager.getBulletNum();
             if (bulletLevel > 3){
                 bulletLevel = 3;
             }
@@ -38,34 +52,36 @@ public class NumberOfBullet{
     }
 
     /**
+     * Adds the bullets of one shot, as many as the bullet level allows.
      *
-     * @return
+     * @param bullets Bullets on screen, to add the new ones.
+     * @param positionX Center of the shot in the X axis.
+     * @param positionY Position of the shot in the Y axis.
+     * @param speed Speed of the bullets.
+     * @param canShootBomb If the shot is a single bomb.
+     * @return Amount of bullets added.
      */
-    public Set<PiercingBullet> addBullet(int positionX, int positionY, int speed, boolean canShootBomb) {
-        Set<PiercingBullet> bullets = new HashSet<>();
-
+    public int addBullet(BulletStore bullets, int positionX, int positionY, int speed, boolean canShootBomb) {
         if (canShootBomb) {
-            bullets.add(PiercingBulletPool.getPiercingBullet(positionX, positionY, speed, 1));
-            return bullets;
+            bullets.add(positionX, positionY, speed, 1);
+            return 1;
         }
 
         switch (bulletLevel) {
             case 1:
-                bullets.add(PiercingBulletPool.getPiercingBullet(positionX, positionY, speed, piercingbulletLevel));
-                break;
+                bullets.add(positionX, positionY, speed, piercingbulletLevel);
+                return 1;
             case 2:
-                bullets.add(PiercingBulletPool.getPiercingBullet(positionX - OFFSET_X_TWOBULLETS + 5, positionY, speed, piercingbulletLevel));
-                bullets.add(PiercingBulletPool.getPiercingBullet(positionX + OFFSET_X_TWOBULLETS - 5, positionY, speed, piercingbulletLevel));
-                break;
+                bullets.add(positionX - OFFSET_X_TWOBULLETS + 5, positionY, speed, piercingbulletLevel);
+                bullets.add(positionX + OFFSET_X_TWOBULLETS - 5, positionY, speed, piercingbulletLevel);
+                return 2;
             case 3:
-                bullets.add(PiercingBulletPool.getPiercingBullet(positionX + OFFSET_X_THREEBULLETS, positionY, speed, piercingbulletLevel));
-                bullets.add(PiercingBulletPool.getPiercingBullet(positionX, positionY, speed,piercingbulletLevel));
-                bullets.add(PiercingBulletPool.getPiercingBullet(positionX - OFFSET_X_THREEBULLETS, positionY, speed, piercingbulletLevel));
-                break;
+                bullets.add(positionX + OFFSET_X_THREEBULLETS, positionY, speed, piercingbulletLevel);
+                bullets.add(positionX, positionY, speed,piercingbulletLevel);
+                bullets.add(positionX - OFFSET_X_THREEBULLETS, positionY, speed, piercingbulletLevel);
+                return 3;
         }
-
-        return bullets;
-
+        return 0;
     }
 
     public void pierceup() {
@@ -74,6 +90,34 @@ public class NumberOfBullet{
         }
     }
 
+    /**
+     * Writes the bullet levels, shared by every ship, for a snapshot of the game.
+     *
+     * @param buffer Buffer to write to.
+     */
+    public static void writeState(ByteBuffer buffer) {
+        buffer.putInt(bulletLevel);
+        buffer.putInt(piercingbulletLevel);
+    }
+
+    /**
+     * Restores the bullet levels written by writeState().
+     *
+     * @param buffer Buffer to read from.
+     */
+    public static void readState(ByteBuffer buffer) {
+        bulletLevel = buffer.getInt();
+        piercingbulletLevel = buffer.getInt();
+    }
+
+    /**
+     * Puts the bullet levels back to the ones a new game starts with.
+     */
+    public static void reset() {
+        applyUpgrades(Core.getUpgradeManager());
+        piercingbulletLevel = 1;
+    }
+
     public void ResetPierceLevel(){
         piercingbulletLevel = 1;
     }
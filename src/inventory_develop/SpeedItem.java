@@ -1,7 +1,10 @@
 package inventory_develop;
 
+import engine.Core;
+import engine.TickScheduler;
 import entity.EnemyShip;
 
+import java.nio.ByteBuffer;
 import java.util.Set;
 
 public class SpeedItem {
@@ -9,7 +12,8 @@ public class SpeedItem {
     private boolean isSpeedUp;     // true - SpeedUp / false - SpeedDown
     private boolean isActive;
 
-    private long startTime;
+    /** Scheduled end of the effect, TickScheduler.NONE when inactive */
+    private int expiry = TickScheduler.NONE;
     private long effectDuration = 10000;
     private double increaseSpeedMultiplier = 3.0;
     private double decreaseSpeedMultiplier = 0.25;
@@ -24,8 +28,10 @@ public class SpeedItem {
     public void activate(boolean isSpeedUp, Set<EnemyShip> enemyShips) {
         this.isActive = true;
         this.isSpeedUp = isSpeedUp;
-        this.startTime = System.currentTimeMillis();
         this.enemyShips = enemyShips;
+        TickScheduler scheduler = Core.getTickScheduler();
+        scheduler.cancel(this.expiry);
+        this.expiry = scheduler.schedule(TickScheduler.ticksFor(effectDuration), this::deActivate);
 
         for (EnemyShip enemyShip : this.enemyShips) {
             if (this.isSpeedUp) {
@@ -37,19 +43,40 @@ public class SpeedItem {
         }
     }
 
+    /**
+     * Writes the effect and the ticks it has left for a snapshot of the game.
+     *
+     * @param buffer Buffer to write to.
+     */
+    public void writeState(ByteBuffer buffer) {
+        buffer.put((byte) ((this.isActive ? 1 : 0) | (this.isSpeedUp ? 2 : 0)));
+        buffer.putInt(Core.getTickScheduler().ticksUntil(this.expiry));
+    }
+
+    /**
+     * Restores the effect written by writeState(). The speed of each ship is
+     * restored with the ships.
+     *
+     * @param buffer     Buffer to read from.
+     * @param enemyShips Ships the effect applies to.
+     */
+    public void readState(ByteBuffer buffer, Set<EnemyShip> enemyShips) {
+        byte flags = buffer.get();
+        int remaining = buffer.getInt();
+        this.isActive = (flags & 1) != 0;
+        this.isSpeedUp = (flags & 2) != 0;
+        this.enemyShips = enemyShips;
+        TickScheduler scheduler = Core.getTickScheduler();
+        scheduler.cancel(this.expiry);
+        this.expiry = this.isActive ? scheduler.schedule(remaining, this::deActivate) : TickScheduler.NONE;
+    }
+
     public void deActivate() {
         this.isActive = false;
+        Core.getTickScheduler().cancel(this.expiry);
+        this.expiry = TickScheduler.NONE;
         for (EnemyShip enemyShip : this.enemyShips) {
             enemyShip.resetSpeedMultiplier();
         }
     }
-
-    public void update() {
-        if (isActive) {
-            long currentTime = System.currentTimeMillis();
-            if (currentTime - startTime > effectDuration) { // 5 seconds
-                deActivate();
-            }
-        }
-    }
 }
\ No newline at end of file
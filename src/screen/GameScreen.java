@@ -5,6 +5,7 @@ import java.awt.event.KeyEvent;
 import java.util.*;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 
 import CtrlS.RoundState;
 import clove.AchievementConditions;
@@ -13,8 +14,8 @@ import Enemy.*;
 import HUDTeam.DrawAchievementHud;
 import HUDTeam.DrawManagerImpl;
 import engine.*;
-import entity.Bullet;
 import entity.BulletPool;
+import entity.BulletStore;
 import entity.EnemyShip;
 import entity.EnemyShipFormation;
 import entity.Entity;
@@ -50,6 +51,14 @@ public class GameScreen extends Screen {
 	private static final int SCREEN_CHANGE_INTERVAL = 1500;
 	/** Height of the interface separation line. */
 	private static final int SEPARATION_LINE_HEIGHT = 40;
+	/** Side of the cells used to find collision candidates, in pixels. */
+	private static final int COLLISION_CELL_SIZE = 48;
+	/** Key that shows or hides the frame time overlay. */
+	private static final int PROFILER_KEY = KeyEvent.VK_F3;
+	/** Seconds of play the game can be rewound. */
+	private static final int REWIND_SECONDS = 5;
+	/** Ticks between two keyframes of the rewind ring. */
+	private static final int KEYFRAME_TICKS = TickScheduler.ticksFor(1000);
 
 	/** Current game difficulty settings. */
 	private GameSettings gameSettings;
@@ -68,8 +77,10 @@ public class GameScreen extends Screen {
 	private Cooldown enemyShipSpecialExplosionCooldown;
 	/** Time from finishing the level to screen change. */
 	private Cooldown screenFinishedCooldown;
-	/** Set of all bullets fired by on screen ships. */
-	public Set<PiercingBullet> bullets; //by Enemy team
+	/** All bullets fired by on screen ships. */
+	public BulletStore bullets; //by Enemy team
+	/** Enemy ships and obstacles bullets can hit, rebuilt every tick. */
+	private SpatialGrid<Entity> collisionGrid;
 	/** Add an itemManager Instance */
 	public static ItemManager itemManager; //by Enemy team
 	/** Shield item */
@@ -145,11 +156,23 @@ public class GameScreen extends Screen {
 
 	private Statistics statistics; //Team Clove
 	private AchievementConditions achievementConditions;
-	private int fastKill;
+	/** Score last reported to the achievements. */
+	private int reportedScore;
 
 	/** CtrlS: Count the number of coin collected in game */
 	private int coinItemsCollected;
 
+	/** Times each phase of the tick. */
+	private FrameProfiler frameProfiler;
+	/** If the profiler key was down on the last tick. */
+	private boolean profilerKeyDown;
+	/** Runs the deferred actions of the game, chain explosions and item expiries. */
+	private TickScheduler tickScheduler;
+	/** Random numbers of the game, seeded when it started. */
+	private GameRandom random;
+	/** Keyframes of the last seconds of play, one per second. */
+	private SnapshotRing rewindRing;
+
 	/**
 	 * Constructor, establishes the properties of the screen.
 	 *
@@ -203,8 +226,14 @@ public class GameScreen extends Screen {
 		this.playTime = gameState.getTime();
 		this.scoreManager = gameState.scoreManager; //Team Clove
 		this.statistics = new Statistics(); //Team Clove
-		this.achievementConditions = new AchievementConditions();
+		this.achievementConditions = AchievementConditions.getInstance();
 		this.coinItemsCollected = gameState.getCoinItemsCollected(); // CtrlS
+		this.frameProfiler = Core.getFrameProfiler();
+		// Actions left by the previous screen belong to its ships and items.
+		this.tickScheduler = Core.getTickScheduler();
+		this.tickScheduler.clear();
+		this.random = Core.getGameRandom();
+		this.rewindRing = new SnapshotRing(REWIND_SECONDS);
 	}
 
 	/**
@@ -239,12 +268,15 @@ public class GameScreen extends Screen {
 		this.enemyShipSpecialExplosionCooldown = Core
 				.getCooldown(BONUS_SHIP_EXPLOSION);
 		this.screenFinishedCooldown = Core.getCooldown(SCREEN_CHANGE_INTERVAL);
-		this.bullets = new HashSet<PiercingBullet>(); // Edited by Enemy
+		// Bullets are ready for the busiest moments of the level before it starts.
+		this.bullets = new BulletStore(this.gameSettings.getBulletPoolSize()); // Edited by Enemy
+		PiercingBulletPool.setCapacity(this.gameSettings.getBulletPoolSize());
+		BulletPool.setCapacity(this.gameSettings.getBulletPoolSize());
 
-		this.startTime = System.currentTimeMillis();    //clove
+		this.startTime = GameClock.currentTimeMillis();    //clove
 
 		// Special input delay / countdown.
-		this.gameStartTime = System.currentTimeMillis();
+		this.gameStartTime = GameClock.currentTimeMillis();
 		this.inputDelay = Core.getCooldown(INPUT_DELAY);
 		this.inputDelay.reset();
 
@@ -278,13 +310,23 @@ public class GameScreen extends Screen {
 	protected void update() {
 		super.update();
 
+		boolean profilerKey = inputManager.isKeyDown(PROFILER_KEY);
+		if (profilerKey && !this.profilerKeyDown)
+			this.frameProfiler.toggleOverlay();
+		this.profilerKeyDown = profilerKey;
+
+		if (this.tickScheduler.getTick() % KEYFRAME_TICKS == 0)
+			this.rewindRing.capture(this, this.tickScheduler.getTick());
+		this.tickScheduler.tick();
+
+		long phaseStart = this.frameProfiler.start();
 		if (this.inputDelay.checkFinished() && !this.levelFinished) {
 			// --- OBSTACLES
 			if (this.obstacleSpawnCooldown.checkFinished()) {
 				// Adjust spawn amount based on the level
 				int spawnAmount = Math.min(level, 3); // Spawn up to 3 obstacles at higher levels
 				for (int i = 0; i < spawnAmount; i++) {
-					int randomX = new Random().nextInt(this.width - 30);
+					int randomX = this.random.nextInt(GameRandom.Stream.OBSTACLES, this.width - 30);
 					obstacles.add(new Obstacle(randomX, 50)); // Start each at the top of the screen
 				}
 				this.obstacleSpawnCooldown.reset();
@@ -299,6 +341,8 @@ public class GameScreen extends Screen {
 				}
 			}
 			this.obstacles.removeAll(obstaclesToRemove);
+			phaseStart = this.frameProfiler.record(FrameProfiler.Phase.OBSTACLES,
+					phaseStart);
 
 			if (!this.ship.isDestroyed()) {
 
@@ -327,6 +371,8 @@ public class GameScreen extends Screen {
 						this.logger.info("Bullet's fire_id is " + fire_id);
 					}
 			}
+			phaseStart = this.frameProfiler.record(FrameProfiler.Phase.INPUT,
+					phaseStart);
 
 			if (this.enemyShipSpecial != null) {
 				if (!this.enemyShipSpecial.isDestroyed())
@@ -351,16 +397,25 @@ public class GameScreen extends Screen {
 			}
 
 			this.item.updateBarrierAndShip(this.ship);   // team Inventory
-			this.speedItem.update();         // team Inventory
-			this.feverTimeItem.update();
 			this.enemyShipFormation.update();
 			this.enemyShipFormation.shoot(this.bullets);
+			phaseStart = this.frameProfiler.record(
+					FrameProfiler.Phase.FORMATION, phaseStart);
 		}
 		//manageCollisions();
+		int shipsDestroyedBefore = this.shipsDestroyed;
 		manageCollisions_add_item(); //by Enemy team
+		this.achievementConditions.onKill(this.shipsDestroyed - shipsDestroyedBefore);
+		if (this.score != this.reportedScore) {
+			this.reportedScore = this.score;
+			this.achievementConditions.score(this.score);
+		}
+		phaseStart = this.frameProfiler.record(FrameProfiler.Phase.COLLISIONS,
+				phaseStart);
 		cleanBullets();
 		cleanObstacles();
 		this.itemManager.cleanItems(); //by Enemy team
+		this.frameProfiler.record(FrameProfiler.Phase.CLEANUP, phaseStart);
 
 		if (player2 != null) {
 			// Player 2 movement and shooting
@@ -384,7 +439,14 @@ public class GameScreen extends Screen {
 			TwoPlayerMode.handleObstacleCollisionsForPlayer2(this.obstacles, player2);
 			TwoPlayerMode.handleItemCollisionsForPlayer2(player2);
 		}
-		draw();
+		// Soomin Lee / TeamHUD
+		if (this.inputDelay.checkFinished()) {
+			playTime = (int) ((GameClock.currentTimeMillis() - playStartTime) / 1000) + playTimePre;
+		}
+
+		if (isRenderTick())
+			draw();
+		this.frameProfiler.endTick();
 
 		/**
 		* Added by the Level Design team and edit by team Enemy
@@ -424,12 +486,7 @@ public class GameScreen extends Screen {
 				statistics.addBulletShot(bulletsShot);
 				statistics.addShipsDestroyed(shipsDestroyed);
 
-				achievementConditions.onKill();
 				achievementConditions.onStage();
-				achievementConditions.trials();
-				achievementConditions.killStreak();
-				achievementConditions.fastKill(fastKill);
-				achievementConditions.score(score);
 
             } catch (IOException e) {
                 throw new RuntimeException(e);
@@ -443,6 +500,7 @@ public class GameScreen extends Screen {
 	 * Draws the elements associated with the screen.
 	 */
 	public void draw() {
+		long drawStart = this.frameProfiler.start();
 		drawManager.initDrawing(this);
 
 		/** ### TEAM INTERNATIONAL ### */
@@ -469,9 +527,9 @@ public class GameScreen extends Screen {
 		DrawManagerImpl.drawSeparatorLine(this,  this.height-65); // Ko jesung / HUD team
 
 
-		for (PiercingBullet bullet : this.bullets)
-			drawManager.drawEntity(bullet, bullet.getPositionX(),
-					bullet.getPositionY());
+		for (int i = 0; i < this.bullets.size(); i++)
+			drawManager.drawEntity(this.bullets.get(i),
+					this.bullets.getPositionX(i), this.bullets.getPositionY(i));
 
 		this.itemManager.drawItems(); //by Enemy team
 
@@ -509,7 +567,7 @@ public class GameScreen extends Screen {
 		// Countdown to game start.
 		if (!this.inputDelay.checkFinished()) {
 			int countdown = (int) ((INPUT_DELAY
-			- (System.currentTimeMillis()
+			- (GameClock.currentTimeMillis()
 			- this.gameStartTime)) / 1000);
 
 			/**
@@ -530,32 +588,51 @@ public class GameScreen extends Screen {
 					/ 12);
 		}
 
-		// Soomin Lee / TeamHUD
-		if (this.inputDelay.checkFinished()) {
-			playTime = (int) ((System.currentTimeMillis() - playStartTime) / 1000) + playTimePre;
-		}
-
 		super.drawPost();
+		if (this.frameProfiler.isOverlayVisible())
+			drawProfilerOverlay();
+		long presentStart = this.frameProfiler.record(FrameProfiler.Phase.DRAW,
+				drawStart);
 		drawManager.completeDrawing(this);
+		this.frameProfiler.record(FrameProfiler.Phase.PRESENT, presentStart);
+	}
+
+	/**
+	 * Draws the frame time of each phase, with the amount of entities alive
+	 * and waiting in the pools.
+	 */
+	private void drawProfilerOverlay() {
+		int enemyBullets = 0;
+		for (int i = 0; i < this.bullets.size(); i++)
+			if (this.bullets.getOwner(i) == BulletStore.OWNER_ENEMY)
+				enemyBullets++;
+		String[] counts = {
+				"Enemies: " + getRemainingEnemies(),
+				"Bullets: " + (this.bullets.size() - enemyBullets) + " / "
+						+ enemyBullets,
+				"Obstacles: " + this.obstacles.size(),
+				"Items: " + itemManager.items.size(),
+				"Store: " + this.bullets.getMetrics() + " of "
+						+ this.bullets.capacity(),
+				"Pierce pool: " + PiercingBulletPool.getMetrics(),
+				"Bullet pool: " + BulletPool.getMetrics(),
+				"Item pool: " + ItemPool.size() };
+		DrawManagerImpl.drawFrameProfiler(this, this.frameProfiler, counts);
 	}
 
 	/**
 	 * Cleans bullets that go off screen.
 	 */
 	private void cleanBullets() {
-		Set<PiercingBullet> recyclable = new HashSet<PiercingBullet>(); // Edited by Enemy
-		for (PiercingBullet bullet : this.bullets) { // Edited by Enemy
-			bullet.update();
-			if (bullet.getPositionY() < SEPARATION_LINE_HEIGHT
-					|| bullet.getPositionY() > this.height-70) // ko jesung / HUD team
-                {
-				//Ctrl-S : set true of CheckCount if the bullet is planned to recycle.
-				bullet.setCheckCount(true);
-				recyclable.add(bullet);
-			}
+		this.bullets.update(); // Edited by Enemy
+		for (int i = 0; i < this.bullets.size(); ) {
+			int positionY = this.bullets.getPositionY(i);
+			if (positionY < SEPARATION_LINE_HEIGHT
+					|| positionY > this.height-70) // ko jesung / HUD team
+				this.bullets.remove(i);
+			else
+				i++;
 		}
-		this.bullets.removeAll(recyclable);
-		PiercingBulletPool.recycle(recyclable); // Edited by Enemy
 	}
 
 	/**
@@ -574,60 +651,34 @@ public class GameScreen extends Screen {
 	}
 
 	/**
-	 * Manages collisions between bullets and ships. -original code
+	 * Inserts the enemy ships and obstacles player bullets can hit into the
+	 * collision grid, so each bullet only checks the entities near it.
 	 */
-	private void manageCollisions() {
-		Set<Bullet> recyclable = new HashSet<Bullet>();
-		for (Bullet bullet : this.bullets)
-			if (bullet.getSpeed() > 0) {
-				if (checkCollision(bullet, this.ship) && !this.levelFinished) {
-					recyclable.add(bullet);
-					if (!this.ship.isDestroyed() && !this.item.isbarrierActive()) {	// team Inventory
-						this.ship.destroy();
-						this.lives--;
-						this.logger.info("Hit on player ship, " + this.lives
-								+ " lives remaining.");
-					}
-				}
-			} else {
-				for (EnemyShip enemyShip : this.enemyShipFormation)
-					if (!enemyShip.isDestroyed()
-							&& checkCollision(bullet, enemyShip)) {
-						this.scoreManager.addScore(enemyShip.getPointValue());    //clove
-						this.shipsDestroyed++;
-						// CtrlS - increase the hitCount for 1 kill
-						this.hitCount++;
-						this.enemyShipFormation.destroy(enemyShip);
-						recyclable.add(bullet);
-					}
-				if (this.enemyShipSpecial != null
-						&& !this.enemyShipSpecial.isDestroyed()
-						&& checkCollision(bullet, this.enemyShipSpecial)) {
-					this.scoreManager.addScore(this.enemyShipSpecial.getPointValue());    //clove
-					this.shipsDestroyed++;
-					// CtrlS - increase the hitCount for 1 kill
-					this.hitCount++;
-					this.enemyShipSpecial.destroy();
-					this.enemyShipSpecialExplosionCooldown.reset();
-					recyclable.add(bullet);
-				}
-			}
-		this.bullets.removeAll(recyclable);
-		BulletPool.recycle(recyclable);
+	private void fillCollisionGrid() {
+		if (this.collisionGrid == null)
+			this.collisionGrid = new SpatialGrid<Entity>(this.width,
+					this.height, COLLISION_CELL_SIZE);
+		this.collisionGrid.clear();
+		for (EnemyShip enemyShip : this.enemyShipFormation)
+			if (!enemyShip.isDestroyed())
+				this.collisionGrid.insert(enemyShip);
+		for (Obstacle obstacle : this.obstacles)
+			if (!obstacle.isDestroyed())
+				this.collisionGrid.insert(obstacle);
 	}
 
-
 	/**
 	 * Manages collisions between bullets and ships. -Edited code for Drop Item
 	 * Manages collisions between bullets and ships. -Edited code for Piercing Bullet
 	 */
 	//by Enemy team
 	public void manageCollisions_add_item() {
-		Set<PiercingBullet> recyclable = new HashSet<PiercingBullet>();
-		for (PiercingBullet bullet : this.bullets)
-			if (bullet.getSpeed() > 0) {
-				if (checkCollision(bullet, this.ship) && !this.levelFinished) {
-					recyclable.add(bullet);
+		fillCollisionGrid();
+		for (int b = 0; b < this.bullets.size(); ) {
+			boolean recycle = false;
+			if (this.bullets.getOwner(b) == BulletStore.OWNER_ENEMY) {
+				if (this.bullets.collides(b, this.ship) && !this.levelFinished) {
+					recycle = true;
 					if (!this.ship.isDestroyed() && !this.item.isbarrierActive()) {	// team Inventory
 						this.ship.destroy();
 						this.lives--;
@@ -643,11 +694,17 @@ public class GameScreen extends Screen {
 				}
 			} else {
 				// CtrlS - set fire_id of bullet.
-				bullet.setFire_id(fire_id);
-				for (EnemyShip enemyShip : this.enemyShipFormation) {
+				this.bullets.setFireId(b, fire_id);
+				int candidates = this.collisionGrid.query(
+						this.bullets.getPositionX(b), this.bullets.getPositionY(b),
+						BulletStore.WIDTH, BulletStore.HEIGHT);
+				for (int i = 0; i < candidates; i++) {
+					if (!(this.collisionGrid.get(i) instanceof EnemyShip))
+						continue;
+					EnemyShip enemyShip = (EnemyShip) this.collisionGrid.get(i);
 					if (!enemyShip.isDestroyed()
-							&& checkCollision(bullet, enemyShip)) {
-						int CntAndPnt[] = this.enemyShipFormation._destroy(bullet, enemyShip, false);    // team Inventory
+							&& this.bullets.collides(b, enemyShip)) {
+						int CntAndPnt[] = this.enemyShipFormation._destroy(this.bullets.get(b), enemyShip, false);    // team Inventory
 						this.shipsDestroyed += CntAndPnt[0];
 						int feverScore = CntAndPnt[0]; //TEAM CLOVE //Edited by team Enemy
 
@@ -663,49 +720,34 @@ public class GameScreen extends Screen {
             this.score += CntAndPnt[1];
 
 						// CtrlS - If collision occur then check the bullet can process
-						if (!processedFireBullet.contains(bullet.getFire_id())) {
+						if (!processedFireBullet.contains(this.bullets.getFireId(b))) {
 							// CtrlS - increase hitCount if the bullet can count
-							if (bullet.isCheckCount()) {
+							if (this.bullets.isCheckCount(b)) {
 								hitCount++;
-								bullet.setCheckCount(false);
+								this.bullets.setCheckCount(b, false);
 								this.logger.info("Hit count!");
-								processedFireBullet.add(bullet.getFire_id()); // mark this bullet_id is processed.
+								processedFireBullet.add(this.bullets.getFireId(b)); // mark this bullet_id is processed.
 							}
 						}
 
-						bullet.onCollision(enemyShip); // Handle bullet collision with enemy ship
-
-						// Check PiercingBullet piercing count and add to recyclable if necessary
-						if (bullet.getPiercingCount() <= 0) {
-							//Ctrl-S : set true of CheckCount if the bullet is planned to recycle.
-							bullet.setCheckCount(true);
-							recyclable.add(bullet);
-						}
-					}
-					// Added by team Enemy.
-					// Enemy killed by Explosive enemy gives points too
-					if (enemyShip.isChainExploded()) {
-						if (enemyShip.getColor() == Color.MAGENTA) {
-							this.itemManager.dropItem(enemyShip, 1, 1);
-						}
-						this.score += enemyShip.getPointValue();
-						this.shipsDestroyed++;
-						enemyShip.setChainExploded(false); // resets enemy's chain explosion state.
+						// Handle bullet collision with enemy ship, recycle it once it can't pierce anymore
+						if (this.bullets.pierce(b) <= 0)
+							recycle = true;
 					}
 				}
 				if (this.enemyShipSpecial != null
 						&& !this.enemyShipSpecial.isDestroyed()
-						&& checkCollision(bullet, this.enemyShipSpecial)) {
+						&& this.bullets.collides(b, this.enemyShipSpecial)) {
 					int feverSpecialScore = enemyShipSpecial.getPointValue();
           			// inventory - Score bonus when acquiring fever items
 					if (feverTimeItem.isActive()) { feverSpecialScore *= 10; } //TEAM CLOVE //Team inventory
 
 					// CtrlS - If collision occur then check the bullet can process
-					if (!processedFireBullet.contains(bullet.getFire_id())) {
+					if (!processedFireBullet.contains(this.bullets.getFireId(b))) {
 						// CtrlS - If collision occur then increase hitCount and checkCount
-						if (bullet.isCheckCount()) {
+						if (this.bullets.isCheckCount(b)) {
 							hitCount++;
-							bullet.setCheckCount(false);
+							this.bullets.setCheckCount(b, false);
 							this.logger.info("Hit count!");
 						}
 
@@ -715,23 +757,21 @@ public class GameScreen extends Screen {
 					this.enemyShipSpecial.destroy();
 					this.enemyShipSpecialExplosionCooldown.reset();
 
-					bullet.onCollision(this.enemyShipSpecial); // Handle bullet collision with special enemy
-
-					// Check PiercingBullet piercing count for special enemy and add to recyclable if necessary
-					if (bullet.getPiercingCount() <= 0) {
-						//Ctrl-S : set true of CheckCount if the bullet is planned to recycle.
-						bullet.setCheckCount(true);
-						recyclable.add(bullet);
-					}
+					// Handle bullet collision with special enemy, recycle it once it can't pierce anymore
+					if (this.bullets.pierce(b) <= 0)
+						recycle = true;
 
 					//// Drop item to 100%
 					this.itemManager.dropItem(enemyShipSpecial,1,2);
 				}
 
-				for (Obstacle obstacle : this.obstacles) {
-					if (!obstacle.isDestroyed() && checkCollision(bullet, obstacle)) {
+				for (int i = 0; i < candidates; i++) {
+					if (!(this.collisionGrid.get(i) instanceof Obstacle))
+						continue;
+					Obstacle obstacle = (Obstacle) this.collisionGrid.get(i);
+					if (!obstacle.isDestroyed() && this.bullets.collides(b, obstacle)) {
 						obstacle.destroy();  // Destroy obstacle
-						recyclable.add(bullet);  // Remove bullet
+						recycle = true;  // Remove bullet
 
 						// Sound Operator
 						sm = SoundManager.getInstance();
@@ -739,6 +779,25 @@ public class GameScreen extends Screen {
 					}
 				}
 			}
+			// The last bullet takes the place of a removed one, so the index is checked again.
+			if (recycle)
+				this.bullets.remove(b);
+			else
+				b++;
+		}
+
+		// Added by team Enemy.
+		// Enemy killed by Explosive enemy gives points too
+		for (EnemyShip enemyShip : this.enemyShipFormation) {
+			if (enemyShip.isChainExploded()) {
+				if (enemyShip.getColor() == Color.MAGENTA) {
+					this.itemManager.dropItem(enemyShip, 1, 1);
+				}
+				this.score += enemyShip.getPointValue();
+				this.shipsDestroyed++;
+				enemyShip.setChainExploded(false); // resets enemy's chain explosion state.
+			}
+		}
 
 		for (Obstacle obstacle : this.obstacles) {
 			if (!obstacle.isDestroyed() && checkCollision(this.ship, obstacle)) {
@@ -759,9 +818,6 @@ public class GameScreen extends Screen {
 			}
 		}
 
-		this.bullets.removeAll(recyclable);
-		PiercingBulletPool.recycle(recyclable);
-
 		//Check item and ship collision
 		for(Item item : itemManager.items){
 			if (checkCollision(item, ship)) {
@@ -806,6 +862,182 @@ public class GameScreen extends Screen {
 		return this.bulletsShot;    //clove
 	}                               //clove
 
+	@Override
+	public int stateChecksum() {
+		int checksum = this.level;
+		checksum = 31 * checksum + this.score;
+		checksum = 31 * checksum + this.lives;
+		checksum = 31 * checksum + this.livestwo;
+		checksum = 31 * checksum + this.bulletsShot;
+		checksum = 31 * checksum + this.shipsDestroyed;
+		checksum = 31 * checksum + this.coin;
+		checksum = 31 * checksum + this.hitCount;
+		checksum = 31 * checksum + this.ship.getPositionX();
+		checksum = 31 * checksum + this.ship.getPositionY();
+		checksum = 31 * checksum + this.enemyShipFormation.getShipCount();
+		checksum = 31 * checksum + this.obstacles.size();
+		for (int i = 0; i < this.bullets.size(); i++) {
+			checksum = 31 * checksum + this.bullets.getPositionX(i);
+			checksum = 31 * checksum + this.bullets.getPositionY(i);
+		}
+		return checksum;
+	}
+
+	/**
+	 * Writes the whole level as it is between two ticks: counters, ships,
+	 * formation, bullets, obstacles, falling items, active item effects,
+	 * score, cooldowns and random numbers. Times are written relative to
+	 * now, and actions still to come, such as chain explosions and item
+	 * expiries, as the ticks left until they run.
+	 *
+	 * @param buffer
+	 *            Buffer to write to.
+	 */
+	@Override
+	public void writeState(final ByteBuffer buffer) {
+		long now = GameClock.currentTimeMillis();
+		buffer.putInt(this.level);
+		buffer.putInt(this.waveCounter);
+		buffer.putInt(this.score);
+		buffer.putInt(this.lives);
+		buffer.putInt(this.livestwo);
+		buffer.putInt(this.bulletsShot);
+		buffer.putInt(this.shipsDestroyed);
+		buffer.putInt(this.coin);
+		buffer.putInt(this.gem);
+		buffer.putInt(this.hitCount);
+		buffer.putInt(this.fire_id);
+		buffer.putInt(this.coinItemsCollected);
+		buffer.putInt(this.playTime);
+		buffer.putInt(this.playTimePre);
+		buffer.putInt(this.reportedScore);
+		buffer.put((byte) (this.levelFinished ? 1 : 0));
+		buffer.putLong(now - this.gameStartTime);
+		buffer.putLong(now - this.playStartTime);
+		buffer.putLong(now - this.startTime);
+		this.inputDelay.writeState(buffer);
+		this.enemyShipSpecialCooldown.writeState(buffer);
+		this.enemyShipSpecialExplosionCooldown.writeState(buffer);
+		this.screenFinishedCooldown.writeState(buffer);
+		this.obstacleSpawnCooldown.writeState(buffer);
+		buffer.putInt(this.processedFireBullet.size());
+		for (int fireId : this.processedFireBullet)
+			buffer.putInt(fireId);
+
+		this.ship.writeState(buffer);
+		buffer.put((byte) (this.player2 == null ? 0 : 1));
+		if (this.player2 != null)
+			this.player2.writeState(buffer);
+		buffer.put((byte) (this.enemyShipSpecial == null ? 0 : 1));
+		if (this.enemyShipSpecial != null)
+			this.enemyShipSpecial.writeState(buffer);
+		this.enemyShipFormation.writeState(buffer);
+		this.bullets.writeState(buffer);
+		buffer.putInt(this.obstacles.size());
+		for (Obstacle obstacle : this.obstacles)
+			obstacle.writeState(buffer);
+		GameScreen.itemManager.writeState(buffer);
+
+		this.item.writeState(buffer);
+		this.feverTimeItem.writeState(buffer);
+		this.speedItem.writeState(buffer);
+		Bomb.writeState(buffer);
+		NumberOfBullet.writeState(buffer);
+		this.scoreManager.writeState(buffer);
+		this.random.writeState(buffer);
+	}
+
+	/**
+	 * Brings the level back to the moment writeState() wrote. The snapshot
+	 * can come from this screen or from another one of the same level, such
+	 * as one saved before a crash.
+	 *
+	 * @param buffer
+	 *            Buffer to read from.
+	 */
+	@Override
+	public void readState(final ByteBuffer buffer) {
+		if (buffer.getInt() != this.level)
+			throw new IllegalArgumentException("Snapshot of another level");
+		// Pending actions belong to the moment being left, the snapshot
+		// schedules its own again.
+		this.tickScheduler.clear();
+
+		long now = GameClock.currentTimeMillis();
+		this.waveCounter = buffer.getInt();
+		this.score = buffer.getInt();
+		this.lives = buffer.getInt();
+		this.livestwo = buffer.getInt();
+		this.bulletsShot = buffer.getInt();
+		this.shipsDestroyed = buffer.getInt();
+		this.coin = buffer.getInt();
+		this.gem = buffer.getInt();
+		this.hitCount = buffer.getInt();
+		this.fire_id = buffer.getInt();
+		this.coinItemsCollected = buffer.getInt();
+		this.playTime = buffer.getInt();
+		this.playTimePre = buffer.getInt();
+		this.reportedScore = buffer.getInt();
+		this.levelFinished = buffer.get() != 0;
+		this.gameStartTime = now - buffer.getLong();
+		this.playStartTime = now - buffer.getLong();
+		this.startTime = now - buffer.getLong();
+		this.inputDelay.readState(buffer);
+		this.enemyShipSpecialCooldown.readState(buffer);
+		this.enemyShipSpecialExplosionCooldown.readState(buffer);
+		this.screenFinishedCooldown.readState(buffer);
+		this.obstacleSpawnCooldown.readState(buffer);
+		this.processedFireBullet.clear();
+		for (int i = buffer.getInt(); i > 0; i--)
+			this.processedFireBullet.add(buffer.getInt());
+
+		this.ship.readState(buffer);
+		if (buffer.get() != 0) {
+			if (this.player2 == null)
+				this.player2 = new Ship(0, 0, Color.BLUE);
+			this.player2.readState(buffer);
+		} else {
+			this.player2 = null;
+		}
+		if (buffer.get() != 0) {
+			if (this.enemyShipSpecial == null)
+				this.enemyShipSpecial = new EnemyShip();
+			this.enemyShipSpecial.readState(buffer);
+		} else {
+			this.enemyShipSpecial = null;
+		}
+		this.enemyShipFormation.readState(buffer);
+		this.bullets.readState(buffer);
+		this.obstacles.clear();
+		for (int i = buffer.getInt(); i > 0; i--) {
+			Obstacle obstacle = new Obstacle(0, 0);
+			obstacle.readState(buffer);
+			this.obstacles.add(obstacle);
+		}
+		GameScreen.itemManager.readState(buffer);
+
+		this.item.readState(buffer);
+		this.feverTimeItem.readState(buffer);
+		this.speedItem.readState(buffer, GameScreen.itemManager.getEnemyShips());
+		Bomb.readState(buffer);
+		NumberOfBullet.readState(buffer);
+		this.scoreManager.readState(buffer);
+		// Last, restoring the items above draws random numbers.
+		this.random.readState(buffer);
+	}
+
+	/**
+	 * Brings the game back to the keyframe taken about some seconds ago.
+	 * Keyframes are taken every second, for the last REWIND_SECONDS.
+	 *
+	 * @param seconds
+	 *            Seconds to go back, at least 1.
+	 * @return False if the game hasn't kept that many seconds.
+	 */
+	public final boolean rewind(final int seconds) {
+		return this.rewindRing.restore(this, seconds - 1) >= 0;
+	}
+
 	/**
 	 * Add playtime parameter - Soomin Lee / TeamHUD
 	 * Returns a GameState object representing the status of the game.
@@ -834,6 +1066,15 @@ public class GameScreen extends Screen {
 	public FeverTimeItem getFeverTimeItem() {
 		return feverTimeItem;
 	} // Team Inventory(Item)
+
+	/**
+	 * Getter for the enemy formation of the current wave.
+	 *
+	 * @return Enemy ship formation.
+	 */
+	public final EnemyShipFormation getEnemyShipFormation() {
+		return this.enemyShipFormation;
+	}
 	/**
 	 * Check remaining enemies
 	 *
@@ -841,13 +1082,7 @@ public class GameScreen extends Screen {
 	 *
 	 */
 	private int getRemainingEnemies() {
-		int remainingEnemies = 0;
-		for (EnemyShip enemyShip : this.enemyShipFormation) {
-			if (!enemyShip.isDestroyed()) {
-				remainingEnemies++;
-			}
-		}
-		return remainingEnemies;
+		return this.enemyShipFormation.getShipCount();
 	} // by HUD team SeungYun
 
 
@@ -1,7 +1,8 @@
 package screen;
 
 import java.awt.Insets;
-import java.util.concurrent.TimeUnit;
+import java.nio.ByteBuffer;
+import java.util.concurrent.locks.LockSupport;
 import java.util.logging.Logger;
 
 import HUDTeam.DrawAchievementHud;
@@ -9,7 +10,8 @@ import HUDTeam.DrawManagerImpl;
 import engine.Cooldown;
 import engine.Core;
 import engine.DrawManager;
-import engine.InputManager;
+import engine.GameClock;
+import engine.InputSource;
 
 /**
  * Implements a generic screen.
@@ -21,11 +23,17 @@ public class Screen {
 	
 	/** Milliseconds until the screen accepts user input. */
 	private static final int INPUT_DELAY = 1000;
+	/** Nanoseconds in a second. */
+	private static final long NANOS_PER_SECOND = 1000000000L;
+	/** Maximum simulation ticks run in one frame when catching up. */
+	private static final int MAX_STEPS_PER_FRAME = 5;
+	/** Nanoseconds before a deadline in which the loop spins instead of parking. */
+	private static final long SPIN_THRESHOLD = 1000000L;
 
 	/** Draw Manager instance. */
 	protected DrawManager drawManager;
-	/** Input Manager instance. */
-	protected InputManager inputManager;
+	/** Input source, the keyboard unless the game is scripted. */
+	protected InputSource inputManager;
 	/** Application logger. */
 	protected Logger logger;
 
@@ -35,6 +43,8 @@ public class Screen {
 	protected int height;
 	/** Frames per second shown on the screen. */
 	protected int fps;
+	/** Simulation ticks per second, independent from the frame rate. */
+	protected int tickRate;
 	/** Screen insets. */
 	protected Insets insets;
 	/** Time until the screen accepts user input. */
@@ -46,6 +56,8 @@ public class Screen {
 	protected int returnCode;
 	/** Checks if the game is in 2 player mode **/
 	private boolean isTwoPlayerMode;
+	/** If the current tick is the one that should be drawn. */
+	private boolean renderTick;
 
 	/**
 	 * Constructor, establishes the properties of the screen.
@@ -58,12 +70,32 @@ public class Screen {
 	 *            Frames per second, frame rate at which the game is run.
 	 */
 	public Screen(final int width, final int height, final int fps) {
+		this(width, height, fps, fps);
+	}
+
+	/**
+	 * Constructor, establishes the properties of the screen with a
+	 * simulation rate different from the frame rate.
+	 *
+	 * @param width
+	 *            Screen width.
+	 * @param height
+	 *            Screen height.
+	 * @param fps
+	 *            Frames per second, frame rate at which the screen is drawn.
+	 * @param tickRate
+	 *            Ticks per second, rate at which update() is called.
+	 */
+	public Screen(final int width, final int height, final int fps,
+			final int tickRate) {
 		this.width = width;
 		this.height = height;
 		this.fps = fps;
+		this.tickRate = tickRate;
+		this.renderTick = true;
 
 		this.drawManager = Core.getDrawManager();
-		this.inputManager = Core.getInputManager();
+		this.inputManager = Core.getInputSource();
 		this.logger = Core.getLogger();
 		this.inputDelay = Core.getCooldown(INPUT_DELAY);
 		this.inputDelay.reset();
@@ -78,37 +110,139 @@ public class Screen {
 	}
 
 	/**
-	 * Activates the screen.
+	 * Activates the screen. The simulation advances in fixed ticks of
+	 * 1/tickRate seconds measured with an accumulator, catching up at most
+	 * MAX_STEPS_PER_FRAME ticks per frame when the machine falls behind.
+	 * Only the last tick of a catch-up batch is drawn, and no more often
+	 * than the frame rate allows. Headless games run their ticks back to
+	 * back and are never drawn.
 	 * 
 	 * @return Next screen code.
 	 */
 	public int run() {
 		this.isRunning = true;
 
+		final long tickLength = NANOS_PER_SECOND / this.tickRate;
+		if (Core.isHeadless()) {
+			this.renderTick = false;
+			while (this.isRunning)
+				tick(tickLength);
+			return 0;
+		}
+
+		final int ticksPerFrame = Math.max(1, this.tickRate / this.fps);
+		int ticksSinceRender = ticksPerFrame;
+		long accumulator = tickLength;
+		long previous = System.nanoTime();
+
 		while (this.isRunning) {
-			long time = System.currentTimeMillis();
+			long now = System.nanoTime();
+			accumulator += now - previous;
+			previous = now;
+			if (accumulator > tickLength * MAX_STEPS_PER_FRAME)
+				accumulator = tickLength * MAX_STEPS_PER_FRAME;
 
-			update();
+			while (accumulator >= tickLength && this.isRunning) {
+				accumulator -= tickLength;
+				ticksSinceRender++;
+				this.renderTick = accumulator < tickLength
+						&& ticksSinceRender >= ticksPerFrame;
+				if (this.renderTick)
+					ticksSinceRender = 0;
 
-			time = (1000 / this.fps) - (System.currentTimeMillis() - time);
-			if (time > 0) {
-				try {
-					TimeUnit.MILLISECONDS.sleep(time);
-				} catch (InterruptedException e) {
-					return 0;
-				}
+				tick(tickLength);
 			}
+
+			if (!waitUntil(previous + tickLength - accumulator))
+				return 0;
 		}
 
 		return 0;
 	}
 
+	/**
+	 * Runs a single simulation tick.
+	 *
+	 * @param tickLength
+	 *            Simulated time the tick lasts, in nanoseconds.
+	 */
+	private void tick(final long tickLength) {
+		this.inputManager.beforeTick(this);
+		if (this.inputManager.isFinished()) {
+			this.isRunning = false;
+			return;
+		}
+		GameClock.advance(tickLength);
+		update();
+	}
+
+	/**
+	 * Waits until the given System.nanoTime() deadline, parking the thread
+	 * for most of the wait and spinning for the last stretch.
+	 *
+	 * @param deadline
+	 *            Instant to wait for, in nanoseconds.
+	 * @return False if the thread was interrupted while waiting.
+	 */
+	private static boolean waitUntil(final long deadline) {
+		long remaining = deadline - System.nanoTime();
+		while (remaining > 0) {
+			if (remaining > SPIN_THRESHOLD)
+				LockSupport.parkNanos(remaining - SPIN_THRESHOLD);
+			else
+				Thread.onSpinWait();
+			if (Thread.interrupted())
+				return false;
+			remaining = deadline - System.nanoTime();
+		}
+		return true;
+	}
+
+	/**
+	 * Checks if the tick being simulated should also be drawn. Screens that
+	 * run heavy draw passes can skip them on catch-up ticks.
+	 *
+	 * @return True if the current tick is drawn.
+	 */
+	protected final boolean isRenderTick() {
+		return this.renderTick;
+	}
+
 	/**
 	 * Updates the elements on screen and checks for events.
 	 */
 	protected void update() {
 	}
 
+	/**
+	 * Sums up the state of the screen, to check that a replay plays the same
+	 * game that was recorded.
+	 *
+	 * @return Checksum of the state, 0 for screens without one.
+	 */
+	public int stateChecksum() {
+		return 0;
+	}
+
+	/**
+	 * Writes everything the next ticks of the screen depend on, so
+	 * readState() can later bring the screen back to this moment.
+	 *
+	 * @param buffer
+	 *            Buffer to write to.
+	 */
+	public void writeState(final ByteBuffer buffer) {
+	}
+
+	/**
+	 * Brings the screen back to the moment writeState() wrote.
+	 *
+	 * @param buffer
+	 *            Buffer to read from.
+	 */
+	public void readState(final ByteBuffer buffer) {
+	}
+
 	/**
 	 * Update the elements on screen after update all child screen
 	 */
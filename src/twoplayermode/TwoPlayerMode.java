@@ -5,7 +5,6 @@ package twoplayermode;
 import java.awt.*;
 import java.awt.event.KeyEvent;
 import java.util.Set;
-import java.util.HashSet;
 
 import Enemy.*;
 import HUDTeam.DrawManagerImpl;
@@ -14,9 +13,7 @@ import engine.GameState;
 import engine.GameSettings;
 import entity.Ship;
 import engine.DrawManager;
-import Enemy.PiercingBullet;
-import entity.Bullet;
-import entity.BulletPool;
+import entity.BulletStore;
 import entity.EnemyShip;
 import entity.Obstacle;
 import inventory_develop.ItemBarrierAndHeart;
@@ -74,12 +71,11 @@ public class TwoPlayerMode extends GameScreen {
 //    }
 
     // Player 2의 총알과 충돌 처리
-    public static void handleBulletCollisionsForPlayer2( Set<PiercingBullet> bullets, Ship player2) {
+    public static void handleBulletCollisionsForPlayer2(BulletStore bullets, Ship player2) {
         if(player2==null) return;
-        Set<Bullet> recyclable = new HashSet<>();
-        for (Bullet bullet : bullets) {
-            if (bullet.getSpeed() > 0 && checkCollision(bullet, player2)) {
-                recyclable.add(bullet);
+        for (int i = 0; i < bullets.size(); ) {
+            if (bullets.getOwner(i) == BulletStore.OWNER_ENEMY && bullets.collides(i, player2)) {
+                bullets.remove(i);
                 if (!player2.isDestroyed()) {
                     player2.destroy();
                     livestwo--;
@@ -88,10 +84,10 @@ public class TwoPlayerMode extends GameScreen {
                         player2 = null; // Player 2가 파괴된 경우
                     }
                 }
+            } else {
+                i++;
             }
         }
-        bullets.removeAll(recyclable);
-        BulletPool.recycle(recyclable);
     }
 
     // Player 2의 장애물과 충돌 처리